@@ -0,0 +1,120 @@
+package com.feedforward.benchmark;
+
+import com.feedforward.util.GeoDistance;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distances from one restaurant to the points around it: the BigDecimal haversine that
+ * DistanceCalculator and MatchingAlgorithmService used before, against {@link GeoDistance}.
+ * Scores are per distance (1024 points per invocation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(GeoDistanceBenchmark.POINTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoDistanceBenchmark {
+
+    static final int POINTS = 1024;
+
+    private static final double RADIUS_KM = 10.0;
+
+    private final BigDecimal originLat = new BigDecimal("13.0827");
+    private final BigDecimal originLon = new BigDecimal("80.2707");
+    private final BigDecimal[] pointLats = new BigDecimal[POINTS];
+    private final BigDecimal[] pointLons = new BigDecimal[POINTS];
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private GeoDistance.Origin origin;
+
+    @Setup
+    public void setUp() {
+        // Points within about 25 km of Chennai, as stored (DECIMAL(10,8) / DECIMAL(11,8))
+        Random random = new Random(5);
+        for (int i = 0; i < POINTS; i++) {
+            pointLats[i] = BigDecimal.valueOf(13.0827 + (random.nextDouble() - 0.5) * 0.45).setScale(8, RoundingMode.HALF_UP);
+            pointLons[i] = BigDecimal.valueOf(80.2707 + (random.nextDouble() - 0.5) * 0.45).setScale(8, RoundingMode.HALF_UP);
+            latitudes[i] = pointLats[i].doubleValue();
+            longitudes[i] = pointLons[i].doubleValue();
+        }
+        origin = GeoDistance.origin(originLat.doubleValue(), originLon.doubleValue());
+    }
+
+    @Benchmark
+    public double legacyDistance() {
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += legacyDistanceKm(originLat, originLon, pointLats[i], pointLons[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double distanceKm() {
+        double lat = originLat.doubleValue();
+        double lon = originLon.doubleValue();
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += GeoDistance.distanceKm(lat, lon, latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double originDistanceKm() {
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += origin.distanceKm(latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double originApproxDistanceKm() {
+        double sum = 0;
+        for (int i = 0; i < POINTS; i++) {
+            sum += origin.approxDistanceKm(latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int legacyWithinRadius() {
+        int count = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (legacyDistanceKm(originLat, originLon, pointLats[i], pointLons[i]) <= RADIUS_KM) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int originIsWithin() {
+        int count = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (origin.isWithin(latitudes[i], longitudes[i], RADIUS_KM)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Helper: the removed DistanceCalculator.calculateDistance(BigDecimal...)
+    private static double legacyDistanceKm(BigDecimal lat1, BigDecimal lon1, BigDecimal lat2, BigDecimal lon2) {
+        double dLat = Math.toRadians(lat2.doubleValue() - lat1.doubleValue());
+        double dLon = Math.toRadians(lon2.doubleValue() - lon1.doubleValue());
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1.doubleValue())) * Math.cos(Math.toRadians(lat2.doubleValue())) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return 6371 * c;
+    }
+}
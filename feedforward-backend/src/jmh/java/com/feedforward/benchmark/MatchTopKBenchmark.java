@@ -0,0 +1,136 @@
+package com.feedforward.benchmark;
+
+import com.feedforward.dto.response.SuggestedNgoResponse;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.MatchScorer;
+import com.feedforward.util.MatchScorers;
+import com.feedforward.util.MatchScoringPipeline;
+import com.feedforward.util.TopKSelector;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Picking the top 5 of 10k candidate NGOs for one listing. Both sides score with the same
+ * pipeline, so the difference is selection and output: the old findMatchingNgos formatted a
+ * reason and built a DTO for every candidate, read the clock per candidate and sorted everything;
+ * now candidates stream through {@link TopKSelector} with the threshold short-circuit and only
+ * the final 5 get a reason and a DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchTopKBenchmark {
+
+    private static final int K = 5;
+
+    @Param({"10000"})
+    public int candidates;
+
+    private final MatchScoringPipeline pipeline =
+            MatchScorers.standardPipeline(40, 25, 20, 15, MatchScorers.DEFAULT_DISTANCE_BANDS_KM);
+
+    private long[] ngoIds;
+    private String[] names;
+    private int[] beneficiaries;
+    private int[] dietaryMasks;
+    private double[] distances;
+    private MatchScorer.ListingFeatures features;
+    private LocalDateTime expiryTime;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(10);
+        int[] masks = {
+                DietaryTaxonomy.ACCEPTS_ALL,
+                DietaryTaxonomy.ACCEPTS_VEG,
+                DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.JAIN,
+                DietaryTaxonomy.ACCEPTS_ALL | DietaryTaxonomy.HALAL
+        };
+        ngoIds = new long[candidates];
+        names = new String[candidates];
+        beneficiaries = new int[candidates];
+        dietaryMasks = new int[candidates];
+        distances = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            ngoIds[i] = i + 1;
+            names[i] = "NGO " + i;
+            beneficiaries[i] = 20 + random.nextInt(500);
+            dietaryMasks[i] = masks[random.nextInt(masks.length)];
+            distances[i] = random.nextDouble() * 25.0;
+        }
+        features = new MatchScorer.ListingFeatures(60, UrgencyLevel.HIGH, DietaryTaxonomy.ACCEPTS_VEG);
+        expiryTime = LocalDateTime.now().plusMinutes(90);
+    }
+
+    @Benchmark
+    public List<SuggestedNgoResponse> formatAllThenSort() {
+        List<SuggestedNgoResponse> suggestions = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            int score = pipeline.score(features, beneficiaries[i], dietaryMasks[i], distances[i]);
+            suggestions.add(suggestion(i, score, reason(distances[i], beneficiaries[i], LocalDateTime.now())));
+        }
+        return suggestions.stream()
+                .sorted(Comparator.comparingInt(SuggestedNgoResponse::getMatchScore).reversed())
+                .limit(K)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SuggestedNgoResponse> topKHeap() {
+        LocalDateTime now = LocalDateTime.now();
+        TopKSelector top = new TopKSelector(K);
+        for (int i = 0; i < candidates; i++) {
+            int score = pipeline.score(features, beneficiaries[i], dietaryMasks[i], distances[i], top.threshold());
+            if (score != MatchScoringPipeline.SKIPPED) {
+                top.offer(i, score, distances[i]);
+            }
+        }
+        List<SuggestedNgoResponse> suggestions = new ArrayList<>(K);
+        for (int i : top.drain()) {
+            int score = pipeline.score(features, beneficiaries[i], dietaryMasks[i], distances[i]);
+            suggestions.add(suggestion(i, score, reason(distances[i], beneficiaries[i], now)));
+        }
+        return suggestions;
+    }
+
+    private SuggestedNgoResponse suggestion(int i, int score, String reason) {
+        return SuggestedNgoResponse.builder()
+                .ngoId(ngoIds[i])
+                .name(names[i])
+                .distance(Math.round(distances[i] * 100.0) / 100.0)
+                .beneficiaries(beneficiaries[i])
+                .matchScore(score)
+                .reason(reason)
+                .build();
+    }
+
+    // Helper: the reason text of MatchingAlgorithmService.generateMatchReason
+    private String reason(double distance, int beneficiaryCount, LocalDateTime now) {
+        StringBuilder reason = new StringBuilder();
+        if (distance < 2.0) {
+            reason.append("Very close proximity (").append(String.format("%.1f", distance)).append(" km). ");
+        } else if (distance < 5.0) {
+            reason.append("Within nearby area (").append(String.format("%.1f", distance)).append(" km). ");
+        }
+        int idealServings = (int) (beneficiaryCount * 0.25);
+        if (Math.abs(features.quantity() - idealServings) < 20) {
+            reason.append("Quantity matches your beneficiary needs. ");
+        }
+        if (Duration.between(now, expiryTime).toHours() < 2) {
+            reason.append("Urgent pickup needed - expires soon!");
+        }
+        return reason.toString().trim();
+    }
+}
@@ -0,0 +1,63 @@
+package com.feedforward.benchmark;
+
+import com.feedforward.util.MessageTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One food-available SMS render: the String.format builder NotificationService used before,
+ * against the bundled {@link MessageTemplate}. Run with -prof gc for bytes allocated per render.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageTemplateBenchmark {
+
+    private MessageTemplate sms;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        ResourceBundle bundle = ResourceBundle.getBundle("templates.notifications", Locale.ROOT);
+        sms = MessageTemplate.compile("sms", bundle.getString("food-available.sms"), 160,
+                "urgency", "restaurant", "food", "quantity", "category", "hours", "app");
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        return legacyFoodAvailableSms("Hotel Saravana Bhavan", "Vegetable Biryani", ++quantity & 255,
+                "Vegetarian", 3, "URGENT");
+    }
+
+    @Benchmark
+    public String template() {
+        return sms.render("URGENT", "Hotel Saravana Bhavan", "Vegetable Biryani", ++quantity & 255,
+                "Vegetarian", 3L, "FeedForward");
+    }
+
+    // Helper: the original String.format SMS builder
+    private static String legacyFoodAvailableSms(String restaurantName, String foodName, Integer quantity,
+                                                 String category, long hoursLeft, String urgency) {
+        String urgencyPrefix = urgency.isEmpty() ? "🍽️" : "⚠️ " + urgency;
+        String message = String.format(
+                "%s %s: %s (%d servings, %s) available for %dh. Login to %s to request.",
+                urgencyPrefix,
+                restaurantName.length() > 20 ? restaurantName.substring(0, 20) : restaurantName,
+                foodName.length() > 15 ? foodName.substring(0, 15) : foodName,
+                quantity,
+                category.length() > 10 ? category.substring(0, 10) : category,
+                hoursLeft,
+                "FeedForward"
+        );
+        if (message.length() > 160) {
+            message = message.substring(0, 157) + "...";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,53 @@
+package com.feedforward.config;
+
+import com.feedforward.util.MatchScorers;
+import com.feedforward.util.MatchScoringPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Match score pipeline built from app.matching.* weights.
+ * Defaults reproduce the original 40/25/20/15 point score.
+ */
+@Configuration
+public class MatchingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchingConfig.class);
+
+    @Value("${app.matching.weights.distance:40}")
+    private double distanceWeight;
+
+    @Value("${app.matching.weights.quantity:25}")
+    private double quantityWeight;
+
+    @Value("${app.matching.weights.urgency:20}")
+    private double urgencyWeight;
+
+    @Value("${app.matching.weights.dietary:15}")
+    private double dietaryWeight;
+
+    @Value("${app.matching.distance-bands-km:2,5,10,15}")
+    private double[] distanceBandsKm;
+
+    @Bean
+    public MatchScoringPipeline matchScoringPipeline() {
+        MatchScoringPipeline pipeline = pipelineWith(null, null, null, null);
+        logger.info("Match scoring pipeline: {}", pipeline.describe());
+        return pipeline;
+    }
+
+    /**
+     * Pipeline with some weights overridden (null keeps the configured weight), for offline evaluation
+     */
+    public MatchScoringPipeline pipelineWith(Double distance, Double quantity, Double urgency, Double dietary) {
+        return MatchScorers.standardPipeline(
+                distance != null ? distance : distanceWeight,
+                quantity != null ? quantity : quantityWeight,
+                urgency != null ? urgency : urgencyWeight,
+                dietary != null ? dietary : dietaryWeight,
+                distanceBandsKm);
+    }
+}
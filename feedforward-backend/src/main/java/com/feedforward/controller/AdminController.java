@@ -1,9 +1,20 @@
 package com.feedforward.controller;
 
+import com.feedforward.dto.response.AllocationRunResponse;
 import com.feedforward.dto.response.ApiResponse;
+import com.feedforward.dto.response.NotificationLaneResponse;
+import com.feedforward.dto.response.ProviderStatusResponse;
+import com.feedforward.dto.response.ScoringEvaluationResponse;
+import com.feedforward.service.BatchAllocationService;
+import com.feedforward.service.GooglePlacesService;
+import com.feedforward.service.NotificationDispatcher;
+import com.feedforward.service.ProviderGuardService;
+import com.feedforward.service.ScoringEvaluationService;
+import com.feedforward.util.PlacesCache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,6 +31,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/admin")
+@RequiredArgsConstructor
 public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
@@ -29,6 +42,174 @@ public class AdminController {
     @Value("${admin.secret.key:CHANGE_THIS_IN_PRODUCTION}")
     private String adminSecretKey;
 
+    private final BatchAllocationService batchAllocationService;
+    private final ScoringEvaluationService scoringEvaluationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ProviderGuardService providerGuardService;
+    private final GooglePlacesService googlePlacesService;
+
+    /**
+     * Run batch allocation of all open listings now
+     * POST /api/admin/allocation/run?secret=YOUR_SECRET_KEY
+     */
+    @PostMapping("/allocation/run")
+    public ResponseEntity<ApiResponse<AllocationRunResponse>> runAllocation(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized allocation run attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        logger.info("Running batch allocation on demand");
+        AllocationRunResponse run = batchAllocationService.runAllocation();
+        return ResponseEntity.ok(ApiResponse.success("Batch allocation completed", run));
+    }
+
+    /**
+     * Get the result of the latest batch allocation run
+     * GET /api/admin/allocation/latest?secret=YOUR_SECRET_KEY
+     */
+    @GetMapping("/allocation/latest")
+    public ResponseEntity<ApiResponse<AllocationRunResponse>> getLatestAllocation(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized allocation read attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        AllocationRunResponse run = batchAllocationService.getLastRun();
+        if (run == null) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No allocation has run yet"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(run));
+    }
+
+    /**
+     * Replay donation history through the match scoring pipeline (optionally with other weights)
+     * GET /api/admin/scoring/evaluate?secret=YOUR_SECRET_KEY&limit=1000&distanceWeight=50
+     */
+    @GetMapping("/scoring/evaluate")
+    public ResponseEntity<ApiResponse<ScoringEvaluationResponse>> evaluateScoring(
+            @RequestParam(required = false) String secret,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(required = false) Double distanceWeight,
+            @RequestParam(required = false) Double quantityWeight,
+            @RequestParam(required = false) Double urgencyWeight,
+            @RequestParam(required = false) Double dietaryWeight
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized scoring evaluation attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        try {
+            ScoringEvaluationResponse evaluation = scoringEvaluationService.evaluate(
+                    limit, distanceWeight, quantityWeight, urgencyWeight, dietaryWeight);
+            return ResponseEntity.ok(ApiResponse.success("Scoring evaluation completed", evaluation));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Notification outbox entry counts by status
+     * GET /api/admin/notifications/outbox?secret=YOUR_SECRET_KEY
+     */
+    @GetMapping("/notifications/outbox")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getOutboxStats(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized outbox read attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(notificationDispatcher.stats()));
+    }
+
+    /**
+     * Queue depth and time-in-queue for each notification priority lane
+     * GET /api/admin/notifications/lanes?secret=YOUR_SECRET_KEY
+     */
+    @GetMapping("/notifications/lanes")
+    public ResponseEntity<ApiResponse<List<NotificationLaneResponse>>> getNotificationLanes(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized notification lanes read attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(notificationDispatcher.lanes()));
+    }
+
+    /**
+     * Retry dead-lettered notifications
+     * POST /api/admin/notifications/outbox/requeue-dead?secret=YOUR_SECRET_KEY
+     */
+    @PostMapping("/notifications/outbox/requeue-dead")
+    public ResponseEntity<ApiResponse<Integer>> requeueDeadNotifications(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized outbox requeue attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        int requeued = notificationDispatcher.requeueDead();
+        return ResponseEntity.ok(ApiResponse.success("Requeued " + requeued + " notifications", requeued));
+    }
+
+    /**
+     * Google Places cache hit ratio, size and evictions per query type
+     * GET /api/admin/places-cache?secret=YOUR_SECRET_KEY
+     */
+    @GetMapping("/places-cache")
+    public ResponseEntity<ApiResponse<Map<String, PlacesCache.Stats>>> getPlacesCacheStats(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized Places cache read attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(googlePlacesService.cacheStats()));
+    }
+
+    /**
+     * Circuit breaker state and bulkhead metrics for SMS, email and Places providers
+     * GET /api/admin/providers?secret=YOUR_SECRET_KEY
+     */
+    @GetMapping("/providers")
+    public ResponseEntity<ApiResponse<List<ProviderStatusResponse>>> getProviderStatus(
+            @RequestParam(required = false) String secret
+    ) {
+        if (secret == null || !secret.equals(adminSecretKey)) {
+            logger.warn("Unauthorized provider status read attempt");
+            return ResponseEntity.status(401).body(
+                ApiResponse.error("Unauthorized. Provide correct secret key.")
+            );
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(providerGuardService.status()));
+    }
+
     /**
      * Truncate all tables in the database
      * POST /api/admin/truncate-all?secret=YOUR_SECRET_KEY
@@ -53,6 +234,7 @@ public class AdminController {
             entityManager.createNativeQuery("SET FOREIGN_KEY_CHECKS = 0").executeUpdate();
 
             // Truncate tables in correct order
+            entityManager.createNativeQuery("TRUNCATE TABLE notification_outbox").executeUpdate();
             entityManager.createNativeQuery("TRUNCATE TABLE donation_history").executeUpdate();
             entityManager.createNativeQuery("TRUNCATE TABLE food_requests").executeUpdate();
             entityManager.createNativeQuery("TRUNCATE TABLE food_listings").executeUpdate();
@@ -0,0 +1,21 @@
+package com.feedforward.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocationResponse {
+
+    private Long listingId;
+    private String foodName;
+    private Long ngoId;
+    private String ngoName;
+    private Integer servings;
+    private Integer matchScore; // 0-100
+    private Double distance; // in km
+}
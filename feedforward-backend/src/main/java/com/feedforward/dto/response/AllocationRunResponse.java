@@ -0,0 +1,41 @@
+package com.feedforward.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocationRunResponse {
+
+    private LocalDateTime runAt;
+
+    // Problem size
+    private Integer listings;
+    private Integer ngos;
+    private Integer candidatePairs;
+    private Integer partitions;
+    private Integer components;
+
+    // Timing (ms)
+    private Long scoringMillis;
+    private Long solverMillis;
+
+    // Quality of the optimal assignment
+    private Long servingsOffered;
+    private Long servingsAllocated;
+    private Double averageMatchScore; // weighted by servings
+    private Double capacityUtilization; // allocated / total beneficiaries of candidate NGOs
+
+    // Same metrics for per-listing greedy assignment, for comparison
+    private Long greedyServingsAllocated;
+    private Double greedyAverageMatchScore;
+
+    private List<AllocationResponse> allocations;
+}
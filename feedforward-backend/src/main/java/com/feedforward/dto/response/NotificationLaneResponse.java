@@ -0,0 +1,28 @@
+package com.feedforward.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationLaneResponse {
+
+    private String priority; // CRITICAL, HIGH, MEDIUM or LOW
+    private Integer workers;
+
+    // Queue right now
+    private Long queueDepth; // entries due and not yet claimed
+    private Long oldestWaitMs; // how long the oldest due entry has been waiting
+    private Integer inFlight; // claimed entries being delivered
+
+    // Since startup
+    private Long dispatched; // entries claimed by this lane
+    private Long sent;
+    private Long failed;
+    private Double averageWaitMs; // time from due to claimed
+    private Long maxWaitMs;
+}
@@ -0,0 +1,32 @@
+package com.feedforward.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderStatusResponse {
+
+    private String provider;
+
+    // Circuit breaker
+    private String state; // CLOSED, OPEN or HALF_OPEN
+    private Double failureRate; // share of failed calls in the current window
+    private Long successes;
+    private Long failures;
+    private Long rejectedByBreaker; // calls refused while open
+    private Long timesOpened;
+    private String lastError;
+
+    // Bulkhead
+    private Integer activeCalls;
+    private Integer queuedCalls;
+    private Integer maxConcurrent;
+    private Long rejectedByBulkhead; // calls refused because the queue was full or waited too long
+    private Long timeouts;
+    private Double averageWaitMs; // time callers waited, including queueing
+}
@@ -0,0 +1,32 @@
+package com.feedforward.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoringEvaluationResponse {
+
+    private LocalDateTime evaluatedAt;
+    private String pipeline; // component=weight, heaviest first
+
+    // Replay size
+    private Integer donationsReplayed;
+    private Integer receiverInRange; // receiving NGO is still a catalog candidate
+    private Long candidatesScored;
+
+    // Acceptance-rate accuracy: did the NGO that actually accepted rank in the suggestions?
+    private Double hitRateAtSuggestions; // share of replayed donations with the receiver in the top N
+    private Double meanReciprocalRank;
+
+    // Throughput
+    private Double scoresPerSecond; // full score of every candidate
+    private Double topKScoresPerSecond; // candidates per second with top-K short-circuit
+    private Double skipRate; // share of candidates short-circuited in top-K mode
+}
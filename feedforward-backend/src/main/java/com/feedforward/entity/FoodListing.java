@@ -1,8 +1,11 @@
 package com.feedforward.entity;
 
+import com.feedforward.entity.listener.FoodListingChangeListener;
 import com.feedforward.enums.FoodCategory;
 import com.feedforward.enums.ListingStatus;
 import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.UrgencyBuckets;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -16,8 +19,10 @@ import java.util.List;
        indexes = {
            @Index(name = "idx_status", columnList = "status"),
            @Index(name = "idx_expiry", columnList = "expiry_time"),
-           @Index(name = "idx_restaurant", columnList = "restaurant_id")
+           @Index(name = "idx_restaurant", columnList = "restaurant_id"),
+           @Index(name = "idx_status_cell", columnList = "status, cell_id")
        })
+@EntityListeners(FoodListingChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -63,6 +68,10 @@ public class FoodListing extends BaseEntity {
     @Column(name = "dietary_info", columnDefinition = "TEXT")
     private String dietaryInfo;
 
+    // DietaryTaxonomy mask of category and dietaryInfo (food kind and tags), kept in sync on save
+    @Column(name = "dietary_mask")
+    private Integer dietaryMask;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -75,6 +84,10 @@ public class FoodListing extends BaseEntity {
     @Column(name = "urgency_level", nullable = false, length = 20)
     private UrgencyLevel urgencyLevel;
 
+    // Copy of the restaurant's cell id so radius searches stay on this table's index
+    @Column(name = "cell_id")
+    private Long cellId;
+
     // Relationships
     @OneToMany(mappedBy = "foodListing", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -83,19 +96,14 @@ public class FoodListing extends BaseEntity {
     // Helper methods
     @PrePersist
     @PreUpdate
+    public void updateDerivedColumns() {
+        calculateUrgency();
+        this.dietaryMask = DietaryTaxonomy.listingMask(category, dietaryInfo);
+    }
+
     public void calculateUrgency() {
         if (expiryTime != null) {
-            long hoursUntilExpiry = java.time.Duration.between(LocalDateTime.now(), expiryTime).toHours();
-            
-            if (hoursUntilExpiry < 1) {
-                this.urgencyLevel = UrgencyLevel.CRITICAL;
-            } else if (hoursUntilExpiry < 2) {
-                this.urgencyLevel = UrgencyLevel.HIGH;
-            } else if (hoursUntilExpiry < 4) {
-                this.urgencyLevel = UrgencyLevel.MEDIUM;
-            } else {
-                this.urgencyLevel = UrgencyLevel.LOW;
-            }
+            this.urgencyLevel = UrgencyBuckets.levelAt(expiryTime, LocalDateTime.now());
         }
     }
 
@@ -1,11 +1,14 @@
 package com.feedforward.entity;
 
+import com.feedforward.entity.listener.NgoChangeListener;
+import com.feedforward.util.DietaryTaxonomy;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Entity
@@ -14,6 +17,7 @@ import java.util.List;
            @Index(name = "idx_location", columnList = "latitude, longitude"),
            @Index(name = "idx_user_id", columnList = "user_id")
        })
+@EntityListeners(NgoChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -61,6 +65,17 @@ public class Ngo extends BaseEntity {
     @Column(name = "dietary_requirements", columnDefinition = "TEXT")
     private String dietaryRequirements;
 
+    // DietaryTaxonomy mask of dietaryRequirements (accepted food kinds and tags), kept in sync on save
+    @Column(name = "dietary_mask")
+    private Integer dietaryMask;
+
+    // Catalog fields as last loaded or saved; NgoCatalogService only re-reads the NGO when they change
+    @Transient
+    private List<Object> savedCatalogState;
+
+    @Transient
+    private boolean catalogChanged;
+
     @Column(name = "total_received")
     @Builder.Default
     private Integer totalReceived = 0;
@@ -79,6 +94,27 @@ public class Ngo extends BaseEntity {
     private List<DonationHistory> receivedDonations = new ArrayList<>();
 
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void updateDerivedColumns() {
+        this.dietaryMask = DietaryTaxonomy.ngoMask(dietaryRequirements);
+        this.catalogChanged = !catalogState().equals(savedCatalogState);
+    }
+
+    // Entity listeners run first, so NgoChangeListener still sees catalogChanged on save
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotCatalogState() {
+        this.savedCatalogState = catalogState();
+        this.catalogChanged = false;
+    }
+
+    private List<Object> catalogState() {
+        return Arrays.asList(organizationName, address, latitude, longitude, beneficiariesCount,
+                dietaryRequirements, dietaryMask);
+    }
+
     public void incrementReceived(int servings) {
         this.totalReceived++;
         this.totalServingsReceived += servings;
@@ -0,0 +1,89 @@
+package com.feedforward.entity;
+
+import com.feedforward.enums.NotificationChannel;
+import com.feedforward.enums.OutboxStatus;
+import com.feedforward.enums.UrgencyLevel;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One SMS or email waiting to be delivered. Rows are written in the same transaction as the
+ * change that triggers them and delivered by NotificationDispatcher after commit.
+ */
+@Entity
+@Table(name = "notification_outbox",
+       indexes = {
+           @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+           @Index(name = "idx_outbox_priority_due", columnList = "priority, status, next_attempt_at"),
+           @Index(name = "idx_outbox_listing", columnList = "listing_id"),
+           @Index(name = "idx_outbox_coalesce", columnList = "coalesce_key, status")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationChannel channel;
+
+    @Column(nullable = false, length = 255)
+    private String recipient;
+
+    @Column(name = "recipient_name", length = 255)
+    private String recipientName;
+
+    @Column(length = 255)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    // Channel and recipient of a "food available" entry held for merging; null for entries sent on their own
+    @Column(name = "coalesce_key", length = 300)
+    private String coalesceKey;
+
+    // One-line listing summary used when several held entries are merged into one message
+    @Column(name = "digest_line", length = 255)
+    private String digestLine;
+
+    // Urgency of what it announces; each level is drained by its own worker lane
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private UrgencyLevel priority = UrgencyLevel.MEDIUM;
+
+    // Expiry of the listing it announces; within a lane, the soonest expiry goes first
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,65 @@
+package com.feedforward.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * Precomputed great-circle distance between a restaurant and an NGO.
+ * Only pairs within the maximum search radius are stored.
+ */
+@Entity
+@Table(name = "organization_distances",
+       indexes = {
+           @Index(name = "idx_ngo_id", columnList = "ngo_id")
+       })
+@IdClass(OrganizationDistance.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrganizationDistance implements Persistable<OrganizationDistance.Key> {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Id
+    @Column(name = "ngo_id")
+    private Long ngoId;
+
+    @Column(name = "distance_km", nullable = false)
+    private Double distanceKm;
+
+    // Rows are always written after deleting the old ones, so saving never needs a lookup first
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public Key getId() {
+        return new Key(restaurantId, ngoId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long restaurantId;
+        private Long ngoId;
+    }
+}
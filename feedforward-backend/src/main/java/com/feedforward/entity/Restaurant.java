@@ -1,5 +1,7 @@
 package com.feedforward.entity;
 
+import com.feedforward.entity.listener.RestaurantChangeListener;
+import com.feedforward.util.GeoCell;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -7,6 +9,7 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Entity
@@ -15,6 +18,7 @@ import java.util.List;
            @Index(name = "idx_location", columnList = "latitude, longitude"),
            @Index(name = "idx_user_id", columnList = "user_id")
        })
+@EntityListeners(RestaurantChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,9 +55,24 @@ public class Restaurant extends BaseEntity {
     @Column(nullable = false, precision = 11, scale = 8)
     private BigDecimal longitude;
 
+    // Finest-level GeoCell id of the coordinates, kept in sync on save and copied onto listings
+    @Column(name = "cell_id")
+    private Long cellId;
+
+    // Set when a save moved the restaurant to another cell, so its listings get re-celled
+    @Transient
+    private boolean cellMoved;
+
     @Column(name = "cuisine_type", length = 100)
     private String cuisineType;
 
+    // Catalog fields as last loaded or saved; RestaurantCatalogService only reloads when they change
+    @Transient
+    private List<Object> savedCatalogState;
+
+    @Transient
+    private boolean catalogChanged;
+
     @Column(precision = 2, scale = 1)
     @Builder.Default
     private BigDecimal rating = BigDecimal.ZERO;
@@ -76,6 +95,30 @@ public class Restaurant extends BaseEntity {
     private List<DonationHistory> donations = new ArrayList<>();
 
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void updateCellId() {
+        if (latitude != null && longitude != null) {
+            Long previousCellId = cellId;
+            this.cellId = GeoCell.cellId(latitude.doubleValue(), longitude.doubleValue());
+            this.cellMoved = previousCellId != null && !previousCellId.equals(cellId);
+        }
+        this.catalogChanged = !catalogState().equals(savedCatalogState);
+    }
+
+    // Entity listeners run first, so RestaurantChangeListener still sees catalogChanged on save
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotCatalogState() {
+        this.savedCatalogState = catalogState();
+        this.catalogChanged = false;
+    }
+
+    private List<Object> catalogState() {
+        return Arrays.asList(organizationName, address, latitude, longitude, cuisineType);
+    }
+
     public void incrementDonations(int servings) {
         this.totalDonations++;
         this.totalServingsDonated += servings;
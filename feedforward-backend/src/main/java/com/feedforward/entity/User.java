@@ -1,18 +1,25 @@
 package com.feedforward.entity;
 
+import com.feedforward.entity.listener.UserChangeListener;
 import com.feedforward.enums.Role;
+import com.feedforward.util.ContactNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Entity
 @Table(name = "users", 
        indexes = {
            @Index(name = "idx_email", columnList = "email"),
-           @Index(name = "idx_role", columnList = "role")
+           @Index(name = "idx_role", columnList = "role"),
+           @Index(name = "idx_phone_e164", columnList = "phone_e164")
        })
+@EntityListeners(UserChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,6 +50,19 @@ public class User extends BaseEntity {
     @Column(nullable = false, length = 15)
     private String phone;
 
+    // Normalized contacts for notifications, kept in sync on save; null when invalid
+    @Column(name = "phone_e164", length = 16)
+    private String phoneE164;
+
+    @Column(name = "phone_valid")
+    private Boolean phoneValid;
+
+    @Column(name = "email_normalized", length = 255)
+    private String emailNormalized;
+
+    @Column(name = "email_valid")
+    private Boolean emailValid;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private Role role;
@@ -51,11 +71,42 @@ public class User extends BaseEntity {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Contact and activation as last loaded or saved; the organization catalogs only reload when they change
+    @Transient
+    private List<Object> savedContactState;
+
+    @Transient
+    private boolean contactChanged;
+
     // Relationships
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Restaurant restaurant;
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Ngo ngo;
+
+    // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void updateDerivedColumns() {
+        this.phoneE164 = ContactNormalizer.toE164(phone);
+        this.phoneValid = phoneE164 != null;
+        this.emailNormalized = ContactNormalizer.normalizeEmail(email);
+        this.emailValid = emailNormalized != null;
+        this.contactChanged = !contactState().equals(savedContactState);
+    }
+
+    // Entity listeners run first, so UserChangeListener still sees contactChanged on update
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotContactState() {
+        this.savedContactState = contactState();
+        this.contactChanged = false;
+    }
+
+    private List<Object> contactState() {
+        return Arrays.asList(phone, email, isActive);
+    }
 }
 
@@ -0,0 +1,31 @@
+package com.feedforward.entity.listener;
+
+import com.feedforward.entity.FoodListing;
+import com.feedforward.service.UrgencyService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Keeps the urgency engine in sync with new listings, expiry changes and status changes.
+ */
+public class FoodListingChangeListener {
+
+    private final UrgencyService urgencyService;
+
+    public FoodListingChangeListener(@Lazy UrgencyService urgencyService) {
+        this.urgencyService = urgencyService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(FoodListing listing) {
+        urgencyService.onListingSaved(listing);
+    }
+
+    @PostRemove
+    public void onRemove(FoodListing listing) {
+        urgencyService.onListingRemoved(listing.getListingId());
+    }
+}
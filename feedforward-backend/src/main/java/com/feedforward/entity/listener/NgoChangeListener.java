@@ -0,0 +1,42 @@
+package com.feedforward.entity.listener;
+
+import com.feedforward.entity.Ngo;
+import com.feedforward.service.DistanceMatrixService;
+import com.feedforward.service.NgoCatalogService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Keeps in-memory NGO lookups in sync with registrations and location changes.
+ * Instantiated by Hibernate through Spring, so dependencies are injected lazily
+ * to avoid a cycle with the EntityManagerFactory.
+ */
+public class NgoChangeListener {
+
+    private final NgoCatalogService ngoCatalogService;
+    private final DistanceMatrixService distanceMatrixService;
+
+    public NgoChangeListener(@Lazy NgoCatalogService ngoCatalogService,
+                             @Lazy DistanceMatrixService distanceMatrixService) {
+        this.ngoCatalogService = ngoCatalogService;
+        this.distanceMatrixService = distanceMatrixService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Ngo ngo) {
+        if (ngo.isCatalogChanged()) {
+            // Counter updates (donations received) leave the catalog alone
+            ngoCatalogService.onNgoSaved(ngo.getNgoId());
+        }
+        distanceMatrixService.onNgoSaved(ngo);
+    }
+
+    @PostRemove
+    public void onRemove(Ngo ngo) {
+        ngoCatalogService.onNgoRemoved(ngo.getNgoId());
+        distanceMatrixService.onNgoRemoved(ngo.getNgoId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.feedforward.entity.listener;
+
+import com.feedforward.entity.Restaurant;
+import com.feedforward.service.CellIdBackfillService;
+import com.feedforward.service.DistanceMatrixService;
+import com.feedforward.service.RestaurantCatalogService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Keeps in-memory restaurant lookups in sync with registrations and location changes.
+ */
+public class RestaurantChangeListener {
+
+    private final RestaurantCatalogService restaurantCatalogService;
+    private final DistanceMatrixService distanceMatrixService;
+    private final CellIdBackfillService cellIdBackfillService;
+
+    public RestaurantChangeListener(@Lazy RestaurantCatalogService restaurantCatalogService,
+                                    @Lazy DistanceMatrixService distanceMatrixService,
+                                    @Lazy CellIdBackfillService cellIdBackfillService) {
+        this.restaurantCatalogService = restaurantCatalogService;
+        this.distanceMatrixService = distanceMatrixService;
+        this.cellIdBackfillService = cellIdBackfillService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Restaurant restaurant) {
+        if (restaurant.isCatalogChanged()) {
+            // Donation counters and rating updates leave the catalog alone
+            restaurantCatalogService.invalidate();
+        }
+        distanceMatrixService.onRestaurantSaved(restaurant);
+        if (restaurant.isCellMoved()) {
+            cellIdBackfillService.onRestaurantMoved(restaurant.getRestaurantId(), restaurant.getCellId());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Restaurant restaurant) {
+        restaurantCatalogService.invalidate();
+        distanceMatrixService.onRestaurantRemoved(restaurant.getRestaurantId());
+    }
+}
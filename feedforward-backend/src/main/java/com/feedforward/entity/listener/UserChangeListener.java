@@ -0,0 +1,37 @@
+package com.feedforward.entity.listener;
+
+import com.feedforward.entity.User;
+import com.feedforward.service.NgoCatalogService;
+import com.feedforward.service.RestaurantCatalogService;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Reacts to contact and activation changes that affect organization lookups.
+ */
+public class UserChangeListener {
+
+    private final NgoCatalogService ngoCatalogService;
+    private final RestaurantCatalogService restaurantCatalogService;
+
+    public UserChangeListener(@Lazy NgoCatalogService ngoCatalogService,
+                              @Lazy RestaurantCatalogService restaurantCatalogService) {
+        this.ngoCatalogService = ngoCatalogService;
+        this.restaurantCatalogService = restaurantCatalogService;
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        if (!user.isContactChanged()) {
+            // Password, name or role only; nothing the catalogs hold
+            return;
+        }
+        if (user.getRestaurant() != null) {
+            restaurantCatalogService.invalidate();
+        }
+        if (user.getNgo() != null) {
+            // Phone, email or activation may have changed
+            ngoCatalogService.onNgoSaved(user.getNgo().getNgoId());
+        }
+    }
+}
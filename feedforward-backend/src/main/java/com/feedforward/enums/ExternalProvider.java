@@ -0,0 +1,18 @@
+package com.feedforward.enums;
+
+public enum ExternalProvider {
+    TWILIO("twilio"),
+    FAST2SMS("fast2sms"),
+    SMTP("smtp"),
+    PLACES("places");
+
+    private final String configKey;
+
+    ExternalProvider(String configKey) {
+        this.configKey = configKey;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+}
@@ -0,0 +1,6 @@
+package com.feedforward.enums;
+
+public enum NotificationChannel {
+    SMS,
+    EMAIL
+}
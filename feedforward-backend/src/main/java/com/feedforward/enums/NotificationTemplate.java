@@ -0,0 +1,54 @@
+package com.feedforward.enums;
+
+import com.feedforward.util.MessageTemplate;
+
+/**
+ * Notification templates in templates/notifications*.properties, with the parameters each one
+ * takes (in render order) and its maximum length
+ */
+public enum NotificationTemplate {
+    FOOD_AVAILABLE_SMS("food-available.sms", 160,
+            "urgency", "restaurant", "food", "quantity", "category", "hours", "app"),
+    FOOD_AVAILABLE_EMAIL_SUBJECT("food-available.email.subject", MessageTemplate.NO_LIMIT,
+            "food", "restaurant"),
+    FOOD_AVAILABLE_EMAIL("food-available.email.body", MessageTemplate.NO_LIMIT,
+            "restaurant", "food", "quantity", "unit", "category", "hours", "urgency", "address", "phone",
+            "app", "baseUrl"),
+    FOOD_NEEDED_SMS("food-needed.sms", MessageTemplate.NO_LIMIT,
+            "ngo", "quantity", "preference", "beneficiaries", "app"),
+    FOOD_NEEDED_EMAIL_SUBJECT("food-needed.email.subject", MessageTemplate.NO_LIMIT,
+            "ngo", "quantity"),
+    FOOD_NEEDED_EMAIL("food-needed.email.body", MessageTemplate.NO_LIMIT,
+            "ngo", "beneficiaries", "quantity", "preference", "address", "phone", "app", "baseUrl"),
+    DAILY_DIGEST_EMAIL_SUBJECT("daily-digest.email.subject", MessageTemplate.NO_LIMIT,
+            "app", "date"),
+    DAILY_DIGEST_TOP_RESTAURANT("daily-digest.top-restaurant", MessageTemplate.NO_LIMIT,
+            "rank", "restaurant", "servings", "donations"),
+    DAILY_DIGEST_URGENT_FOOD("daily-digest.urgent-food", MessageTemplate.NO_LIMIT,
+            "food", "quantity", "restaurant", "hours", "distance"),
+    DAILY_DIGEST_EMAIL("daily-digest.email.body", MessageTemplate.NO_LIMIT,
+            "name", "date", "donations", "servings", "restaurants", "ngos", "topRestaurants",
+            "pendingRequests", "pendingServings", "pendingHours", "urgentFood", "moreUrgent", "app", "baseUrl");
+
+    private final String key;
+    private final int maxLength;
+    private final String[] parameters;
+
+    NotificationTemplate(String key, int maxLength, String... parameters) {
+        this.key = key;
+        this.maxLength = maxLength;
+        this.parameters = parameters;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public String[] getParameters() {
+        return parameters.clone();
+    }
+}
@@ -0,0 +1,8 @@
+package com.feedforward.enums;
+
+public enum OutboxStatus {
+    PENDING,      // Waiting for its first or next delivery attempt
+    SENDING,      // Claimed by a dispatcher worker
+    SENT,         // Delivered to the provider
+    DEAD          // Gave up after the maximum number of attempts
+}
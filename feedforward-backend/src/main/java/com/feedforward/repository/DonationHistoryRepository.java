@@ -66,6 +66,12 @@ public interface DonationHistoryRepository extends JpaRepository<DonationHistory
             "WHERE DATE(dh.donatedAt) = CURRENT_DATE")
     Long getTodayServingsDonated();
 
+    // Get servings received per NGO since a time
+    @Query("SELECT dh.ngo.ngoId, SUM(dh.quantityDonated) FROM DonationHistory dh " +
+            "WHERE dh.donatedAt >= :since " +
+            "GROUP BY dh.ngo.ngoId")
+    List<Object[]> getServingsReceivedByNgoSince(@Param("since") LocalDateTime since);
+
     // Get category-wise distribution
     @Query("SELECT dh.category, COUNT(dh), SUM(dh.quantityDonated) " +
             "FROM DonationHistory dh " +
@@ -117,6 +123,34 @@ public interface DonationHistoryRepository extends JpaRepository<DonationHistory
             @Param("restaurantId") Long restaurantId,
             @Param("ngoId") Long ngoId);
 
+    // Get donation totals between two times (one row): [donations, servings, restaurants, ngos]
+    @Query("SELECT COUNT(dh), COALESCE(SUM(dh.quantityDonated), 0), " +
+            "COUNT(DISTINCT dh.restaurant.restaurantId), COUNT(DISTINCT dh.ngo.ngoId) " +
+            "FROM DonationHistory dh " +
+            "WHERE dh.donatedAt >= :from AND dh.donatedAt < :to")
+    List<Object[]> getDonationTotalsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Get restaurants ranked by servings donated between two times: [restaurantId, organizationName, donations, servings]
+    @Query("SELECT r.restaurantId, r.organizationName, COUNT(dh), SUM(dh.quantityDonated) " +
+            "FROM DonationHistory dh JOIN dh.restaurant r " +
+            "WHERE dh.donatedAt >= :from AND dh.donatedAt < :to " +
+            "GROUP BY r.restaurantId, r.organizationName " +
+            "ORDER BY SUM(dh.quantityDonated) DESC, r.restaurantId ASC")
+    List<Object[]> getTopRestaurantsBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            org.springframework.data.domain.Pageable pageable);
+
+    // Get donations with the listing as it was offered, for replaying match scoring (most recent first)
+    @Query("SELECT dh.donationId, dh.ngo.ngoId, r.latitude, r.longitude, " +
+            "fl.quantity, fl.expiryTime, fl.createdAt, fl.category, fl.dietaryInfo, fl.dietaryMask " +
+            "FROM DonationHistory dh " +
+            "JOIN dh.restaurant r " +
+            "JOIN dh.foodRequest fr " +
+            "JOIN fr.foodListing fl " +
+            "ORDER BY dh.donatedAt DESC")
+    List<Object[]> findScoringReplayRows(org.springframework.data.domain.Pageable pageable);
+
     // Count donations by category
     long countByCategory(FoodCategory category);
 }
@@ -4,6 +4,8 @@ import com.feedforward.entity.FoodListing;
 import com.feedforward.enums.FoodCategory;
 import com.feedforward.enums.ListingStatus;
 import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.util.GeoBounds;
+import com.feedforward.util.GeoCell;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -17,6 +19,7 @@ import jakarta.persistence.LockModeType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +40,11 @@ public interface FoodListingRepository extends JpaRepository<FoodListing, Long>
             "AND fl.expiryTime > CURRENT_TIMESTAMP")
     List<FoodListing> findAllAvailableListings();
 
+    // Find all available listings with restaurant details
+    @Query("SELECT fl FROM FoodListing fl JOIN FETCH fl.restaurant r WHERE fl.status = 'AVAILABLE' " +
+            "AND fl.expiryTime > CURRENT_TIMESTAMP")
+    List<FoodListing> findAllAvailableListingsWithRestaurant();
+
     // Find available listings with pagination
     Page<FoodListing> findByStatusAndExpiryTimeAfter(
             ListingStatus status,
@@ -55,10 +63,116 @@ public interface FoodListingRepository extends JpaRepository<FoodListing, Long>
     List<FoodListing> findActiveListingsByRestaurantId(@Param("restaurantId") Long restaurantId);
 
     // Search available listings near location with filters
-    @Query(value = "SELECT fl.*, " +
-            "(6371 * acos(cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
+    // Returns [listingId, distanceKm] rows in result order; the bounding box narrows restaurants on idx_location
+    default List<Object[]> searchNearbyListingDistances(
+            BigDecimal latitude,
+            BigDecimal longitude,
+            double radiusKm,
+            String category,
+            String urgencyLevel,
+            String searchTerm,
+            String sortBy) {
+        GeoBounds bounds = GeoBounds.around(latitude.doubleValue(), longitude.doubleValue(), radiusKm);
+        return searchNearbyListingDistancesInBounds(latitude, longitude, radiusKm,
+                bounds.minLat(), bounds.maxLat(), bounds.minLon(), bounds.maxLon(),
+                category, urgencyLevel, searchTerm, sortBy);
+    }
+
+    // Search available listings near location and within bounding box using Haversine formula
+    @Query(value = "SELECT fl.listing_id, " +
+            "(6371 * acos(LEAST(1.0, cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
+            "cos(radians(r.longitude) - radians(:longitude)) + " +
+            "sin(radians(:latitude)) * sin(radians(r.latitude))))) AS distance " +
+            "FROM food_listings fl " +
+            "JOIN restaurants r ON fl.restaurant_id = r.restaurant_id " +
+            "JOIN users u ON r.user_id = u.user_id " +
+            "WHERE fl.status = 'AVAILABLE' " +
+            "AND fl.expiry_time > NOW() " +
+            "AND u.is_active = true " +
+            "AND (:category IS NULL OR fl.category = :category) " +
+            "AND (:urgencyLevel IS NULL OR fl.urgency_level = :urgencyLevel) " +
+            "AND (:searchTerm IS NULL OR LOWER(fl.food_name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "AND r.latitude BETWEEN :minLat AND :maxLat " +
+            "AND r.longitude BETWEEN :minLon AND :maxLon " +
+            "HAVING distance <= :radiusKm " +
+            "ORDER BY " +
+            "CASE WHEN :sortBy = 'expiry' THEN fl.expiry_time END ASC, " +
+            "CASE WHEN :sortBy = 'distance' THEN distance END ASC, " +
+            "CASE WHEN :sortBy = 'quantity' THEN fl.quantity END DESC",
+            nativeQuery = true)
+    List<Object[]> searchNearbyListingDistancesInBounds(
+            @Param("latitude") BigDecimal latitude,
+            @Param("longitude") BigDecimal longitude,
+            @Param("radiusKm") double radiusKm,
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon,
+            @Param("maxLon") double maxLon,
+            @Param("category") String category,
+            @Param("urgencyLevel") String urgencyLevel,
+            @Param("searchTerm") String searchTerm,
+            @Param("sortBy") String sortBy);
+
+    // Search available listings near location using the spatial index on restaurants.location
+    // (requires db/spatial_index.sql); returns [listingId, distanceKm] rows in result order
+    @Query(value = "SELECT fl.listing_id, " +
+            "ST_Distance_Sphere(r.location, ST_GeomFromText(:point, 4326, 'axis-order=long-lat'), 6371000) / 1000 AS distance " +
+            "FROM food_listings fl " +
+            "JOIN restaurants r ON fl.restaurant_id = r.restaurant_id " +
+            "JOIN users u ON r.user_id = u.user_id " +
+            "WHERE fl.status = 'AVAILABLE' " +
+            "AND fl.expiry_time > NOW() " +
+            "AND u.is_active = true " +
+            "AND (:category IS NULL OR fl.category = :category) " +
+            "AND (:urgencyLevel IS NULL OR fl.urgency_level = :urgencyLevel) " +
+            "AND (:searchTerm IS NULL OR LOWER(fl.food_name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "AND MBRContains(ST_GeomFromText(:envelope, 4326, 'axis-order=long-lat'), r.location) " +
+            "HAVING distance <= :radiusKm " +
+            "ORDER BY " +
+            "CASE WHEN :sortBy = 'expiry' THEN fl.expiry_time END ASC, " +
+            "CASE WHEN :sortBy = 'distance' THEN distance END ASC, " +
+            "CASE WHEN :sortBy = 'quantity' THEN fl.quantity END DESC",
+            nativeQuery = true)
+    List<Object[]> searchNearbyListingDistancesSpatial(
+            @Param("point") String point,
+            @Param("envelope") String envelope,
+            @Param("radiusKm") double radiusKm,
+            @Param("category") String category,
+            @Param("urgencyLevel") String urgencyLevel,
+            @Param("searchTerm") String searchTerm,
+            @Param("sortBy") String sortBy);
+
+    // Search available listings near location by GeoCell id ranges on food_listings.cell_id
+    // (a B-tree range scan on idx_status_cell); returns [listingId, distanceKm] rows in result order
+    default List<Object[]> searchNearbyListingDistancesByCells(
+            BigDecimal latitude,
+            BigDecimal longitude,
+            double radiusKm,
+            String category,
+            String urgencyLevel,
+            String searchTerm,
+            String sortBy) {
+        GeoCell.Covering covering = GeoCell.cover(latitude.doubleValue(), longitude.doubleValue(), radiusKm);
+        long[] min = covering.minIds();
+        long[] max = covering.maxIds();
+        return searchNearbyListingDistancesInCellRanges(latitude, longitude, radiusKm,
+                min[0], max[0],
+                min[1], max[1],
+                min[2], max[2],
+                min[3], max[3],
+                min[4], max[4],
+                min[5], max[5],
+                min[6], max[6],
+                min[7], max[7],
+                category, urgencyLevel, searchTerm, sortBy);
+    }
+
+    // Search available listings within cell id ranges using Haversine formula
+    // (GeoCell.MAX_RANGES ranges; unused ones repeat the first)
+    @Query(value = "SELECT fl.listing_id, " +
+            "(6371 * acos(LEAST(1.0, cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
             "cos(radians(r.longitude) - radians(:longitude)) + " +
-            "sin(radians(:latitude)) * sin(radians(r.latitude)))) AS distance " +
+            "sin(radians(:latitude)) * sin(radians(r.latitude))))) AS distance " +
             "FROM food_listings fl " +
             "JOIN restaurants r ON fl.restaurant_id = r.restaurant_id " +
             "JOIN users u ON r.user_id = u.user_id " +
@@ -68,25 +182,72 @@ public interface FoodListingRepository extends JpaRepository<FoodListing, Long>
             "AND (:category IS NULL OR fl.category = :category) " +
             "AND (:urgencyLevel IS NULL OR fl.urgency_level = :urgencyLevel) " +
             "AND (:searchTerm IS NULL OR LOWER(fl.food_name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "AND (fl.cell_id BETWEEN :min0 AND :max0 OR fl.cell_id BETWEEN :min1 AND :max1 OR " +
+            "fl.cell_id BETWEEN :min2 AND :max2 OR fl.cell_id BETWEEN :min3 AND :max3 OR " +
+            "fl.cell_id BETWEEN :min4 AND :max4 OR fl.cell_id BETWEEN :min5 AND :max5 OR " +
+            "fl.cell_id BETWEEN :min6 AND :max6 OR fl.cell_id BETWEEN :min7 AND :max7) " +
             "HAVING distance <= :radiusKm " +
             "ORDER BY " +
             "CASE WHEN :sortBy = 'expiry' THEN fl.expiry_time END ASC, " +
             "CASE WHEN :sortBy = 'distance' THEN distance END ASC, " +
             "CASE WHEN :sortBy = 'quantity' THEN fl.quantity END DESC",
-            countQuery = "SELECT COUNT(*) FROM food_listings fl " +
-                    "JOIN restaurants r ON fl.restaurant_id = r.restaurant_id " +
-                    "WHERE fl.status = 'AVAILABLE' " +
-                    "AND fl.expiry_time > NOW()",
             nativeQuery = true)
-    List<FoodListing> searchNearbyListings(
+    List<Object[]> searchNearbyListingDistancesInCellRanges(
             @Param("latitude") BigDecimal latitude,
             @Param("longitude") BigDecimal longitude,
             @Param("radiusKm") double radiusKm,
+            @Param("min0") long min0, @Param("max0") long max0,
+            @Param("min1") long min1, @Param("max1") long max1,
+            @Param("min2") long min2, @Param("max2") long max2,
+            @Param("min3") long min3, @Param("max3") long max3,
+            @Param("min4") long min4, @Param("max4") long max4,
+            @Param("min5") long min5, @Param("max5") long max5,
+            @Param("min6") long min6, @Param("max6") long max6,
+            @Param("min7") long min7, @Param("max7") long max7,
             @Param("category") String category,
             @Param("urgencyLevel") String urgencyLevel,
             @Param("searchTerm") String searchTerm,
             @Param("sortBy") String sortBy);
 
+    // Set the cell id of every listing of a restaurant (after the restaurant moved)
+    @Modifying
+    @Query("UPDATE FoodListing fl SET fl.cellId = :cellId WHERE fl.restaurant.restaurantId = :restaurantId")
+    int updateCellIdForRestaurant(@Param("restaurantId") Long restaurantId, @Param("cellId") Long cellId);
+
+    // Copy each restaurant's cell id onto its listings where missing or out of date
+    @Modifying
+    @Query(value = "UPDATE food_listings SET cell_id = " +
+            "(SELECT r.cell_id FROM restaurants r WHERE r.restaurant_id = food_listings.restaurant_id) " +
+            "WHERE cell_id IS NULL OR cell_id <> " +
+            "(SELECT r.cell_id FROM restaurants r WHERE r.restaurant_id = food_listings.restaurant_id)",
+            nativeQuery = true)
+    int syncCellIdsFromRestaurants();
+
+    // Get id, category and dietary info of listings without a dietary mask (for the dietary mask backfill)
+    @Query("SELECT fl.listingId, fl.category, fl.dietaryInfo FROM FoodListing fl WHERE fl.dietaryMask IS NULL")
+    List<Object[]> findDietaryInfoWithoutMask(Pageable pageable);
+
+    // Set the dietary mask of a listing (bulk update, skips entity callbacks)
+    @Modifying
+    @Query("UPDATE FoodListing fl SET fl.dietaryMask = :dietaryMask WHERE fl.listingId = :listingId")
+    int updateDietaryMask(@Param("listingId") Long listingId, @Param("dietaryMask") Integer dietaryMask);
+
+    // Get id, expiry time and stored urgency level of open listings that have not expired (for the urgency engine)
+    @Query("SELECT fl.listingId, fl.expiryTime, fl.urgencyLevel FROM FoodListing fl " +
+            "WHERE fl.status IN ('AVAILABLE', 'RESERVED') AND fl.expiryTime > :now")
+    List<Object[]> findOpenListingUrgency(@Param("now") LocalDateTime now);
+
+    // Set the urgency level of open listings in one statement (bulk update, skips entity callbacks)
+    @Modifying
+    @Query("UPDATE FoodListing fl SET fl.urgencyLevel = :urgencyLevel " +
+            "WHERE fl.listingId IN :ids AND fl.status IN ('AVAILABLE', 'RESERVED')")
+    int updateUrgencyLevel(@Param("ids") Collection<Long> ids, @Param("urgencyLevel") UrgencyLevel urgencyLevel);
+
+    // Find listings by IDs with restaurant details
+    @Query("SELECT fl FROM FoodListing fl JOIN FETCH fl.restaurant r JOIN FETCH r.user " +
+            "WHERE fl.listingId IN :ids")
+    List<FoodListing> findAllWithRestaurantByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find listings by category
     List<FoodListing> findByCategoryAndStatusAndExpiryTimeAfter(
             FoodCategory category,
@@ -131,6 +292,35 @@ public interface FoodListingRepository extends JpaRepository<FoodListing, Long>
             "ORDER BY fl.expiryTime ASC")
     List<FoodListing> findUrgentListings(@Param("oneHourFromNow") LocalDateTime oneHourFromNow);
 
+    // Find a page of urgent listings after the (expiryTime, listingId) position, with restaurant details:
+    // [listingId, foodName, quantity, category, unit, expiryTime, dietaryMask, dietaryInfo,
+    //  restaurantName, latitude, longitude, address, restaurantPhone]
+    @Query("SELECT fl.listingId, fl.foodName, fl.quantity, fl.category, fl.unit, fl.expiryTime, " +
+            "fl.dietaryMask, fl.dietaryInfo, r.organizationName, r.latitude, r.longitude, r.address, u.phone " +
+            "FROM FoodListing fl JOIN fl.restaurant r LEFT JOIN r.user u " +
+            "WHERE fl.status = 'AVAILABLE' AND fl.expiryTime > :now AND fl.expiryTime <= :oneHourFromNow " +
+            "AND (fl.expiryTime > :afterExpiry OR (fl.expiryTime = :afterExpiry AND fl.listingId > :afterId)) " +
+            "ORDER BY fl.expiryTime ASC, fl.listingId ASC")
+    List<Object[]> findUrgentListingPage(
+            @Param("now") LocalDateTime now,
+            @Param("oneHourFromNow") LocalDateTime oneHourFromNow,
+            @Param("afterExpiry") LocalDateTime afterExpiry,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Find available listings expiring before a time, soonest first, with restaurant details:
+    // [listingId, foodName, quantity, category, expiryTime, dietaryMask, dietaryInfo,
+    //  restaurantName, latitude, longitude]
+    @Query("SELECT fl.listingId, fl.foodName, fl.quantity, fl.category, fl.expiryTime, " +
+            "fl.dietaryMask, fl.dietaryInfo, r.organizationName, r.latitude, r.longitude " +
+            "FROM FoodListing fl JOIN fl.restaurant r " +
+            "WHERE fl.status = 'AVAILABLE' AND fl.expiryTime > :now AND fl.expiryTime <= :until " +
+            "ORDER BY fl.expiryTime ASC, fl.listingId ASC")
+    List<Object[]> findDigestListings(
+            @Param("now") LocalDateTime now,
+            @Param("until") LocalDateTime until,
+            Pageable pageable);
+
     // Get statistics by restaurant
     @Query("SELECT " +
             "COUNT(fl) as totalListings, " +
@@ -101,6 +101,22 @@ public interface FoodRequestRepository extends JpaRepository<FoodRequest, Long>
             "AND fr.pickupTime < :currentTime")
     List<FoodRequest> findExpiredPickups(@Param("currentTime") LocalDateTime currentTime);
 
+    // Get servings per NGO and status of open requests (pending on unexpired listings, approved, picked up)
+    @Query("SELECT fr.ngo.ngoId, fr.status, SUM(fr.quantityRequested) FROM FoodRequest fr " +
+            "WHERE (fr.status = 'PENDING' AND fr.foodListing.expiryTime > :now) " +
+            "OR fr.status IN ('APPROVED', 'PICKED_UP') " +
+            "GROUP BY fr.ngo.ngoId, fr.status")
+    List<Object[]> getOpenServingsByNgoAndStatus(@Param("now") LocalDateTime now);
+
+    // Get pending requests per restaurant, with the restaurant's normalized email (null when invalid):
+    // [restaurantId, organizationName, normalizedEmail, requests, servings, oldestRequestedAt]
+    @Query("SELECT r.restaurantId, r.organizationName, u.emailNormalized, COUNT(fr), SUM(fr.quantityRequested), " +
+            "MIN(fr.createdAt) " +
+            "FROM FoodRequest fr JOIN fr.foodListing fl JOIN fl.restaurant r LEFT JOIN r.user u " +
+            "WHERE fr.status = 'PENDING' AND fl.status IN ('AVAILABLE', 'RESERVED') AND fl.expiryTime > :now " +
+            "GROUP BY r.restaurantId, r.organizationName, u.emailNormalized")
+    List<Object[]> getPendingRequestsByRestaurant(@Param("now") LocalDateTime now);
+
     // Get request statistics by NGO
     @Query("SELECT " +
             "COUNT(fr) as totalRequests, " +
@@ -2,11 +2,11 @@ package com.feedforward.repository;
 
 import com.feedforward.entity.Ngo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,21 +21,6 @@ public interface NgoRepository extends JpaRepository<Ngo, Long> {
     @Query("SELECT n FROM Ngo n JOIN FETCH n.user WHERE n.ngoId = :id")
     Optional<Ngo> findByIdWithUser(@Param("id") Long id);
 
-    // Find NGOs within radius using Haversine formula
-    @Query(value = "SELECT n.*, " +
-            "(6371 * acos(cos(radians(:latitude)) * cos(radians(n.latitude)) * " +
-            "cos(radians(n.longitude) - radians(:longitude)) + " +
-            "sin(radians(:latitude)) * sin(radians(n.latitude)))) AS distance " +
-            "FROM ngos n " +
-            "WHERE n.user_id IN (SELECT user_id FROM users WHERE is_active = true) " +
-            "HAVING distance <= :radiusKm " +
-            "ORDER BY distance ASC",
-            nativeQuery = true)
-    List<Ngo> findNgosWithinRadius(
-            @Param("latitude") BigDecimal latitude,
-            @Param("longitude") BigDecimal longitude,
-            @Param("radiusKm") double radiusKm);
-
     // Get top NGOs by servings received
     @Query("SELECT n FROM Ngo n WHERE n.user.isActive = true " +
             "ORDER BY n.totalServingsReceived DESC")
@@ -72,6 +57,19 @@ public interface NgoRepository extends JpaRepository<Ngo, Long> {
     // Find all NGOs with user relationship loaded (for notifications)
     @Query("SELECT n FROM Ngo n JOIN FETCH n.user WHERE n.user.isActive = true")
     List<Ngo> findAllWithUser();
+
+    // Get id and coordinates of all NGOs (for the distance matrix)
+    @Query("SELECT n.ngoId, n.latitude, n.longitude FROM Ngo n")
+    List<Object[]> findAllLocations();
+
+    // Get id and dietary requirements of NGOs without a dietary mask (for the dietary mask backfill)
+    @Query("SELECT n.ngoId, n.dietaryRequirements FROM Ngo n WHERE n.dietaryMask IS NULL")
+    List<Object[]> findDietaryRequirementsWithoutMask(org.springframework.data.domain.Pageable pageable);
+
+    // Set the dietary mask of an NGO (bulk update, skips entity listeners)
+    @Modifying
+    @Query("UPDATE Ngo n SET n.dietaryMask = :dietaryMask WHERE n.ngoId = :ngoId")
+    int updateDietaryMask(@Param("ngoId") Long ngoId, @Param("dietaryMask") Integer dietaryMask);
 }
 
 
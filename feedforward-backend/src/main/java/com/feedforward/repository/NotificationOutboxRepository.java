@@ -0,0 +1,94 @@
+package com.feedforward.repository;
+
+import com.feedforward.entity.NotificationOutbox;
+import com.feedforward.enums.UrgencyLevel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Find entries of one priority due for delivery (pending, or claimed by a worker whose lease ran out),
+    // soonest listing expiry first, then oldest: [outboxId, nextAttemptAt]
+    @Query("SELECT o.outboxId, o.nextAttemptAt FROM NotificationOutbox o " +
+            "WHERE o.priority = :priority AND o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.expiresAt ASC NULLS LAST, o.nextAttemptAt ASC, o.outboxId ASC")
+    List<Object[]> findDueByPriority(@Param("priority") UrgencyLevel priority, @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    // Get due entries per priority: [priority, count, oldestDueAt]
+    @Query("SELECT o.priority, COUNT(o), MIN(o.nextAttemptAt) FROM NotificationOutbox o " +
+            "WHERE o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now " +
+            "GROUP BY o.priority")
+    List<Object[]> countDueByPriority(@Param("now") LocalDateTime now);
+
+    // Claim a due entry for one delivery attempt; returns 0 if another worker got it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENDING', o.attempts = o.attempts + 1, " +
+            "o.nextAttemptAt = :leaseUntil " +
+            "WHERE o.outboxId = :id AND o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Find ids of pending entries held for merging for the given recipients, due or not
+    @Query("SELECT o.outboxId FROM NotificationOutbox o " +
+            "WHERE o.status = 'PENDING' AND o.coalesceKey IN :keys")
+    List<Long> findPendingIdsByCoalesceKeys(@Param("keys") Collection<String> keys);
+
+    // Find [listingId, recipient] pairs queued or sent for these listings since the given time (dead entries excluded)
+    @Query("SELECT o.listingId, o.recipient FROM NotificationOutbox o " +
+            "WHERE o.listingId IN :listingIds AND o.createdAt >= :since AND o.status <> 'DEAD'")
+    List<Object[]> findRecentRecipients(@Param("listingIds") Collection<Long> listingIds,
+                                        @Param("since") LocalDateTime since);
+
+    // Claim a pending entry ahead of its due time, to merge it into a message for the same recipient
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENDING', o.attempts = o.attempts + 1, " +
+            "o.nextAttemptAt = :leaseUntil WHERE o.outboxId = :id AND o.status = 'PENDING'")
+    int claimPending(@Param("id") Long id, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENT', o.sentAt = :sentAt, o.lastError = NULL " +
+            "WHERE o.outboxId = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PENDING', o.nextAttemptAt = :nextAttemptAt, " +
+            "o.lastError = :error WHERE o.outboxId = :id")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'DEAD', o.lastError = :error WHERE o.outboxId = :id")
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    // Requeue dead-lettered entries for a fresh round of attempts
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PENDING', o.attempts = 0, o.nextAttemptAt = :now " +
+            "WHERE o.status = 'DEAD'")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    // Delete delivered entries older than the retention window
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = 'SENT' AND o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Get entry counts by status
+    @Query("SELECT o.status, COUNT(o) FROM NotificationOutbox o GROUP BY o.status")
+    List<Object[]> countByStatus();
+}
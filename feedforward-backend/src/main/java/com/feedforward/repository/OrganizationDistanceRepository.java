@@ -0,0 +1,28 @@
+package com.feedforward.repository;
+
+import com.feedforward.entity.OrganizationDistance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrganizationDistanceRepository extends JpaRepository<OrganizationDistance, OrganizationDistance.Key> {
+
+    // Get restaurant id, NGO id and distance of every stored pair (for the in-memory matrix)
+    @Query("SELECT d.restaurantId, d.ngoId, d.distanceKm FROM OrganizationDistance d")
+    List<Object[]> findAllPairs();
+
+    // Delete all pairs of a restaurant (before writing its recomputed pairs)
+    @Modifying
+    @Query("DELETE FROM OrganizationDistance d WHERE d.restaurantId = :restaurantId")
+    int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Delete all pairs of an NGO (before writing its recomputed pairs)
+    @Modifying
+    @Query("DELETE FROM OrganizationDistance d WHERE d.ngoId = :ngoId")
+    int deleteByNgoId(@Param("ngoId") Long ngoId);
+}
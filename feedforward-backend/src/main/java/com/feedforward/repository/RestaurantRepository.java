@@ -2,11 +2,11 @@ package com.feedforward.repository;
 
 import com.feedforward.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,21 +21,6 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Query("SELECT r FROM Restaurant r JOIN FETCH r.user WHERE r.restaurantId = :id")
     Optional<Restaurant> findByIdWithUser(@Param("id") Long id);
 
-    // Find restaurants within radius using Haversine formula
-    @Query(value = "SELECT r.*, " +
-            "(6371 * acos(cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
-            "cos(radians(r.longitude) - radians(:longitude)) + " +
-            "sin(radians(:latitude)) * sin(radians(r.latitude)))) AS distance " +
-            "FROM restaurants r " +
-            "WHERE r.user_id IN (SELECT user_id FROM users WHERE is_active = true) " +
-            "HAVING distance <= :radiusKm " +
-            "ORDER BY distance ASC",
-            nativeQuery = true)
-    List<Restaurant> findRestaurantsWithinRadius(
-            @Param("latitude") BigDecimal latitude,
-            @Param("longitude") BigDecimal longitude,
-            @Param("radiusKm") double radiusKm);
-
     // Get top restaurants by total donations
     @Query("SELECT r FROM Restaurant r WHERE r.user.isActive = true " +
             "ORDER BY r.totalServingsDonated DESC")
@@ -70,6 +55,20 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     // Find all restaurants with user relationship loaded (for notifications)
     @Query("SELECT r FROM Restaurant r JOIN FETCH r.user WHERE r.user.isActive = true")
     List<Restaurant> findAllWithUser();
+
+    // Get id and coordinates of all restaurants (for the distance matrix)
+    @Query("SELECT r.restaurantId, r.latitude, r.longitude FROM Restaurant r")
+    List<Object[]> findAllLocations();
+
+    // Get id and coordinates of restaurants without a cell id (for the cell id backfill)
+    @Query("SELECT r.restaurantId, r.latitude, r.longitude FROM Restaurant r " +
+            "WHERE r.cellId IS NULL AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<Object[]> findLocationsWithoutCellId(org.springframework.data.domain.Pageable pageable);
+
+    // Set the cell id of a restaurant (bulk update, skips entity listeners)
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.cellId = :cellId WHERE r.restaurantId = :restaurantId")
+    int updateCellId(@Param("restaurantId") Long restaurantId, @Param("cellId") Long cellId);
 }
 
 
@@ -3,6 +3,7 @@ package com.feedforward.repository;
 import com.feedforward.entity.User;
 import com.feedforward.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,6 +25,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Check if phone number exists
     boolean existsByPhone(String phone);
 
+    // Check if a normalized (E.164) phone number exists
+    boolean existsByPhoneE164(String phoneE164);
+
     // Find all active users by role
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.isActive = true")
     java.util.List<User> findActiveUsersByRole(@Param("role") Role role);
@@ -38,6 +42,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find user with NGO details
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.ngo WHERE u.userId = :userId")
     Optional<User> findByIdWithNgo(@Param("userId") Long userId);
+
+    // Get id, phone and email of users whose contacts were never normalized (for the contact backfill)
+    @Query("SELECT u.userId, u.phone, u.email FROM User u WHERE u.phoneValid IS NULL OR u.emailValid IS NULL")
+    java.util.List<Object[]> findContactsWithoutNormalization(org.springframework.data.domain.Pageable pageable);
+
+    // Set the normalized contacts of a user (bulk update, skips entity listeners)
+    @Modifying
+    @Query("UPDATE User u SET u.phoneE164 = :phoneE164, u.phoneValid = :phoneValid, " +
+            "u.emailNormalized = :emailNormalized, u.emailValid = :emailValid WHERE u.userId = :userId")
+    int updateNormalizedContacts(
+            @Param("userId") Long userId,
+            @Param("phoneE164") String phoneE164,
+            @Param("phoneValid") Boolean phoneValid,
+            @Param("emailNormalized") String emailNormalized,
+            @Param("emailValid") Boolean emailValid);
 }
 
 
@@ -15,6 +15,7 @@ import com.feedforward.repository.NgoRepository;
 import com.feedforward.repository.RestaurantRepository;
 import com.feedforward.repository.UserRepository;
 import com.feedforward.security.JwtTokenProvider;
+import com.feedforward.util.ContactNormalizer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,8 +52,14 @@ public class AuthService {
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
-        // Check if phone already exists
-        if (userRepository.existsByPhone(request.getPhone())) {
+        // Normalize the phone once; notifications use the stored E.164 form
+        String phoneE164 = ContactNormalizer.toE164(request.getPhone());
+        if (phoneE164 == null) {
+            throw new BadRequestException("Please provide a valid 10-digit mobile number");
+        }
+
+        // Check if phone already exists, in any of its written forms
+        if (userRepository.existsByPhone(request.getPhone()) || userRepository.existsByPhoneE164(phoneE164)) {
             throw new DuplicateResourceException("User", "phone", request.getPhone());
         }
 
@@ -0,0 +1,372 @@
+package com.feedforward.service;
+
+import com.feedforward.dto.response.AllocationResponse;
+import com.feedforward.dto.response.AllocationRunResponse;
+import com.feedforward.entity.FoodListing;
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.util.GeoCell;
+import com.feedforward.util.MinCostFlow;
+import com.feedforward.util.NgoCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Assigns every open listing to NGOs in one pass instead of one listing at a time.
+ *
+ * Listings are grouped by coarse {@link GeoCell} and each group is scored against its candidate
+ * NGOs in parallel. Listings that share candidate NGOs form a connected component; each component
+ * is solved independently as a min-cost flow (source -> listing with capacity = quantity,
+ * listing -> NGO with cost = 100 - match score, NGO -> sink with capacity = beneficiaries),
+ * which allocates as many servings as capacity allows at the best total match score.
+ * Results are advisory: NGOs still create requests themselves.
+ */
+@Service
+public class BatchAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAllocationService.class);
+
+    // Level 8 cells are about 0.7 x 1.4 degrees, so one city is one or a few partitions
+    private static final int PARTITION_LEVEL = 8;
+    private static final int MAX_SCORE = 100;
+
+    private final FoodListingRepository foodListingRepository;
+    private final NgoCatalogService ngoCatalogService;
+    private final MatchingAlgorithmService matchingAlgorithmService;
+    private final ForkJoinPool pool;
+
+    private volatile AllocationRunResponse lastRun;
+
+    public BatchAllocationService(
+            FoodListingRepository foodListingRepository,
+            NgoCatalogService ngoCatalogService,
+            MatchingAlgorithmService matchingAlgorithmService,
+            @Value("${app.allocation.parallelism:4}") int parallelism
+    ) {
+        this.foodListingRepository = foodListingRepository;
+        this.ngoCatalogService = ngoCatalogService;
+        this.matchingAlgorithmService = matchingAlgorithmService;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Scheduled allocation through the evening rush
+     */
+    @Scheduled(cron = "${app.allocation.cron:0 */15 18-22 * * *}", zone = "Asia/Kolkata")
+    public void runScheduledAllocation() {
+        AllocationRunResponse run = runAllocation();
+        logger.info("Batch allocation: {} of {} servings to {} NGOs, avg score {} (greedy {} servings, avg {}), " +
+                        "scoring {} ms, solver {} ms",
+                run.getServingsAllocated(), run.getServingsOffered(), run.getNgos(),
+                run.getAverageMatchScore(), run.getGreedyServingsAllocated(), run.getGreedyAverageMatchScore(),
+                run.getScoringMillis(), run.getSolverMillis());
+    }
+
+    /**
+     * Score and allocate all open listings now
+     */
+    @Transactional(readOnly = true)
+    public synchronized AllocationRunResponse runAllocation() {
+        List<FoodListing> listings = foodListingRepository.findAllAvailableListingsWithRestaurant();
+        NgoCatalog catalog = ngoCatalogService.getCatalog();
+        int listingCount = listings.size();
+
+        // 1. Score every listing against its candidates, one task per spatial partition
+        long scoringStart = System.nanoTime();
+        int[][] partitions = partitionByCell(listings);
+        NgoCatalog.Candidates[] candidates = new NgoCatalog.Candidates[listingCount];
+        int[][] scores = new int[listingCount][];
+        pool.invoke(new ScorePartitions(listings, catalog, partitions, 0, partitions.length, candidates, scores));
+        long scoringMillis = (System.nanoTime() - scoringStart) / 1_000_000;
+
+        // 2. Compact NGO rows into nodes listingCount.. and join listings that share an NGO
+        Map<Integer, Integer> nodeByRow = new HashMap<>();
+        List<Integer> rowByNode = new ArrayList<>();
+        int pairs = 0;
+        for (int i = 0; i < listingCount; i++) {
+            for (int c = 0; c < candidates[i].count(); c++) {
+                int row = candidates[i].rows()[c];
+                if (nodeByRow.putIfAbsent(row, listingCount + rowByNode.size()) == null) {
+                    rowByNode.add(row);
+                }
+            }
+            pairs += candidates[i].count();
+        }
+        int[] parent = new int[listingCount + rowByNode.size()];
+        Arrays.setAll(parent, i -> i);
+        for (int i = 0; i < listingCount; i++) {
+            for (int c = 0; c < candidates[i].count(); c++) {
+                union(parent, i, nodeByRow.get(candidates[i].rows()[c]));
+            }
+        }
+        Map<Integer, List<Integer>> componentListings = new HashMap<>();
+        for (int i = 0; i < listingCount; i++) {
+            if (candidates[i].count() > 0) {
+                componentListings.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // 3. Solve each component as a min-cost flow in parallel
+        long solverStart = System.nanoTime();
+        List<Callable<List<int[]>>> tasks = new ArrayList<>();
+        for (List<Integer> component : componentListings.values()) {
+            tasks.add(() -> solveComponent(component, listings, catalog, candidates, scores));
+        }
+        List<int[]> assigned = new ArrayList<>();
+        for (Future<List<int[]>> future : pool.invokeAll(tasks)) {
+            assigned.addAll(getResult(future));
+        }
+        long solverMillis = (System.nanoTime() - solverStart) / 1_000_000;
+
+        // 4. Quality metrics, with greedy per-listing assignment as the baseline
+        long offered = 0;
+        for (FoodListing listing : listings) {
+            offered += listing.getQuantity();
+        }
+        long capacity = 0;
+        for (int row : rowByNode) {
+            capacity += catalog.beneficiaries(row);
+        }
+        long[] optimal = totals(assigned);
+        long[] greedy = totals(greedyAllocation(listings, catalog, candidates, scores));
+
+        List<AllocationResponse> allocations = new ArrayList<>();
+        for (int[] a : assigned) {
+            FoodListing listing = listings.get(a[0]);
+            int c = a[1];
+            int row = candidates[a[0]].rows()[c];
+            allocations.add(AllocationResponse.builder()
+                    .listingId(listing.getListingId())
+                    .foodName(listing.getFoodName())
+                    .ngoId(catalog.ngoId(row))
+                    .ngoName(catalog.contact(row).organizationName())
+                    .servings(a[2])
+                    .matchScore(a[3])
+                    .distance(Math.round(candidates[a[0]].distancesKm()[c] * 100.0) / 100.0)
+                    .build());
+        }
+        allocations.sort(Comparator.comparing(AllocationResponse::getListingId)
+                .thenComparing(AllocationResponse::getMatchScore, Comparator.reverseOrder()));
+
+        AllocationRunResponse run = AllocationRunResponse.builder()
+                .runAt(LocalDateTime.now())
+                .listings(listingCount)
+                .ngos(rowByNode.size())
+                .candidatePairs(pairs)
+                .partitions(partitions.length)
+                .components(componentListings.size())
+                .scoringMillis(scoringMillis)
+                .solverMillis(solverMillis)
+                .servingsOffered(offered)
+                .servingsAllocated(optimal[0])
+                .averageMatchScore(averageScore(optimal))
+                .capacityUtilization(capacity > 0 ? Math.round(optimal[0] * 1000.0 / capacity) / 1000.0 : 0.0)
+                .greedyServingsAllocated(greedy[0])
+                .greedyAverageMatchScore(averageScore(greedy))
+                .allocations(allocations)
+                .build();
+        lastRun = run;
+        return run;
+    }
+
+    /**
+     * Result of the most recent run, or null if none has run yet
+     */
+    public AllocationRunResponse getLastRun() {
+        return lastRun;
+    }
+
+    // Helper: listing indexes grouped by the coarse cell of their restaurant
+    private int[][] partitionByCell(List<FoodListing> listings) {
+        Map<Long, List<Integer>> byCell = new HashMap<>();
+        for (int i = 0; i < listings.size(); i++) {
+            FoodListing listing = listings.get(i);
+            long cell = GeoCell.parent(GeoCell.cellId(
+                    listing.getRestaurant().getLatitude().doubleValue(),
+                    listing.getRestaurant().getLongitude().doubleValue()), PARTITION_LEVEL);
+            byCell.computeIfAbsent(cell, k -> new ArrayList<>()).add(i);
+        }
+        return byCell.values().stream()
+                .map(indexes -> indexes.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Scores the listings of a range of partitions, splitting the range until one partition is left.
+     * Each listing index is written by exactly one task.
+     */
+    private class ScorePartitions extends RecursiveAction {
+
+        private final List<FoodListing> listings;
+        private final NgoCatalog catalog;
+        private final int[][] partitions;
+        private final int from;
+        private final int to;
+        private final NgoCatalog.Candidates[] candidates;
+        private final int[][] scores;
+
+        ScorePartitions(List<FoodListing> listings, NgoCatalog catalog, int[][] partitions, int from, int to,
+                        NgoCatalog.Candidates[] candidates, int[][] scores) {
+            this.listings = listings;
+            this.catalog = catalog;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.candidates = candidates;
+            this.scores = scores;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScorePartitions(listings, catalog, partitions, from, mid, candidates, scores),
+                        new ScorePartitions(listings, catalog, partitions, mid, to, candidates, scores));
+                return;
+            }
+            for (int p = from; p < to; p++) {
+                for (int i : partitions[p]) {
+                    FoodListing listing = listings.get(i);
+                    candidates[i] = matchingAlgorithmService.findCandidates(listing, catalog);
+                    scores[i] = matchingAlgorithmService.scoreCandidates(listing, catalog, candidates[i]);
+                }
+            }
+        }
+    }
+
+    // Helper: min-cost flow over one component; returns {listing index, candidate index, servings, score}
+    private List<int[]> solveComponent(List<Integer> component, List<FoodListing> listings, NgoCatalog catalog,
+                                       NgoCatalog.Candidates[] candidates, int[][] scores) {
+        // Nodes: 0 = source, 1 = sink, then listings, then NGOs
+        Map<Integer, Integer> nodeByRow = new HashMap<>();
+        int nodes = 2 + component.size();
+        for (int i : component) {
+            for (int c = 0; c < candidates[i].count(); c++) {
+                if (nodeByRow.putIfAbsent(candidates[i].rows()[c], nodes) == null) {
+                    nodes++;
+                }
+            }
+        }
+
+        MinCostFlow flow = new MinCostFlow(nodes);
+        for (Map.Entry<Integer, Integer> ngo : nodeByRow.entrySet()) {
+            flow.addEdge(ngo.getValue(), 1, catalog.beneficiaries(ngo.getKey()), 0);
+        }
+        int[][] edges = new int[component.size()][];
+        for (int k = 0; k < component.size(); k++) {
+            int i = component.get(k);
+            int quantity = listings.get(i).getQuantity();
+            flow.addEdge(0, 2 + k, quantity, 0);
+            edges[k] = new int[candidates[i].count()];
+            for (int c = 0; c < candidates[i].count(); c++) {
+                edges[k][c] = flow.addEdge(2 + k, nodeByRow.get(candidates[i].rows()[c]), quantity,
+                        MAX_SCORE - scores[i][c]);
+            }
+        }
+        flow.solve(0, 1);
+
+        List<int[]> assigned = new ArrayList<>();
+        for (int k = 0; k < component.size(); k++) {
+            for (int c = 0; c < edges[k].length; c++) {
+                int servings = flow.flow(edges[k][c]);
+                if (servings > 0) {
+                    assigned.add(new int[]{component.get(k), c, servings, scores[component.get(k)][c]});
+                }
+            }
+        }
+        return assigned;
+    }
+
+    // Helper: baseline - most urgent listing first, each to its best-scoring NGOs with capacity left
+    private List<int[]> greedyAllocation(List<FoodListing> listings, NgoCatalog catalog,
+                                         NgoCatalog.Candidates[] candidates, int[][] scores) {
+        Integer[] order = new Integer[listings.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing(i -> listings.get(i).getExpiryTime()));
+
+        Map<Integer, Integer> remaining = new HashMap<>();
+        List<int[]> assigned = new ArrayList<>();
+        for (int i : order) {
+            int[] score = scores[i];
+            Integer[] byScore = new Integer[candidates[i].count()];
+            Arrays.setAll(byScore, c -> c);
+            Arrays.sort(byScore, (a, b) -> score[b] - score[a]);
+
+            int left = listings.get(i).getQuantity();
+            for (int c : byScore) {
+                if (left == 0) {
+                    break;
+                }
+                int row = candidates[i].rows()[c];
+                int capacity = remaining.computeIfAbsent(row, catalog::beneficiaries);
+                int servings = Math.min(left, capacity);
+                if (servings > 0) {
+                    remaining.put(row, capacity - servings);
+                    assigned.add(new int[]{i, c, servings, score[c]});
+                    left -= servings;
+                }
+            }
+        }
+        return assigned;
+    }
+
+    // Helper: {servings, servings x score} of an assignment
+    private long[] totals(List<int[]> assigned) {
+        long servings = 0;
+        long weighted = 0;
+        for (int[] a : assigned) {
+            servings += a[2];
+            weighted += (long) a[2] * a[3];
+        }
+        return new long[]{servings, weighted};
+    }
+
+    private static double averageScore(long[] totals) {
+        return totals[0] > 0 ? Math.round(totals[1] * 10.0 / totals[0]) / 10.0 : 0.0;
+    }
+
+    private static List<int[]> getResult(Future<List<int[]>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch allocation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch allocation failed", e.getCause());
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+}
@@ -0,0 +1,102 @@
+package com.feedforward.service;
+
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.repository.RestaurantRepository;
+import com.feedforward.util.GeoCell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills GeoCell ids for restaurants saved before the cell_id column existed (or edited outside JPA)
+ * and copies restaurant cell ids onto their food listings, which listing search reads.
+ * Runs at startup and nightly, committing batch by batch; rows that already have an id are skipped.
+ * Listings of a restaurant that moves to another cell are re-celled as soon as the move commits.
+ */
+@Service
+public class CellIdBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CellIdBackfillService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final RestaurantRepository restaurantRepository;
+    private final FoodListingRepository foodListingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CellIdBackfillService(
+            RestaurantRepository restaurantRepository,
+            FoodListingRepository foodListingRepository,
+            PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.foodListingRepository = foodListingRepository;
+        // Also runs from afterCommit callbacks, where it must not join the finished transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.geo.cell-index.backfill-cron:0 30 3 * * *}")
+    public void backfill() {
+        long start = System.currentTimeMillis();
+
+        int restaurants = 0;
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> fillRestaurantBatch());
+            restaurants += batch.updated();
+        } while (batch.rows() == BATCH_SIZE);
+        Integer listings = transactionTemplate.execute(status -> foodListingRepository.syncCellIdsFromRestaurants());
+
+        if (restaurants + listings > 0) {
+            logger.info("Cell id backfill updated {} restaurants and {} listings in {} ms",
+                    restaurants, listings, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Copy a moved restaurant's new cell id onto its listings once the move commits
+     */
+    public void onRestaurantMoved(Long restaurantId, Long cellId) {
+        Runnable update = () -> {
+            Integer listings = transactionTemplate.execute(status ->
+                    foodListingRepository.updateCellIdForRestaurant(restaurantId, cellId));
+            logger.info("Restaurant {} moved: {} listings re-celled", restaurantId, listings);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // Helper: fill one batch of [id, latitude, longitude] rows; always the first page,
+    // since updated rows drop out of the result
+    private Batch fillRestaurantBatch() {
+        List<Object[]> rows = restaurantRepository.findLocationsWithoutCellId(PageRequest.of(0, BATCH_SIZE));
+        int updated = 0;
+        for (Object[] row : rows) {
+            long cellId = GeoCell.cellId(((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue());
+            updated += restaurantRepository.updateCellId(((Number) row[0]).longValue(), cellId);
+        }
+        return new Batch(rows.size(), updated);
+    }
+
+    private record Batch(int rows, int updated) {
+    }
+}
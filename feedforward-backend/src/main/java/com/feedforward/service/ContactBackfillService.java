@@ -0,0 +1,88 @@
+package com.feedforward.service;
+
+import com.feedforward.repository.UserRepository;
+import com.feedforward.util.ContactNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills the normalized phone and email columns for users saved before they existed.
+ * New and edited users get theirs on save, so this only has work after an upgrade
+ * (or after rows are inserted outside JPA). Each batch commits in its own transaction.
+ * See db/contact_normalization.sql.
+ */
+@Service
+public class ContactBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactBackfillService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final NgoCatalogService ngoCatalogService;
+    private final RestaurantCatalogService restaurantCatalogService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ContactBackfillService(
+            UserRepository userRepository,
+            NgoCatalogService ngoCatalogService,
+            RestaurantCatalogService restaurantCatalogService,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.ngoCatalogService = ngoCatalogService;
+        this.restaurantCatalogService = restaurantCatalogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+
+        int users = 0;
+        int invalidPhones = 0;
+        int invalidEmails = 0;
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> normalizeBatch());
+            users += batch.users();
+            invalidPhones += batch.invalidPhones();
+            invalidEmails += batch.invalidEmails();
+        } while (batch.rows() == BATCH_SIZE);
+
+        if (users > 0) {
+            // Bulk updates skip the entity listeners, and the catalogs may have loaded before this ran
+            ngoCatalogService.invalidate();
+            restaurantCatalogService.invalidate();
+            logger.info("Contact backfill normalized {} users ({} invalid phones, {} invalid emails) in {} ms",
+                    users, invalidPhones, invalidEmails, System.currentTimeMillis() - start);
+        }
+    }
+
+    // Helper: normalize one batch; always the first page, since updated rows drop out of the result
+    private Batch normalizeBatch() {
+        List<Object[]> rows = userRepository.findContactsWithoutNormalization(PageRequest.of(0, BATCH_SIZE));
+        int users = 0;
+        int invalidPhones = 0;
+        int invalidEmails = 0;
+        for (Object[] row : rows) {
+            // [userId, phone, email]
+            String phoneE164 = ContactNormalizer.toE164((String) row[1]);
+            String email = ContactNormalizer.normalizeEmail((String) row[2]);
+            users += userRepository.updateNormalizedContacts(((Number) row[0]).longValue(),
+                    phoneE164, phoneE164 != null, email, email != null);
+            invalidPhones += phoneE164 == null ? 1 : 0;
+            invalidEmails += email == null ? 1 : 0;
+        }
+        return new Batch(rows.size(), users, invalidPhones, invalidEmails);
+    }
+
+    private record Batch(int rows, int users, int invalidPhones, int invalidEmails) {
+    }
+}
@@ -0,0 +1,309 @@
+package com.feedforward.service;
+
+import com.feedforward.enums.FoodCategory;
+import com.feedforward.enums.NotificationTemplate;
+import com.feedforward.repository.DonationHistoryRepository;
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.repository.FoodRequestRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.NgoCatalog;
+import com.feedforward.util.RestaurantCatalog;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds and sends the daily digest email.
+ *
+ * Everything comes from four aggregate queries, however many organizations there are: yesterday's
+ * donation totals, yesterday's top restaurants, listings expiring today and pending requests per
+ * restaurant. Recipients come from the in-memory NGO and restaurant catalogs; NGOs get the urgent
+ * listings near them, restaurants their pending-request reminder, and organizations sharing an
+ * email address get one digest. Digests are rendered in parallel and sent over pooled SMTP
+ * connections, bounded by the SMTP bulkhead.
+ */
+@Service
+public class DailyDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyDigestService.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+
+    private final DonationHistoryRepository donationHistoryRepository;
+    private final FoodListingRepository foodListingRepository;
+    private final FoodRequestRepository foodRequestRepository;
+    private final NgoCatalogService ngoCatalogService;
+    private final RestaurantCatalogService restaurantCatalogService;
+    private final NotificationTemplateService notificationTemplateService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+
+    @Value("${app.notifications.digest.top-restaurants:5}")
+    private int topRestaurants;
+
+    @Value("${app.notifications.digest.max-listings:1000}")
+    private int maxListings;
+
+    @Value("${app.notifications.digest.max-ngos-per-listing:20}")
+    private int maxNgosPerListing;
+
+    @Value("${app.notifications.digest.radius-km:10}")
+    private double radiusKm;
+
+    @Value("${app.notifications.digest.urgent-per-recipient:5}")
+    private int urgentPerRecipient;
+
+    @Value("${app.name:FeedForward}")
+    private String appName;
+
+    @Value("${app.base-url:http://localhost:3000}")
+    private String baseUrl;
+
+    public DailyDigestService(
+            DonationHistoryRepository donationHistoryRepository,
+            FoodListingRepository foodListingRepository,
+            FoodRequestRepository foodRequestRepository,
+            NgoCatalogService ngoCatalogService,
+            RestaurantCatalogService restaurantCatalogService,
+            NotificationTemplateService notificationTemplateService,
+            EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.digest.render-parallelism:4}") int renderParallelism) {
+        this.donationHistoryRepository = donationHistoryRepository;
+        this.foodListingRepository = foodListingRepository;
+        this.foodRequestRepository = foodRequestRepository;
+        this.ngoCatalogService = ngoCatalogService;
+        this.restaurantCatalogService = restaurantCatalogService;
+        this.notificationTemplateService = notificationTemplateService;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.pool = new ForkJoinPool(Math.max(1, renderParallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Build, render and send today's digests
+     */
+    public DigestRun sendDailyDigest() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        String date = DATE_FORMAT.format(now.toLocalDate());
+
+        // 1. The four aggregate queries, in one read-only transaction
+        DigestData data = transactionTemplate.execute(status -> new DigestData(
+                donationHistoryRepository.getDonationTotalsBetween(today.minusDays(1), today),
+                donationHistoryRepository.getTopRestaurantsBetween(today.minusDays(1), today,
+                        PageRequest.of(0, Math.max(1, topRestaurants))),
+                foodListingRepository.findDigestListings(now, today.plusDays(1),
+                        PageRequest.of(0, Math.max(1, maxListings))),
+                foodRequestRepository.getPendingRequestsByRestaurant(now)));
+
+        DigestRun run = new DigestRun();
+        run.urgentListings = data.listings().size();
+        run.pendingRestaurants = data.pendingRequests().size();
+
+        // 2. Group the personal sections per recipient address
+        Map<String, Recipient> recipients = collectRecipients(data, now);
+
+        Object[] totals = data.totals().isEmpty() ? new Object[]{0L, 0L, 0L, 0L} : data.totals().get(0);
+        boolean anyDonations = ((Number) totals[0]).longValue() > 0;
+        List<Recipient> due = new ArrayList<>(recipients.size());
+        for (Recipient recipient : recipients.values()) {
+            if (anyDonations || recipient.pendingRequests > 0 || !recipient.urgent.isEmpty()) {
+                due.add(recipient);
+            } else {
+                run.skipped++;
+            }
+        }
+        run.recipients = due.size();
+
+        // 3. Render in parallel; the shared blocks are rendered once
+        long renderStart = System.currentTimeMillis();
+        String subject = notificationTemplateService.render(NotificationTemplate.DAILY_DIGEST_EMAIL_SUBJECT,
+                appName, date);
+        String topBlock = renderTopRestaurants(data.topRestaurants());
+        List<EmailService.OutgoingEmail> emails = pool.submit(() -> due.parallelStream()
+                .map(recipient -> new EmailService.OutgoingEmail(recipient.email, subject,
+                        renderDigest(recipient, now, date, totals, topBlock)))
+                .toList()).join();
+        run.renderMillis = System.currentTimeMillis() - renderStart;
+
+        // 4. Send over pooled SMTP connections
+        if (!emails.isEmpty()) {
+            EmailService.EmailBatchResult result = emailService.sendEach(emails);
+            run.sent = result.sent();
+            run.failed = result.failures().size();
+            run.sendMillis = result.millis();
+        }
+
+        run.millis = System.currentTimeMillis() - start;
+        logger.info("📰 Daily digest: {} of {} digests sent ({} failed, {} with nothing to report), "
+                        + "{} urgent listings, {} restaurants with pending requests; render {} ms, send {} ms, "
+                        + "total {} ms",
+                run.sent, run.recipients, run.failed, run.skipped, run.urgentListings, run.pendingRestaurants,
+                run.renderMillis, run.sendMillis, run.millis);
+        return run;
+    }
+
+    // Helper: one entry per email address, with the NGO and restaurant sections that address gets
+    private Map<String, Recipient> collectRecipients(DigestData data, LocalDateTime now) {
+        Map<String, Recipient> recipients = new LinkedHashMap<>();
+
+        RestaurantCatalog restaurants = restaurantCatalogService.getCatalog();
+        for (int row = 0; row < restaurants.size(); row++) {
+            RestaurantCatalog.Contact contact = restaurants.contact(row);
+            recipient(recipients, contact.notifyEmail(), contact.organizationName());
+        }
+        NgoCatalog ngos = ngoCatalogService.getCatalog();
+        for (int row = 0; row < ngos.size(); row++) {
+            NgoCatalog.Contact contact = ngos.contact(row);
+            recipient(recipients, contact.notifyEmail(), contact.organizationName());
+        }
+
+        for (Object[] row : data.pendingRequests()) {
+            // [restaurantId, organizationName, normalizedEmail, requests, servings, oldestRequestedAt]
+            Recipient recipient = recipient(recipients, (String) row[2], (String) row[1]);
+            if (recipient == null) {
+                continue;
+            }
+            recipient.pendingRequests += ((Number) row[3]).longValue();
+            recipient.pendingServings += row[4] != null ? ((Number) row[4]).longValue() : 0;
+            LocalDateTime oldest = (LocalDateTime) row[5];
+            if (oldest != null && (recipient.oldestPending == null || oldest.isBefore(recipient.oldestPending))) {
+                recipient.oldestPending = oldest;
+            }
+        }
+
+        for (Object[] row : data.listings()) {
+            // [listingId, foodName, quantity, category, expiryTime, dietaryMask, dietaryInfo,
+            //  restaurantName, latitude, longitude]
+            if (row[8] == null || row[9] == null) {
+                continue;
+            }
+            int listingMask = row[5] != null
+                    ? (Integer) row[5]
+                    : DietaryTaxonomy.listingMask((FoodCategory) row[3], (String) row[6]);
+            NgoCatalog.Candidates candidates = ngos.findNearest(
+                    ((Number) row[8]).doubleValue(), ((Number) row[9]).doubleValue(),
+                    maxNgosPerListing, radiusKm, DietaryTaxonomy.foodKind(listingMask));
+            long hoursLeft = ChronoUnit.HOURS.between(now, (LocalDateTime) row[4]);
+            for (int i = 0; i < candidates.count(); i++) {
+                Recipient recipient = recipients.get(ngos.contact(candidates.rows()[i]).notifyEmail());
+                if (recipient == null) {
+                    continue;
+                }
+                // Listings arrive soonest-expiring first, so the first few are the ones to show
+                if (recipient.urgent.size() < urgentPerRecipient) {
+                    recipient.urgent.add(new UrgentItem((String) row[1], (Integer) row[2], (String) row[7],
+                            hoursLeft, candidates.distancesKm()[i]));
+                } else {
+                    recipient.moreUrgent++;
+                }
+            }
+        }
+        return recipients;
+    }
+
+    // Helper: the entry for a normalized address, created on first sight; null when there is no valid address
+    private static Recipient recipient(Map<String, Recipient> recipients, String email, String name) {
+        if (email == null) {
+            return null;
+        }
+        return recipients.computeIfAbsent(email, key -> new Recipient(email, name));
+    }
+
+    // Helper: render the top restaurant lines shared by every digest
+    private String renderTopRestaurants(List<Object[]> rows) {
+        StringBuilder block = new StringBuilder();
+        int rank = 1;
+        for (Object[] row : rows) {
+            // [restaurantId, organizationName, donations, servings]
+            block.append(notificationTemplateService.render(NotificationTemplate.DAILY_DIGEST_TOP_RESTAURANT,
+                    rank++, row[1], row[3], row[2])).append('\n');
+        }
+        return block.toString();
+    }
+
+    // Helper: render one recipient's digest
+    private String renderDigest(Recipient recipient, LocalDateTime now, String date, Object[] totals, String topBlock) {
+        StringBuilder urgentBlock = new StringBuilder();
+        for (UrgentItem item : recipient.urgent) {
+            urgentBlock.append(notificationTemplateService.render(NotificationTemplate.DAILY_DIGEST_URGENT_FOOD,
+                    item.foodName(), item.quantity(), item.restaurantName(), item.hoursLeft(),
+                    Math.round(item.distanceKm() * 10) / 10.0)).append('\n');
+        }
+        boolean pending = recipient.pendingRequests > 0;
+        Long pendingHours = pending && recipient.oldestPending != null
+                ? ChronoUnit.HOURS.between(recipient.oldestPending, now)
+                : null;
+        return notificationTemplateService.render(NotificationTemplate.DAILY_DIGEST_EMAIL,
+                recipient.name, date, totals[0], totals[1], totals[2], totals[3], topBlock,
+                pending ? recipient.pendingRequests : null, recipient.pendingServings, pendingHours,
+                urgentBlock, recipient.moreUrgent > 0 ? recipient.moreUrgent : null, appName, baseUrl);
+    }
+
+    private record DigestData(
+            List<Object[]> totals,
+            List<Object[]> topRestaurants,
+            List<Object[]> listings,
+            List<Object[]> pendingRequests
+    ) {
+    }
+
+    private record UrgentItem(String foodName, Integer quantity, String restaurantName, long hoursLeft,
+                              double distanceKm) {
+    }
+
+    private static final class Recipient {
+        private final String email;
+        private final String name;
+        private final List<UrgentItem> urgent = new ArrayList<>();
+        private int moreUrgent;
+        private long pendingRequests;
+        private long pendingServings;
+        private LocalDateTime oldestPending;
+
+        private Recipient(String email, String name) {
+            this.email = email;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Counts and timings for one run
+     */
+    @Getter
+    public static final class DigestRun {
+        private int recipients;
+        private int sent;
+        private int failed;
+        private int skipped;
+        private int urgentListings;
+        private int pendingRestaurants;
+        private long renderMillis;
+        private long sendMillis;
+        private long millis;
+    }
+}
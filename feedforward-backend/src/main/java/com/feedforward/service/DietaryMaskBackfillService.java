@@ -0,0 +1,63 @@
+package com.feedforward.service;
+
+import com.feedforward.enums.FoodCategory;
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.repository.NgoRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Fills dietary_mask for NGOs and listings saved before the column existed.
+ * New and edited rows get their mask on save, so this only has work after an upgrade
+ * (or after rows are inserted outside JPA). See db/dietary_mask.sql.
+ */
+@Service
+@RequiredArgsConstructor
+public class DietaryMaskBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DietaryMaskBackfillService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final NgoRepository ngoRepository;
+    private final FoodListingRepository foodListingRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        long start = System.currentTimeMillis();
+
+        // Always the first page: updated rows drop out of the result
+        int ngos = 0;
+        List<Object[]> rows;
+        do {
+            rows = ngoRepository.findDietaryRequirementsWithoutMask(PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : rows) {
+                ngos += ngoRepository.updateDietaryMask(((Number) row[0]).longValue(),
+                        DietaryTaxonomy.ngoMask((String) row[1]));
+            }
+        } while (rows.size() == BATCH_SIZE);
+
+        int listings = 0;
+        do {
+            rows = foodListingRepository.findDietaryInfoWithoutMask(PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : rows) {
+                listings += foodListingRepository.updateDietaryMask(((Number) row[0]).longValue(),
+                        DietaryTaxonomy.listingMask((FoodCategory) row[1], (String) row[2]));
+            }
+        } while (rows.size() == BATCH_SIZE);
+
+        if (ngos + listings > 0) {
+            logger.info("Dietary mask backfill updated {} NGOs and {} listings in {} ms",
+                    ngos, listings, System.currentTimeMillis() - start);
+        }
+    }
+}
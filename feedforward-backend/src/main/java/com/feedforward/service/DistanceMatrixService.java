@@ -0,0 +1,359 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.Ngo;
+import com.feedforward.entity.OrganizationDistance;
+import com.feedforward.entity.Restaurant;
+import com.feedforward.repository.NgoRepository;
+import com.feedforward.repository.OrganizationDistanceRepository;
+import com.feedforward.repository.RestaurantRepository;
+import com.feedforward.util.Constants;
+import com.feedforward.util.GeoDistance;
+import com.feedforward.util.PairDistanceMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse restaurant-NGO distance matrix covering every pair within the maximum search radius.
+ * Served from memory and persisted in organization_distances. An organization's pairs are
+ * recomputed after a committed registration or move. At startup the stored pairs are loaded and
+ * checked against current coordinates; only organizations whose pairs no longer match (moved,
+ * added or removed while the application was down) and those without any pair are recomputed.
+ */
+@Service
+public class DistanceMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistanceMatrixService.class);
+    private static final double MAX_DISTANCE_KM = Constants.MAX_SEARCH_RADIUS_KM;
+
+    // Stored distances come from either side's fast path; a larger difference means one side moved
+    private static final double MOVE_TOLERANCE_KM = 0.01;
+
+    private final OrganizationDistanceRepository distanceRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final NgoRepository ngoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Coordinates the stored pairs were computed from, as {latitude, longitude}
+    private final Map<Long, double[]> restaurantLocations = new ConcurrentHashMap<>();
+    private final Map<Long, double[]> ngoLocations = new ConcurrentHashMap<>();
+    private volatile PairDistanceMap distances = new PairDistanceMap();
+
+    public DistanceMatrixService(
+            OrganizationDistanceRepository distanceRepository,
+            RestaurantRepository restaurantRepository,
+            NgoRepository ngoRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.distanceRepository = distanceRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.ngoRepository = ngoRepository;
+        // Writes run after the triggering transaction has committed, so they need their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    /**
+     * Distance between a restaurant and an NGO (km); a map lookup for stored pairs, computed otherwise
+     */
+    public double distanceKm(Restaurant restaurant, Ngo ngo) {
+        if (restaurant.getRestaurantId() != null && ngo.getNgoId() != null) {
+            double distance = distances.get(restaurant.getRestaurantId(), ngo.getNgoId());
+            if (!Double.isNaN(distance)) {
+                return distance;
+            }
+        }
+        return GeoDistance.distanceKm(
+                restaurant.getLatitude().doubleValue(), restaurant.getLongitude().doubleValue(),
+                ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue());
+    }
+
+    public int size() {
+        return distances.size();
+    }
+
+    /**
+     * Load the stored pairs that still match current coordinates and recompute the rest
+     */
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        Map<Long, double[]> restaurants = toLocations(restaurantRepository.findAllLocations());
+        Map<Long, double[]> ngos = toLocations(ngoRepository.findAllLocations());
+
+        List<Object[]> storedRows = distanceRepository.findAllPairs();
+        if (storedRows.isEmpty()) {
+            // First start: one latitude-band pass is cheaper than recomputing organizations one by one
+            PairDistanceMap fresh = computeAll(restaurants, ngos);
+            restaurantLocations.clear();
+            restaurantLocations.putAll(restaurants);
+            ngoLocations.clear();
+            ngoLocations.putAll(ngos);
+            distances = fresh;
+            List<OrganizationDistance> rows = new ArrayList<>(fresh.size());
+            fresh.forEach((restaurantId, ngoId, distanceKm) -> rows.add(row(restaurantId, ngoId, distanceKm)));
+            persist(() -> distanceRepository.saveAll(rows));
+            logger.info("Distance matrix computed with {} pairs in {} ms",
+                    fresh.size(), System.currentTimeMillis() - start);
+            return;
+        }
+
+        PairDistanceMap loaded = new PairDistanceMap(storedRows.size());
+        Set<Long> staleRestaurants = new HashSet<>();
+        Set<Long> staleNgos = new HashSet<>();
+        Set<Long> pairedRestaurants = new HashSet<>();
+        Set<Long> pairedNgos = new HashSet<>();
+        for (Object[] row : storedRows) {
+            // [restaurantId, ngoId, distanceKm]
+            long restaurantId = ((Number) row[0]).longValue();
+            long ngoId = ((Number) row[1]).longValue();
+            double[] restaurant = restaurants.get(restaurantId);
+            double[] ngo = ngos.get(ngoId);
+            if (restaurant == null || ngo == null) {
+                // Pair of a removed organization: rewrite the side that still exists (or drop the rows)
+                staleRestaurants.add(restaurantId);
+                staleNgos.add(ngoId);
+                continue;
+            }
+            double storedKm = ((Number) row[2]).doubleValue();
+            if (Math.abs(GeoDistance.distanceKm(restaurant[0], restaurant[1], ngo[0], ngo[1]) - storedKm)
+                    > MOVE_TOLERANCE_KM) {
+                staleRestaurants.add(restaurantId);
+                staleNgos.add(ngoId);
+                continue;
+            }
+            loaded.put(restaurantId, ngoId, storedKm);
+            pairedRestaurants.add(restaurantId);
+            pairedNgos.add(ngoId);
+        }
+
+        // Organizations without a stored pair may be new, or may have moved into range of another
+        for (Long restaurantId : restaurants.keySet()) {
+            if (!pairedRestaurants.contains(restaurantId)) {
+                staleRestaurants.add(restaurantId);
+            }
+        }
+        for (Long ngoId : ngos.keySet()) {
+            if (!pairedNgos.contains(ngoId)) {
+                staleNgos.add(ngoId);
+            }
+        }
+
+        restaurantLocations.clear();
+        restaurantLocations.putAll(restaurants);
+        ngoLocations.clear();
+        ngoLocations.putAll(ngos);
+        distances = loaded;
+
+        for (Long restaurantId : staleRestaurants) {
+            updateRestaurant(restaurantId, restaurants.get(restaurantId));
+        }
+        for (Long ngoId : staleNgos) {
+            updateNgo(ngoId, ngos.get(ngoId));
+        }
+
+        logger.info("Distance matrix loaded with {} pairs ({} stored, {} restaurants and {} NGOs recomputed) in {} ms",
+                distances.size(), storedRows.size(), staleRestaurants.size(), staleNgos.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Recompute a restaurant's pairs once the current transaction commits, if it is new or has moved
+     */
+    public void onRestaurantSaved(Restaurant restaurant) {
+        if (restaurant.getRestaurantId() == null || restaurant.getLatitude() == null
+                || restaurant.getLongitude() == null) {
+            return;
+        }
+        long restaurantId = restaurant.getRestaurantId();
+        double[] location = {restaurant.getLatitude().doubleValue(), restaurant.getLongitude().doubleValue()};
+        if (!Arrays.equals(location, restaurantLocations.get(restaurantId))) {
+            afterCommit(() -> updateRestaurant(restaurantId, location));
+        }
+    }
+
+    /**
+     * Recompute an NGO's pairs once the current transaction commits, if it is new or has moved
+     */
+    public void onNgoSaved(Ngo ngo) {
+        if (ngo.getNgoId() == null || ngo.getLatitude() == null || ngo.getLongitude() == null) {
+            return;
+        }
+        long ngoId = ngo.getNgoId();
+        double[] location = {ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue()};
+        if (!Arrays.equals(location, ngoLocations.get(ngoId))) {
+            afterCommit(() -> updateNgo(ngoId, location));
+        }
+    }
+
+    public void onRestaurantRemoved(Long restaurantId) {
+        afterCommit(() -> updateRestaurant(restaurantId, null));
+    }
+
+    public void onNgoRemoved(Long ngoId) {
+        afterCommit(() -> updateNgo(ngoId, null));
+    }
+
+    // Helper: replace one restaurant's pairs in memory and in the table (location null = removed)
+    private synchronized void updateRestaurant(long restaurantId, double[] location) {
+        List<OrganizationDistance> rows = new ArrayList<>();
+        GeoDistance.Origin origin = location != null ? GeoDistance.origin(location[0], location[1]) : null;
+        ngoLocations.forEach((ngoId, ngoLocation) -> {
+            if (origin != null && origin.isWithin(ngoLocation[0], ngoLocation[1], MAX_DISTANCE_KM)) {
+                double distanceKm = origin.distanceKm(ngoLocation[0], ngoLocation[1]);
+                distances.put(restaurantId, ngoId, distanceKm);
+                rows.add(row(restaurantId, ngoId, distanceKm));
+            } else {
+                distances.remove(restaurantId, ngoId);
+            }
+        });
+        if (location != null) {
+            restaurantLocations.put(restaurantId, location);
+        } else {
+            restaurantLocations.remove(restaurantId);
+        }
+
+        persist(() -> {
+            distanceRepository.deleteByRestaurantId(restaurantId);
+            distanceRepository.saveAll(rows);
+        });
+        logger.debug("Distance matrix updated for restaurant {}: {} NGOs within {} km",
+                restaurantId, rows.size(), MAX_DISTANCE_KM);
+    }
+
+    // Helper: replace one NGO's pairs in memory and in the table (location null = removed)
+    private synchronized void updateNgo(long ngoId, double[] location) {
+        List<OrganizationDistance> rows = new ArrayList<>();
+        GeoDistance.Origin origin = location != null ? GeoDistance.origin(location[0], location[1]) : null;
+        restaurantLocations.forEach((restaurantId, restaurantLocation) -> {
+            if (origin != null && origin.isWithin(restaurantLocation[0], restaurantLocation[1], MAX_DISTANCE_KM)) {
+                double distanceKm = origin.distanceKm(restaurantLocation[0], restaurantLocation[1]);
+                distances.put(restaurantId, ngoId, distanceKm);
+                rows.add(row(restaurantId, ngoId, distanceKm));
+            } else {
+                distances.remove(restaurantId, ngoId);
+            }
+        });
+        if (location != null) {
+            ngoLocations.put(ngoId, location);
+        } else {
+            ngoLocations.remove(ngoId);
+        }
+
+        persist(() -> {
+            distanceRepository.deleteByNgoId(ngoId);
+            distanceRepository.saveAll(rows);
+        });
+        logger.debug("Distance matrix updated for NGO {}: {} restaurants within {} km",
+                ngoId, rows.size(), MAX_DISTANCE_KM);
+    }
+
+    // Helper: all pairs within range, scanning only the latitude band of NGOs around each restaurant
+    private static PairDistanceMap computeAll(Map<Long, double[]> restaurants, Map<Long, double[]> ngos) {
+        int count = ngos.size();
+        long[] ngoIds = new long[count];
+        double[][] ngoPoints = new double[count][];
+        int i = 0;
+        for (Map.Entry<Long, double[]> entry : ngos.entrySet()) {
+            ngoIds[i] = entry.getKey();
+            ngoPoints[i] = entry.getValue();
+            i++;
+        }
+        Integer[] order = new Integer[count];
+        for (int j = 0; j < count; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(j -> ngoPoints[j][0]));
+        double[] sortedLat = new double[count];
+        for (int j = 0; j < count; j++) {
+            sortedLat[j] = ngoPoints[order[j]][0];
+        }
+
+        double latSpan = Math.toDegrees(MAX_DISTANCE_KM / GeoDistance.EARTH_RADIUS_KM);
+        PairDistanceMap result = new PairDistanceMap(restaurants.size() * 16);
+        restaurants.forEach((restaurantId, location) -> {
+            GeoDistance.Origin origin = GeoDistance.origin(location[0], location[1]);
+            double maxLat = location[0] + latSpan;
+            for (int j = lowerBound(sortedLat, location[0] - latSpan); j < count && sortedLat[j] <= maxLat; j++) {
+                double[] ngoPoint = ngoPoints[order[j]];
+                if (origin.isWithin(ngoPoint[0], ngoPoint[1], MAX_DISTANCE_KM)) {
+                    result.put(restaurantId, ngoIds[order[j]], origin.distanceKm(ngoPoint[0], ngoPoint[1]));
+                }
+            }
+        });
+        return result;
+    }
+
+    // Helper: first index whose value is >= key
+    private static int lowerBound(double[] sorted, double key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static Map<Long, double[]> toLocations(List<Object[]> rows) {
+        Map<Long, double[]> locations = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            if (row[1] == null || row[2] == null) {
+                continue;
+            }
+            locations.put(((Number) row[0]).longValue(),
+                    new double[]{((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue()});
+        }
+        return locations;
+    }
+
+    private static OrganizationDistance row(long restaurantId, long ngoId, double distanceKm) {
+        return OrganizationDistance.builder()
+                .restaurantId(restaurantId)
+                .ngoId(ngoId)
+                .distanceKm(distanceKm)
+                .build();
+    }
+
+    // Helper: write in a new transaction; the in-memory matrix stays authoritative if this fails
+    // and the next startup recomputes whatever the table missed
+    private void persist(Runnable write) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write.run());
+        } catch (RuntimeException e) {
+            logger.error("Failed to persist distance matrix rows: {}", e.getMessage(), e);
+        }
+    }
+
+    // Helper: run once the current transaction commits (immediately when there is none)
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
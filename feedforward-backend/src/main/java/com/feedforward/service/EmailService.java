@@ -1,13 +1,29 @@
 package com.feedforward.service;
 
+import com.feedforward.enums.ExternalProvider;
+import com.feedforward.exception.ProviderUnavailableException;
+import com.feedforward.util.EmailValidator;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class EmailService {
@@ -20,10 +36,23 @@ public class EmailService {
     @Value("${spring.mail.enabled:true}")
     private boolean emailEnabled;
 
+    // Messages sent over each SMTP connection for bulk sends
+    // (connections open at once are capped by the SMTP bulkhead, app.providers.smtp.max-concurrent)
+    @Value("${app.mail.messages-per-connection:50}")
+    private int messagesPerConnection;
+
     private final JavaMailSender mailSender;
+    private final ProviderGuardService providerGuardService;
+    private final ExecutorService mailExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, ProviderGuardService providerGuardService) {
         this.mailSender = mailSender;
+        this.providerGuardService = providerGuardService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mailExecutor.shutdown();
     }
 
     /**
@@ -47,7 +76,7 @@ public class EmailService {
             return false;
         }
 
-        if (toEmail == null || toEmail.isEmpty() || !isValidEmail(toEmail)) {
+        if (toEmail == null || toEmail.isEmpty() || !EmailValidator.isValid(toEmail)) {
             logger.warn("⚠️ Invalid email address: {}", toEmail);
             return false;
         }
@@ -65,7 +94,10 @@ public class EmailService {
             logger.info("📧 Sending email via Gmail SMTP to: {}", toEmail);
             logger.debug("📧 Email subject: {}", subject);
             
-            mailSender.send(email);
+            providerGuardService.call(ExternalProvider.SMTP, () -> {
+                mailSender.send(email);
+                return null;
+            });
             
             logger.info("✅ Email sent successfully to: {}", toEmail);
             return true;
@@ -90,30 +122,161 @@ public class EmailService {
         if (emailAddresses == null || emailAddresses.isEmpty()) {
             return 0;
         }
+        return sendBatch(emailAddresses, subject, message).sent();
+    }
 
-        int successCount = 0;
-        for (int i = 0; i < emailAddresses.size(); i++) {
-            String email = emailAddresses.get(i);
-            String name = (recipientNames != null && i < recipientNames.size()) 
-                    ? recipientNames.get(i) 
-                    : null;
-            
-            if (sendEmail(email, subject, message, name)) {
-                successCount++;
+    /**
+     * Send the same email to many recipients (one message each) over pooled SMTP connections:
+     * recipients are split into chunks of app.mail.messages-per-connection, each chunk is sent
+     * over a single connection, and the SMTP bulkhead caps how many chunks run at once.
+     * @return Per-batch counts, throughput and the error for each recipient that failed
+     */
+    public EmailBatchResult sendBatch(List<String> emailAddresses, String subject, String message) {
+        List<OutgoingEmail> emails = new ArrayList<>(emailAddresses.size());
+        for (String email : emailAddresses) {
+            emails.add(new OutgoingEmail(email, subject, message));
+        }
+        return sendEach(emails);
+    }
+
+    /**
+     * Send individually rendered emails over pooled SMTP connections, chunked and capped like sendBatch.
+     * A recipient listed more than once gets only the first of its emails.
+     * @return Per-batch counts, throughput and the error for each recipient that failed
+     */
+    public EmailBatchResult sendEach(List<OutgoingEmail> emails) {
+        long start = System.nanoTime();
+        Map<String, String> failures = new LinkedHashMap<>();
+
+        if (!emailEnabled || fromEmail == null || fromEmail.isEmpty()) {
+            String error = !emailEnabled ? "Email is disabled" : "Sender email not configured";
+            logger.warn("⚠️ {}; {} emails not sent", error, emails.size());
+            emails.forEach(email -> failures.put(email.to(), error));
+            return new EmailBatchResult(emails.size(), 0, 0, failures, elapsedMillis(start));
+        }
+
+        Map<String, OutgoingEmail> byRecipient = new LinkedHashMap<>();
+        for (OutgoingEmail email : emails) {
+            if (!EmailValidator.isValid(email.to())) {
+                failures.put(email.to(), "Invalid email address");
+            } else {
+                byRecipient.putIfAbsent(email.to(), email);
+            }
+        }
+        List<OutgoingEmail> outgoing = new ArrayList<>(byRecipient.values());
+
+        // One connection per chunk, chunks in parallel up to the connection limit
+        int chunkSize = Math.max(1, messagesPerConnection);
+        List<CompletableFuture<Map<String, String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < outgoing.size(); from += chunkSize) {
+            List<OutgoingEmail> chunk = outgoing.subList(from, Math.min(from + chunkSize, outgoing.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> sendOverOneConnection(chunk), mailExecutor));
+        }
+        for (CompletableFuture<Map<String, String>> chunk : chunks) {
+            failures.putAll(chunk.join());
+        }
+
+        int sent = 0;
+        for (String recipient : byRecipient.keySet()) {
+            if (!failures.containsKey(recipient)) {
+                sent++;
             }
         }
+        EmailBatchResult result = new EmailBatchResult(
+                emails.size(), sent, chunks.size(), failures, elapsedMillis(start));
+        logger.info("📧 Bulk email result: {}/{} emails sent over {} connections in {} ms ({} emails/s)",
+                result.sent(), result.requested(), result.connections(), result.millis(),
+                String.format("%.1f", result.emailsPerSecond()));
+        return result;
+    }
+
+    // Helper: build and send a chunk of messages over one SMTP connection; returns failed recipients.
+    // Some recipients rejected on a working connection is a per-recipient outcome; a connection that
+    // fails outright, or rejects every message, counts against the SMTP breaker
+    private Map<String, String> sendOverOneConnection(List<OutgoingEmail> emails) {
+        Map<String, String> failures = new HashMap<>();
+        Map<MimeMessage, String> recipientOf = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (OutgoingEmail email : emails) {
+            try {
+                MimeMessage mimeMessage = buildMessage(email.to(), email.subject(), email.body());
+                messages.add(mimeMessage);
+                recipientOf.put(mimeMessage, email.to());
+            } catch (MessagingException e) {
+                failures.put(email.to(), e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
 
-        logger.info("📧 Bulk email result: {}/{} emails sent successfully", successCount, emailAddresses.size());
-        return successCount;
+        try {
+            failures.putAll(providerGuardService.call(ExternalProvider.SMTP, () -> {
+                try {
+                    // JavaMailSenderImpl connects once for the whole array and reuses the transport
+                    mailSender.send(messages.toArray(new MimeMessage[0]));
+                    return Map.<String, String>of();
+                } catch (MailSendException e) {
+                    if (e.getFailedMessages().isEmpty() || e.getFailedMessages().size() >= messages.size()) {
+                        throw e;
+                    }
+                    Map<String, String> rejected = failedRecipients(e, recipientOf);
+                    logger.error("❌ {} of {} emails failed on one SMTP connection: {}",
+                            rejected.size(), messages.size(), e.getMessage());
+                    return rejected;
+                }
+            }));
+        } catch (ProviderUnavailableException e) {
+            logger.error("❌ SMTP batch of {} emails failed: {}", messages.size(), e.getMessage());
+            if (e.getCause() instanceof MailSendException sendException) {
+                failures.putAll(failedRecipients(sendException, recipientOf));
+            }
+            recipientOf.values().forEach(email -> failures.putIfAbsent(email, e.getMessage()));
+        }
+        return failures;
+    }
+
+    // Helper: recipients of the messages a MailSendException reports as failed
+    private static Map<String, String> failedRecipients(MailSendException e, Map<MimeMessage, String> recipientOf) {
+        Map<String, String> failed = new HashMap<>();
+        e.getFailedMessages().forEach((message, cause) -> {
+            String email = recipientOf.get(message);
+            if (email != null) {
+                failed.put(email, cause.getMessage());
+            }
+        });
+        return failed;
+    }
+
+    private MimeMessage buildMessage(String toEmail, String subject, String message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(toEmail);
+        helper.setReplyTo("noreply@feedforward.com");
+        helper.setSubject(subject);
+        helper.setText(message);
+        return mimeMessage;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
     }
 
     /**
-     * Simple email validation
+     * One rendered email for sendEach
      */
-    private boolean isValidEmail(String email) {
-        if (email == null || email.isEmpty()) {
-            return false;
+    public record OutgoingEmail(String to, String subject, String body) {
+    }
+
+    /**
+     * Outcome of one bulk send: counts, SMTP connections used, elapsed time and the error for each failed recipient
+     */
+    public record EmailBatchResult(int requested, int sent, int connections, Map<String, String> failures,
+                                   long millis) {
+
+        public double emailsPerSecond() {
+            return millis == 0 ? 0.0 : sent * 1000.0 / millis;
         }
-        return email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
     }
 }
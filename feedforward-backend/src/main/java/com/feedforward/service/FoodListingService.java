@@ -3,15 +3,19 @@ package com.feedforward.service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.feedforward.dto.request.FoodListingRequest;
 import com.feedforward.dto.request.SearchFoodRequest;
@@ -33,6 +37,9 @@ import com.feedforward.exception.UnauthorizedException;
 import com.feedforward.repository.FoodListingRepository;
 import com.feedforward.repository.NgoRepository;
 import com.feedforward.repository.RestaurantRepository;
+import com.feedforward.util.GeoBounds;
+import com.feedforward.util.ListingCandidateSet;
+import com.feedforward.util.NgoCatalog;
 import com.feedforward.util.SecurityUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -49,12 +56,36 @@ public class FoodListingService {
     private final MatchingAlgorithmService matchingAlgorithmService;
     private final GooglePlacesService googlePlacesService;
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.geo.spatial-index.enabled:false}")
+    private boolean spatialIndexEnabled;
+
+    @Value("${app.geo.cell-index.enabled:false}")
+    private boolean cellIndexEnabled;
 
     /**
-     * Add new food listing with top 5 nearby organizations (Restaurant only)
+     * Add new food listing with top 5 nearby organizations (Restaurant only).
+     * The listing commits first; unregistered NGOs are looked up on Google Places afterwards,
+     * so slow provider calls never hold a connection or row locks.
      */
-    @Transactional
     public FoodListingWithNearbyResponse addFoodListingWithNearby(FoodListingRequest request) {
+        CreatedListing created = transactionTemplate.execute(status -> createListingWithNearby(request));
+
+        // Top 10 unregistered NGOs from Google Places
+        long start = System.nanoTime();
+        List<NearbyNgoPlaceResponse> nearbyNgoPlaces =
+                notificationService.findUnregisteredNgos(created.restaurant(), created.catalog());
+        FoodListingWithNearbyResponse response = created.response();
+        response.getNearbyOrganizations().setUnregisteredNgos(nearbyNgoPlaces);
+        response.getFoodListing().setNearbyNgoPlaces(nearbyNgoPlaces);
+        logger.info("Listing {} places lookup after commit: {} ms",
+                response.getFoodListing().getListingId(), millis(start, System.nanoTime()));
+        return response;
+    }
+
+    // Helper: create the listing and run the creation pipeline in the caller's transaction
+    private CreatedListing createListingWithNearby(FoodListingRequest request) {
         Long userId = SecurityUtil.getCurrentUserId();
         logger.info("Adding food listing with nearby organizations for user: {}", userId);
 
@@ -68,6 +99,7 @@ public class FoodListingService {
         // Create food listing
         FoodListing listing = FoodListing.builder()
                 .restaurant(restaurant)
+                .cellId(restaurant.getCellId())
                 .foodName(request.getFoodName())
                 .category(request.getCategory())
                 .quantity(request.getQuantity())
@@ -83,37 +115,7 @@ public class FoodListingService {
         listing = foodListingRepository.save(listing);
         logger.info("Food listing created with ID: {}", listing.getListingId());
 
-        // ✨ Get top 10 registered + top 10 unregistered NGOs and send SMS to top 10 registered
-        NearbyOrganizationsResponse nearbyOrganizations = null;
-        try {
-            nearbyOrganizations = notificationService.getAndNotifyNearbyNgos(listing, restaurant);
-            logger.info("SMS notifications sent to {} nearby NGOs (top 10)", nearbyOrganizations.getNotifiedCount());
-        } catch (Exception e) {
-            // Log error but don't fail the listing creation
-            logger.error("Failed to send SMS notifications: {}", e.getMessage(), e);
-            nearbyOrganizations = NearbyOrganizationsResponse.builder()
-                    .registeredNgos(new ArrayList<>())
-                    .unregisteredNgos(new ArrayList<>())
-                    .notifiedCount(0)
-                    .build();
-        }
-
-        // Find suggested NGOs (for backward compatibility)
-        List<SuggestedNgoResponse> suggestedNgos = matchingAlgorithmService
-                .findMatchingNgos(listing);
-
-        // Use top 5 from nearbyOrganizations if available
-        List<NearbyNgoPlaceResponse> nearbyNgoPlaces = nearbyOrganizations != null && 
-                nearbyOrganizations.getUnregisteredNgos() != null ? 
-                nearbyOrganizations.getUnregisteredNgos() : new ArrayList<>();
-
-        // Build response
-        FoodListingResponse listingResponse = buildFoodListingResponse(listing, 0.0, suggestedNgos, null, nearbyNgoPlaces);
-        
-        return FoodListingWithNearbyResponse.builder()
-                .foodListing(listingResponse)
-                .nearbyOrganizations(nearbyOrganizations)
-                .build();
+        return runCreationPipeline(listing, restaurant);
     }
 
     /**
@@ -134,6 +136,7 @@ public class FoodListingService {
         // Create food listing
         FoodListing listing = FoodListing.builder()
                 .restaurant(restaurant)
+                .cellId(restaurant.getCellId())
                 .foodName(request.getFoodName())
                 .category(request.getCategory())
                 .quantity(request.getQuantity())
@@ -149,36 +152,61 @@ public class FoodListingService {
         listing = foodListingRepository.save(listing);
         logger.info("Food listing created with ID: {}", listing.getListingId());
 
-        // ✨ Get top 10 registered + top 10 unregistered NGOs and send SMS to top 10 registered
-        NearbyOrganizationsResponse nearbyOrganizations = null;
+        return runCreationPipeline(listing, restaurant).response().getFoodListing();
+    }
+
+    // Helper: resolve candidate NGOs once, then notify, suggest and build the response from that set;
+    // no provider calls, so it stays cheap inside the listing's transaction
+    private CreatedListing runCreationPipeline(FoodListing listing, Restaurant restaurant) {
+        long start = System.nanoTime();
+
+        // 1. Candidate NGOs within matching distance, with distances and scores
+        ListingCandidateSet candidateSet = matchingAlgorithmService.resolveCandidates(listing);
+        long resolved = System.nanoTime();
+
+        // 2. ✨ Queue SMS/Email to the top 10 registered NGOs (sent from the outbox after commit)
+        NearbyOrganizationsResponse nearbyOrganizations;
         try {
-            nearbyOrganizations = notificationService.getAndNotifyNearbyNgos(listing, restaurant);
-            logger.info("SMS notifications sent to {} nearby NGOs (top 10)", nearbyOrganizations.getNotifiedCount());
+            nearbyOrganizations = notificationService.notifyCandidateNgos(listing, restaurant, candidateSet);
+            logger.info("Notifications queued for {} nearby NGOs (top 10)", nearbyOrganizations.getNotifiedCount());
         } catch (Exception e) {
             // Log error but don't fail the listing creation
-            logger.error("Failed to send SMS notifications: {}", e.getMessage(), e);
+            logger.error("Failed to queue notifications: {}", e.getMessage(), e);
+            nearbyOrganizations = NearbyOrganizationsResponse.builder()
+                    .registeredNgos(new ArrayList<>())
+                    .notifiedCount(0)
+                    .build();
         }
+        nearbyOrganizations.setUnregisteredNgos(new ArrayList<>());
+        long notified = System.nanoTime();
 
-        // Find suggested NGOs (for backward compatibility)
-        List<SuggestedNgoResponse> suggestedNgos = matchingAlgorithmService
-                .findMatchingNgos(listing);
+        // 3. Suggested NGOs (for backward compatibility)
+        List<SuggestedNgoResponse> suggestedNgos = matchingAlgorithmService.findMatchingNgos(listing, candidateSet);
+        long suggested = System.nanoTime();
 
-        // Use top 5 from nearbyOrganizations if available, otherwise fallback to old method
-        List<NearbyNgoPlaceResponse> nearbyNgoPlaces = null;
-        if (nearbyOrganizations != null && nearbyOrganizations.getUnregisteredNgos() != null) {
-            nearbyNgoPlaces = nearbyOrganizations.getUnregisteredNgos();
-        } else {
-            // Fallback to old method
-            nearbyNgoPlaces = googlePlacesService.findNearbyNgoPlaces(
-                    restaurant.getLatitude().doubleValue(),
-                    restaurant.getLongitude().doubleValue()
-            );
-        }
+        // 4. Build response
+        FoodListingResponse listingResponse = buildFoodListingResponse(listing, 0.0, suggestedNgos, null, null);
+        long built = System.nanoTime();
+
+        logger.info("Listing {} pipeline: {} candidates in {} ms, notify {} ms, " +
+                        "suggestions {} ms, response {} ms, total {} ms",
+                listing.getListingId(), candidateSet.size(), millis(start, resolved), millis(resolved, notified),
+                millis(notified, suggested), millis(suggested, built), millis(start, built));
+
+        FoodListingWithNearbyResponse response = FoodListingWithNearbyResponse.builder()
+                .foodListing(listingResponse)
+                .nearbyOrganizations(nearbyOrganizations)
+                .build();
+        return new CreatedListing(response, restaurant, candidateSet.catalog());
+    }
+
+    // A created listing's response, with what the after-commit Places lookup needs
+    private record CreatedListing(FoodListingWithNearbyResponse response, Restaurant restaurant,
+                                  NgoCatalog catalog) {
+    }
 
-        // Build response with top 5 organizations
-        FoodListingResponse listingResponse = buildFoodListingResponse(listing, 0.0, suggestedNgos, null, nearbyNgoPlaces);
-        
-        return listingResponse;
+    private static long millis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
     }
 
     /**
@@ -228,32 +256,65 @@ public class FoodListingService {
         Ngo ngo = ngoRepository.findByUser_UserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("NGO not found"));
 
-        // Search nearby listings
-        List<FoodListing> listings = foodListingRepository.searchNearbyListings(
-                ngo.getLatitude(),
-                ngo.getLongitude(),
-                request.getDistance(),
-                request.getCategory() != null ? request.getCategory().name() : null,
-                request.getUrgencyLevel() != null ? request.getUrgencyLevel().name() : null,
-                request.getSearchTerm(),
-                request.getSortBy()
-        );
+        // Search nearby listings (rows of listing id and SQL-computed distance, already sorted)
+        String category = request.getCategory() != null ? request.getCategory().name() : null;
+        String urgencyLevel = request.getUrgencyLevel() != null ? request.getUrgencyLevel().name() : null;
+        List<Object[]> rows;
+        if (spatialIndexEnabled) {
+            GeoBounds bounds = GeoBounds.around(
+                    ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue(), request.getDistance());
+            rows = foodListingRepository.searchNearbyListingDistancesSpatial(
+                    GeoBounds.pointWkt(ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue()),
+                    bounds.toWkt(),
+                    request.getDistance(),
+                    category,
+                    urgencyLevel,
+                    request.getSearchTerm(),
+                    request.getSortBy()
+            );
+        } else if (cellIndexEnabled) {
+            rows = foodListingRepository.searchNearbyListingDistancesByCells(
+                    ngo.getLatitude(),
+                    ngo.getLongitude(),
+                    request.getDistance(),
+                    category,
+                    urgencyLevel,
+                    request.getSearchTerm(),
+                    request.getSortBy()
+            );
+        } else {
+            rows = foodListingRepository.searchNearbyListingDistances(
+                    ngo.getLatitude(),
+                    ngo.getLongitude(),
+                    request.getDistance(),
+                    category,
+                    urgencyLevel,
+                    request.getSearchTerm(),
+                    request.getSortBy()
+            );
+        }
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        // Calculate match scores and distance for each listing
-        return listings.stream()
-                .map(listing -> {
-                    double distance = matchingAlgorithmService.calculateDistance(
-                            ngo.getLatitude().doubleValue(),
-                            ngo.getLongitude().doubleValue(),
-                            listing.getRestaurant().getLatitude().doubleValue(),
-                            listing.getRestaurant().getLongitude().doubleValue()
-                    );
-
-                    int matchScore = matchingAlgorithmService.calculateMatchScore(listing, ngo);
-
-                    return buildFoodListingResponse(listing, distance, null, matchScore);
-                })
-                .collect(Collectors.toList());
+        Map<Long, Double> distanceById = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            distanceById.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+        }
+        Map<Long, FoodListing> listingsById = foodListingRepository.findAllWithRestaurantByIdIn(distanceById.keySet())
+                .stream()
+                .collect(Collectors.toMap(FoodListing::getListingId, listing -> listing));
+
+        // Keep the SQL ordering and reuse its distance for scoring
+        List<FoodListingResponse> results = new ArrayList<>(distanceById.size());
+        distanceById.forEach((listingId, distance) -> {
+            FoodListing listing = listingsById.get(listingId);
+            if (listing != null) {
+                int matchScore = matchingAlgorithmService.calculateMatchScore(listing, ngo, distance);
+                results.add(buildFoodListingResponse(listing, distance, null, matchScore));
+            }
+        });
+        return results;
     }
 
     /**
@@ -342,12 +403,7 @@ public class FoodListingService {
             Ngo ngo = ngoRepository.findByUser_UserId(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("NGO not found"));
 
-            distance = matchingAlgorithmService.calculateDistance(
-                    ngo.getLatitude().doubleValue(),
-                    ngo.getLongitude().doubleValue(),
-                    listing.getRestaurant().getLatitude().doubleValue(),
-                    listing.getRestaurant().getLongitude().doubleValue()
-            );
+            distance = matchingAlgorithmService.calculateDistance(listing.getRestaurant(), ngo);
         }
 
         return buildFoodListingResponse(listing, distance, null);
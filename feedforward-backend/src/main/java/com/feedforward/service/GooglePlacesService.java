@@ -1,7 +1,17 @@
 package com.feedforward.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.feedforward.dto.response.NearbyNgoPlaceResponse;
 import com.feedforward.dto.response.NearbyRestaurantResponse;
+import com.feedforward.enums.ExternalProvider;
+import com.feedforward.exception.ProviderUnavailableException;
+import com.feedforward.util.GeoCell;
+import com.feedforward.util.GeoDistance;
+import com.feedforward.util.PlacesCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,15 +21,32 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
+/**
+ * Nearby NGOs and restaurants from Google Places (Nearby Search per keyword, then Place Details for the top 10).
+ *
+ * Results are cached per query type, GeoCell (app.geo.places-cache.cell-level) and radius bucket, so
+ * listings and searches from the same neighbourhood reuse one lookup until it expires. A miss searches
+ * from the cell centre with the radius grown by the cell half-diagonal, so the entry covers the radius
+ * around every point in the cell; distances and the radius cut are recomputed for each caller.
+ * Entries are appended to a file under app.geo.places-cache.directory and replayed on startup.
+ */
 @Service
 @RequiredArgsConstructor
 public class GooglePlacesService {
 
     private static final Logger logger = LoggerFactory.getLogger(GooglePlacesService.class);
 
-    private final MatchingAlgorithmService matchingAlgorithmService;
+    private static final String NGO_QUERY = "ngo";
+    private static final String RESTAURANT_QUERY = "restaurant";
+
+    // Nearby Search rejects a larger radius
+    private static final double MAX_SEARCH_RADIUS_KM = 50.0;
 
     @Value("${google.places.api-key:}")
     private String apiKey;
@@ -33,7 +60,54 @@ public class GooglePlacesService {
     @Value("${google.places.radius-meters:5000}")
     private int radiusMeters;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${app.geo.places-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.geo.places-cache.cell-level:16}")
+    private int cacheCellLevel;
+
+    @Value("${app.geo.places-cache.ttl-hours:24}")
+    private long cacheTtlHours;
+
+    @Value("${app.geo.places-cache.max-entries:5000}")
+    private int cacheMaxEntries;
+
+    @Value("${app.geo.places-cache.directory:}")
+    private String cacheDirectory;
+
+    private final ProviderGuardService providerGuardService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RestTemplate restTemplate;
+    private PlacesCache<List<NearbyNgoPlaceResponse>> ngoPlacesCache;
+    private PlacesCache<List<NearbyRestaurantResponse>> restaurantCache;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = providerGuardService.restTemplate(ExternalProvider.PLACES);
+        ngoPlacesCache = openCache(NGO_QUERY, new TypeReference<List<NearbyNgoPlaceResponse>>() {});
+        restaurantCache = openCache(RESTAURANT_QUERY, new TypeReference<List<NearbyRestaurantResponse>>() {});
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            ngoPlacesCache.close();
+            restaurantCache.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close Places cache files: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Places cache counters per query type
+     */
+    public Map<String, PlacesCache.Stats> cacheStats() {
+        Map<String, PlacesCache.Stats> stats = new LinkedHashMap<>();
+        stats.put(NGO_QUERY, ngoPlacesCache.stats());
+        stats.put(RESTAURANT_QUERY, restaurantCache.stats());
+        return stats;
+    }
 
     /**
      * Search Google Places around a restaurant for NGO-like organizations.
@@ -41,17 +115,45 @@ public class GooglePlacesService {
      *
      * Note: This is optional and returns empty list if apiKey is not configured.
      */
-    @SuppressWarnings("unchecked")
     public List<NearbyNgoPlaceResponse> findNearbyNgoPlaces(double restaurantLat, double restaurantLng) {
         if (apiKey == null || apiKey.isBlank()) {
             logger.info("Google Places API key not configured; skipping nearby NGO lookup");
             return Collections.emptyList();
         }
 
+        double radiusKm = radiusMeters / 1000.0;
+        String key = PlacesCache.key(NGO_QUERY, restaurantLat, restaurantLng, radiusKm, cacheCellLevel);
+        List<NearbyNgoPlaceResponse> places = cacheEnabled ? ngoPlacesCache.get(key) : null;
+        if (places == null) {
+            double[] center = searchCenter(restaurantLat, restaurantLng);
+            Lookup<NearbyNgoPlaceResponse> lookup = searchNgoPlaces(center[0], center[1],
+                    searchRadiusKm(restaurantLat, restaurantLng, radiusKm));
+            places = lookup.places();
+            if (lookup.complete()) {
+                cache(ngoPlacesCache, key, places);
+            }
+        }
+
+        // Distances from this restaurant, closest first, within the configured radius
+        GeoDistance.Origin origin = GeoDistance.origin(restaurantLat, restaurantLng);
+        return places.stream()
+                .map(p -> p.toBuilder().distanceKm(roundedDistanceKm(origin, p.getLatitude(), p.getLongitude())).build())
+                .filter(p -> p.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyNgoPlaceResponse::getDistanceKm))
+                .toList();
+    }
+
+    // Helper: one Nearby Search per keyword around a point, then Place Details for the closest 10
+    @SuppressWarnings("unchecked")
+    private Lookup<NearbyNgoPlaceResponse> searchNgoPlaces(double restaurantLat, double restaurantLng, double radiusKm) {
+        boolean complete = true;
+        int radiusMeters = (int) Math.ceil(radiusKm * 1000);
+
         // A small set of keywords gives decent coverage without too many API calls.
         List<String> keywords = List.of("ngo", "charity", "non profit", "community center", "social service");
 
         Map<String, NearbyNgoPlaceResponse> byPlaceId = new LinkedHashMap<>();
+        GeoDistance.Origin origin = GeoDistance.origin(restaurantLat, restaurantLng);
 
         for (String keyword : keywords) {
             try {
@@ -63,8 +165,11 @@ public class GooglePlacesService {
                         .queryParam("key", apiKey)
                         .toUriString();
 
-                Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-                if (response == null) continue;
+                Map<String, Object> response = fetch(url);
+                if (response == null) {
+                    complete = false;
+                    continue;
+                }
 
                 Object statusObj = response.get("status");
                 String status = statusObj != null ? statusObj.toString() : "UNKNOWN";
@@ -72,6 +177,7 @@ public class GooglePlacesService {
                 if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
                     logger.warn("Google Places nearbysearch status={} keyword={} errorMessage={}",
                             status, keyword, response.getOrDefault("error_message", ""));
+                    complete = false;
                     continue;
                 }
 
@@ -106,9 +212,7 @@ public class GooglePlacesService {
 
                     if (lat == null || lng == null) continue;
 
-                    double distanceKm = matchingAlgorithmService.calculateDistance(
-                            restaurantLat, restaurantLng, lat, lng
-                    );
+                    double distanceKm = origin.distanceKm(lat, lng);
 
                     String mapsUrl = "https://www.google.com/maps/search/?api=1&query_place_id=" + placeId;
 
@@ -122,10 +226,12 @@ public class GooglePlacesService {
                             .mapsUrl(mapsUrl)
                             .build());
                 }
-            } catch (RestClientException ex) {
+            } catch (RestClientException | ProviderUnavailableException ex) {
                 logger.warn("Google Places lookup failed for keyword {}: {}", keyword, ex.getMessage());
+                complete = false;
             } catch (Exception ex) {
                 logger.warn("Unexpected error in Google Places lookup for keyword {}: {}", keyword, ex.getMessage());
+                complete = false;
             }
         }
 
@@ -142,7 +248,7 @@ public class GooglePlacesService {
                 .toList();
 
         // Return top 10 with phone numbers (rest are not enriched to save API calls)
-        return top10Places;
+        return new Lookup<>(top10Places, complete);
     }
 
     /**
@@ -162,7 +268,7 @@ public class GooglePlacesService {
                     .queryParam("key", apiKey)
                     .toUriString();
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = fetch(url);
             if (response == null) return place;
 
             String status = Objects.toString(response.get("status"), "UNKNOWN");
@@ -196,7 +302,7 @@ public class GooglePlacesService {
                     .website(website)
                     .build();
 
-        } catch (RestClientException ex) {
+        } catch (RestClientException | ProviderUnavailableException ex) {
             logger.warn("Failed to fetch place details for place_id {}: {}", place.getPlaceId(), ex.getMessage());
             return place;
         } catch (Exception ex) {
@@ -211,18 +317,45 @@ public class GooglePlacesService {
      *
      * Note: This is optional and returns empty list if apiKey is not configured.
      */
-    @SuppressWarnings("unchecked")
     public List<NearbyRestaurantResponse> findNearbyRestaurants(double ngoLat, double ngoLng, double radiusKm) {
         if (apiKey == null || apiKey.isBlank()) {
             logger.info("Google Places API key not configured; skipping nearby restaurant lookup");
             return Collections.emptyList();
         }
 
-        int radiusMeters = (int) (radiusKm * 1000);
+        String key = PlacesCache.key(RESTAURANT_QUERY, ngoLat, ngoLng, radiusKm, cacheCellLevel);
+        List<NearbyRestaurantResponse> restaurants = cacheEnabled ? restaurantCache.get(key) : null;
+        if (restaurants == null) {
+            // Cached lookups cover the whole radius bucket; each caller gets its own radius below
+            double[] center = searchCenter(ngoLat, ngoLng);
+            double bucketKm = cacheEnabled ? PlacesCache.radiusBucketKm(radiusKm) : radiusKm;
+            Lookup<NearbyRestaurantResponse> lookup = searchRestaurants(center[0], center[1],
+                    searchRadiusKm(ngoLat, ngoLng, bucketKm));
+            restaurants = lookup.places();
+            if (lookup.complete()) {
+                cache(restaurantCache, key, restaurants);
+            }
+        }
+
+        // Distances from this NGO, closest first, within the requested radius
+        GeoDistance.Origin origin = GeoDistance.origin(ngoLat, ngoLng);
+        return restaurants.stream()
+                .map(r -> r.toBuilder().distanceKm(roundedDistanceKm(origin, r.getLatitude(), r.getLongitude())).build())
+                .filter(r -> r.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyRestaurantResponse::getDistanceKm))
+                .toList();
+    }
+
+    // Helper: one Nearby Search per keyword around a point, then Place Details for the closest 10
+    @SuppressWarnings("unchecked")
+    private Lookup<NearbyRestaurantResponse> searchRestaurants(double ngoLat, double ngoLng, double radiusKm) {
+        boolean complete = true;
+        int radiusMeters = (int) Math.ceil(radiusKm * 1000);
         // Keywords for restaurant search
         List<String> keywords = List.of("restaurant", "food", "hotel", "catering", "dining");
 
         Map<String, NearbyRestaurantResponse> byPlaceId = new LinkedHashMap<>();
+        GeoDistance.Origin origin = GeoDistance.origin(ngoLat, ngoLng);
 
         for (String keyword : keywords) {
             try {
@@ -235,8 +368,11 @@ public class GooglePlacesService {
                         .queryParam("key", apiKey)
                         .toUriString();
 
-                Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-                if (response == null) continue;
+                Map<String, Object> response = fetch(url);
+                if (response == null) {
+                    complete = false;
+                    continue;
+                }
 
                 Object statusObj = response.get("status");
                 String status = statusObj != null ? statusObj.toString() : "UNKNOWN";
@@ -244,6 +380,7 @@ public class GooglePlacesService {
                 if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
                     logger.warn("Google Places nearbysearch status={} keyword={} errorMessage={}",
                             status, keyword, response.getOrDefault("error_message", ""));
+                    complete = false;
                     continue;
                 }
 
@@ -278,7 +415,7 @@ public class GooglePlacesService {
 
                     if (lat == null || lng == null) continue;
 
-                    double distanceKm = matchingAlgorithmService.calculateDistance(ngoLat, ngoLng, lat, lng);
+                    double distanceKm = origin.distanceKm(lat, lng);
 
                     // Get rating if available
                     Double rating = null;
@@ -317,10 +454,12 @@ public class GooglePlacesService {
                             .isRegistered(false)
                             .build());
                 }
-            } catch (RestClientException ex) {
+            } catch (RestClientException | ProviderUnavailableException ex) {
                 logger.warn("Google Places restaurant lookup failed for keyword {}: {}", keyword, ex.getMessage());
+                complete = false;
             } catch (Exception ex) {
                 logger.warn("Unexpected error in Google Places restaurant lookup for keyword {}: {}", keyword, ex.getMessage());
+                complete = false;
             }
         }
 
@@ -337,7 +476,7 @@ public class GooglePlacesService {
                 .toList();
 
         // Return top 10 with phone numbers (rest are not enriched to save API calls)
-        return top10Restaurants;
+        return new Lookup<>(top10Restaurants, complete);
     }
 
     /**
@@ -357,7 +496,7 @@ public class GooglePlacesService {
                     .queryParam("key", apiKey)
                     .toUriString();
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = fetch(url);
             if (response == null) return restaurant;
 
             String status = Objects.toString(response.get("status"), "UNKNOWN");
@@ -394,7 +533,7 @@ public class GooglePlacesService {
                     .isRegistered(restaurant.getIsRegistered())
                     .build();
 
-        } catch (RestClientException ex) {
+        } catch (RestClientException | ProviderUnavailableException ex) {
             logger.warn("Failed to fetch place details for restaurant place_id {}: {}", restaurant.getPlaceId(), ex.getMessage());
             return restaurant;
         } catch (Exception ex) {
@@ -402,6 +541,76 @@ public class GooglePlacesService {
             return restaurant;
         }
     }
-}
 
+    // Helper: cache backed by an append-only file per query type (memory only without a directory)
+    private <T> PlacesCache<List<T>> openCache(String queryType, TypeReference<List<T>> type) {
+        Path file = cacheDirectory == null || cacheDirectory.isBlank()
+                ? null
+                : Path.of(cacheDirectory, "places-" + queryType + ".log");
+        PlacesCache<List<T>> cache = new PlacesCache<>(Duration.ofHours(cacheTtlHours).toMillis(), cacheMaxEntries, file,
+                value -> {
+                    try {
+                        return objectMapper.writeValueAsString(value);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                line -> {
+                    try {
+                        return objectMapper.readValue(line, type);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        if (cacheEnabled && file != null) {
+            try {
+                int loaded = cache.load();
+                logger.info("Places cache ({}): {} entries loaded from {}", queryType, loaded, file);
+            } catch (IOException e) {
+                logger.warn("Failed to load Places cache from {}: {}", file, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    // Helper: keep a complete lookup; a file write failure still leaves it cached in memory
+    private <T> void cache(PlacesCache<List<T>> cache, String key, List<T> places) {
+        if (!cacheEnabled) {
+            return;
+        }
+        try {
+            cache.put(key, places);
+        } catch (UncheckedIOException e) {
+            logger.warn("Failed to persist Places cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    // Helper: centre of the cache cell, so one lookup serves every point in it
+    private double[] searchCenter(double latitude, double longitude) {
+        return cacheEnabled
+                ? GeoCell.center(latitude, longitude, cacheCellLevel)
+                : new double[]{latitude, longitude};
+    }
+
+    // Helper: radius to search from the cell centre so it still covers radiusKm around any point in the cell
+    private double searchRadiusKm(double latitude, double longitude, double radiusKm) {
+        double searchRadiusKm = cacheEnabled
+                ? radiusKm + GeoCell.halfDiagonalKm(latitude, longitude, cacheCellLevel)
+                : radiusKm;
+        return Math.min(searchRadiusKm, MAX_SEARCH_RADIUS_KM);
+    }
 
+    private static double roundedDistanceKm(GeoDistance.Origin origin, double latitude, double longitude) {
+        return Math.round(origin.distanceKm(latitude, longitude) * 100.0) / 100.0;
+    }
+
+    // Places found by one search, and whether every keyword search succeeded (only those are cached)
+    private record Lookup<T>(List<T> places, boolean complete) {
+    }
+
+    // Helper: one Places API GET through the Places breaker and bulkhead
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> fetch(String url) {
+        return providerGuardService.call(ExternalProvider.PLACES, () -> (Map<String, Object>) restTemplate.getForObject(url, Map.class));
+    }
+}
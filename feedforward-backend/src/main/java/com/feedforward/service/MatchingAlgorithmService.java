@@ -3,188 +3,205 @@ package com.feedforward.service;
 import com.feedforward.dto.response.SuggestedNgoResponse;
 import com.feedforward.entity.FoodListing;
 import com.feedforward.entity.Ngo;
-import com.feedforward.repository.NgoRepository;
+import com.feedforward.entity.Restaurant;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.GeoDistance;
+import com.feedforward.util.ListingCandidateSet;
+import com.feedforward.util.MatchScorer;
+import com.feedforward.util.MatchScoringPipeline;
+import com.feedforward.util.NgoCatalog;
+import com.feedforward.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MatchingAlgorithmService {
 
     private static final Logger logger = LoggerFactory.getLogger(MatchingAlgorithmService.class);
-    private static final double MAX_DISTANCE_KM = 25.0; // Maximum matching distance
-    private static final int MAX_SUGGESTIONS = 5; // Top N suggestions
+    public static final double MAX_DISTANCE_KM = 25.0; // Maximum matching distance
+    public static final int MAX_SUGGESTIONS = 5; // Top N suggestions
 
-    private final NgoRepository ngoRepository;
+    private final NgoCatalogService ngoCatalogService;
+    private final DistanceMatrixService distanceMatrixService;
+    private final MatchScoringPipeline scoringPipeline;
+    private final UrgencyService urgencyService;
+    private final NgoDemandService ngoDemandService;
+
+    // Share of the score taken off an NGO whose daily need is already fully requested or received
+    @Value("${app.matching.saturation-discount:0.5}")
+    private double saturationDiscount;
 
     /**
-     * Find matching NGOs for a food listing using AI-based scoring
+     * Top matching NGOs from an already resolved candidate set
      */
-    public List<SuggestedNgoResponse> findMatchingNgos(FoodListing listing) {
+    public List<SuggestedNgoResponse> findMatchingNgos(FoodListing listing, ListingCandidateSet candidateSet) {
         logger.info("Finding matching NGOs for listing: {}", listing.getListingId());
 
-        // Get all NGOs within maximum distance
-        List<Ngo> nearbyNgos = ngoRepository.findNgosWithinRadius(
-                listing.getRestaurant().getLatitude(),
-                listing.getRestaurant().getLongitude(),
-                MAX_DISTANCE_KM
-        );
-
-        // Calculate match score for each NGO
-        List<SuggestedNgoResponse> suggestions = new ArrayList<>();
-        for (Ngo ngo : nearbyNgos) {
-            double distance = calculateDistance(
-                    listing.getRestaurant().getLatitude().doubleValue(),
-                    listing.getRestaurant().getLongitude().doubleValue(),
-                    ngo.getLatitude().doubleValue(),
-                    ngo.getLongitude().doubleValue()
-            );
-
-            int matchScore = calculateMatchScore(listing, ngo);
-            String reason = generateMatchReason(listing, ngo, distance);
-
-            suggestions.add(SuggestedNgoResponse.builder()
-                    .ngoId(ngo.getNgoId())
-                    .name(ngo.getOrganizationName())
-                    .distance(Math.round(distance * 100.0) / 100.0)
-                    .beneficiaries(ngo.getBeneficiariesCount())
-                    .matchScore(matchScore)
-                    .reason(reason)
-                    .build());
+        // Listing-side inputs are the same for every candidate
+        MatchScorer.ListingFeatures features = features(listing);
+        NgoCatalog catalog = candidateSet.catalog();
+
+        // Stream candidate scores through a bounded heap of the top N (closest first on ties);
+        // once the heap is full, candidates that cannot reach its lowest score stop scoring early
+        int[] scores = new int[candidateSet.size()];
+        TopKSelector top = new TopKSelector(MAX_SUGGESTIONS);
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = scoreCandidate(catalog, candidateSet.row(i), candidateSet.distanceKm(i), features,
+                    top.threshold());
+            if (scores[i] != MatchScoringPipeline.SKIPPED) {
+                top.offer(i, scores[i], candidateSet.distanceKm(i));
+            }
         }
 
-        // Sort by match score (descending) and return top N
-        return suggestions.stream()
-                .sorted(Comparator.comparingInt(SuggestedNgoResponse::getMatchScore).reversed())
-                .limit(MAX_SUGGESTIONS)
-                .collect(Collectors.toList());
+        // Only the top N get a reason text and a response
+        int[] best = top.drain();
+        List<SuggestedNgoResponse> suggestions = new ArrayList<>(best.length);
+        for (int i : best) {
+            suggestions.add(buildSuggestion(listing, catalog, candidateSet.row(i), candidateSet.distanceKm(i),
+                    scores[i], features.urgency()));
+        }
+        return suggestions;
     }
 
     /**
-     * Calculate match score between food listing and NGO (0-100)
+     * Resolve every candidate NGO of a listing once, with its distance; scores are computed by the stages that need them
      */
-    public int calculateMatchScore(FoodListing listing, Ngo ngo) {
-        int score = 0;
+    public ListingCandidateSet resolveCandidates(FoodListing listing) {
+        NgoCatalog catalog = ngoCatalogService.getCatalog();
+        return new ListingCandidateSet(catalog, findCandidates(listing, catalog), LocalDateTime.now());
+    }
 
-        // 1. Distance Score (40 points) - Closer is better
-        double distance = calculateDistance(
+    /**
+     * Candidate NGOs within matching distance of a listing, from the given catalog snapshot
+     */
+    public NgoCatalog.Candidates findCandidates(FoodListing listing, NgoCatalog catalog) {
+        return findCandidates(
                 listing.getRestaurant().getLatitude().doubleValue(),
                 listing.getRestaurant().getLongitude().doubleValue(),
-                ngo.getLatitude().doubleValue(),
-                ngo.getLongitude().doubleValue()
+                catalog
         );
+    }
 
-        if (distance <= 2.0) {
-            score += 40;
-        } else if (distance <= 5.0) {
-            score += 30;
-        } else if (distance <= 10.0) {
-            score += 20;
-        } else if (distance <= 15.0) {
-            score += 10;
-        }
-
-        // 2. Quantity Match Score (25 points) - Matches beneficiary needs
-        int quantityScore = calculateQuantityMatchScore(listing.getQuantity(), ngo.getBeneficiariesCount());
-        score += quantityScore;
-
-        // 3. Urgency Score (20 points) - More urgent = higher priority
-        score += calculateUrgencyScore(listing.getExpiryTime());
+    /**
+     * Candidate NGOs within matching distance of a restaurant location
+     */
+    public NgoCatalog.Candidates findCandidates(double latitude, double longitude, NgoCatalog catalog) {
+        return catalog.findWithinRadius(latitude, longitude, MAX_DISTANCE_KM, 0);
+    }
 
-        // 4. Dietary Match Score (15 points) - Dietary preferences alignment
-        if (listing.getDietaryInfo() != null && ngo.getDietaryRequirements() != null) {
-            score += calculateDietaryMatchScore(listing.getDietaryInfo(), ngo.getDietaryRequirements());
-        } else {
-            score += 10; // Default if no dietary restrictions
+    /**
+     * Match score (0-100) of a listing against each catalog candidate, in candidate order
+     */
+    public int[] scoreCandidates(FoodListing listing, NgoCatalog catalog, NgoCatalog.Candidates candidates) {
+        // Listing-side inputs are the same for every candidate
+        MatchScorer.ListingFeatures features = features(listing);
+
+        int[] rows = candidates.rows();
+        double[] distances = candidates.distancesKm();
+        int[] scores = new int[candidates.count()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = scoreCandidate(catalog, rows[i], distances[i], features, Integer.MIN_VALUE);
         }
-
-        return Math.min(score, 100); // Cap at 100
+        return scores;
     }
 
     /**
-     * Calculate distance between two points using Haversine formula (in km)
+     * Calculate match score when the restaurant-NGO distance is already known (0-100)
      */
-    public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS_KM = 6371;
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    public int calculateMatchScore(FoodListing listing, Ngo ngo, double distance) {
+        int ngoMask = ngo.getDietaryMask() != null
+                ? ngo.getDietaryMask()
+                : DietaryTaxonomy.ngoMask(ngo.getDietaryRequirements());
+        int score = scoringPipeline.score(features(listing), ngo.getBeneficiariesCount(), ngoMask, distance);
+        return ngo.getNgoId() != null ? discountSaturated(score, ngo.getNgoId(), ngo.getBeneficiariesCount()) : score;
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    // Helper: response for one suggested catalog row
+    private SuggestedNgoResponse buildSuggestion(FoodListing listing, NgoCatalog catalog, int row, double distance,
+                                                 int score, UrgencyLevel urgency) {
+        return SuggestedNgoResponse.builder()
+                .ngoId(catalog.ngoId(row))
+                .name(catalog.contact(row).organizationName())
+                .distance(Math.round(distance * 100.0) / 100.0)
+                .beneficiaries(catalog.beneficiaries(row))
+                .matchScore(score)
+                .reason(generateMatchReason(listing, catalog.beneficiaries(row), distance, urgency))
+                .build();
+    }
 
-        return EARTH_RADIUS_KM * c;
+    // Helper: score of one catalog row given the precomputed listing features
+    private int scoreCandidate(NgoCatalog catalog, int row, double distance,
+                               MatchScorer.ListingFeatures features, int threshold) {
+        return scoreCandidate(scoringPipeline, catalog, row, distance, features, threshold);
     }
 
-    // Helper: Calculate quantity match score
-    private int calculateQuantityMatchScore(int foodQuantity, int beneficiaries) {
-        // Ideal: Food quantity covers 20-30% of beneficiaries (1 serving per person)
-        int idealMin = (int) (beneficiaries * 0.2);
-        int idealMax = (int) (beneficiaries * 0.3);
-
-        if (foodQuantity >= idealMin && foodQuantity <= idealMax) {
-            return 25; // Perfect match
-        } else if (foodQuantity >= beneficiaries * 0.1 && foodQuantity <= beneficiaries * 0.5) {
-            return 20; // Good match
-        } else if (foodQuantity >= beneficiaries * 0.05) {
-            return 15; // Acceptable
-        } else {
-            return 10; // Low match
-        }
+    /**
+     * Live ranking score of one catalog row under the given pipeline: pipeline score with the saturation
+     * discount applied, or {@link MatchScoringPipeline#SKIPPED} once it cannot reach threshold
+     */
+    public int scoreCandidate(MatchScoringPipeline pipeline, NgoCatalog catalog, int row, double distance,
+                              MatchScorer.ListingFeatures features, int threshold) {
+        // The discount only lowers scores, so the undiscounted score decides the short-circuit
+        int score = pipeline.score(features, catalog.beneficiaries(row), catalog.dietaryMask(row), distance,
+                threshold);
+        return score == MatchScoringPipeline.SKIPPED
+                ? score
+                : discountSaturated(score, catalog.ngoId(row), catalog.beneficiaries(row));
     }
 
-    // Helper: Calculate urgency score
-    private int calculateUrgencyScore(LocalDateTime expiryTime) {
-        Duration duration = Duration.between(LocalDateTime.now(), expiryTime);
-        long hoursRemaining = duration.toHours();
-
-        if (hoursRemaining < 1) {
-            return 20; // Critical urgency
-        } else if (hoursRemaining < 2) {
-            return 15; // High urgency
-        } else if (hoursRemaining < 4) {
-            return 10; // Medium urgency
-        } else {
-            return 5; // Low urgency
+    // Helper: lower the score of NGOs whose outstanding demand already covers their beneficiaries
+    private int discountSaturated(int score, long ngoId, int beneficiaries) {
+        if (saturationDiscount <= 0) {
+            return score;
         }
+        double saturation = ngoDemandService.saturation(ngoId, beneficiaries);
+        return (int) Math.round(score * (1.0 - saturationDiscount * saturation));
     }
 
-    // Helper: Calculate dietary match score
-    private int calculateDietaryMatchScore(String foodDietaryInfo, String ngoDietaryRequirements) {
-        String foodInfo = foodDietaryInfo.toLowerCase();
-        String ngoRequirements = ngoDietaryRequirements.toLowerCase();
+    /**
+     * Listing-side scoring inputs, with the current urgency level from the urgency engine
+     */
+    public MatchScorer.ListingFeatures features(FoodListing listing) {
+        return new MatchScorer.ListingFeatures(
+                listing.getQuantity(),
+                urgencyService.urgencyOf(listing),
+                dietaryMask(listing),
+                listing.getDietaryInfo() != null && !listing.getDietaryInfo().isBlank()
+        );
+    }
 
-        // Check for conflicts
-        if (ngoRequirements.contains("veg") && foodInfo.contains("non-veg")) {
-            return 0; // No match
-        }
+    /**
+     * Distance between a restaurant and an NGO (in km), served from the distance matrix
+     */
+    public double calculateDistance(Restaurant restaurant, Ngo ngo) {
+        return distanceMatrixService.distanceKm(restaurant, ngo);
+    }
 
-        // Check for matches
-        int matches = 0;
-        String[] requirements = ngoRequirements.split(",");
-        for (String req : requirements) {
-            if (foodInfo.contains(req.trim())) {
-                matches++;
-            }
-        }
+    /**
+     * Calculate distance between two points using Haversine formula (in km)
+     */
+    public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        return GeoDistance.distanceKm(lat1, lon1, lat2, lon2);
+    }
 
-        return Math.min(matches * 5, 15); // 5 points per match, max 15
+    // Helper: stored dietary mask of a listing, computed if the row predates the column
+    private int dietaryMask(FoodListing listing) {
+        return listing.getDietaryMask() != null
+                ? listing.getDietaryMask()
+                : DietaryTaxonomy.listingMask(listing.getCategory(), listing.getDietaryInfo());
     }
 
     // Helper: Generate human-readable match reason
-    private String generateMatchReason(FoodListing listing, Ngo ngo, double distance) {
+    private String generateMatchReason(FoodListing listing, int beneficiaries, double distance, UrgencyLevel urgency) {
         StringBuilder reason = new StringBuilder();
 
         // Distance reason
@@ -195,19 +212,16 @@ public class MatchingAlgorithmService {
         }
 
         // Quantity reason
-        int idealServings = (int) (ngo.getBeneficiariesCount() * 0.25);
+        int idealServings = (int) (beneficiaries * 0.25);
         if (Math.abs(listing.getQuantity() - idealServings) < 20) {
             reason.append("Quantity matches your beneficiary needs. ");
         }
 
-        // Urgency reason
-        Duration duration = Duration.between(LocalDateTime.now(), listing.getExpiryTime());
-        if (duration.toHours() < 2) {
+        // Urgency reason (less than 2 hours to expiry)
+        if (urgency == UrgencyLevel.HIGH || urgency == UrgencyLevel.CRITICAL) {
             reason.append("Urgent pickup needed - expires soon!");
         }
 
         return reason.toString().trim();
     }
 }
-
-
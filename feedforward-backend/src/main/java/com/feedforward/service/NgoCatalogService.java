@@ -0,0 +1,182 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.Ngo;
+import com.feedforward.repository.NgoRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.NgoCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the current {@link NgoCatalog} snapshot of active NGOs.
+ * Readers always get the last published snapshot and never wait for a load. A committed change
+ * to one NGO is applied to a copy of the snapshot, and full reloads (on a fixed delay and after
+ * bulk updates) are built beside the old snapshot. All of this runs on one background thread,
+ * so changes are applied in commit order.
+ */
+@Service
+public class NgoCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NgoCatalogService.class);
+
+    private final NgoRepository ngoRepository;
+    private final ExecutorService updater;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    private volatile NgoCatalog catalog = NgoCatalog.builder().build();
+
+    public NgoCatalogService(NgoRepository ngoRepository) {
+        this.ngoRepository = ngoRepository;
+        this.updater = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ngo-catalog-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdown();
+    }
+
+    /**
+     * Load the catalog before the first request is served
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws Exception {
+        updater.submit(this::rebuild).get();
+    }
+
+    /**
+     * Reload the catalog from the database in the background
+     */
+    @Scheduled(fixedDelayString = "${app.geo.ngo-catalog.refresh-interval-ms:600000}",
+            initialDelayString = "${app.geo.ngo-catalog.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (rebuildRequested.compareAndSet(false, true)) {
+            updater.execute(() -> {
+                rebuildRequested.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Current catalog snapshot
+     */
+    public NgoCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Reload the whole catalog once the current transaction commits, for changes made with bulk updates
+     */
+    public void invalidate() {
+        afterCommit(this::refresh);
+    }
+
+    /**
+     * Re-read one NGO into the catalog once the current transaction commits (registered, moved,
+     * edited or deactivated)
+     */
+    public void onNgoSaved(Long ngoId) {
+        afterCommit(() -> updater.execute(() -> update(ngoId)));
+    }
+
+    /**
+     * Drop one NGO from the catalog once the current transaction commits
+     */
+    public void onNgoRemoved(Long ngoId) {
+        afterCommit(() -> updater.execute(() -> catalog = catalog.withoutNgo(ngoId)));
+    }
+
+    // Helper: full reload; readers keep the old snapshot until the new one is published
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            List<Ngo> ngos = ngoRepository.findAllWithUser();
+            NgoCatalog.Builder builder = NgoCatalog.builder();
+            for (Ngo ngo : ngos) {
+                if (ngo.getLatitude() == null || ngo.getLongitude() == null) {
+                    continue;
+                }
+                builder.add(ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue(),
+                        beneficiaries(ngo), dietaryMask(ngo), contact(ngo));
+            }
+            catalog = builder.build();
+
+            logger.info("NGO catalog rebuilt with {} NGOs in {} ms",
+                    catalog.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("NGO catalog rebuild failed, keeping {} NGOs: {}", catalog.size(), e.getMessage(), e);
+        }
+    }
+
+    // Helper: replace, add or drop one NGO's row as it is now stored
+    private void update(Long ngoId) {
+        try {
+            Optional<Ngo> stored = ngoRepository.findByIdWithUser(ngoId);
+            if (stored.isEmpty() || stored.get().getLatitude() == null || stored.get().getLongitude() == null
+                    || !Boolean.TRUE.equals(stored.get().getUser().getIsActive())) {
+                catalog = catalog.withoutNgo(ngoId);
+                return;
+            }
+            Ngo ngo = stored.get();
+            catalog = catalog.withNgo(ngo.getLatitude().doubleValue(), ngo.getLongitude().doubleValue(),
+                    beneficiaries(ngo), dietaryMask(ngo), contact(ngo));
+        } catch (Exception e) {
+            logger.error("NGO catalog update for NGO {} failed: {}", ngoId, e.getMessage(), e);
+            refresh();
+        }
+    }
+
+    private static int beneficiaries(Ngo ngo) {
+        return ngo.getBeneficiariesCount() != null ? ngo.getBeneficiariesCount() : 0;
+    }
+
+    private static int dietaryMask(Ngo ngo) {
+        return ngo.getDietaryMask() != null
+                ? ngo.getDietaryMask()
+                : DietaryTaxonomy.ngoMask(ngo.getDietaryRequirements());
+    }
+
+    private static NgoCatalog.Contact contact(Ngo ngo) {
+        return new NgoCatalog.Contact(
+                ngo.getNgoId(),
+                ngo.getOrganizationName(),
+                ngo.getAddress(),
+                ngo.getUser() != null ? ngo.getUser().getPhone() : null,
+                ngo.getUser() != null ? ngo.getUser().getEmail() : null,
+                ngo.getDietaryRequirements(),
+                ngo.getUser() != null ? ngo.getUser().getPhoneE164() : null,
+                ngo.getUser() != null ? ngo.getUser().getEmailNormalized() : null
+        );
+    }
+
+    // Helper: run once the current transaction commits, or right away outside one
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.FoodRequest;
+import com.feedforward.enums.RequestStatus;
+import com.feedforward.repository.DonationHistoryRepository;
+import com.feedforward.repository.FoodRequestRepository;
+import com.feedforward.util.NgoDemandTracker;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live per-NGO demand for matching: servings requested, approved and received today, kept in
+ * an {@link NgoDemandTracker} that request state changes update after commit.
+ * The tracker is rebuilt from the database at startup, at midnight (received-today restarts)
+ * and periodically, which also drops pending requests on listings that have since expired.
+ * Changes committed while a rebuild is loading are replayed onto the new tracker before it
+ * replaces the live one.
+ */
+@Service
+@RequiredArgsConstructor
+public class NgoDemandService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NgoDemandService.class);
+
+    private final FoodRequestRepository foodRequestRepository;
+    private final DonationHistoryRepository donationHistoryRepository;
+
+    private final Object lock = new Object();
+
+    private volatile NgoDemandTracker tracker = new NgoDemandTracker();
+
+    // Changes applied while a rebuild is loading, null otherwise; guarded by lock
+    private List<Delta> duringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload demand from open requests and today's donations
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    @Scheduled(fixedDelayString = "${app.matching.demand.refresh-interval-ms:3600000}",
+            initialDelayString = "${app.matching.demand.refresh-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        NgoDemandTracker rebuilt = new NgoDemandTracker();
+        synchronized (lock) {
+            duringRebuild = new ArrayList<>();
+        }
+
+        int replayed;
+        try {
+            List<Object[]> open = foodRequestRepository.getOpenServingsByNgoAndStatus(LocalDateTime.now());
+            for (Object[] row : open) {
+                long ngoId = ((Number) row[0]).longValue();
+                long servings = ((Number) row[2]).longValue();
+                if (row[1] == RequestStatus.PENDING) {
+                    rebuilt.add(ngoId, servings, 0, 0);
+                } else {
+                    rebuilt.add(ngoId, 0, servings, 0);
+                }
+            }
+
+            List<Object[]> received = donationHistoryRepository.getServingsReceivedByNgoSince(
+                    LocalDate.now().atStartOfDay());
+            for (Object[] row : received) {
+                rebuilt.add(((Number) row[0]).longValue(), 0, 0, ((Number) row[1]).longValue());
+            }
+
+            // Replay changes committed while loading; one committed just before a query ran is counted
+            // twice, which the next rebuild corrects, instead of being lost until then
+            synchronized (lock) {
+                for (Delta delta : duringRebuild) {
+                    rebuilt.add(delta.ngoId(), delta.pending(), delta.approved(), delta.received());
+                }
+                replayed = duringRebuild.size();
+                tracker = rebuilt;
+            }
+        } finally {
+            synchronized (lock) {
+                // A failed load keeps the live tracker and stops buffering
+                duringRebuild = null;
+            }
+        }
+        logger.info("NGO demand tracker rebuilt for {} NGOs ({} changes replayed) in {} ms",
+                rebuilt.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Share (0-1) of an NGO's daily need already requested, approved or received
+     */
+    public double saturation(long ngoId, int beneficiaries) {
+        return tracker.saturation(ngoId, beneficiaries);
+    }
+
+    public long outstanding(long ngoId) {
+        return tracker.outstanding(ngoId);
+    }
+
+    public void onRequested(FoodRequest request) {
+        apply(request, request.getQuantityRequested(), 0, 0);
+    }
+
+    public void onApproved(FoodRequest request) {
+        apply(request, -request.getQuantityRequested(), request.getQuantityRequested(), 0);
+    }
+
+    public void onRejected(FoodRequest request) {
+        apply(request, -request.getQuantityRequested(), 0, 0);
+    }
+
+    /**
+     * A pending or approved request was cancelled (by the NGO or because the pickup time passed)
+     */
+    public void onCancelled(FoodRequest request, RequestStatus previousStatus) {
+        if (previousStatus == RequestStatus.PENDING) {
+            apply(request, -request.getQuantityRequested(), 0, 0);
+        } else {
+            apply(request, 0, -request.getQuantityRequested(), 0);
+        }
+    }
+
+    public void onCompleted(FoodRequest request, int quantityReceived) {
+        apply(request, 0, -request.getQuantityRequested(), quantityReceived);
+    }
+
+    // Helper: update the tracker once the current transaction commits
+    private void apply(FoodRequest request, long pendingDelta, long approvedDelta, long receivedDelta) {
+        long ngoId = request.getNgo().getNgoId();
+        Runnable update = () -> {
+            synchronized (lock) {
+                tracker.add(ngoId, pendingDelta, approvedDelta, receivedDelta);
+                if (duringRebuild != null) {
+                    duringRebuild.add(new Delta(ngoId, pendingDelta, approvedDelta, receivedDelta));
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private record Delta(long ngoId, long pending, long approved, long received) {
+    }
+}
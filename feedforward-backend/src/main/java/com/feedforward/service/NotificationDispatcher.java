@@ -0,0 +1,526 @@
+package com.feedforward.service;
+
+import com.feedforward.dto.response.NotificationLaneResponse;
+import com.feedforward.entity.NotificationOutbox;
+import com.feedforward.enums.NotificationChannel;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.repository.NotificationOutboxRepository;
+import com.feedforward.util.FoodDigestTemplates;
+import com.feedforward.util.RetryBackoff;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers notification_outbox entries through SMS and email on per-priority worker lanes.
+ *
+ * Each urgency level (CRITICAL, HIGH, MEDIUM, LOW) has its own lane: a drain thread that pages
+ * through that level's due entries, soonest listing expiry first, and its own worker pool, so a
+ * backlog of LOW entries never holds up a CRITICAL one and the urgent lanes get more workers.
+ * All lanes share the SMS and email rate limits, so a lane pauses before claiming a page and
+ * before each send while a more urgent lane has due entries, for at most max-yield-ms per page.
+ * Entries sharing one text go out as a single batch, through the SMS engine (provider
+ * concurrency and rate limits) or over pooled SMTP connections. Every attempt first claims its row with a conditional update,
+ * so two workers (or two application instances) never send the same entry, and a claim holds
+ * a lease: a worker that dies mid-send leaves the row due again once the lease runs out.
+ * Failed attempts are retried with exponential backoff and dead-lettered after the configured
+ * number of attempts. When a held "food available" entry falls due, every pending entry for the
+ * same recipient is claimed with it and they go out as one digest message.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final double BACKOFF_JITTER = 0.2;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final SmsService smsService;
+    private final EmailService emailService;
+    private final ScheduledExecutorService coordinator;
+    private final Map<UrgencyLevel, Lane> lanes = new EnumMap<>(UrgencyLevel.class);
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long leaseMs;
+    private final int retentionDays;
+    private final long maxYieldMs;
+    private final Object priorityGate = new Object();
+
+    @Value("${app.name:FeedForward}")
+    private String appName;
+
+    @Value("${app.base-url:http://localhost:3000}")
+    private String baseUrl;
+
+    public NotificationDispatcher(
+            NotificationOutboxRepository outboxRepository,
+            SmsService smsService,
+            EmailService emailService,
+            @Value("${app.notifications.outbox.lanes.critical:4}") int criticalWorkers,
+            @Value("${app.notifications.outbox.lanes.high:3}") int highWorkers,
+            @Value("${app.notifications.outbox.lanes.medium:2}") int mediumWorkers,
+            @Value("${app.notifications.outbox.lanes.low:1}") int lowWorkers,
+            @Value("${app.notifications.outbox.batch-size:100}") int batchSize,
+            @Value("${app.notifications.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${app.notifications.outbox.backoff-base-ms:30000}") long backoffBaseMs,
+            @Value("${app.notifications.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+            @Value("${app.notifications.outbox.lease-ms:300000}") long leaseMs,
+            @Value("${app.notifications.outbox.retention-days:7}") int retentionDays,
+            @Value("${app.notifications.outbox.max-yield-ms:30000}") long maxYieldMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.smsService = smsService;
+        this.emailService = emailService;
+        this.coordinator = Executors.newSingleThreadScheduledExecutor(namedThreads("outbox-coordinator"));
+        lanes.put(UrgencyLevel.CRITICAL, new Lane(UrgencyLevel.CRITICAL, criticalWorkers));
+        lanes.put(UrgencyLevel.HIGH, new Lane(UrgencyLevel.HIGH, highWorkers));
+        lanes.put(UrgencyLevel.MEDIUM, new Lane(UrgencyLevel.MEDIUM, mediumWorkers));
+        lanes.put(UrgencyLevel.LOW, new Lane(UrgencyLevel.LOW, lowWorkers));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.leaseMs = leaseMs;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.maxYieldMs = Math.max(0, maxYieldMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdown();
+        lanes.values().forEach(Lane::shutdown);
+    }
+
+    /**
+     * Deliver whatever was left due while the application was down
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        wakeUp();
+    }
+
+    /**
+     * Pick up retries that became due and entries whose after-commit wake-up was missed
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-ms:30000}",
+            initialDelayString = "${app.notifications.outbox.poll-ms:30000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Ask every lane to drain its due entries; a no-op for lanes that already have a drain queued
+     */
+    public void wakeUp() {
+        lanes.values().forEach(Lane::wakeUp);
+    }
+
+    /**
+     * Wake one priority's lane once entries queued now fall due (right away for a zero delay)
+     */
+    public void wakeUpAfter(UrgencyLevel priority, long delayMs) {
+        Lane lane = lanes.get(priority);
+        if (delayMs <= 0) {
+            lane.wakeUp();
+        } else {
+            coordinator.schedule(lane::wakeUp, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queue depth, in-flight entries and time-in-queue per priority lane, most urgent first
+     */
+    public List<NotificationLaneResponse> lanes() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UrgencyLevel, Object[]> due = new HashMap<>();
+        for (Object[] row : outboxRepository.countDueByPriority(now)) {
+            // [priority, count, oldestDueAt]
+            due.put((UrgencyLevel) row[0], row);
+        }
+
+        List<NotificationLaneResponse> responses = new ArrayList<>(lanes.size());
+        for (UrgencyLevel priority : List.of(UrgencyLevel.CRITICAL, UrgencyLevel.HIGH,
+                UrgencyLevel.MEDIUM, UrgencyLevel.LOW)) {
+            Lane lane = lanes.get(priority);
+            Object[] row = due.get(priority);
+            long dispatched = lane.dispatched.sum();
+            responses.add(NotificationLaneResponse.builder()
+                    .priority(priority.name())
+                    .workers(lane.workerCount)
+                    .queueDepth(row != null ? ((Number) row[1]).longValue() : 0L)
+                    .oldestWaitMs(row != null && row[2] != null
+                            ? Math.max(0, Duration.between((LocalDateTime) row[2], now).toMillis())
+                            : 0L)
+                    .inFlight(lane.inFlight.get())
+                    .dispatched(dispatched)
+                    .sent(lane.sent.sum())
+                    .failed(lane.failed.sum())
+                    .averageWaitMs(dispatched == 0 ? 0.0 : (double) lane.waitMillis.sum() / dispatched)
+                    .maxWaitMs(lane.maxWaitMillis.get())
+                    .build());
+        }
+        return responses;
+    }
+
+    /**
+     * Entry counts by status
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : outboxRepository.countByStatus()) {
+            counts.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Give dead-lettered entries a fresh set of attempts
+     */
+    public int requeueDead() {
+        int requeued = outboxRepository.requeueDead(LocalDateTime.now());
+        if (requeued > 0) {
+            logger.info("Requeued {} dead-lettered notifications", requeued);
+            wakeUp();
+        }
+        return requeued;
+    }
+
+    /**
+     * Drop delivered entries past the retention window
+     */
+    @Scheduled(cron = "${app.notifications.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(
+                LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("Purged {} delivered notifications older than {} days", deleted, retentionDays);
+        }
+    }
+
+    // Helper: claim due entries for one attempt each, plus any entries held for merging with them;
+    // entries another worker got first are left out
+    private List<NotificationOutbox> claim(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        List<Long> claimed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (outboxRepository.claim(id, now, leaseUntil) > 0) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        List<NotificationOutbox> entries = new ArrayList<>(outboxRepository.findAllById(claimed));
+
+        Set<String> coalesceKeys = entries.stream()
+                .map(NotificationOutbox::getCoalesceKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!coalesceKeys.isEmpty()) {
+            List<Long> held = new ArrayList<>();
+            for (Long id : outboxRepository.findPendingIdsByCoalesceKeys(coalesceKeys)) {
+                if (outboxRepository.claimPending(id, leaseUntil) > 0) {
+                    held.add(id);
+                }
+            }
+            if (!held.isEmpty()) {
+                entries.addAll(outboxRepository.findAllById(held));
+            }
+        }
+        return entries;
+    }
+
+    // Helper: one delivery per entry, except held entries for the same recipient, which share a digest message
+    private List<Delivery> coalesce(List<NotificationOutbox> entries) {
+        List<Delivery> deliveries = new ArrayList<>(entries.size());
+        Map<String, List<NotificationOutbox>> held = new LinkedHashMap<>();
+        for (NotificationOutbox entry : entries) {
+            if (entry.getCoalesceKey() == null) {
+                deliveries.add(Delivery.of(entry));
+            } else {
+                held.computeIfAbsent(entry.getCoalesceKey(), key -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        int merged = 0;
+        for (List<NotificationOutbox> group : held.values()) {
+            if (group.size() == 1) {
+                deliveries.add(Delivery.of(group.get(0)));
+                continue;
+            }
+            group.sort(Comparator.comparing(NotificationOutbox::getOutboxId));
+            List<String> lines = group.stream().map(NotificationOutbox::getDigestLine).collect(Collectors.toList());
+            NotificationOutbox first = group.get(0);
+            deliveries.add(first.getChannel() == NotificationChannel.SMS
+                    ? new Delivery(first.getChannel(), first.getRecipient(), null,
+                            FoodDigestTemplates.sms(lines, appName), group)
+                    : new Delivery(first.getChannel(), first.getRecipient(),
+                            FoodDigestTemplates.emailSubject(lines.size()),
+                            FoodDigestTemplates.emailBody(lines, appName, baseUrl), group));
+            merged += group.size();
+        }
+        if (merged > 0) {
+            logger.info("Coalesced {} food-available notifications into {} messages",
+                    merged, deliveries.size() - (entries.size() - merged));
+        }
+        return deliveries;
+    }
+
+    // Helper: send a batch of messages sharing one channel and text, then record each recipient's outcome
+    private List<Boolean> deliver(List<Delivery> batch) {
+        Delivery lead = batch.get(0);
+        List<String> recipients = batch.stream().map(Delivery::recipient).collect(Collectors.toList());
+        List<String> errors = new ArrayList<>(batch.size());
+        try {
+            if (lead.channel() == NotificationChannel.SMS) {
+                for (SmsService.SmsResult result : smsService.sendSmsWithResults(recipients, lead.body())) {
+                    errors.add(result.sent() ? null
+                            : result.error() != null ? result.error() : "SMS provider did not accept the message");
+                }
+            } else {
+                Map<String, String> failures = emailService.sendBatch(recipients, lead.subject(), lead.body())
+                        .failures();
+                for (String email : recipients) {
+                    errors.add(failures.containsKey(email) ? String.valueOf(failures.get(email)) : null);
+                }
+            }
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            errors.clear();
+            recipients.forEach(recipient -> errors.add(error));
+        }
+
+        List<Boolean> outcomes = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            for (NotificationOutbox entry : batch.get(i).entries()) {
+                outcomes.add(complete(entry, errors.get(i)));
+            }
+        }
+        return outcomes;
+    }
+
+    // Helper: mark an attempt sent (error == null), or reschedule / dead-letter it
+    private boolean complete(NotificationOutbox entry, String error) {
+        Long id = entry.getOutboxId();
+        if (error == null) {
+            outboxRepository.markSent(id, LocalDateTime.now());
+            return true;
+        }
+
+        error = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (entry.getAttempts() >= maxAttempts) {
+            outboxRepository.markDead(id, error);
+            logger.warn("Notification {} to {} dead-lettered after {} attempts: {}",
+                    id, entry.getRecipient(), entry.getAttempts(), error);
+        } else {
+            long delay = RetryBackoff.jitteredDelayMillis(entry.getAttempts(), backoffBaseMs, backoffMaxMs,
+                    BACKOFF_JITTER, ThreadLocalRandom.current().nextDouble());
+            outboxRepository.reschedule(id, LocalDateTime.now().plus(Duration.ofMillis(delay)), error);
+            logger.debug("Notification {} attempt {} failed, retrying in {} ms: {}",
+                    id, entry.getAttempts(), delay, error);
+        }
+        return false;
+    }
+
+    // Helper: whether a lane more urgent than this one has due entries
+    private boolean higherLaneBusy(UrgencyLevel priority) {
+        for (Lane lane : lanes.values()) {
+            if (lane.priority.ordinal() > priority.ordinal() && lane.backlog.get()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Helper: wait while a more urgent lane has due entries, until deadlineMs at the latest
+    private void yieldToHigherLanes(UrgencyLevel priority, long deadlineMs) {
+        synchronized (priorityGate) {
+            long remaining;
+            while (higherLaneBusy(priority) && (remaining = deadlineMs - System.currentTimeMillis()) > 0) {
+                try {
+                    priorityGate.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void count(List<Boolean> outcomes, AtomicInteger sent, AtomicInteger failed) {
+        for (boolean delivered : outcomes) {
+            (delivered ? sent : failed).incrementAndGet();
+        }
+    }
+
+    // One priority's drain thread, workers and metrics
+    private final class Lane {
+        private final UrgencyLevel priority;
+        private final int workerCount;
+        private final ExecutorService drainer;
+        private final ExecutorService workers;
+        private final AtomicBoolean wakeRequested = new AtomicBoolean();
+        private final AtomicBoolean backlog = new AtomicBoolean();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder waitMillis = new LongAdder();
+        private final AtomicLong maxWaitMillis = new AtomicLong();
+
+        private Lane(UrgencyLevel priority, int workerCount) {
+            String name = "outbox-" + priority.name().toLowerCase(Locale.ROOT);
+            this.priority = priority;
+            this.workerCount = Math.max(1, workerCount);
+            this.drainer = Executors.newSingleThreadExecutor(namedThreads(name + "-drain"));
+            this.workers = Executors.newFixedThreadPool(this.workerCount, namedThreads(name + "-worker"));
+        }
+
+        private void wakeUp() {
+            if (wakeRequested.compareAndSet(false, true)) {
+                drainer.execute(this::drain);
+            }
+        }
+
+        private void shutdown() {
+            drainer.shutdown();
+            workers.shutdown();
+        }
+
+        // Page through this lane's due entries until none are left, one page in flight at a time
+        private void drain() {
+            wakeRequested.set(false);
+            long start = System.currentTimeMillis();
+            AtomicInteger sentNow = new AtomicInteger();
+            AtomicInteger failedNow = new AtomicInteger();
+            try {
+                while (true) {
+                    // Lower lanes hold off on the shared rate limits while a more urgent lane has work,
+                    // bounded per page so they are never starved and their leases never run out
+                    long yieldUntil = System.currentTimeMillis() + maxYieldMs;
+                    yieldToHigherLanes(priority, yieldUntil);
+                    List<Object[]> due = outboxRepository.findDueByPriority(
+                            priority, LocalDateTime.now(), PageRequest.of(0, batchSize));
+                    if (due.isEmpty()) {
+                        break;
+                    }
+                    backlog.set(true);
+                    Map<Long, LocalDateTime> dueAt = new HashMap<>();
+                    for (Object[] row : due) {
+                        // [outboxId, nextAttemptAt]
+                        dueAt.put(((Number) row[0]).longValue(), (LocalDateTime) row[1]);
+                    }
+
+                    LocalDateTime claimedAt = LocalDateTime.now();
+                    List<NotificationOutbox> entries = claim(new ArrayList<>(dueAt.keySet()));
+                    for (NotificationOutbox entry : entries) {
+                        LocalDateTime dueSince = dueAt.get(entry.getOutboxId());
+                        if (dueSince != null) {
+                            recordWait(Math.max(0, Duration.between(dueSince, claimedAt).toMillis()));
+                        }
+                    }
+
+                    // Held entries for the same recipient merge into one message; messages with the same
+                    // text then go to the SMS engine or the pooled SMTP path as one batch
+                    Map<List<String>, List<Delivery>> batches = new LinkedHashMap<>();
+                    for (Delivery delivery : coalesce(entries)) {
+                        batches.computeIfAbsent(
+                                Arrays.asList(delivery.channel().name(), delivery.subject(), delivery.body()),
+                                content -> new ArrayList<>()).add(delivery);
+                    }
+                    inFlight.addAndGet(entries.size());
+                    try {
+                        List<CompletableFuture<Void>> attempts = new ArrayList<>();
+                        for (List<Delivery> batch : batches.values()) {
+                            attempts.add(CompletableFuture.runAsync(() -> {
+                                yieldToHigherLanes(priority, yieldUntil);
+                                count(deliver(batch), sentNow, failedNow);
+                            }, workers));
+                        }
+                        CompletableFuture.allOf(attempts.toArray(new CompletableFuture[0])).join();
+                    } finally {
+                        inFlight.addAndGet(-entries.size());
+                    }
+                    if (due.size() < batchSize) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Notification outbox drain ({}) failed: {}", priority, e.getMessage(), e);
+            } finally {
+                synchronized (priorityGate) {
+                    backlog.set(false);
+                    priorityGate.notifyAll();
+                }
+            }
+            sent.add(sentNow.get());
+            failed.add(failedNow.get());
+            if (sentNow.get() > 0 || failedNow.get() > 0) {
+                logger.info("Notification outbox ({}): {} sent, {} failed in {} ms, max wait {} ms",
+                        priority, sentNow.get(), failedNow.get(), System.currentTimeMillis() - start,
+                        maxWaitMillis.get());
+            }
+        }
+
+        private void recordWait(long millis) {
+            dispatched.increment();
+            waitMillis.add(millis);
+            maxWaitMillis.accumulateAndGet(millis, Math::max);
+        }
+    }
+
+    // One message to send: an entry on its own, or several held entries merged for one recipient
+    private record Delivery(NotificationChannel channel, String recipient, String subject, String body,
+                            List<NotificationOutbox> entries) {
+
+        static Delivery of(NotificationOutbox entry) {
+            return new Delivery(entry.getChannel(), entry.getRecipient(), entry.getSubject(), entry.getBody(),
+                    List.of(entry));
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
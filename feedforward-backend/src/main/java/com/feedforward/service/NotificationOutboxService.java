@@ -0,0 +1,152 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.NotificationOutbox;
+import com.feedforward.enums.NotificationChannel;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Queues SMS and email in notification_outbox as part of the caller's transaction, so a
+ * notification exists exactly when the change it announces was committed. The dispatcher is
+ * woken once the transaction commits; nothing here talks to a provider.
+ *
+ * "Food available" entries can be coalesced: they are held for app.notifications.coalesce-window-ms,
+ * and everything pending for the same recipient when the first one falls due goes out as one message.
+ *
+ * Every entry carries the urgency of what it announces and, for listings, when the food expires;
+ * the dispatcher delivers each urgency on its own lane, soonest expiry first.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationDispatcher notificationDispatcher;
+
+    @Value("${app.notifications.coalesce-window-ms:60000}")
+    private long coalesceWindowMs;
+
+    /**
+     * Queue one SMS per phone number; returns the number queued
+     */
+    public int enqueueSms(List<String> phoneNumbers, String message, Long listingId,
+                          UrgencyLevel priority, LocalDateTime expiresAt) {
+        return enqueue(smsEntries(phoneNumbers, message, listingId, null, priority, expiresAt), priority, 0);
+    }
+
+    /**
+     * Queue "food available" SMS held for merging with others to the same number
+     */
+    public int enqueueCoalescedSms(List<String> phoneNumbers, String message, String digestLine, Long listingId,
+                                   UrgencyLevel priority, LocalDateTime expiresAt) {
+        return enqueue(smsEntries(phoneNumbers, message, listingId, digestLine, priority, expiresAt),
+                priority, coalesceWindowMs);
+    }
+
+    /**
+     * Queue one email per address (names line up with addresses and may be shorter); returns the number queued
+     */
+    public int enqueueEmails(List<String> emailAddresses, List<String> recipientNames, String subject,
+                             String message, Long listingId, UrgencyLevel priority, LocalDateTime expiresAt) {
+        return enqueue(emailEntries(emailAddresses, recipientNames, subject, message, listingId, null,
+                priority, expiresAt), priority, 0);
+    }
+
+    /**
+     * Queue "food available" emails held for merging with others to the same address
+     */
+    public int enqueueCoalescedEmails(List<String> emailAddresses, List<String> recipientNames, String subject,
+                                      String message, String digestLine, Long listingId,
+                                      UrgencyLevel priority, LocalDateTime expiresAt) {
+        return enqueue(emailEntries(emailAddresses, recipientNames, subject, message, listingId, digestLine,
+                priority, expiresAt), priority, coalesceWindowMs);
+    }
+
+    // Helper: SMS entries, held for the coalescing window when a digest line is given
+    private List<NotificationOutbox> smsEntries(List<String> phoneNumbers, String message, Long listingId,
+                                                String digestLine, UrgencyLevel priority,
+                                                LocalDateTime expiresAt) {
+        LocalDateTime dueAt = dueAt(digestLine);
+        List<NotificationOutbox> entries = new ArrayList<>(phoneNumbers.size());
+        for (String phone : phoneNumbers) {
+            entries.add(NotificationOutbox.builder()
+                    .channel(NotificationChannel.SMS)
+                    .recipient(phone)
+                    .body(message)
+                    .listingId(listingId)
+                    .coalesceKey(digestLine != null ? coalesceKey(NotificationChannel.SMS, phone) : null)
+                    .digestLine(digestLine)
+                    .priority(priority)
+                    .expiresAt(expiresAt)
+                    .nextAttemptAt(dueAt)
+                    .build());
+        }
+        return entries;
+    }
+
+    private List<NotificationOutbox> emailEntries(List<String> emailAddresses, List<String> recipientNames,
+                                                  String subject, String message, Long listingId, String digestLine,
+                                                  UrgencyLevel priority, LocalDateTime expiresAt) {
+        LocalDateTime dueAt = dueAt(digestLine);
+        List<NotificationOutbox> entries = new ArrayList<>(emailAddresses.size());
+        for (int i = 0; i < emailAddresses.size(); i++) {
+            String email = emailAddresses.get(i);
+            entries.add(NotificationOutbox.builder()
+                    .channel(NotificationChannel.EMAIL)
+                    .recipient(email)
+                    .recipientName(recipientNames != null && i < recipientNames.size() ? recipientNames.get(i) : null)
+                    .subject(subject)
+                    .body(message)
+                    .listingId(listingId)
+                    .coalesceKey(digestLine != null ? coalesceKey(NotificationChannel.EMAIL, email) : null)
+                    .digestLine(digestLine)
+                    .priority(priority)
+                    .expiresAt(expiresAt)
+                    .nextAttemptAt(dueAt)
+                    .build());
+        }
+        return entries;
+    }
+
+    private LocalDateTime dueAt(String digestLine) {
+        LocalDateTime now = LocalDateTime.now();
+        return digestLine != null ? now.plus(Duration.ofMillis(coalesceWindowMs)) : now;
+    }
+
+    private static String coalesceKey(NotificationChannel channel, String recipient) {
+        String normalized = channel == NotificationChannel.EMAIL
+                ? recipient.trim().toLowerCase(Locale.ROOT)
+                : recipient.replaceAll("[^0-9+]", "");
+        return channel + ":" + normalized;
+    }
+
+    // Helper: save with the current transaction and wake the priority's lane once it commits and the entries are due
+    private int enqueue(List<NotificationOutbox> entries, UrgencyLevel priority, long dueInMs) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        outboxRepository.saveAll(entries);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notificationDispatcher.wakeUpAfter(priority, dueInMs);
+                }
+            });
+        } else {
+            notificationDispatcher.wakeUpAfter(priority, dueInMs);
+        }
+        return entries.size();
+    }
+}
@@ -9,9 +9,18 @@ import com.feedforward.dto.response.RestaurantWithContactResponse;
 import com.feedforward.entity.FoodListing;
 import com.feedforward.entity.Ngo;
 import com.feedforward.entity.Restaurant;
+import com.feedforward.enums.NotificationTemplate;
+import com.feedforward.enums.UrgencyLevel;
 import com.feedforward.exception.BadRequestException;
 import com.feedforward.repository.NgoRepository;
 import com.feedforward.repository.RestaurantRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.FoodDigestTemplates;
+import com.feedforward.util.GeoDistance;
+import com.feedforward.util.ListingCandidateSet;
+import com.feedforward.util.NgoCatalog;
+import com.feedforward.util.RestaurantCatalog;
+import com.feedforward.util.SphericalKdTree;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +39,14 @@ public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
     private final SmsService smsService;
-    private final EmailService emailService;
     private final NgoRepository ngoRepository;
     private final RestaurantRepository restaurantRepository;
-    private final MatchingAlgorithmService matchingAlgorithmService;
     private final GooglePlacesService googlePlacesService;
+    private final NgoCatalogService ngoCatalogService;
+    private final RestaurantCatalogService restaurantCatalogService;
+    private final UrgencyService urgencyService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final NotificationTemplateService notificationTemplateService;
 
     @Value("${app.base-url:http://localhost:3000}")
     private String baseUrl;
@@ -49,33 +61,25 @@ public class NotificationService {
      */
     public int notifyNearbyNgos(FoodListing foodListing, Restaurant restaurant) {
         try {
-            // Find nearby NGOs (within 10 km)
-            List<Ngo> nearbyNgos = findNearbyNgos(
+            // Find nearby NGOs (within 10 km) that accept this food
+            List<NgoCatalog.Contact> nearbyNgos = findNearbyNgos(
                     restaurant.getLatitude().doubleValue(),
                     restaurant.getLongitude().doubleValue(),
-                    10.0
+                    10.0,
+                    dietaryMask(foodListing)
             );
 
-            // Filter by dietary preference
-            nearbyNgos = filterByDietaryMatch(nearbyNgos, foodListing);
-
             if (nearbyNgos.isEmpty()) {
                 logger.info("No nearby NGOs found to notify");
                 return 0;
             }
 
-            // Calculate urgency
+            // Hours left for the message; urgency from the urgency engine
             long hoursUntilExpiry = ChronoUnit.HOURS.between(
                     LocalDateTime.now(),
                     foodListing.getExpiryTime()
             );
-
-            String urgency = "";
-            if (hoursUntilExpiry <= 2) {
-                urgency = "URGENT";
-            } else if (hoursUntilExpiry <= 4) {
-                urgency = "HIGH PRIORITY";
-            }
+            String urgency = urgencyLabel(foodListing);
 
             // Build SMS message (160 chars limit for single SMS)
             String smsMessage = buildFoodAvailableSms(
@@ -87,11 +91,10 @@ public class NotificationService {
                     urgency
             );
 
-            // Collect phone numbers from User entities
+            // Collect normalized phone numbers from the catalog contacts
             List<String> phoneNumbers = nearbyNgos.stream()
-                    .map(ngo -> ngo.getUser() != null ? ngo.getUser().getPhone() : null)
-                    .filter(phone -> phone != null && !phone.isEmpty())
-                    .filter(smsService::isValidIndianMobile)
+                    .map(NgoCatalog.Contact::e164)
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toList());
 
             if (phoneNumbers.isEmpty()) {
@@ -124,25 +127,8 @@ public class NotificationService {
             long hoursLeft,
             String urgency
     ) {
-        // Short format to fit in 160 characters
-        String urgencyPrefix = urgency.isEmpty() ? "🍽️" : "⚠️ " + urgency;
-        String message = String.format(
-                "%s %s: %s (%d servings, %s) available for %dh. Login to %s to request.",
-                urgencyPrefix,
-                restaurantName.length() > 20 ? restaurantName.substring(0, 20) : restaurantName,
-                foodName.length() > 15 ? foodName.substring(0, 15) : foodName,
-                quantity,
-                category.length() > 10 ? category.substring(0, 10) : category,
-                hoursLeft,
-                appName
-        );
-
-        // Truncate if too long (keep under 160 chars)
-        if (message.length() > 160) {
-            message = message.substring(0, 157) + "...";
-        }
-
-        return message;
+        return notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_SMS,
+                urgency, restaurantName, foodName, quantity, category, hoursLeft, appName);
     }
 
     /**
@@ -159,42 +145,18 @@ public class NotificationService {
             String restaurantAddress,
             String restaurantPhone
     ) {
-        StringBuilder email = new StringBuilder();
-        email.append("Hello,\n\n");
-        email.append("We have exciting news! ").append(restaurantName).append(" has listed surplus food that matches your needs.\n\n");
-        
-        email.append("📦 Food Details:\n");
-        email.append("   • Food Name: ").append(foodName).append("\n");
-        email.append("   • Quantity: ").append(quantity).append(" ").append(unit != null ? unit : "servings").append("\n");
-        email.append("   • Category: ").append(category).append("\n");
-        email.append("   • Time Remaining: ").append(hoursLeft).append(" hours\n");
-        
-        if (!urgency.isEmpty()) {
-            email.append("   • Urgency: ").append(urgency).append("\n");
-        }
-        
-        email.append("\n");
-        email.append("📍 Restaurant Information:\n");
-        email.append("   • Name: ").append(restaurantName).append("\n");
-        if (restaurantAddress != null && !restaurantAddress.isEmpty()) {
-            email.append("   • Address: ").append(restaurantAddress).append("\n");
-        }
-        if (restaurantPhone != null && !restaurantPhone.isEmpty()) {
-            email.append("   • Phone: ").append(restaurantPhone).append("\n");
-        }
-        
-        email.append("\n");
-        email.append("🚀 Next Steps:\n");
-        email.append("1. Login to ").append(appName).append(" at ").append(baseUrl).append("\n");
-        email.append("2. Browse available food listings\n");
-        email.append("3. Request the food you need\n");
-        email.append("4. Coordinate pickup with the restaurant\n\n");
-        
-        email.append("Thank you for being part of the FeedForward community!\n\n");
-        email.append("Best regards,\n");
-        email.append("The FeedForward Team");
-        
-        return email.toString();
+        return notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_EMAIL,
+                restaurantName, foodName, quantity, unit, category, hoursLeft, urgency, restaurantAddress,
+                restaurantPhone, appName, baseUrl);
+    }
+
+    /**
+     * Build SMS message for NGO food request to restaurants
+     */
+    private String buildFoodNeededSms(Ngo ngo, int quantityNeeded, String foodPreference) {
+        return notificationTemplateService.render(NotificationTemplate.FOOD_NEEDED_SMS,
+                ngo.getOrganizationName(), quantityNeeded, foodPreference.toLowerCase(),
+                ngo.getBeneficiariesCount(), appName);
     }
 
     /**
@@ -208,164 +170,49 @@ public class NotificationService {
             String ngoAddress,
             String ngoPhone
     ) {
-        StringBuilder email = new StringBuilder();
-        email.append("Hello,\n\n");
-        email.append("We have an urgent food request! ").append(ngoName).append(" needs your help to feed ").append(beneficiariesCount).append(" beneficiaries.\n\n");
-        
-        email.append("🍽️ Food Request Details:\n");
-        email.append("   • Quantity Needed: ").append(quantityNeeded).append(" servings\n");
-        email.append("   • Food Preference: ").append(foodPreference).append("\n");
-        email.append("   • Beneficiaries: ").append(beneficiariesCount).append(" people\n");
-        
-        email.append("\n");
-        email.append("📍 NGO Information:\n");
-        email.append("   • Name: ").append(ngoName).append("\n");
-        if (ngoAddress != null && !ngoAddress.isEmpty()) {
-            email.append("   • Address: ").append(ngoAddress).append("\n");
-        }
-        if (ngoPhone != null && !ngoPhone.isEmpty()) {
-            email.append("   • Phone: ").append(ngoPhone).append("\n");
-        }
-        
-        email.append("\n");
-        email.append("🚀 How You Can Help:\n");
-        email.append("1. Login to ").append(appName).append(" at ").append(baseUrl).append("\n");
-        email.append("2. Add a food listing with the requested quantity\n");
-        email.append("3. The NGO will be automatically notified\n");
-        email.append("4. Coordinate pickup with the NGO\n\n");
-        
-        email.append("Your contribution makes a huge difference in fighting food waste and helping those in need!\n\n");
-        email.append("Thank you for being part of the FeedForward community!\n\n");
-        email.append("Best regards,\n");
-        email.append("The FeedForward Team");
-        
-        return email.toString();
+        return notificationTemplateService.render(NotificationTemplate.FOOD_NEEDED_EMAIL,
+                ngoName, beneficiariesCount, quantityNeeded, foodPreference, ngoAddress, ngoPhone, appName, baseUrl);
     }
 
     /**
-     * Find NGOs within radius using Haversine formula
-     * Fetches user relationship to avoid LazyInitializationException
+     * Find NGOs within radius that accept the listing, closest first, from the NGO catalog
      */
-    private List<Ngo> findNearbyNgos(double lat, double lng, double radiusKm) {
-        // Use repository method that eagerly fetches user relationship
-        List<Ngo> allNgos = ngoRepository.findAllWithUser();
-        logger.info("📊 Total NGOs in database: {}", allNgos.size());
-        
-        List<Ngo> nearbyNgos = new ArrayList<>();
-
-        for (Ngo ngo : allNgos) {
-            logger.debug("Checking NGO: {} (ID: {})", ngo.getOrganizationName(), ngo.getNgoId());
-            
-            // Skip if no location
-            if (ngo.getLatitude() == null || ngo.getLongitude() == null) {
-                logger.warn("⚠️ NGO {} has no coordinates (lat: {}, lng: {})", 
-                        ngo.getOrganizationName(), ngo.getLatitude(), ngo.getLongitude());
-                continue;
-            }
-
-            // User is already loaded, so we can safely check isActive
-            if (ngo.getUser() != null && !ngo.getUser().getIsActive()) {
-                logger.warn("⚠️ NGO {} has inactive user", ngo.getOrganizationName());
-                continue;
-            }
-
-            double distance = matchingAlgorithmService.calculateDistance(
-                    lat, lng,
-                    ngo.getLatitude().doubleValue(),
-                    ngo.getLongitude().doubleValue()
-            );
+    private List<NgoCatalog.Contact> findNearbyNgos(double lat, double lng, double radiusKm, int listingMask) {
+        NgoCatalog catalog = ngoCatalogService.getCatalog();
+        NgoCatalog.Candidates candidates = catalog.findWithinRadius(lat, lng, radiusKm, 0);
 
-            logger.debug("NGO {} distance: {} km (radius limit: {} km)", 
-                    ngo.getOrganizationName(), distance, radiusKm);
+        Integer[] order = new Integer[candidates.count()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> candidates.distancesKm()[i]));
 
-            if (distance <= radiusKm) {
-                nearbyNgos.add(ngo);
-                logger.info("✅ NGO {} is within radius ({} km)", ngo.getOrganizationName(), distance);
-            } else {
-                logger.debug("❌ NGO {} is outside radius ({} km > {} km)", 
-                        ngo.getOrganizationName(), distance, radiusKm);
+        List<NgoCatalog.Contact> nearbyNgos = new ArrayList<>(order.length);
+        for (int i : order) {
+            int row = candidates.rows()[i];
+            if (DietaryTaxonomy.acceptsListing(catalog.dietaryMask(row), listingMask)) {
+                nearbyNgos.add(catalog.contact(row));
             }
         }
 
-        logger.info("📍 Found {} NGOs within {} km radius", nearbyNgos.size(), radiusKm);
+        logger.info("📍 Found {} NGOs within {} km radius accepting {}", nearbyNgos.size(), radiusKm, listingMask);
         return nearbyNgos;
     }
 
-    /**
-     * Filter NGOs by dietary preference match
-     */
-    private List<Ngo> filterByDietaryMatch(List<Ngo> ngos, FoodListing foodListing) {
-        String foodCategory = foodListing.getCategory().name().toLowerCase();
-        String foodCategoryDisplay = foodListing.getCategory().getDisplayName().toLowerCase();
-        logger.info("🥗 Filtering {} NGOs by dietary preference. Food category: {} ({})", 
-                ngos.size(), foodCategory, foodCategoryDisplay);
-        
-        return ngos.stream()
-                .filter(ngo -> {
-                    // If NGO has no preference, include
-                    String dietaryReq = ngo.getDietaryRequirements();
-                    logger.debug("NGO: {}, Dietary Requirements: {}", ngo.getOrganizationName(), dietaryReq);
-                    
-                    if (dietaryReq == null || dietaryReq.trim().isEmpty() ||
-                            dietaryReq.toLowerCase().contains("all")) {
-                        logger.debug("✅ NGO {} included (no preference or 'all')", ngo.getOrganizationName());
-                        return true;
-                    }
-
-                    // Match dietary preference
-                    String ngoPreference = dietaryReq.toLowerCase();
-
-                    // Check if NGO accepts all types (has "non-veg ok" or similar)
-                    if (ngoPreference.contains("non-veg ok") || ngoPreference.contains("all types") || 
-                        ngoPreference.contains("any") || ngoPreference.contains("non veg ok")) {
-                        logger.debug("✅ NGO {} included (accepts all types)", ngo.getOrganizationName());
-                        return true;
-                    }
-
-                    // Determine if food is vegetarian or non-vegetarian
-                    // PROTEINS category might be non-veg, but most others are vegetarian
-                    // Non-vegetarian keywords in category
-                    boolean isFoodNonVeg = foodCategory.contains("protein") && 
-                                          (foodCategoryDisplay.contains("chicken") || 
-                                           foodCategoryDisplay.contains("fish") || 
-                                           foodCategoryDisplay.contains("meat") ||
-                                           foodCategoryDisplay.contains("non-veg"));
-                    
-                    // If food is non-vegetarian (only PROTEINS with meat/fish/chicken)
-                    if (isFoodNonVeg) {
-                        // NGO must accept non-veg
-                        if (ngoPreference.contains("non") || ngoPreference.contains("all") || 
-                            ngoPreference.contains("non-veg ok")) {
-                            logger.debug("✅ NGO {} included (non-veg food, NGO accepts non-veg)", 
-                                    ngo.getOrganizationName());
-                            return true;
-                        } else {
-                            logger.debug("❌ NGO {} excluded (non-veg food, NGO only accepts veg)", 
-                                    ngo.getOrganizationName());
-                            return false;
-                        }
-                    }
-                    
-                    // Food is vegetarian (default - COOKED_RICE, VEGETABLES, BREAD, SWEETS, etc.)
-                    // NGO must accept vegetarian (most NGOs do)
-                    if (ngoPreference.contains("veg") || ngoPreference.contains("all") || 
-                        ngoPreference.contains("vegetarian")) {
-                        logger.debug("✅ NGO {} included (vegetarian food, NGO accepts veg)", 
-                                ngo.getOrganizationName());
-                        return true;
-                    }
-
-                    // Vegan match
-                    if (foodCategory.contains("vegan") && ngoPreference.contains("vegan")) {
-                        logger.debug("✅ NGO {} included (vegan match)", ngo.getOrganizationName());
-                        return true;
-                    }
-
-                    logger.debug("❌ NGO {} excluded (dietary mismatch: food={}, ngo={})", 
-                            ngo.getOrganizationName(), foodCategory, ngoPreference);
-                    return false;
-                })
-                .collect(Collectors.toList());
+    // Helper: stored dietary mask of a listing, computed if the row predates the column
+    private int dietaryMask(FoodListing foodListing) {
+        return foodListing.getDietaryMask() != null
+                ? foodListing.getDietaryMask()
+                : DietaryTaxonomy.listingMask(foodListing.getCategory(), foodListing.getDietaryInfo());
+    }
+
+    // Helper: urgency label for messages (URGENT under 2 hours to expiry, HIGH PRIORITY under 4)
+    private String urgencyLabel(FoodListing foodListing) {
+        return switch (urgencyService.urgencyOf(foodListing)) {
+            case CRITICAL, HIGH -> "URGENT";
+            case MEDIUM -> "HIGH PRIORITY";
+            case LOW -> "";
+        };
     }
 
     /**
@@ -379,19 +226,11 @@ public class NotificationService {
                     10.0
             );
 
-            String message = String.format(
-                    "🤝 %s needs %d servings of %s food. Help feed %d beneficiaries. Login to %s to donate.",
-                    ngo.getOrganizationName(),
-                    quantityNeeded,
-                    foodPreference.toLowerCase(),
-                    ngo.getBeneficiariesCount(),
-                    appName
-            );
+            String message = buildFoodNeededSms(ngo, quantityNeeded, foodPreference);
 
             List<String> phoneNumbers = nearbyRestaurants.stream()
-                    .map(r -> r.getUser() != null ? r.getUser().getPhone() : null)
-                    .filter(phone -> phone != null && !phone.isEmpty())
-                    .filter(smsService::isValidIndianMobile)
+                    .map(r -> r.getUser() != null ? r.getUser().getPhoneE164() : null)
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toList());
 
             if (phoneNumbers.isEmpty()) {
@@ -409,76 +248,41 @@ public class NotificationService {
     private List<Restaurant> findNearbyRestaurants(double lat, double lng, double radiusKm) {
         // Use repository method that eagerly fetches user relationship
         List<Restaurant> allRestaurants = restaurantRepository.findAllWithUser();
+        GeoDistance.Origin origin = GeoDistance.origin(lat, lng);
         return allRestaurants.stream()
                 .filter(r -> r.getLatitude() != null && r.getLongitude() != null)
                 .filter(r -> r.getUser() != null && r.getUser().getIsActive())
-                .filter(r -> {
-                    double distance = matchingAlgorithmService.calculateDistance(lat, lng,
-                            r.getLatitude().doubleValue(),
-                            r.getLongitude().doubleValue());
-                    return distance <= radiusKm;
-                })
+                .filter(r -> origin.isWithin(r.getLatitude().doubleValue(), r.getLongitude().doubleValue(), radiusKm))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get top 10 registered + top 10 unregistered NGOs near restaurant
-     * Send SMS/Email to top 10 registered only
+     * Notify the 10 closest registered NGOs (within 10 km) that accept this food,
+     * taken from the listing's resolved candidate set.
+     * Unregistered NGOs are left empty; see {@link #findUnregisteredNgos}.
      */
-    public NearbyOrganizationsResponse getAndNotifyNearbyNgos(
+    public NearbyOrganizationsResponse notifyCandidateNgos(
             FoodListing foodListing,
-            Restaurant restaurant
+            Restaurant restaurant,
+            ListingCandidateSet candidateSet
     ) {
         logger.info("🔍 Finding nearby NGOs for restaurant: {} at ({}, {})", 
                 restaurant.getOrganizationName(), 
                 restaurant.getLatitude(), 
                 restaurant.getLongitude());
         
-        // Find all nearby registered NGOs
-        List<Ngo> nearbyNgos = findNearbyNgos(
-                restaurant.getLatitude().doubleValue(),
-                restaurant.getLongitude().doubleValue(),
-                10.0
-        );
-
-        logger.info("📍 Found {} NGOs within 10km radius", nearbyNgos.size());
-        nearbyNgos.forEach(ngo -> {
-            double dist = matchingAlgorithmService.calculateDistance(
-                    restaurant.getLatitude().doubleValue(),
-                    restaurant.getLongitude().doubleValue(),
-                    ngo.getLatitude().doubleValue(),
-                    ngo.getLongitude().doubleValue()
-            );
-            logger.info("  - {} at distance: {} km", ngo.getOrganizationName(), dist);
-        });
-
-        // Filter by dietary preference
-        int beforeFilter = nearbyNgos.size();
-        nearbyNgos = filterByDietaryMatch(nearbyNgos, foodListing);
-        logger.info("🥗 After dietary filter: {} NGOs (removed {})", nearbyNgos.size(), beforeFilter - nearbyNgos.size());
-
-        // Sort by distance and get top 10 with contact info
-        logger.info("🔨 Building contact responses for {} NGOs", nearbyNgos.size());
-        List<NgoWithContactResponse> top5RegisteredNgos = nearbyNgos.stream()
-                .map(ngo -> {
-                    double distance = matchingAlgorithmService.calculateDistance(
-                            restaurant.getLatitude().doubleValue(),
-                            restaurant.getLongitude().doubleValue(),
-                            ngo.getLatitude().doubleValue(),
-                            ngo.getLongitude().doubleValue()
-                    );
-                    NgoWithContactResponse response = buildNgoWithContact(ngo, distance);
-                    if (response == null) {
-                        logger.warn("⚠️ buildNgoWithContact returned null for NGO: {}", ngo.getOrganizationName());
-                    } else {
-                        logger.info("✅ Built response for NGO: {} at {} km", ngo.getOrganizationName(), distance);
-                    }
-                    return response;
-                })
-                .filter(ngo -> ngo != null) // Filter out null responses
-                .sorted(Comparator.comparing(NgoWithContactResponse::getDistanceKm))
-                .limit(TOP_N)
-                .collect(Collectors.toList());
+        // Find the 10 closest registered NGOs (within 10 km) that accept this food
+        NgoCatalog catalog = candidateSet.catalog();
+        int[] closest = candidateSet.closest(TOP_N, 10.0, DietaryTaxonomy.foodKind(dietaryMask(foodListing)));
+
+        List<NgoWithContactResponse> top5RegisteredNgos = new ArrayList<>(closest.length);
+        List<NgoCatalog.Contact> contacts = new ArrayList<>(closest.length);
+        for (int i : closest) {
+            int row = candidateSet.row(i);
+            contacts.add(catalog.contact(row));
+            top5RegisteredNgos.add(buildNgoWithContact(
+                    catalog.contact(row), catalog.beneficiaries(row), candidateSet.distanceKm(i)));
+        }
         
         logger.info("📋 Final top {} registered NGOs: {}", top5RegisteredNgos.size(), 
                 top5RegisteredNgos.stream().map(NgoWithContactResponse::getOrganizationName).collect(Collectors.toList()));
@@ -487,29 +291,38 @@ public class NotificationService {
         int notifiedCount = 0;
         if (!top5RegisteredNgos.isEmpty()) {
             notifiedCount = notifyRegisteredNgos(
-                    top5RegisteredNgos,
+                    contacts,
                     foodListing,
                     restaurant
             );
         }
 
-        // Find top 10 unregistered NGOs from Google Places
-        List<NearbyNgoPlaceResponse> top5UnregisteredNgos = new ArrayList<>();
+        return NearbyOrganizationsResponse.builder()
+                .registeredNgos(top5RegisteredNgos)
+                .unregisteredNgos(new ArrayList<>())
+                .notifiedCount(notifiedCount)
+                .build();
+    }
+
+    /**
+     * Find top 10 unregistered NGOs near a restaurant from Google Places
+     * (NGOs registered nearby in the catalog are left out)
+     */
+    public List<NearbyNgoPlaceResponse> findUnregisteredNgos(Restaurant restaurant, NgoCatalog catalog) {
         try {
             List<NearbyNgoPlaceResponse> googleNgos = googlePlacesService.findNearbyNgoPlaces(
                     restaurant.getLatitude().doubleValue(),
                     restaurant.getLongitude().doubleValue()
             );
 
-            // Remove duplicates (already registered)
-            Set<String> registeredNames = nearbyNgos.stream()
-                    .map(n -> n.getOrganizationName().toLowerCase().trim())
-                    .collect(Collectors.toSet());
-
-            top5UnregisteredNgos = googleNgos.stream()
+            // Remove duplicates (already registered nearby)
+            return googleNgos.stream()
                     .filter(gn -> {
-                        String name = gn.getName() != null ? gn.getName().toLowerCase().trim() : "";
-                        return name.isEmpty() || !registeredNames.contains(name);
+                        String name = gn.getName() != null ? gn.getName().trim() : "";
+                        return name.isEmpty() || !catalog.isRegisteredNear(name,
+                                restaurant.getLatitude().doubleValue(),
+                                restaurant.getLongitude().doubleValue(),
+                                10.0);
                     })
                     .sorted(Comparator.comparing(n -> n.getDistanceKm() != null ? n.getDistanceKm() : Double.MAX_VALUE))
                     .limit(TOP_N)
@@ -517,46 +330,38 @@ public class NotificationService {
 
         } catch (Exception e) {
             logger.warn("Failed to fetch unregistered NGOs: {}", e.getMessage());
+            return new ArrayList<>();
         }
-
-        // Build response
-        logger.info("📦 Building NearbyOrganizationsResponse: {} registered, {} unregistered", 
-                top5RegisteredNgos.size(), top5UnregisteredNgos.size());
-        
-        NearbyOrganizationsResponse response = NearbyOrganizationsResponse.builder()
-                .registeredNgos(top5RegisteredNgos)
-                .unregisteredNgos(top5UnregisteredNgos)
-                .notifiedCount(notifiedCount)
-                .build();
-        
-        logger.info("✅ Response built successfully. Registered NGOs count: {}", 
-                response.getRegisteredNgos() != null ? response.getRegisteredNgos().size() : 0);
-        
-        return response;
     }
 
     /**
      * Send SMS to registered NGOs (top 10)
      */
     private int notifyRegisteredNgos(
-            List<NgoWithContactResponse> ngos,
+            List<NgoCatalog.Contact> ngos,
             FoodListing foodListing,
             Restaurant restaurant
     ) {
         if (ngos.isEmpty()) return 0;
 
-        // Calculate urgency
+        // Hours left for the message; urgency from the urgency engine
         long hoursUntilExpiry = ChronoUnit.HOURS.between(
                 LocalDateTime.now(),
                 foodListing.getExpiryTime()
         );
-
-        String urgency = "";
-        if (hoursUntilExpiry <= 2) {
-            urgency = "URGENT";
-        } else if (hoursUntilExpiry <= 4) {
-            urgency = "HIGH PRIORITY";
-        }
+        String urgency = urgencyLabel(foodListing);
+
+        // CRITICAL listings go out right away; others wait in each NGO's coalescing window
+        // so several listings posted in a row reach an NGO as one message,
+        // and every entry goes to the dispatcher lane for its urgency
+        UrgencyLevel priority = urgencyService.urgencyOf(foodListing);
+        boolean bypassWindow = priority == UrgencyLevel.CRITICAL;
+        String digestLine = FoodDigestTemplates.digestLine(
+                restaurant.getOrganizationName(),
+                foodListing.getFoodName(),
+                foodListing.getQuantity(),
+                hoursUntilExpiry
+        );
 
         // Build SMS message
         String smsMessage = buildFoodAvailableSms(
@@ -568,83 +373,49 @@ public class NotificationService {
                 urgency
         );
 
-        // Collect valid phone numbers from top 10
-        logger.info("📱 Collecting phone numbers from {} NGOs", ngos.size());
-        
-        // Log all NGOs first
-        ngos.forEach(ngo -> {
-            logger.info("📱 NGO: '{}', Phone: '{}', Email: '{}'", 
-                    ngo.getOrganizationName(), ngo.getPhone(), ngo.getEmail());
-        });
-        
+        // Normalized phone numbers from top 10 (validated when each user was saved)
         List<String> phoneNumbers = ngos.stream()
-                .map(ngo -> {
-                    String phone = ngo.getPhone();
-                    boolean isValid = phone != null && !phone.isEmpty() && smsService.isValidIndianMobile(phone);
-                    logger.info("📱 NGO: '{}', Phone: '{}', Valid: {}", 
-                            ngo.getOrganizationName(), phone, isValid);
-                    if (!isValid && phone != null && !phone.isEmpty()) {
-                        logger.warn("⚠️ Phone number '{}' for NGO '{}' failed validation", 
-                                phone, ngo.getOrganizationName());
-                    }
-                    return phone;
-                })
-                .filter(phone -> {
-                    if (phone == null || phone.isEmpty()) {
-                        logger.debug("Filtering out null/empty phone number");
-                        return false;
-                    }
-                    boolean isValid = smsService.isValidIndianMobile(phone);
-                    if (!isValid) {
-                        logger.warn("⚠️ Phone number '{}' failed validation and was filtered out", phone);
-                    }
-                    return isValid;
-                })
+                .map(NgoCatalog.Contact::e164)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
         logger.info("📱 Valid phone numbers collected: {} out of {} NGOs", phoneNumbers.size(), ngos.size());
         logger.info("📱 Phone numbers to send SMS: {}", phoneNumbers);
 
-        // Send SMS in bulk
+        // Queue SMS in the outbox; delivered after the listing commits
         int smsCount = 0;
         if (!phoneNumbers.isEmpty()) {
-            logger.info("📱 Attempting to send SMS to {} phone numbers", phoneNumbers.size());
-            boolean smsSent = smsService.sendSms(phoneNumbers, smsMessage);
-            if (smsSent) {
-                // Note: smsSent=true means at least one SMS was sent successfully
-                // Some may have failed (e.g., unverified numbers on trial account)
-                logger.info("✅ SMS sent successfully to at least one NGO (some may have failed if unverified)");
-                smsCount = phoneNumbers.size();
-            } else {
-                logger.error("❌ Failed to send SMS to all {} NGOs", phoneNumbers.size());
-                logger.error("💡 Check logs above for details. If using Twilio Trial account, verify numbers at:");
-                logger.error("   https://www.twilio.com/console/phone-numbers/verified");
-            }
+            smsCount = bypassWindow
+                    ? notificationOutboxService.enqueueSms(phoneNumbers, smsMessage, foodListing.getListingId(),
+                            priority, foodListing.getExpiryTime())
+                    : notificationOutboxService.enqueueCoalescedSms(phoneNumbers, smsMessage, digestLine,
+                            foodListing.getListingId(), priority, foodListing.getExpiryTime());
+            logger.info("📱 Queued SMS for {} NGOs (top 10)", smsCount);
         } else {
             logger.warn("⚠️ No valid phone numbers found in {} NGOs", ngos.size());
             // Log NGO details for debugging
             ngos.forEach(ngo -> {
-                logger.warn("NGO: {}, Phone: {}, Email: {}", 
-                        ngo.getOrganizationName(), ngo.getPhone(), ngo.getEmail());
+                logger.warn("NGO: {}, Phone: {}, Email: {}",
+                        ngo.organizationName(), ngo.phone(), ngo.email());
             });
         }
 
         // Send Emails to registered NGOs
         List<String> emailAddresses = ngos.stream()
-                .map(NgoWithContactResponse::getEmail)
-                .filter(email -> email != null && !email.isEmpty())
+                .map(NgoCatalog.Contact::notifyEmail)
+                .filter(Objects::nonNull)
                 .distinct()
                 .collect(Collectors.toList());
 
         List<String> ngoNames = ngos.stream()
-                .map(NgoWithContactResponse::getOrganizationName)
+                .map(NgoCatalog.Contact::organizationName)
                 .filter(name -> name != null && !name.isEmpty())
                 .collect(Collectors.toList());
 
         int emailCount = 0;
         if (!emailAddresses.isEmpty()) {
             // Build email subject and message
-            String emailSubject = String.format("🍽️ Food Available: %s from %s", 
+            String emailSubject = notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_EMAIL_SUBJECT,
                     foodListing.getFoodName(), restaurant.getOrganizationName());
             
             String emailMessage = buildFoodAvailableEmail(
@@ -659,69 +430,39 @@ public class NotificationService {
                     restaurant.getUser() != null ? restaurant.getUser().getPhone() : null
             );
 
-            logger.info("📧 Attempting to send emails to {} NGOs", emailAddresses.size());
             logger.info("📧 Email addresses: {}", emailAddresses);
-            emailCount = emailService.sendBulkEmails(emailAddresses, emailSubject, emailMessage, ngoNames);
-            if (emailCount > 0) {
-                logger.info("✅ Email sent successfully to {} NGOs (top 10)", emailCount);
-            } else {
-                logger.error("❌ Email sending failed for all {} NGOs. Check EmailJS configuration and logs above.", emailAddresses.size());
-                logger.error("💡 Common issues:");
-                logger.error("   1. EmailJS service_id or template_id not configured");
-                logger.error("   2. Invalid email addresses");
-                logger.error("   3. EmailJS API errors (check logs above for details)");
-            }
+            emailCount = bypassWindow
+                    ? notificationOutboxService.enqueueEmails(emailAddresses, ngoNames, emailSubject, emailMessage,
+                            foodListing.getListingId(), priority, foodListing.getExpiryTime())
+                    : notificationOutboxService.enqueueCoalescedEmails(emailAddresses, ngoNames, emailSubject,
+                            emailMessage, digestLine, foodListing.getListingId(), priority, foodListing.getExpiryTime());
+            logger.info("📧 Queued emails for {} NGOs (top 10)", emailCount);
         } else {
             logger.warn("⚠️ No valid email addresses found in {} NGOs", ngos.size());
             logger.warn("📧 NGO email addresses: {}", ngos.stream()
-                    .map(ngo -> ngo.getOrganizationName() + " -> " + ngo.getEmail())
+                    .map(ngo -> ngo.organizationName() + " -> " + ngo.email())
                     .collect(Collectors.joining(", ")));
         }
 
-        // Return total notification count (SMS + Email)
+        // Return the number of NGOs notified (queued) on either channel
         return Math.max(smsCount, emailCount);
     }
 
     /**
-     * Build NgoWithContactResponse from Ngo entity
+     * Build NgoWithContactResponse from an NGO catalog entry
      */
-    private NgoWithContactResponse buildNgoWithContact(Ngo ngo, double distance) {
-        if (ngo == null) {
-            logger.warn("⚠️ Attempted to build NgoWithContactResponse from null NGO");
-            return null;
-        }
-        
-        String phone = null;
-        String email = null;
-        try {
-            if (ngo.getUser() != null) {
-                phone = ngo.getUser().getPhone();
-                email = ngo.getUser().getEmail();
-                logger.info("📱 NGO '{}' contact info: phone='{}', email='{}'", 
-                        ngo.getOrganizationName(), phone, email);
-            } else {
-                logger.warn("⚠️ NGO {} has no user relationship", ngo.getOrganizationName());
-            }
-        } catch (Exception e) {
-            logger.error("❌ Failed to get user info for NGO {}: {}", ngo.getNgoId(), e.getMessage(), e);
-        }
-        
-        NgoWithContactResponse response = NgoWithContactResponse.builder()
-                .ngoId(ngo.getNgoId())
-                .organizationName(ngo.getOrganizationName() != null ? ngo.getOrganizationName() : "Unknown")
-                .phone(phone)
-                .email(email)
-                .address(ngo.getAddress() != null ? ngo.getAddress() : "")
+    private NgoWithContactResponse buildNgoWithContact(NgoCatalog.Contact contact, int beneficiaries, double distance) {
+        return NgoWithContactResponse.builder()
+                .ngoId(contact.ngoId())
+                .organizationName(contact.organizationName() != null ? contact.organizationName() : "Unknown")
+                .phone(contact.phone())
+                .email(contact.email())
+                .address(contact.address() != null ? contact.address() : "")
                 .distanceKm(Math.round(distance * 10.0) / 10.0) // Round to 1 decimal
-                .beneficiariesCount(ngo.getBeneficiariesCount() != null ? ngo.getBeneficiariesCount() : 0)
-                .dietaryRequirements(ngo.getDietaryRequirements())
+                .beneficiariesCount(beneficiaries)
+                .dietaryRequirements(contact.dietaryRequirements())
                 .isRegistered(true)
                 .build();
-        
-        logger.debug("✅ Built NgoWithContactResponse for {}: distance={}km, phone={}", 
-                ngo.getOrganizationName(), response.getDistanceKm(), phone != null ? "yes" : "no");
-        
-        return response;
     }
 
     /**
@@ -740,34 +481,28 @@ public class NotificationService {
             throw new BadRequestException("NGO location is not set. Please update your profile with location coordinates.");
         }
 
-        // Find all nearby registered restaurants
-        List<Restaurant> nearbyRestaurants = findNearbyRestaurants(
+        // Find the 10 closest registered restaurants (within 10 km)
+        RestaurantCatalog catalog = restaurantCatalogService.getCatalog();
+        SphericalKdTree.Neighbors closest = catalog.findNearest(
                 ngo.getLatitude().doubleValue(),
                 ngo.getLongitude().doubleValue(),
+                TOP_N,
                 10.0
         );
 
-        // Sort by distance and get top 10 with contact info
-        List<RestaurantWithContactResponse> top5RegisteredRestaurants = nearbyRestaurants.stream()
-                .map(restaurant -> {
-                    double distance = matchingAlgorithmService.calculateDistance(
-                            ngo.getLatitude().doubleValue(),
-                            ngo.getLongitude().doubleValue(),
-                            restaurant.getLatitude().doubleValue(),
-                            restaurant.getLongitude().doubleValue()
-                    );
-                    return buildRestaurantWithContact(restaurant, distance);
-                })
-                .filter(restaurant -> restaurant != null) // Filter out null responses
-                .sorted(Comparator.comparing(RestaurantWithContactResponse::getDistanceKm))
-                .limit(TOP_N)
-                .collect(Collectors.toList());
+        List<RestaurantWithContactResponse> top5RegisteredRestaurants = new ArrayList<>(closest.count());
+        List<RestaurantCatalog.Contact> contacts = new ArrayList<>(closest.count());
+        for (int i = 0; i < closest.count(); i++) {
+            contacts.add(catalog.contact(closest.items()[i]));
+            top5RegisteredRestaurants.add(buildRestaurantWithContact(
+                    catalog.contact(closest.items()[i]), closest.distancesKm()[i]));
+        }
 
         // Send notification to top 10 registered restaurants
         int notifiedCount = 0;
         if (!top5RegisteredRestaurants.isEmpty()) {
             notifiedCount = notifyRegisteredRestaurants(
-                    top5RegisteredRestaurants,
+                    contacts,
                     ngo,
                     quantityNeeded,
                     foodPreference
@@ -783,15 +518,14 @@ public class NotificationService {
                     10.0
             );
 
-            // Remove duplicates
-            Set<String> registeredNames = nearbyRestaurants.stream()
-                    .map(r -> r.getOrganizationName().toLowerCase().trim())
-                    .collect(Collectors.toSet());
-
+            // Remove duplicates (already registered nearby)
             top5UnregisteredRestaurants = googleRestaurants.stream()
                     .filter(gr -> {
-                        String name = gr.getName() != null ? gr.getName().toLowerCase().trim() : "";
-                        return name.isEmpty() || !registeredNames.contains(name);
+                        String name = gr.getName() != null ? gr.getName().trim() : "";
+                        return name.isEmpty() || !catalog.isRegisteredNear(name,
+                                ngo.getLatitude().doubleValue(),
+                                ngo.getLongitude().doubleValue(),
+                                10.0);
                     })
                     .sorted(Comparator.comparing(r -> r.getDistanceKm() != null ? r.getDistanceKm() : Double.MAX_VALUE))
                     .limit(TOP_N)
@@ -813,7 +547,7 @@ public class NotificationService {
      * Send SMS and Email to registered restaurants (top 10)
      */
     private int notifyRegisteredRestaurants(
-            List<RestaurantWithContactResponse> restaurants,
+            List<RestaurantCatalog.Contact> restaurants,
             Ngo ngo,
             int quantityNeeded,
             String foodPreference
@@ -821,63 +555,41 @@ public class NotificationService {
         if (restaurants.isEmpty()) return 0;
 
         // Build SMS message
-        String smsMessage = String.format(
-                "🤝 %s needs %d servings of %s food. Help feed %d beneficiaries. Login to %s to donate.",
-                ngo.getOrganizationName(),
-                quantityNeeded,
-                foodPreference.toLowerCase(),
-                ngo.getBeneficiariesCount(),
-                appName
-        );
+        String smsMessage = buildFoodNeededSms(ngo, quantityNeeded, foodPreference);
 
-        // Collect valid phone numbers from top 10
-        logger.info("📱 Collecting phone numbers from {} restaurants", restaurants.size());
-        
+        // Normalized phone numbers from top 10 (validated when each user was saved)
         List<String> phoneNumbers = restaurants.stream()
-                .map(restaurant -> {
-                    String phone = restaurant.getPhone();
-                    boolean isValid = phone != null && !phone.isEmpty() && smsService.isValidIndianMobile(phone);
-                    logger.info("📱 Restaurant: '{}', Phone: '{}', Valid: {}", 
-                            restaurant.getOrganizationName(), phone, isValid);
-                    return phone;
-                })
-                .filter(phone -> phone != null && !phone.isEmpty())
-                .filter(smsService::isValidIndianMobile)
+                .map(RestaurantCatalog.Contact::e164)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
         logger.info("📱 Valid phone numbers collected: {} out of {} restaurants", phoneNumbers.size(), restaurants.size());
 
-        // Send SMS in bulk
+        // Queue SMS in the outbox
         int smsCount = 0;
         if (!phoneNumbers.isEmpty()) {
-            logger.info("📱 Attempting to send SMS to {} restaurants", phoneNumbers.size());
-            boolean smsSent = smsService.sendSms(phoneNumbers, smsMessage);
-            if (smsSent) {
-                logger.info("✅ SMS sent successfully to {} restaurants (top 10)", phoneNumbers.size());
-                smsCount = phoneNumbers.size();
-            } else {
-                logger.error("❌ Failed to send SMS to restaurants");
-            }
+            smsCount = notificationOutboxService.enqueueSms(phoneNumbers, smsMessage, null, UrgencyLevel.MEDIUM, null);
+            logger.info("📱 Queued SMS for {} restaurants (top 10)", smsCount);
         } else {
             logger.warn("⚠️ No valid phone numbers found in {} restaurants", restaurants.size());
         }
 
         // Send Emails to registered restaurants
         List<String> emailAddresses = restaurants.stream()
-                .map(RestaurantWithContactResponse::getEmail)
-                .filter(email -> email != null && !email.isEmpty())
+                .map(RestaurantCatalog.Contact::notifyEmail)
+                .filter(Objects::nonNull)
                 .distinct()
                 .collect(Collectors.toList());
 
         List<String> restaurantNames = restaurants.stream()
-                .map(RestaurantWithContactResponse::getOrganizationName)
+                .map(RestaurantCatalog.Contact::organizationName)
                 .filter(name -> name != null && !name.isEmpty())
                 .collect(Collectors.toList());
 
         int emailCount = 0;
         if (!emailAddresses.isEmpty()) {
             // Build email subject and message
-            String emailSubject = String.format("🤝 Food Needed: %s needs %d servings", 
+            String emailSubject = notificationTemplateService.render(NotificationTemplate.FOOD_NEEDED_EMAIL_SUBJECT,
                     ngo.getOrganizationName(), quantityNeeded);
             
             String emailMessage = buildFoodNeededEmail(
@@ -889,18 +601,14 @@ public class NotificationService {
                     ngo.getUser() != null ? ngo.getUser().getPhone() : null
             );
 
-            logger.info("📧 Attempting to send emails to {} restaurants", emailAddresses.size());
             logger.info("📧 Email addresses: {}", emailAddresses);
-            emailCount = emailService.sendBulkEmails(emailAddresses, emailSubject, emailMessage, restaurantNames);
-            if (emailCount > 0) {
-                logger.info("✅ Email sent successfully to {} restaurants (top 10)", emailCount);
-            } else {
-                logger.error("❌ Email sending failed for all {} restaurants. Check email configuration and logs above.", emailAddresses.size());
-            }
+            emailCount = notificationOutboxService.enqueueEmails(emailAddresses, restaurantNames, emailSubject,
+                    emailMessage, null, UrgencyLevel.MEDIUM, null);
+            logger.info("📧 Queued emails for {} restaurants (top 10)", emailCount);
         } else {
             logger.warn("⚠️ No valid email addresses found in {} restaurants", restaurants.size());
             logger.warn("📧 Restaurant email addresses: {}", restaurants.stream()
-                    .map(r -> r.getOrganizationName() + " -> " + r.getEmail())
+                    .map(r -> r.organizationName() + " -> " + r.email())
                     .collect(Collectors.joining(", ")));
         }
 
@@ -909,33 +617,17 @@ public class NotificationService {
     }
 
     /**
-     * Build RestaurantWithContactResponse from Restaurant entity
+     * Build RestaurantWithContactResponse from a restaurant catalog entry
      */
-    private RestaurantWithContactResponse buildRestaurantWithContact(Restaurant restaurant, double distance) {
-        if (restaurant == null) {
-            logger.warn("Attempted to build RestaurantWithContactResponse from null Restaurant");
-            return null;
-        }
-        
-        String phone = null;
-        String email = null;
-        try {
-            if (restaurant.getUser() != null) {
-                phone = restaurant.getUser().getPhone();
-                email = restaurant.getUser().getEmail();
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to get user info for Restaurant {}: {}", restaurant.getRestaurantId(), e.getMessage());
-        }
-        
+    private RestaurantWithContactResponse buildRestaurantWithContact(RestaurantCatalog.Contact contact, double distance) {
         return RestaurantWithContactResponse.builder()
-                .restaurantId(restaurant.getRestaurantId())
-                .organizationName(restaurant.getOrganizationName() != null ? restaurant.getOrganizationName() : "Unknown")
-                .phone(phone)
-                .email(email)
-                .address(restaurant.getAddress() != null ? restaurant.getAddress() : "")
+                .restaurantId(contact.restaurantId())
+                .organizationName(contact.organizationName() != null ? contact.organizationName() : "Unknown")
+                .phone(contact.phone())
+                .email(contact.email())
+                .address(contact.address() != null ? contact.address() : "")
                 .distanceKm(Math.round(distance * 10.0) / 10.0) // Round to 1 decimal
-                .cuisineType(restaurant.getCuisineType())
+                .cuisineType(contact.cuisineType())
                 .isRegistered(true)
                 .build();
     }
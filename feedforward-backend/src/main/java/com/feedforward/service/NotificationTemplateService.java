@@ -0,0 +1,72 @@
+package com.feedforward.service;
+
+import com.feedforward.enums.NotificationTemplate;
+import com.feedforward.util.MessageTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled notification templates, cached by (template, locale).
+ * Each template is read from templates/notifications*.properties and parsed once per locale;
+ * renders reuse the compiled segments and a per-thread buffer.
+ */
+@Service
+public class NotificationTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplateService.class);
+    private static final String BUNDLE = "templates.notifications";
+
+    private final Map<TemplateKey, MessageTemplate> templates = new ConcurrentHashMap<>();
+    private final Locale defaultLocale;
+
+    public NotificationTemplateService(@Value("${app.notifications.locale:en}") String localeTag) {
+        this.defaultLocale = Locale.forLanguageTag(localeTag);
+    }
+
+    /**
+     * Compile every template for the default locale, so a broken template fails at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        for (NotificationTemplate template : NotificationTemplate.values()) {
+            get(template, defaultLocale);
+        }
+        logger.info("Compiled {} notification templates for locale {}", templates.size(), defaultLocale);
+    }
+
+    /**
+     * Render a template in the default locale, values in the template's parameter order
+     */
+    public String render(NotificationTemplate template, Object... values) {
+        return get(template, defaultLocale).render(values);
+    }
+
+    public String render(NotificationTemplate template, Locale locale, Object... values) {
+        return get(template, locale).render(values);
+    }
+
+    public MessageTemplate get(NotificationTemplate template, Locale locale) {
+        return templates.computeIfAbsent(new TemplateKey(template, locale), NotificationTemplateService::compile);
+    }
+
+    // Helper: load the template text, falling back to the base bundle rather than the JVM locale
+    private static MessageTemplate compile(TemplateKey key) {
+        ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, key.locale(),
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+        NotificationTemplate template = key.template();
+        return MessageTemplate.compile(template.getKey() + "[" + key.locale() + "]",
+                bundle.getString(template.getKey()), template.getMaxLength(), template.getParameters());
+    }
+
+    private record TemplateKey(NotificationTemplate template, Locale locale) {
+    }
+}
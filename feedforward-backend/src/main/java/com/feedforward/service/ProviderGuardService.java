@@ -0,0 +1,243 @@
+package com.feedforward.service;
+
+import com.feedforward.dto.response.ProviderStatusResponse;
+import com.feedforward.enums.ExternalProvider;
+import com.feedforward.exception.ProviderUnavailableException;
+import com.feedforward.util.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Isolation for calls to external providers (Twilio, Fast2SMS, SMTP, Google Places).
+ *
+ * Each provider gets a circuit breaker and a bulkhead: a small bounded thread pool that runs the
+ * call while the caller waits at most queue-timeout-ms for a thread and timeout-ms for the call.
+ * A slow or failing provider fills its own pool and opens its own breaker, after which calls are
+ * rejected at once with {@link ProviderUnavailableException} instead of holding request or
+ * outbox threads. Time spent queued behind other calls is load, not a provider failure, so it
+ * never counts against the breaker.
+ * Settings live under app.providers.&lt;provider&gt;.
+ */
+@Service
+public class ProviderGuardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderGuardService.class);
+
+    private final Map<ExternalProvider, Guard> guards = new EnumMap<>(ExternalProvider.class);
+
+    public ProviderGuardService(Environment environment) {
+        for (ExternalProvider provider : ExternalProvider.values()) {
+            Guard guard = new Guard(provider, environment);
+            guards.put(provider, guard);
+            logger.info("Provider guard {}: {} concurrent, {} queued, {} ms timeout, opens at {}% of {} calls for {} ms",
+                    provider, guard.maxConcurrent, guard.queueSize, guard.timeoutMs,
+                    Math.round(guard.failureRateThreshold * 100), guard.windowSize, guard.openMs);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        guards.values().forEach(guard -> guard.bulkhead.shutdownNow());
+    }
+
+    /**
+     * Run a provider call through its breaker and bulkhead.
+     * Exceptions thrown by the call count as provider failures; a call that only failed for its
+     * recipient (bad number, rejected address) should return that outcome instead of throwing.
+     * @throws ProviderUnavailableException if the breaker is open, the bulkhead is full, the call
+     *         timed out or the call failed
+     */
+    public <T> T call(ExternalProvider provider, Callable<T> call) {
+        Guard guard = guards.get(provider);
+        if (!guard.breaker.tryAcquire()) {
+            throw new ProviderUnavailableException(provider + " circuit is open");
+        }
+
+        CountDownLatch started = new CountDownLatch(1);
+        Future<T> future;
+        try {
+            future = guard.bulkhead.submit(() -> {
+                started.countDown();
+                return call.call();
+            });
+        } catch (RejectedExecutionException e) {
+            guard.breaker.onIgnored();
+            guard.bulkheadRejected.increment();
+            throw new ProviderUnavailableException(provider + " bulkhead is full");
+        }
+
+        CircuitBreaker.State before = guard.breaker.state();
+        long start = System.nanoTime();
+        try {
+            if (!started.await(guard.queueTimeoutMs, TimeUnit.MILLISECONDS) && future.cancel(false)) {
+                guard.breaker.onIgnored();
+                guard.bulkheadRejected.increment();
+                throw new ProviderUnavailableException(provider + " bulkhead queue wait exceeded "
+                        + guard.queueTimeoutMs + " ms");
+            }
+            T result = future.get(guard.timeoutMs, TimeUnit.MILLISECONDS);
+            guard.breaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            guard.timeouts.increment();
+            guard.breaker.onFailure("Timed out after " + guard.timeoutMs + " ms");
+            throw new ProviderUnavailableException(provider + " timed out after " + guard.timeoutMs + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            guard.breaker.onFailure(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+            throw new ProviderUnavailableException(provider + " call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            guard.breaker.onIgnored();
+            throw new ProviderUnavailableException(provider + " call interrupted", e);
+        } finally {
+            guard.calls.increment();
+            guard.callNanos.add(System.nanoTime() - start);
+            logTransition(provider, before, guard.breaker.state());
+        }
+    }
+
+    /**
+     * False while the provider's breaker is open, so callers can go straight to a fallback
+     */
+    public boolean isAvailable(ExternalProvider provider) {
+        return guards.get(provider).breaker.state() != CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * RestTemplate whose connect and read timeouts match the provider's call timeout, so a hung
+     * connection frees its bulkhead thread
+     */
+    public RestTemplate restTemplate(ExternalProvider provider) {
+        int timeoutMs = (int) Math.min(Integer.MAX_VALUE, guards.get(provider).timeoutMs);
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Breaker state and bulkhead metrics for every provider
+     */
+    public List<ProviderStatusResponse> status() {
+        List<ProviderStatusResponse> status = new ArrayList<>(guards.size());
+        for (Guard guard : guards.values()) {
+            CircuitBreaker.Snapshot breaker = guard.breaker.snapshot();
+            long calls = guard.calls.sum();
+            status.add(ProviderStatusResponse.builder()
+                    .provider(guard.provider.name())
+                    .state(breaker.state().name())
+                    .failureRate(Math.round(breaker.failureRate() * 10000.0) / 10000.0)
+                    .successes(breaker.successes())
+                    .failures(breaker.failures())
+                    .rejectedByBreaker(breaker.rejected())
+                    .rejectedByBulkhead(guard.bulkheadRejected.sum())
+                    .timeouts(guard.timeouts.sum())
+                    .timesOpened(breaker.timesOpened())
+                    .activeCalls(guard.bulkhead.getActiveCount())
+                    .queuedCalls(guard.bulkhead.getQueue().size())
+                    .maxConcurrent(guard.maxConcurrent)
+                    .averageWaitMs(calls == 0 ? 0.0 : Math.round(guard.callNanos.sum() / (double) calls / 10_000.0) / 100.0)
+                    .lastError(breaker.lastError())
+                    .build());
+        }
+        return status;
+    }
+
+    // Helper: log breaker transitions caused by a call
+    private static void logTransition(ExternalProvider provider, CircuitBreaker.State before,
+                                      CircuitBreaker.State after) {
+        if (before == after) {
+            return;
+        }
+        if (after == CircuitBreaker.State.OPEN) {
+            logger.warn("⚠️ {} circuit opened; calls are rejected until the open period ends", provider);
+        } else if (after == CircuitBreaker.State.CLOSED) {
+            logger.info("✅ {} circuit closed; provider recovered", provider);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Guard {
+        private final ExternalProvider provider;
+        private final int maxConcurrent;
+        private final int queueSize;
+        private final long timeoutMs;
+        private final long queueTimeoutMs;
+        private final double failureRateThreshold;
+        private final int windowSize;
+        private final long openMs;
+        private final CircuitBreaker breaker;
+        private final ThreadPoolExecutor bulkhead;
+
+        private final LongAdder bulkheadRejected = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder callNanos = new LongAdder();
+
+        private Guard(ExternalProvider provider, Environment environment) {
+            String prefix = "app.providers." + provider.getConfigKey() + ".";
+            this.provider = provider;
+            this.maxConcurrent = Math.max(1, environment.getProperty(prefix + "max-concurrent", Integer.class,
+                    switch (provider) {
+                        case TWILIO -> 16;
+                        case FAST2SMS -> 2;
+                        case SMTP -> 3;
+                        case PLACES -> 8;
+                    }));
+            this.queueSize = Math.max(1, environment.getProperty(prefix + "queue-size", Integer.class, 100));
+            this.timeoutMs = environment.getProperty(prefix + "timeout-ms", Long.class,
+                    switch (provider) {
+                        case TWILIO, FAST2SMS -> 10000L;
+                        case SMTP -> 60000L;
+                        case PLACES -> 5000L;
+                    });
+            this.queueTimeoutMs = environment.getProperty(prefix + "queue-timeout-ms", Long.class,
+                    provider == ExternalProvider.SMTP ? 300000L : 30000L);
+            this.failureRateThreshold = environment.getProperty(prefix + "failure-rate-threshold", Integer.class, 50)
+                    / 100.0;
+            this.windowSize = environment.getProperty(prefix + "window-size", Integer.class, 20);
+            this.openMs = environment.getProperty(prefix + "open-ms", Long.class, 30000L);
+            this.breaker = new CircuitBreaker(provider.name(), failureRateThreshold, windowSize,
+                    environment.getProperty(prefix + "minimum-calls", Integer.class, 5), openMs,
+                    environment.getProperty(prefix + "half-open-probes", Integer.class, 2));
+
+            this.bulkhead = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize), namedThreads("provider-" + provider.getConfigKey()),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.bulkhead.allowCoreThreadTimeOut(true);
+        }
+    }
+}
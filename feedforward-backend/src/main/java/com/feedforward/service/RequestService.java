@@ -37,6 +37,7 @@ public class RequestService {
     private final RestaurantRepository restaurantRepository;
     private final DonationHistoryRepository donationHistoryRepository;
     private final MatchingAlgorithmService matchingAlgorithmService;
+    private final NgoDemandService ngoDemandService;
 
     /**
      * Create a food request (NGO only)
@@ -87,6 +88,7 @@ public class RequestService {
                 .build();
 
         foodRequest = requestRepository.save(foodRequest);
+        ngoDemandService.onRequested(foodRequest);
         logger.info("Food request created with ID: {}", foodRequest.getRequestId());
 
         return buildRequestResponse(foodRequest);
@@ -237,6 +239,7 @@ public class RequestService {
         // Approve request
         request.approve(dto.getResponse(), dto.getPickupTime());
         request = requestRepository.save(request);
+        ngoDemandService.onApproved(request);
         logger.info("Request {} approved, listing quantity updated to {}", requestId, listing.getQuantity());
 
         return buildRequestResponse(request);
@@ -265,6 +268,7 @@ public class RequestService {
         // Reject request
         request.reject(dto.getReason());
         request = requestRepository.save(request);
+        ngoDemandService.onRejected(request);
 
         logger.info("Request {} rejected", requestId);
 
@@ -347,6 +351,8 @@ public class RequestService {
         ngoRepository.save(ngo);
 
         request = requestRepository.save(request);
+        ngoDemandService.onCompleted(request, dto.getQuantityReceived() != null ?
+                dto.getQuantityReceived() : request.getQuantityRequested());
         logger.info("Request {} completed", requestId);
 
         return buildRequestResponse(request);
@@ -390,8 +396,10 @@ public class RequestService {
         }
 
         // Cancel request
+        RequestStatus previousStatus = request.getStatus();
         request.cancel();
         requestRepository.save(request);
+        ngoDemandService.onCancelled(request, previousStatus);
 
         logger.info("Request {} cancelled", requestId);
     }
@@ -452,12 +460,7 @@ public class RequestService {
         Ngo ngo = request.getNgo();
 
         // Calculate distance
-        double distance = matchingAlgorithmService.calculateDistance(
-                ngo.getLatitude().doubleValue(),
-                ngo.getLongitude().doubleValue(),
-                restaurant.getLatitude().doubleValue(),
-                restaurant.getLongitude().doubleValue()
-        );
+        double distance = matchingAlgorithmService.calculateDistance(restaurant, ngo);
 
         return FoodRequestResponse.builder()
                 .requestId(request.getRequestId())
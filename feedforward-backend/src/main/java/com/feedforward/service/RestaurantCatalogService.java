@@ -0,0 +1,103 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.Restaurant;
+import com.feedforward.repository.RestaurantRepository;
+import com.feedforward.util.RestaurantCatalog;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Holds the current {@link RestaurantCatalog} snapshot of active restaurants.
+ * Rebuilt lazily after committed restaurant or user changes and on a fixed delay.
+ */
+@Service
+@RequiredArgsConstructor
+public class RestaurantCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantCatalogService.class);
+
+    private final RestaurantRepository restaurantRepository;
+
+    private volatile RestaurantCatalog catalog;
+    private volatile boolean stale = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload the catalog from the database
+     */
+    @Scheduled(fixedDelayString = "${app.geo.restaurant-catalog.refresh-interval-ms:600000}",
+            initialDelayString = "${app.geo.restaurant-catalog.refresh-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // Cleared before loading so changes committed during the load mark it stale again
+        stale = false;
+
+        List<Restaurant> restaurants = restaurantRepository.findAllWithUser();
+        RestaurantCatalog.Builder builder = RestaurantCatalog.builder();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+                continue;
+            }
+            builder.add(
+                    restaurant.getLatitude().doubleValue(),
+                    restaurant.getLongitude().doubleValue(),
+                    new RestaurantCatalog.Contact(
+                            restaurant.getRestaurantId(),
+                            restaurant.getOrganizationName(),
+                            restaurant.getAddress(),
+                            restaurant.getUser() != null ? restaurant.getUser().getPhone() : null,
+                            restaurant.getUser() != null ? restaurant.getUser().getEmail() : null,
+                            restaurant.getCuisineType(),
+                            restaurant.getUser() != null ? restaurant.getUser().getPhoneE164() : null,
+                            restaurant.getUser() != null ? restaurant.getUser().getEmailNormalized() : null
+                    ));
+        }
+        catalog = builder.build();
+
+        logger.info("Restaurant catalog rebuilt with {} restaurants in {} ms",
+                catalog.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Current catalog, rebuilt first if a committed change made it stale
+     */
+    public RestaurantCatalog getCatalog() {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    rebuild();
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Mark the catalog stale once the current transaction commits
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.feedforward.service;
 import com.feedforward.entity.FoodListing;
 import com.feedforward.entity.FoodRequest;
 import com.feedforward.enums.ListingStatus;
+import com.feedforward.enums.RequestStatus;
 import com.feedforward.repository.FoodListingRepository;
 import com.feedforward.repository.FoodRequestRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,9 @@ public class ScheduledTaskService {
 
     private final FoodListingRepository listingRepository;
     private final FoodRequestRepository requestRepository;
+    private final NgoDemandService ngoDemandService;
+    private final UrgentNotificationService urgentNotificationService;
+    private final DailyDigestService dailyDigestService;
 
     /**
      * Mark expired food listings as EXPIRED
@@ -42,20 +46,17 @@ public class ScheduledTaskService {
 
     /**
      * Send notifications for urgent food listings (expiring in 1 hour)
-     * Runs every 30 minutes
+     * Runs every 30 minutes; pages are read and queued in their own transactions
      */
     @Scheduled(cron = "0 */30 * * * *") // Every 30 minutes
-    @Transactional(readOnly = true)
     public void notifyUrgentListings() {
         logger.info("Running scheduled task: Notify urgent listings");
 
-        LocalDateTime oneHourFromNow = LocalDateTime.now().plusHours(1);
-        List<FoodListing> urgentListings = listingRepository.findUrgentListings(oneHourFromNow);
+        UrgentNotificationService.UrgentRun run = urgentNotificationService.notifyUrgentListings();
 
-        if (!urgentListings.isEmpty()) {
-            logger.info("Found {} urgent listings expiring within 1 hour", urgentListings.size());
-            // TODO: Send notifications to nearby NGOs
-            // This can be implemented with email/SMS service
+        if (run.getListings() > 0) {
+            logger.info("Found {} urgent listings expiring within 1 hour; queued {} SMS and {} emails",
+                    run.getListings(), run.getSms(), run.getEmails());
         }
     }
 
@@ -75,6 +76,7 @@ public class ScheduledTaskService {
             // Auto-cancel the request
             request.cancel();
             requestRepository.save(request);
+            ngoDemandService.onCancelled(request, RequestStatus.APPROVED);
 
             // Make the listing available again
             FoodListing listing = request.getFoodListing();
@@ -93,20 +95,15 @@ public class ScheduledTaskService {
 
     /**
      * Send daily digest notifications
-     * Runs every day at 9:00 AM IST
+     * Runs every day at 9:00 AM IST; built from a fixed set of aggregate queries
      */
     @Scheduled(cron = "0 0 9 * * *", zone = "Asia/Kolkata")
-    @Transactional(readOnly = true)
     public void sendDailyDigest() {
         logger.info("Running scheduled task: Send daily digest");
 
-        // TODO: Implement daily digest email/notification
-        // - Top restaurants by donations
-        // - Total servings saved yesterday
-        // - Urgent food available today
-        // - Pending requests reminder
+        DailyDigestService.DigestRun run = dailyDigestService.sendDailyDigest();
 
-        logger.info("Daily digest notifications queued");
+        logger.info("Daily digest: {} of {} digests sent in {} ms", run.getSent(), run.getRecipients(), run.getMillis());
     }
 
     /**
@@ -0,0 +1,174 @@
+package com.feedforward.service;
+
+import com.feedforward.config.MatchingConfig;
+import com.feedforward.dto.response.ScoringEvaluationResponse;
+import com.feedforward.enums.FoodCategory;
+import com.feedforward.repository.DonationHistoryRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.MatchScorer;
+import com.feedforward.util.MatchScoringPipeline;
+import com.feedforward.util.NgoCatalog;
+import com.feedforward.util.TopKSelector;
+import com.feedforward.util.UrgencyBuckets;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Offline evaluation of the match scoring pipeline against donation_history.
+ *
+ * Each past donation is replayed as its listing looked when it was posted (expiry measured from
+ * the listing's creation time) against the current NGO catalog, and the NGO that actually
+ * received the food is looked up in the ranking. Reports how often it would have been among the
+ * suggestions, together with scoring throughput with and without the top-K short-circuit.
+ * Candidates are scored exactly as live ranking scores them, saturation discount included
+ * (from current NGO demand). Runs outside the request path; weight overrides only affect the evaluation.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScoringEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringEvaluationService.class);
+    private static final int MAX_REPLAY_DONATIONS = 10000;
+
+    private final DonationHistoryRepository donationHistoryRepository;
+    private final NgoCatalogService ngoCatalogService;
+    private final MatchingAlgorithmService matchingAlgorithmService;
+    private final MatchScoringPipeline scoringPipeline;
+    private final MatchingConfig matchingConfig;
+
+    /**
+     * Replay the most recent donations; null weights fall back to the configured ones
+     */
+    @Transactional(readOnly = true)
+    public ScoringEvaluationResponse evaluate(int limit, Double distance, Double quantity, Double urgency,
+                                              Double dietary) {
+        MatchScoringPipeline pipeline = distance == null && quantity == null && urgency == null && dietary == null
+                ? scoringPipeline
+                : matchingConfig.pipelineWith(distance, quantity, urgency, dietary);
+
+        List<Object[]> rows = donationHistoryRepository.findScoringReplayRows(
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_REPLAY_DONATIONS))));
+        NgoCatalog catalog = ngoCatalogService.getCatalog();
+
+        int replayed = 0;
+        int inRange = 0;
+        int hits = 0;
+        double reciprocalRankSum = 0;
+        long scored = 0;
+        long skipped = 0;
+        long fullNanos = 0;
+        long topKNanos = 0;
+
+        for (Object[] row : rows) {
+            // [donationId, ngoId, latitude, longitude, quantity, expiryTime, createdAt, category, dietaryInfo, dietaryMask]
+            Long receiverId = (Long) row[1];
+            LocalDateTime createdAt = (LocalDateTime) row[6];
+            if (row[2] == null || row[3] == null || createdAt == null) {
+                continue;
+            }
+            replayed++;
+
+            NgoCatalog.Candidates candidates = matchingAlgorithmService.findCandidates(
+                    ((BigDecimal) row[2]).doubleValue(), ((BigDecimal) row[3]).doubleValue(), catalog);
+            int receiver = indexOf(catalog, candidates, receiverId);
+            if (receiver < 0) {
+                continue;
+            }
+            inRange++;
+
+            MatchScorer.ListingFeatures features = new MatchScorer.ListingFeatures(
+                    (Integer) row[4],
+                    UrgencyBuckets.levelAt((LocalDateTime) row[5], createdAt),
+                    row[9] != null
+                            ? (Integer) row[9]
+                            : DietaryTaxonomy.listingMask((FoodCategory) row[7], (String) row[8]),
+                    row[8] != null && !((String) row[8]).isBlank());
+            int[] candidateRows = candidates.rows();
+            double[] distances = candidates.distancesKm();
+
+            // Full scoring, as batch allocation does
+            long start = System.nanoTime();
+            int[] scores = new int[candidates.count()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = matchingAlgorithmService.scoreCandidate(pipeline, catalog, candidateRows[i],
+                        distances[i], features, Integer.MIN_VALUE);
+            }
+            fullNanos += System.nanoTime() - start;
+            scored += scores.length;
+
+            // Top-K scoring with short-circuit, as findMatchingNgos does
+            start = System.nanoTime();
+            TopKSelector top = new TopKSelector(MatchingAlgorithmService.MAX_SUGGESTIONS);
+            for (int i = 0; i < scores.length; i++) {
+                int score = matchingAlgorithmService.scoreCandidate(pipeline, catalog, candidateRows[i],
+                        distances[i], features, top.threshold());
+                if (score == MatchScoringPipeline.SKIPPED) {
+                    skipped++;
+                } else {
+                    top.offer(i, score, distances[i]);
+                }
+            }
+            top.drain();
+            topKNanos += System.nanoTime() - start;
+
+            // Rank of the receiver: candidates with a higher score, or the same score and closer, go first
+            int rank = 1;
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] > scores[receiver]
+                        || (scores[i] == scores[receiver] && distances[i] < distances[receiver])) {
+                    rank++;
+                }
+            }
+            if (rank <= MatchingAlgorithmService.MAX_SUGGESTIONS) {
+                hits++;
+            }
+            reciprocalRankSum += 1.0 / rank;
+        }
+
+        ScoringEvaluationResponse response = ScoringEvaluationResponse.builder()
+                .evaluatedAt(LocalDateTime.now())
+                .pipeline(pipeline.describe())
+                .donationsReplayed(replayed)
+                .receiverInRange(inRange)
+                .candidatesScored(scored)
+                .hitRateAtSuggestions(ratio(hits, replayed))
+                .meanReciprocalRank(ratio(reciprocalRankSum, replayed))
+                .scoresPerSecond(perSecond(scored, fullNanos))
+                .topKScoresPerSecond(perSecond(scored, topKNanos))
+                .skipRate(ratio(skipped, scored))
+                .build();
+
+        logger.info("Scoring evaluation [{}]: {} donations, hit rate {}, MRR {}, {} scores/s ({} with top-K)",
+                response.getPipeline(), replayed, response.getHitRateAtSuggestions(),
+                response.getMeanReciprocalRank(), response.getScoresPerSecond(),
+                response.getTopKScoresPerSecond());
+        return response;
+    }
+
+    // Helper: index of an NGO among the candidates, -1 if it is not one
+    private static int indexOf(NgoCatalog catalog, NgoCatalog.Candidates candidates, Long ngoId) {
+        int[] rows = candidates.rows();
+        for (int i = 0; i < candidates.count(); i++) {
+            if (catalog.ngoId(rows[i]) == ngoId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static double ratio(double part, double whole) {
+        return whole == 0 ? 0.0 : Math.round(part / whole * 10000.0) / 10000.0;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0.0 : Math.round(count * 1_000_000_000.0 / nanos);
+    }
+}
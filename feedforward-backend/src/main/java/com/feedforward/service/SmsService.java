@@ -1,5 +1,9 @@
 package com.feedforward.service;
 
+import com.feedforward.enums.ExternalProvider;
+import com.feedforward.exception.ProviderUnavailableException;
+import com.feedforward.util.ContactNormalizer;
+import com.feedforward.util.TokenBucket;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
@@ -9,11 +13,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +31,8 @@ import java.util.stream.Collectors;
 public class SmsService {
 
     private static final Logger logger = LoggerFactory.getLogger(SmsService.class);
+    private static final String PROVIDER_TWILIO = "TWILIO";
+    private static final String PROVIDER_FAST2SMS = "FAST2SMS";
 
     // Twilio Configuration
     @Value("${twilio.account.sid:}")
@@ -45,10 +57,31 @@ public class SmsService {
     @Value("${fast2sms.sender.id:FDFWRD}")
     private String fast2smsSenderId;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${fast2sms.max-batch-size:100}")
+    private int fast2smsMaxBatchSize;
+
+    // Requests per second for each provider (calls in flight are capped by the provider bulkheads)
+    @Value("${twilio.rate-per-second:10}")
+    private double twilioRatePerSecond;
+
+    @Value("${fast2sms.rate-per-second:2}")
+    private double fast2smsRatePerSecond;
+
+    private final ProviderGuardService providerGuardService;
+    private final ExecutorService smsExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private RestTemplate restTemplate;
+    private TokenBucket twilioRateLimit;
+    private TokenBucket fast2smsRateLimit;
 
     @PostConstruct
     public void init() {
+        restTemplate = providerGuardService.restTemplate(ExternalProvider.FAST2SMS);
+        twilioRateLimit = new TokenBucket(twilioRatePerSecond, twilioRatePerSecond);
+        fast2smsRateLimit = new TokenBucket(fast2smsRatePerSecond, fast2smsRatePerSecond);
+        logger.info("📱 SMS dispatch: Twilio at {}/s, Fast2SMS batches of {} at {}/s",
+                twilioRatePerSecond, fast2smsMaxBatchSize, fast2smsRatePerSecond);
+
         // Initialize Twilio if credentials are provided
         if (twilioEnabled && twilioAccountSid != null && !twilioAccountSid.isEmpty() 
             && twilioAuthToken != null && !twilioAuthToken.isEmpty()) {
@@ -68,13 +101,31 @@ public class SmsService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        smsExecutor.shutdown();
+    }
+
     /**
      * Send SMS using Twilio API (preferred) or Fast2SMS (fallback)
      * @param phoneNumbers List of phone numbers
      * @param message SMS text content
-     * @return true if sent successfully
+     * @return true if at least one SMS was sent
      */
     public boolean sendSms(List<String> phoneNumbers, String message) {
+        return sendSmsWithResults(phoneNumbers, message).stream().anyMatch(SmsResult::sent);
+    }
+
+    /**
+     * Send SMS and report the outcome for each recipient
+     * @param phoneNumbers List of phone numbers
+     * @param message SMS text content
+     * @return One result per phone number, in the same order
+     */
+    public List<SmsResult> sendSmsWithResults(List<String> phoneNumbers, String message) {
+        if (phoneNumbers == null || phoneNumbers.isEmpty()) {
+            return List.of();
+        }
         if (twilioEnabled && twilioAccountSid != null && !twilioAccountSid.isEmpty()) {
             return sendSmsViaTwilio(phoneNumbers, message);
         } else {
@@ -84,93 +135,141 @@ public class SmsService {
     }
 
     /**
-     * Send SMS using Twilio API
+     * Send SMS using Twilio API: one API call per number, run concurrently on virtual threads,
+     * paced by the Twilio rate limit and isolated by the Twilio bulkhead and circuit breaker.
+     * Numbers Twilio could not take (breaker open, timeout, server error) fail over to Fast2SMS
+     * when it is configured; numbers Twilio rejected are not retried elsewhere.
      */
-    private boolean sendSmsViaTwilio(List<String> phoneNumbers, String message) {
-        try {
-            logger.info("📱 Attempting to send SMS via Twilio to {} phone numbers", phoneNumbers.size());
-            logger.info("📱 Original phone numbers: {}", phoneNumbers);
-
-            // Clean and format phone numbers for Twilio (E.164 format: +[country code][number])
-            List<String> formattedNumbers = phoneNumbers.stream()
-                    .map(this::formatPhoneNumberForTwilio)
-                    .filter(num -> num != null && !num.isEmpty())
-                    .distinct()
-                    .collect(Collectors.toList());
+    private List<SmsResult> sendSmsViaTwilio(List<String> phoneNumbers, String message) {
+        long start = System.currentTimeMillis();
+        logger.info("📱 Attempting to send SMS via Twilio to {} phone numbers", phoneNumbers.size());
 
-            logger.info("📱 Formatted phone numbers for Twilio: {}", formattedNumbers);
+        if (twilioPhoneNumber == null || twilioPhoneNumber.isEmpty()) {
+            logger.error("❌ Twilio phone number (FROM) is not configured!");
+            return failAll(phoneNumbers, PROVIDER_TWILIO, "Twilio FROM number not configured");
+        }
 
-            if (formattedNumbers.isEmpty()) {
-                logger.warn("⚠️ No valid phone numbers to send SMS via Twilio");
-                return false;
+        // Clean and format phone numbers for Twilio (E.164 format: +[country code][number]);
+        // numbers that format the same share one send
+        Map<String, CompletableFuture<SmsResult>> sends = new LinkedHashMap<>();
+        List<CompletableFuture<SmsResult>> pending = new ArrayList<>(phoneNumbers.size());
+        List<String> toNumbers = new ArrayList<>(phoneNumbers.size());
+        for (String phone : phoneNumbers) {
+            String toNumber = formatPhoneNumberForTwilio(phone);
+            toNumbers.add(toNumber);
+            if (toNumber == null) {
+                pending.add(CompletableFuture.completedFuture(
+                        SmsResult.failed(phone, PROVIDER_TWILIO, "Invalid phone number")));
+            } else {
+                pending.add(sends.computeIfAbsent(toNumber, to ->
+                        CompletableFuture.supplyAsync(() -> sendOneViaTwilio(to, message), smsExecutor)));
             }
+        }
 
-            if (twilioPhoneNumber == null || twilioPhoneNumber.isEmpty()) {
-                logger.error("❌ Twilio phone number (FROM) is not configured!");
-                return false;
+        // Sends that never got an answer from Twilio go to Fast2SMS in one pass
+        Map<String, SmsResult> outcomes = new HashMap<>();
+        List<String> failover = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<SmsResult>> send : sends.entrySet()) {
+            try {
+                outcomes.put(send.getKey(), send.getValue().join());
+            } catch (CompletionException e) {
+                String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                outcomes.put(send.getKey(), SmsResult.failed(send.getKey(), PROVIDER_TWILIO, error));
+                failover.add(send.getKey());
             }
+        }
+        if (!failover.isEmpty()) {
+            failOverToFast2SMS(failover, message, outcomes);
+        }
 
-            int successCount = 0;
-            int failureCount = 0;
+        List<SmsResult> results = new ArrayList<>(phoneNumbers.size());
+        for (int i = 0; i < phoneNumbers.size(); i++) {
+            String toNumber = toNumbers.get(i);
+            SmsResult outcome = toNumber != null ? outcomes.get(toNumber) : pending.get(i).join();
+            results.add(outcome.forRecipient(phoneNumbers.get(i)));
+        }
 
-            // Twilio requires individual API calls for each number
-            for (String toNumber : formattedNumbers) {
-                try {
-                    logger.info("📱 Sending SMS via Twilio from {} to {}", twilioPhoneNumber, toNumber);
-
-                    Message twilioMessage = Message.creator(
-                            new PhoneNumber(toNumber),      // To
-                            new PhoneNumber(twilioPhoneNumber), // From
-                            message                         // Message body
-                    ).create();
-
-                    String messageSid = twilioMessage.getSid();
-                    String status = twilioMessage.getStatus().toString();
-
-                    logger.info("✅ Twilio SMS sent successfully! SID: {}, Status: {}, To: {}", 
-                            messageSid, status, toNumber);
-                    successCount++;
-
-                } catch (com.twilio.exception.ApiException e) {
-                    // Check if it's a trial account restriction (unverified number)
-                    if (e.getCode() == 21608 || e.getMessage().contains("unverified")) {
-                        logger.warn("⚠️ Twilio Trial Account: Number {} is unverified. Verify at: https://www.twilio.com/console/phone-numbers/verified", 
-                                toNumber);
-                        logger.warn("⚠️ Error: {} (Code: {})", e.getMessage(), e.getCode());
-                    } else {
-                        logger.error("❌ Twilio API error sending to {}: {} (Code: {})", 
-                                toNumber, e.getMessage(), e.getCode());
-                    }
-                    failureCount++;
-                } catch (Exception e) {
-                    logger.error("❌ Error sending Twilio SMS to {}: {}", toNumber, e.getMessage(), e);
-                    failureCount++;
-                }
-            }
+        long successCount = outcomes.values().stream().filter(SmsResult::sent).count();
+        long failureCount = outcomes.size() - successCount;
+        logger.info("📊 Twilio SMS Summary: {} successful, {} failed out of {} total ({} failed over) in {} ms",
+                successCount, failureCount, outcomes.size(), failover.size(), System.currentTimeMillis() - start);
+
+        // If all failed due to trial account restrictions, suggest fallback
+        if (successCount == 0 && failureCount > 0) {
+            logger.warn("⚠️ All SMS failed via Twilio. This might be due to:");
+            logger.warn("   1. Trial account - verify numbers at: https://www.twilio.com/console/phone-numbers/verified");
+            logger.warn("   2. Insufficient account balance");
+            logger.warn("   3. Invalid phone number format");
+            logger.warn("💡 Consider enabling Fast2SMS fallback by setting: twilio.enabled=false");
+        } else if (successCount > 0 && failureCount > 0) {
+            logger.info("✅ Partial success: {} SMS sent successfully, {} failed (likely unverified numbers)",
+                    successCount, failureCount);
+            logger.info("💡 To send to all numbers, verify them at: https://www.twilio.com/console/phone-numbers/verified");
+        }
+        return results;
+    }
 
-            logger.info("📊 Twilio SMS Summary: {} successful, {} failed out of {} total", 
-                    successCount, failureCount, formattedNumbers.size());
-
-            // If all failed due to trial account restrictions, suggest fallback
-            if (successCount == 0 && failureCount > 0) {
-                logger.warn("⚠️ All SMS failed via Twilio. This might be due to:");
-                logger.warn("   1. Trial account - verify numbers at: https://www.twilio.com/console/phone-numbers/verified");
-                logger.warn("   2. Insufficient account balance");
-                logger.warn("   3. Invalid phone number format");
-                logger.warn("💡 Consider enabling Fast2SMS fallback by setting: twilio.enabled=false");
-            } else if (successCount > 0 && failureCount > 0) {
-                logger.info("✅ Partial success: {} SMS sent successfully, {} failed (likely unverified numbers)", 
-                        successCount, failureCount);
-                logger.info("💡 To send to all numbers, verify them at: https://www.twilio.com/console/phone-numbers/verified");
-            }
+    // Helper: send Twilio failures through Fast2SMS and replace their outcomes with its results
+    private void failOverToFast2SMS(List<String> toNumbers, String message, Map<String, SmsResult> outcomes) {
+        if (fast2smsApiKey == null || fast2smsApiKey.isBlank()) {
+            logger.warn("⚠️ {} SMS could not reach Twilio and Fast2SMS is not configured for failover", toNumbers.size());
+            return;
+        }
+        logger.warn("🔀 Failing over {} SMS from Twilio to Fast2SMS", toNumbers.size());
+        List<SmsResult> fallback = sendSmsViaFast2SMS(toNumbers, message);
+        for (int i = 0; i < toNumbers.size(); i++) {
+            outcomes.put(toNumbers.get(i), fallback.get(i));
+        }
+    }
 
-            // Return true if at least one message was sent successfully
-            return successCount > 0;
+    // Helper: one Twilio API call after a rate-limit token, run in the Twilio bulkhead.
+    // Throws ProviderUnavailableException when Twilio itself failed, so the number can fail over
+    private SmsResult sendOneViaTwilio(String toNumber, String message) {
+        try {
+            twilioRateLimit.acquire(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SmsResult.failed(toNumber, PROVIDER_TWILIO, "Interrupted");
+        }
+        logger.debug("📱 Sending SMS via Twilio from {} to {}", twilioPhoneNumber, toNumber);
 
-        } catch (Exception e) {
-            logger.error("❌ Error in Twilio SMS service: {}", e.getMessage(), e);
-            return false;
+        SmsResult result = providerGuardService.call(ExternalProvider.TWILIO, () -> {
+            try {
+                Message twilioMessage = Message.creator(
+                        new PhoneNumber(toNumber),      // To
+                        new PhoneNumber(twilioPhoneNumber), // From
+                        message                         // Message body
+                ).create();
+                return SmsResult.delivered(toNumber, PROVIDER_TWILIO, twilioMessage.getSid());
+
+            } catch (com.twilio.exception.ApiException e) {
+                if (!isRecipientError(e)) {
+                    throw e;
+                }
+                // Check if it's a trial account restriction (unverified number)
+                if (e.getCode() != null && e.getCode() == 21608
+                        || e.getMessage() != null && e.getMessage().contains("unverified")) {
+                    logger.warn("⚠️ Twilio Trial Account: Number {} is unverified. Verify at: https://www.twilio.com/console/phone-numbers/verified",
+                            toNumber);
+                    logger.warn("⚠️ Error: {} (Code: {})", e.getMessage(), e.getCode());
+                } else {
+                    logger.error("❌ Twilio API error sending to {}: {} (Code: {})",
+                            toNumber, e.getMessage(), e.getCode());
+                }
+                return SmsResult.failed(toNumber, PROVIDER_TWILIO, e.getMessage() + " (Code: " + e.getCode() + ")");
+            }
+        });
+
+        if (result.sent()) {
+            logger.info("✅ Twilio SMS sent successfully! SID: {}, To: {}", result.messageId(), toNumber);
         }
+        return result;
+    }
+
+    // Helper: 4xx errors other than rate limiting are about the message or number, not Twilio's health
+    private static boolean isRecipientError(com.twilio.exception.ApiException e) {
+        Integer status = e.getStatusCode();
+        return status != null && status >= 400 && status < 500 && status != 429;
     }
 
     /**
@@ -219,36 +318,66 @@ public class SmsService {
     }
 
     /**
-     * Send SMS using Fast2SMS API (Legacy - fallback)
+     * Send SMS using Fast2SMS API (Legacy - fallback): numbers are sent in chunks of at most
+     * fast2sms.max-batch-size, one paced request per chunk
      */
-    private boolean sendSmsViaFast2SMS(List<String> phoneNumbers, String message) {
-        try {
-            logger.info("📱 Attempting to send SMS via Fast2SMS to {} phone numbers", phoneNumbers.size());
-            logger.info("📱 Original phone numbers: {}", phoneNumbers);
-            
-            // Clean phone numbers (remove +91, spaces, dashes)
-            List<String> cleanNumbers = phoneNumbers.stream()
-                    .map(this::cleanPhoneNumber)
-                    .filter(num -> num.length() == 10) // Only 10-digit numbers
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            logger.info("📱 Cleaned phone numbers (10 digits): {}", cleanNumbers);
-            
-            if (cleanNumbers.isEmpty()) {
-                logger.warn("⚠️ No valid phone numbers to send SMS. Original: {}, Cleaned: {}", phoneNumbers, cleanNumbers);
-                return false;
+    private List<SmsResult> sendSmsViaFast2SMS(List<String> phoneNumbers, String message) {
+        long start = System.currentTimeMillis();
+        logger.info("📱 Attempting to send SMS via Fast2SMS to {} phone numbers", phoneNumbers.size());
+
+        // Validate API key
+        if (fast2smsApiKey == null || fast2smsApiKey.isBlank()) {
+            logger.error("❌ Fast2SMS API key is not configured!");
+            return failAll(phoneNumbers, PROVIDER_FAST2SMS, "Fast2SMS API key not configured");
+        }
+
+        // Clean phone numbers (remove +91, spaces, dashes); only 10-digit numbers can be sent
+        List<String> cleanNumbers = new ArrayList<>(phoneNumbers.size());
+        for (String phone : phoneNumbers) {
+            cleanNumbers.add(cleanPhoneNumber(phone));
+        }
+        List<String> distinctNumbers = cleanNumbers.stream()
+                .filter(num -> num.length() == 10)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (distinctNumbers.isEmpty()) {
+            logger.warn("⚠️ No valid phone numbers to send SMS. Original: {}", phoneNumbers);
+        }
+
+        // One request per chunk; every number in a chunk shares its outcome
+        Map<String, SmsResult> outcomes = new HashMap<>();
+        int batchSize = Math.max(1, fast2smsMaxBatchSize);
+        for (int from = 0; from < distinctNumbers.size(); from += batchSize) {
+            List<String> chunk = distinctNumbers.subList(from, Math.min(from + batchSize, distinctNumbers.size()));
+            SmsResult outcome = sendBatchViaFast2SMS(chunk, message);
+            for (String number : chunk) {
+                outcomes.put(number, outcome);
             }
+        }
 
-            // Validate API key
-            if (fast2smsApiKey == null || fast2smsApiKey.isBlank()) {
-                logger.error("❌ Fast2SMS API key is not configured!");
-                return false;
+        List<SmsResult> results = new ArrayList<>(phoneNumbers.size());
+        int successCount = 0;
+        for (int i = 0; i < phoneNumbers.size(); i++) {
+            SmsResult outcome = outcomes.get(cleanNumbers.get(i));
+            if (outcome == null) {
+                results.add(SmsResult.failed(phoneNumbers.get(i), PROVIDER_FAST2SMS, "Invalid phone number"));
+            } else {
+                results.add(outcome.forRecipient(phoneNumbers.get(i)));
+                successCount += outcome.sent() ? 1 : 0;
             }
-            
-            logger.info("📱 Using Fast2SMS API Key: {}...{} (first 10, last 10)", 
-                    fast2smsApiKey.length() > 10 ? fast2smsApiKey.substring(0, 10) : fast2smsApiKey,
-                    fast2smsApiKey.length() > 10 ? fast2smsApiKey.substring(fast2smsApiKey.length() - 10) : "");
+        }
+
+        logger.info("📊 Fast2SMS Summary: {} of {} numbers sent in {} batches in {} ms", successCount,
+                phoneNumbers.size(), (distinctNumbers.size() + batchSize - 1) / batchSize,
+                System.currentTimeMillis() - start);
+        return results;
+    }
+
+    // Helper: one Fast2SMS request for a chunk of cleaned numbers
+    private SmsResult sendBatchViaFast2SMS(List<String> cleanNumbers, String message) {
+        try {
+            fast2smsRateLimit.acquire(1);
 
             // Prepare request
             HttpHeaders headers = new HttpHeaders();
@@ -263,25 +392,32 @@ public class SmsService {
             requestBody.put("route", "q"); // Promotional route
             requestBody.put("numbers", String.join(",", cleanNumbers));
 
-            logger.info("📱 Fast2SMS Request URL: {}", fast2smsApiUrl);
-            logger.info("📱 Fast2SMS Request Body: {}", requestBody);
-            logger.info("📱 SMS Message (length: {}): {}", message.length(), message);
+            logger.info("📱 Sending POST request to Fast2SMS API: {} ({} numbers)", fast2smsApiUrl, cleanNumbers.size());
+            logger.debug("📱 Fast2SMS Request Body: {}", requestBody);
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
 
-            // Send request
-            logger.info("📱 Sending POST request to Fast2SMS API: {}", fast2smsApiUrl);
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    fast2smsApiUrl,
-                    HttpMethod.POST,
-                    request,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
-            );
+            // Send request; a 4xx other than 429 is Fast2SMS rejecting this request, not an outage
+            ResponseEntity<Map<String, Object>> response = providerGuardService.call(ExternalProvider.FAST2SMS, () -> {
+                try {
+                    return restTemplate.exchange(
+                            fast2smsApiUrl,
+                            HttpMethod.POST,
+                            request,
+                            new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
+                    );
+                } catch (HttpClientErrorException e) {
+                    if (e.getStatusCode().value() == 429) {
+                        throw e;
+                    }
+                    return ResponseEntity.status(e.getStatusCode()).<Map<String, Object>>build();
+                }
+            });
 
             // Check response
             logger.info("📱 Fast2SMS API Response Status: {}", response.getStatusCode());
-            logger.info("📱 Fast2SMS API Response Body: {}", response.getBody());
-            
+            logger.debug("📱 Fast2SMS API Response Body: {}", response.getBody());
+
             if (response.getStatusCode() == HttpStatus.OK) {
                 Map<String, Object> responseBody = response.getBody();
                 if (responseBody != null) {
@@ -289,14 +425,9 @@ public class SmsService {
                     Object statusValue = responseBody.get("status");
                     Object messageValue = responseBody.get("message");
                     Object requestId = responseBody.get("request_id");
-                    
-                    logger.info("📱 Fast2SMS return field: {} (type: {})", returnValue, returnValue != null ? returnValue.getClass().getSimpleName() : "null");
-                    logger.info("📱 Fast2SMS status field: {}", statusValue);
-                    logger.info("📱 Fast2SMS message field: {}", messageValue);
-                    logger.info("📱 Fast2SMS request_id: {}", requestId);
-                    
+
                     boolean isSuccess = false;
-                    
+
                     if (returnValue != null) {
                         if (returnValue instanceof Boolean) {
                             isSuccess = (Boolean) returnValue;
@@ -307,41 +438,49 @@ public class SmsService {
                             isSuccess = "true".equalsIgnoreCase(returnStr) || "success".equalsIgnoreCase(returnStr);
                         }
                     }
-                    
+
                     if (!isSuccess && statusValue != null) {
                         String statusStr = String.valueOf(statusValue);
                         isSuccess = "success".equalsIgnoreCase(statusStr) || "ok".equalsIgnoreCase(statusStr);
                     }
-                    
+
                     if (isSuccess) {
-                        logger.info("✅ Fast2SMS sent successfully to {} numbers: {}", cleanNumbers.size(), cleanNumbers);
-                        if (requestId != null) {
-                            logger.info("📱 Fast2SMS Request ID: {}", requestId);
-                        }
-                        return true;
-                    } else {
-                        logger.warn("⚠️ Fast2SMS returned non-success status. Return: {}, Status: {}, Message: {}", 
-                                returnValue, statusValue, messageValue);
+                        logger.info("✅ Fast2SMS sent successfully to {} numbers, Request ID: {}",
+                                cleanNumbers.size(), requestId);
+                        return SmsResult.delivered(null, PROVIDER_FAST2SMS, requestId != null ? String.valueOf(requestId) : null);
                     }
-                } else {
-                    logger.error("❌ Fast2SMS response body is null");
+                    logger.warn("⚠️ Fast2SMS returned non-success status. Return: {}, Status: {}, Message: {}",
+                            returnValue, statusValue, messageValue);
+                    return SmsResult.failed(null, PROVIDER_FAST2SMS, String.valueOf(messageValue));
                 }
-            } else {
-                logger.error("❌ Fast2SMS API returned non-OK status: {}", response.getStatusCode());
+                logger.error("❌ Fast2SMS response body is null");
+                return SmsResult.failed(null, PROVIDER_FAST2SMS, "Empty response");
             }
 
             logger.error("❌ Fast2SMS sending failed. Status: {}, Body: {}", response.getStatusCode(), response.getBody());
-            return false;
+            return SmsResult.failed(null, PROVIDER_FAST2SMS, "HTTP " + response.getStatusCode());
 
+        } catch (ProviderUnavailableException e) {
+            logger.error("❌ Fast2SMS unavailable: {}", e.getMessage());
+            return SmsResult.failed(null, PROVIDER_FAST2SMS, e.getMessage());
         } catch (RestClientException e) {
             logger.error("❌ Error sending SMS via Fast2SMS (RestClientException): {}", e.getMessage());
-            return false;
+            return SmsResult.failed(null, PROVIDER_FAST2SMS, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SmsResult.failed(null, PROVIDER_FAST2SMS, "Interrupted");
         } catch (Exception e) {
             logger.error("❌ Error sending SMS via Fast2SMS: {}", e.getMessage(), e);
-            return false;
+            return SmsResult.failed(null, PROVIDER_FAST2SMS, e.getMessage());
         }
     }
 
+    private static List<SmsResult> failAll(List<String> phoneNumbers, String provider, String error) {
+        return phoneNumbers.stream()
+                .map(phone -> SmsResult.failed(phone, provider, error))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Send SMS to single phone number
      */
@@ -378,19 +517,28 @@ public class SmsService {
      * Validate Indian mobile number
      * Accepts: 10-digit numbers starting with 6-9
      * Also accepts numbers with country code or leading 0
+     * (stored users carry the result as phoneValid / phoneE164; see ContactNormalizer)
      */
     public boolean isValidIndianMobile(String phone) {
-        if (phone == null || phone.trim().isEmpty()) {
-            logger.debug("Phone number is null or empty");
-            return false;
+        return ContactNormalizer.toE164(phone) != null;
+    }
+
+    /**
+     * Outcome of one SMS: the provider's message id (Twilio SID, Fast2SMS request id) when sent,
+     * the error otherwise
+     */
+    public record SmsResult(String phoneNumber, boolean sent, String provider, String messageId, String error) {
+
+        static SmsResult delivered(String phoneNumber, String provider, String messageId) {
+            return new SmsResult(phoneNumber, true, provider, messageId, null);
+        }
+
+        static SmsResult failed(String phoneNumber, String provider, String error) {
+            return new SmsResult(phoneNumber, false, provider, null, error);
+        }
+
+        SmsResult forRecipient(String recipient) {
+            return new SmsResult(recipient, sent, provider, messageId, error);
         }
-        
-        String cleaned = cleanPhoneNumber(phone);
-        boolean isValid = cleaned.length() == 10 && cleaned.matches("^[6-9][0-9]{9}$");
-        
-        logger.debug("Phone validation: original='{}', cleaned='{}', length={}, valid={}", 
-                phone, cleaned, cleaned.length(), isValid);
-        
-        return isValid;
     }
 }
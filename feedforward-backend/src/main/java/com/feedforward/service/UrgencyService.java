@@ -0,0 +1,170 @@
+package com.feedforward.service;
+
+import com.feedforward.entity.FoodListing;
+import com.feedforward.enums.ListingStatus;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.util.UrgencyBuckets;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Urgency engine: tracks open listings in {@link UrgencyBuckets} and keeps urgency_level in the
+ * database current. Each tick advances the buckets to the current time and writes the listings
+ * that changed level with one bulk update per level, instead of relying on entity callbacks
+ * (which only run when a listing happens to be saved). Scoring and notifications read the
+ * level from memory. Changes whose write rolls back are queued and written again on the next tick.
+ */
+@Service
+@RequiredArgsConstructor
+public class UrgencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrgencyService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final FoodListingRepository foodListingRepository;
+
+    private final UrgencyBuckets buckets = new UrgencyBuckets(System.currentTimeMillis());
+
+    // Level changes already applied in memory whose write rolled back, by listing id
+    private final Map<Long, UrgencyLevel> unwritten = new ConcurrentHashMap<>();
+
+    /**
+     * Load open listings and correct any stored level that went stale while the application was down
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = foodListingRepository.findOpenListingUrgency(LocalDateTime.now());
+
+        Map<Long, UrgencyLevel> stale = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Object[] row : rows) {
+            Long listingId = ((Number) row[0]).longValue();
+            UrgencyLevel level = buckets.track(listingId,
+                    UrgencyBuckets.epochMillis((LocalDateTime) row[1]), now);
+            if (level != row[2]) {
+                stale.put(listingId, level);
+            }
+        }
+        int updated = writeLevels(stale);
+
+        logger.info("Urgency engine tracking {} open listings ({} stale levels fixed) in {} ms",
+                buckets.size(), updated, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Advance the buckets to now and store the listings that changed level, plus any earlier
+     * changes whose write rolled back
+     */
+    @Scheduled(fixedDelayString = "${app.urgency.tick-ms:60000}",
+            initialDelayString = "${app.urgency.tick-ms:60000}")
+    @Transactional
+    public void tick() {
+        UrgencyBuckets.Changes changes = buckets.advance(System.currentTimeMillis());
+        Map<Long, UrgencyLevel> levels = new HashMap<>();
+        for (Long listingId : unwritten.keySet()) {
+            // Retried at the level the listing has now; listings closed since then are skipped
+            UrgencyLevel level = unwritten.remove(listingId) != null ? buckets.level(listingId) : null;
+            if (level != null) {
+                levels.put(listingId, level);
+            }
+        }
+        changes.changed().forEach((level, ids) -> ids.forEach(id -> levels.put(id, level)));
+        int updated = writeLevels(levels);
+        if (updated > 0 || !changes.expired().isEmpty()) {
+            logger.info("Urgency tick: {} listings changed level, {} expired, {} tracked",
+                    updated, changes.expired().size(), buckets.size());
+        }
+    }
+
+    /**
+     * Current urgency of a listing: O(1) from the buckets, computed from expiry if it is not tracked
+     */
+    public UrgencyLevel urgencyOf(FoodListing listing) {
+        UrgencyLevel level = listing.getListingId() != null ? buckets.level(listing.getListingId()) : null;
+        return level != null ? level : UrgencyBuckets.levelAt(listing.getExpiryTime(), LocalDateTime.now());
+    }
+
+    /**
+     * Track or drop a saved listing once the current transaction commits
+     */
+    public void onListingSaved(FoodListing listing) {
+        Long listingId = listing.getListingId();
+        boolean open = listing.getStatus() == ListingStatus.AVAILABLE || listing.getStatus() == ListingStatus.RESERVED;
+        long expiryMillis = listing.getExpiryTime() != null ? UrgencyBuckets.epochMillis(listing.getExpiryTime()) : 0L;
+        afterCommit(() -> {
+            if (open && expiryMillis > 0) {
+                buckets.track(listingId, expiryMillis, System.currentTimeMillis());
+            } else {
+                buckets.untrack(listingId);
+            }
+        });
+    }
+
+    public void onListingRemoved(Long listingId) {
+        afterCommit(() -> buckets.untrack(listingId));
+    }
+
+    // Helper: one bulk update per level, in batches; if the transaction does not commit,
+    // the levels are queued for the next tick
+    private int writeLevels(Map<Long, UrgencyLevel> levels) {
+        if (levels.isEmpty()) {
+            return 0;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        levels.forEach(unwritten::putIfAbsent);
+                        logger.warn("Urgency level write rolled back, retrying {} listings next tick",
+                                levels.size());
+                    }
+                }
+            });
+        }
+
+        Map<UrgencyLevel, List<Long>> idsByLevel = new EnumMap<>(UrgencyLevel.class);
+        levels.forEach((listingId, level) -> idsByLevel.computeIfAbsent(level, key -> new ArrayList<>()).add(listingId));
+        int updated = 0;
+        for (Map.Entry<UrgencyLevel, List<Long>> entry : idsByLevel.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                updated += foodListingRepository.updateUrgencyLevel(
+                        ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), entry.getKey());
+            }
+        }
+        return updated;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
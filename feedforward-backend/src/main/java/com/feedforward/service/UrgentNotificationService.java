@@ -0,0 +1,229 @@
+package com.feedforward.service;
+
+import com.feedforward.enums.FoodCategory;
+import com.feedforward.enums.NotificationTemplate;
+import com.feedforward.enums.UrgencyLevel;
+import com.feedforward.repository.FoodListingRepository;
+import com.feedforward.repository.NotificationOutboxRepository;
+import com.feedforward.util.DietaryTaxonomy;
+import com.feedforward.util.FoodDigestTemplates;
+import com.feedforward.util.NgoCatalog;
+import com.feedforward.util.UrgencyBuckets;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Re-notifies nearby NGOs about listings that expire within the hour, the ones most likely to go to waste.
+ *
+ * Listings are read page by page as projections (keyset order on expiry time and id), each page
+ * in its own short transaction, so nothing accumulates in the persistence context. NGOs come from
+ * the in-memory catalog, recipients already told about the same listing recently are skipped with
+ * one outbox query per page, and messages are queued in the outbox, where the dispatcher delivers
+ * them under the provider rate limits while later pages are still being read. CRITICAL listings
+ * (under an hour left, so nearly all of them) go out right away; any others are coalesced, so an NGO
+ * near several of them gets one digest instead of one message per listing.
+ */
+@Service
+public class UrgentNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrgentNotificationService.class);
+
+    private final FoodListingRepository foodListingRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationOutboxService notificationOutboxService;
+    private final NotificationTemplateService notificationTemplateService;
+    private final NgoCatalogService ngoCatalogService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.urgent.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.notifications.urgent.max-ngos:10}")
+    private int maxNgos;
+
+    @Value("${app.notifications.urgent.radius-km:10}")
+    private double radiusKm;
+
+    @Value("${app.notifications.urgent.suppress-minutes:60}")
+    private long suppressMinutes;
+
+    @Value("${app.name:FeedForward}")
+    private String appName;
+
+    @Value("${app.base-url:http://localhost:3000}")
+    private String baseUrl;
+
+    public UrgentNotificationService(
+            FoodListingRepository foodListingRepository,
+            NotificationOutboxRepository outboxRepository,
+            NotificationOutboxService notificationOutboxService,
+            NotificationTemplateService notificationTemplateService,
+            NgoCatalogService ngoCatalogService,
+            PlatformTransactionManager transactionManager) {
+        this.foodListingRepository = foodListingRepository;
+        this.outboxRepository = outboxRepository;
+        this.notificationOutboxService = notificationOutboxService;
+        this.notificationTemplateService = notificationTemplateService;
+        this.ngoCatalogService = ngoCatalogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queue notifications for every listing expiring within the hour
+     */
+    public UrgentRun notifyUrgentListings() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oneHourFromNow = now.plusHours(1);
+        NgoCatalog catalog = ngoCatalogService.getCatalog();
+
+        UrgentRun run = new UrgentRun();
+        LocalDateTime afterExpiry = now;
+        long afterId = 0;
+        int size = Math.max(1, pageSize);
+        List<Object[]> rows;
+        do {
+            LocalDateTime pageAfterExpiry = afterExpiry;
+            long pageAfterId = afterId;
+            rows = transactionTemplate.execute(status -> {
+                List<Object[]> page = foodListingRepository.findUrgentListingPage(
+                        now, oneHourFromNow, pageAfterExpiry, pageAfterId, PageRequest.of(0, size));
+                queuePage(page, catalog, now, run);
+                return page;
+            });
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            afterId = ((Number) last[0]).longValue();
+            afterExpiry = (LocalDateTime) last[5];
+            run.pages++;
+        } while (rows.size() == size);
+
+        run.millis = System.currentTimeMillis() - start;
+        if (run.listings > 0) {
+            logger.info("⏰ Urgent listings: {} listings in {} pages, {} SMS and {} emails queued, "
+                            + "{} recipients suppressed, in {} ms",
+                    run.listings, run.pages, run.sms, run.emails, run.suppressed, run.millis);
+        }
+        return run;
+    }
+
+    // Helper: resolve NGOs for one page of listings, drop recent recipients and queue the rest
+    private void queuePage(List<Object[]> rows, NgoCatalog catalog, LocalDateTime now, UrgentRun run) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> listingIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            listingIds.add(((Number) row[0]).longValue());
+        }
+        Set<String> recent = new HashSet<>();
+        for (Object[] sent : outboxRepository.findRecentRecipients(listingIds, now.minusMinutes(suppressMinutes))) {
+            recent.add(sent[0] + ":" + sent[1]);
+        }
+
+        for (Object[] row : rows) {
+            // [listingId, foodName, quantity, category, unit, expiryTime, dietaryMask, dietaryInfo,
+            //  restaurantName, latitude, longitude, address, restaurantPhone]
+            run.listings++;
+            if (row[9] == null || row[10] == null) {
+                continue;
+            }
+            Long listingId = ((Number) row[0]).longValue();
+            String foodName = (String) row[1];
+            Integer quantity = (Integer) row[2];
+            FoodCategory category = (FoodCategory) row[3];
+            String restaurantName = (String) row[8];
+            int listingMask = row[6] != null
+                    ? (Integer) row[6]
+                    : DietaryTaxonomy.listingMask(category, (String) row[7]);
+
+            NgoCatalog.Candidates candidates = catalog.findNearest(
+                    ((Number) row[9]).doubleValue(), ((Number) row[10]).doubleValue(),
+                    maxNgos, radiusKm, DietaryTaxonomy.foodKind(listingMask));
+
+            List<String> phones = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            List<String> emailNames = new ArrayList<>();
+            for (int i = 0; i < candidates.count(); i++) {
+                // Normalized contacts, null when the stored phone or email is invalid
+                NgoCatalog.Contact contact = catalog.contact(candidates.rows()[i]);
+                String phone = contact.e164();
+                if (phone != null) {
+                    if (recent.add(listingId + ":" + phone)) {
+                        phones.add(phone);
+                    } else {
+                        run.suppressed++;
+                    }
+                }
+                String email = contact.notifyEmail();
+                if (email != null) {
+                    if (recent.add(listingId + ":" + email)) {
+                        emails.add(email);
+                        emailNames.add(contact.organizationName());
+                    } else {
+                        run.suppressed++;
+                    }
+                }
+            }
+            if (phones.isEmpty() && emails.isEmpty()) {
+                continue;
+            }
+
+            // One render per listing, shared by all of its recipients
+            LocalDateTime expiryTime = (LocalDateTime) row[5];
+            UrgencyLevel priority = UrgencyBuckets.levelAt(expiryTime, now);
+            // CRITICAL listings skip the coalescing window, as on listing creation
+            boolean bypassWindow = priority == UrgencyLevel.CRITICAL;
+            long hoursLeft = ChronoUnit.HOURS.between(now, expiryTime);
+            String digestLine = FoodDigestTemplates.digestLine(restaurantName, foodName, quantity, hoursLeft);
+            if (!phones.isEmpty()) {
+                String sms = notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_SMS,
+                        "URGENT", restaurantName, foodName, quantity, category.getDisplayName(), hoursLeft, appName);
+                run.sms += bypassWindow
+                        ? notificationOutboxService.enqueueSms(phones, sms, listingId, priority, expiryTime)
+                        : notificationOutboxService.enqueueCoalescedSms(phones, sms, digestLine, listingId,
+                                priority, expiryTime);
+            }
+            if (!emails.isEmpty()) {
+                String subject = notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_EMAIL_SUBJECT,
+                        foodName, restaurantName);
+                String body = notificationTemplateService.render(NotificationTemplate.FOOD_AVAILABLE_EMAIL,
+                        restaurantName, foodName, quantity, row[4], category.getDisplayName(), hoursLeft, "URGENT",
+                        row[11], row[12], appName, baseUrl);
+                run.emails += bypassWindow
+                        ? notificationOutboxService.enqueueEmails(emails, emailNames, subject, body, listingId,
+                                priority, expiryTime)
+                        : notificationOutboxService.enqueueCoalescedEmails(emails, emailNames, subject, body,
+                                digestLine, listingId, priority, expiryTime);
+            }
+        }
+    }
+
+    /**
+     * Counts for one run
+     */
+    @Getter
+    public static final class UrgentRun {
+        private int pages;
+        private int listings;
+        private int sms;
+        private int emails;
+        private int suppressed;
+        private long millis;
+    }
+}
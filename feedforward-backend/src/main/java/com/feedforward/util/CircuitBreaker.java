@@ -0,0 +1,169 @@
+package com.feedforward.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one external provider.
+ *
+ * CLOSED: calls go through and their outcomes fill a sliding window of the last windowSize
+ * calls; once it holds at least minimumCalls and the failure rate reaches the threshold the
+ * breaker opens. OPEN: calls are rejected without touching the provider until openMillis have
+ * passed. HALF_OPEN: up to halfOpenProbes calls are let through as probes; if all succeed the
+ * breaker closes with an empty window, and any failure opens it again.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+
+    // Sliding window of outcomes (true = failure)
+    private final boolean[] window;
+    private int windowCount;
+    private int windowNext;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private long successes;
+    private long failures;
+    private long rejected;
+    private long timesOpened;
+    private String lastError;
+
+    public CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                          long openMillis, int halfOpenProbes) {
+        this(name, failureRateThreshold, windowSize, minimumCalls, openMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                   long openMillis, int halfOpenProbes, LongSupplier nanoClock) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.openNanos = openMillis * 1_000_000;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Permission for one call; every permitted call must end in onSuccess, onFailure or onIgnored
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes - probeSuccesses) {
+                rejected++;
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        successes++;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (++probeSuccesses >= halfOpenProbes) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(String error) {
+        failures++;
+        lastError = error;
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+        }
+    }
+
+    /**
+     * The permitted call never reached the provider (e.g. its bulkhead was full)
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    public synchronized State state() {
+        // Report an expired open period as half-open even before the next call arrives
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, state(), windowCount == 0 ? 0.0 : (double) windowFailures / windowCount,
+                successes, failures, rejected, timesOpened, lastError);
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCount >= minimumCalls && windowFailures > 0 && windowFailures >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        timesOpened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowCount = 0;
+        windowNext = 0;
+        windowFailures = 0;
+    }
+
+    /**
+     * Breaker state and counters since startup; failureRate covers the current window
+     */
+    public record Snapshot(String name, State state, double failureRate, long successes, long failures,
+                           long rejected, long timesOpened, String lastError) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.feedforward.util;
+
+import java.util.Locale;
+
+/**
+ * Normalized contact forms, computed once when a user is saved rather than on every notification:
+ * Indian mobile numbers in E.164 (+91 followed by 10 digits starting 6-9) and trimmed,
+ * lower-case email addresses. Both return null for anything that cannot be notified.
+ */
+public final class ContactNormalizer {
+
+    private static final String INDIA_PREFIX = "+91";
+
+    private ContactNormalizer() {
+    }
+
+    /**
+     * E.164 form of an Indian mobile number, accepting spaces and punctuation, a 91 / +91 country
+     * code or a leading 0; null when it is not a valid mobile number
+     */
+    public static String toE164(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+
+        int from = 0;
+        if (digits.length() == 12 && digits.charAt(0) == '9' && digits.charAt(1) == '1') {
+            from = 2;
+        } else if (digits.length() == 11 && digits.charAt(0) == '0') {
+            from = 1;
+        }
+        if (digits.length() - from != 10 || digits.charAt(from) < '6') {
+            return null;
+        }
+        return INDIA_PREFIX + digits.substring(from);
+    }
+
+    /**
+     * Trimmed, lower-case email address; null when it is not a valid address
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        return EmailValidator.isValid(normalized) ? normalized : null;
+    }
+}
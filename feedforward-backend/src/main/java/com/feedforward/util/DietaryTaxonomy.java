@@ -0,0 +1,144 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.FoodCategory;
+
+import java.util.Locale;
+
+/**
+ * Bitmask encoding of NGO dietary acceptance, food kinds and dietary tags.
+ * Lets dietary filtering and scoring run as integer ANDs instead of string matching per NGO.
+ *
+ * The two low bits are food kinds: for an NGO they are the kinds it accepts, for a listing
+ * the kind of food it is. The bits above are tags (vegan, jain, halal, ...) that NGOs ask for
+ * and listings declare. Masks are computed when NGOs and listings are saved and stored in
+ * their dietary_mask columns, so SQL can filter with (dietary_mask & :bits) as well.
+ */
+public final class DietaryTaxonomy {
+
+    public static final int ACCEPTS_VEG = 1;
+    public static final int ACCEPTS_NON_VEG = 1 << 1;
+    public static final int ACCEPTS_ALL = ACCEPTS_VEG | ACCEPTS_NON_VEG;
+
+    // Dietary tags
+    public static final int VEGAN = 1 << 2;
+    public static final int JAIN = 1 << 3;
+    public static final int HALAL = 1 << 4;
+    public static final int GLUTEN_FREE = 1 << 5;
+    public static final int DAIRY_FREE = 1 << 6;
+    public static final int NUT_FREE = 1 << 7;
+    public static final int EGG_FREE = 1 << 8;
+    public static final int ORGANIC = 1 << 9;
+    public static final int TAGS = VEGAN | JAIN | HALAL | GLUTEN_FREE | DAIRY_FREE | NUT_FREE | EGG_FREE | ORGANIC;
+
+    // Lower-case spellings of each tag, in bit order from VEGAN
+    private static final String[][] TAG_TERMS = {
+            {"vegan"},
+            {"jain"},
+            {"halal"},
+            {"gluten-free", "gluten free", "no gluten"},
+            {"dairy-free", "dairy free", "no dairy", "lactose-free", "lactose free"},
+            {"nut-free", "nut free", "no nuts"},
+            {"egg-free", "egg free", "eggless", "no egg"},
+            {"organic"}
+    };
+
+    private DietaryTaxonomy() {
+    }
+
+    /**
+     * Stored mask of an NGO: accepted food kinds plus the tags it asks for
+     */
+    public static int ngoMask(String dietaryRequirements) {
+        return acceptanceMask(dietaryRequirements) | tagMask(dietaryRequirements);
+    }
+
+    /**
+     * Stored mask of a listing: its food kind plus the tags its dietary info declares.
+     * Food is non-vegetarian if its category says so or its dietary info mentions non-veg.
+     */
+    public static int listingMask(FoodCategory category, String dietaryInfo) {
+        int kind = requiredMask(category);
+        if (dietaryInfo != null) {
+            String info = dietaryInfo.toLowerCase(Locale.ROOT);
+            if (info.contains("non-veg") || info.contains("non veg") || info.contains("nonveg")) {
+                kind = ACCEPTS_NON_VEG;
+            }
+        }
+        return kind | tagMask(dietaryInfo);
+    }
+
+    /**
+     * Tag bits named in free text (0 if none)
+     */
+    public static int tagMask(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int mask = 0;
+        for (int i = 0; i < TAG_TERMS.length; i++) {
+            for (String term : TAG_TERMS[i]) {
+                if (lower.contains(term)) {
+                    mask |= VEGAN << i;
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * True if an NGO with this stored mask can receive a listing with this stored mask
+     */
+    public static boolean acceptsListing(int ngoMask, int listingMask) {
+        int kind = foodKind(listingMask);
+        return (ngoMask & kind) == kind;
+    }
+
+    /**
+     * Food kind bits of a listing mask, usable as the required mask of NGO queries
+     */
+    public static int foodKind(int listingMask) {
+        return listingMask & ACCEPTS_ALL;
+    }
+
+    /**
+     * Food kinds an NGO accepts, derived from its free-text dietary requirements
+     */
+    public static int acceptanceMask(String dietaryRequirements) {
+        if (dietaryRequirements == null || dietaryRequirements.trim().isEmpty()) {
+            return ACCEPTS_ALL;
+        }
+        String preference = dietaryRequirements.toLowerCase(Locale.ROOT);
+        if (preference.contains("all") || preference.contains("any") ||
+                preference.contains("non-veg ok") || preference.contains("non veg ok")) {
+            return ACCEPTS_ALL;
+        }
+
+        int mask = 0;
+        if (preference.contains("veg")) {
+            mask |= ACCEPTS_VEG;
+        }
+        if (preference.contains("non")) {
+            mask |= ACCEPTS_NON_VEG;
+        }
+        return mask;
+    }
+
+    /**
+     * Acceptance bits an NGO needs to receive food of this category
+     */
+    public static int requiredMask(FoodCategory category) {
+        return isNonVeg(category) ? ACCEPTS_NON_VEG : ACCEPTS_VEG;
+    }
+
+    // Helper: only protein categories naming meat, fish or chicken count as non-vegetarian
+    private static boolean isNonVeg(FoodCategory category) {
+        if (category == null || !category.name().toLowerCase(Locale.ROOT).contains("protein")) {
+            return false;
+        }
+        String displayName = category.getDisplayName().toLowerCase(Locale.ROOT);
+        return displayName.contains("chicken") || displayName.contains("fish") ||
+                displayName.contains("meat") || displayName.contains("non-veg");
+    }
+}
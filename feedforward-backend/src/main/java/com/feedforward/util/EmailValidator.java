@@ -0,0 +1,22 @@
+package com.feedforward.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Email address check with the pattern compiled once, rather than by String.matches on every call.
+ */
+public final class EmailValidator {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final int MAX_LENGTH = 254;
+
+    private EmailValidator() {
+    }
+
+    public static boolean isValid(String email) {
+        if (email == null || email.isEmpty() || email.length() > MAX_LENGTH || email.indexOf('@') < 0) {
+            return false;
+        }
+        return EMAIL.matcher(email).matches();
+    }
+}
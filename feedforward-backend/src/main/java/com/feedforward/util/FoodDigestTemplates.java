@@ -0,0 +1,86 @@
+package com.feedforward.util;
+
+import java.util.List;
+
+/**
+ * Compact templates for several "food available" notifications merged into one message
+ * for the same recipient. Each listing is reduced to a one-line summary when it is queued.
+ */
+public final class FoodDigestTemplates {
+
+    public static final int SMS_MAX_LENGTH = 160;
+
+    private FoodDigestTemplates() {
+    }
+
+    /**
+     * One-line listing summary, e.g. "Veg Biryani x40 @Hotel Saravana (3h)"
+     */
+    public static String digestLine(String restaurantName, String foodName, int quantity, long hoursLeft) {
+        return String.format("%s x%d @%s (%dh)",
+                truncate(foodName, 15), quantity, truncate(restaurantName, 20), Math.max(0, hoursLeft));
+    }
+
+    /**
+     * SMS listing as many summaries as fit in 160 characters, with a count of the rest
+     */
+    public static String sms(List<String> lines, String appName) {
+        String header = "🍽️ " + lines.size() + " food listings near you: ";
+        String footer = ". Login to " + appName + " to request.";
+
+        StringBuilder body = new StringBuilder(SMS_MAX_LENGTH);
+        int included = 0;
+        for (String line : lines) {
+            int remaining = lines.size() - included - 1;
+            String more = remaining > 0 ? " +" + remaining + " more" : "";
+            int length = header.length() + body.length() + (included > 0 ? 2 : 0) + line.length()
+                    + more.length() + footer.length();
+            if (length > SMS_MAX_LENGTH) {
+                break;
+            }
+            if (included > 0) {
+                body.append("; ");
+            }
+            body.append(line);
+            included++;
+        }
+
+        int omitted = lines.size() - included;
+        String message = header + body + (omitted > 0 ? (included > 0 ? " " : "") + "+" + omitted + " more" : "")
+                + footer;
+        return message.length() > SMS_MAX_LENGTH ? message.substring(0, SMS_MAX_LENGTH - 3) + "..." : message;
+    }
+
+    public static String emailSubject(int listings) {
+        return "🍽️ " + listings + " food listings available near you";
+    }
+
+    public static String emailBody(List<String> lines, String appName, String baseUrl) {
+        StringBuilder email = new StringBuilder();
+        email.append("Hello,\n\n");
+        email.append("Restaurants near you have listed surplus food that matches your needs.\n\n");
+
+        email.append("📦 New Listings:\n");
+        for (String line : lines) {
+            email.append("   • ").append(line).append("\n");
+        }
+
+        email.append("\n");
+        email.append("🚀 Next Steps:\n");
+        email.append("1. Login to ").append(appName).append(" at ").append(baseUrl).append("\n");
+        email.append("2. Request the food you need before it expires\n");
+        email.append("3. Coordinate pickup with the restaurant\n\n");
+
+        email.append("Thank you for being part of the FeedForward community!\n\n");
+        email.append("Best regards,\n");
+        email.append("The FeedForward Team");
+        return email.toString();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
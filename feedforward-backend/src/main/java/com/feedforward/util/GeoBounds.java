@@ -0,0 +1,53 @@
+package com.feedforward.util;
+
+/**
+ * Latitude/longitude bounding box of a search circle.
+ * Used as an index-friendly prefilter in front of the exact distance check.
+ */
+public record GeoBounds(double minLat, double maxLat, double minLon, double maxLon) {
+
+    private static final double EARTH_RADIUS_KM = GeoDistance.EARTH_RADIUS_KM;
+
+    /**
+     * Smallest box containing every point within radius of the center.
+     * Falls back to all longitudes near the poles or across the antimeridian.
+     */
+    public static GeoBounds around(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latSpan = Math.toDegrees(angularRadius);
+        double minLat = latitude - latSpan;
+        double maxLat = latitude + latSpan;
+
+        if (minLat <= -90.0 || maxLat >= 90.0 || angularRadius >= Math.PI / 2) {
+            return new GeoBounds(Math.max(-90.0, minLat), Math.min(90.0, maxLat), -180.0, 180.0);
+        }
+
+        double lonSpan = Math.toDegrees(Math.asin(
+                Math.min(1.0, Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude)))));
+        double minLon = longitude - lonSpan;
+        double maxLon = longitude + lonSpan;
+        if (minLon < -180.0 || maxLon > 180.0) {
+            return new GeoBounds(minLat, maxLat, -180.0, 180.0);
+        }
+        return new GeoBounds(minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * Box as a WKT polygon in longitude-latitude order (for MySQL spatial queries)
+     */
+    public String toWkt() {
+        return "POLYGON((" +
+                minLon + " " + minLat + ", " +
+                maxLon + " " + minLat + ", " +
+                maxLon + " " + maxLat + ", " +
+                minLon + " " + maxLat + ", " +
+                minLon + " " + minLat + "))";
+    }
+
+    /**
+     * Point as WKT in longitude-latitude order (for MySQL spatial queries)
+     */
+    public static String pointWkt(double latitude, double longitude) {
+        return "POINT(" + longitude + " " + latitude + ")";
+    }
+}
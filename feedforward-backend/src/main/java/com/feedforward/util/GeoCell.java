@@ -0,0 +1,177 @@
+package com.feedforward.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical quadtree cell ids over latitude/longitude (S2-like, on the plate carree grid).
+ *
+ * A point's id interleaves the bits of its latitude and longitude indexes at {@link #MAX_LEVEL}
+ * (Z-order), so every coarser cell is one contiguous id range. Only the finest id is stored;
+ * a radius query picks a level from the radius and becomes a few indexed BETWEEN ranges.
+ * Level l cells measure 180 / 2^l degrees of latitude by 360 / 2^l of longitude
+ * (level 24 is about 1.2 m x 2.4 m at the equator).
+ */
+public final class GeoCell {
+
+    public static final int MAX_LEVEL = 24;
+
+    /** Ranges per covering, matching the parameters of the cell queries */
+    public static final int MAX_RANGES = 8;
+
+    private static final long CELLS_PER_AXIS = 1L << MAX_LEVEL;
+
+    private GeoCell() {
+    }
+
+    /**
+     * Finest-level cell id of a point
+     */
+    public static long cellId(double latitude, double longitude) {
+        return interleave(latIndex(latitude, MAX_LEVEL), lonIndex(longitude, MAX_LEVEL));
+    }
+
+    /**
+     * Id of the level cell containing a finest-level id, as a prefix
+     */
+    public static long parent(long cellId, int level) {
+        return cellId >>> (2 * (MAX_LEVEL - level));
+    }
+
+    /**
+     * Centre of the level cell containing a point, as {latitude, longitude}
+     */
+    public static double[] center(double latitude, double longitude, int level) {
+        double cells = 1L << level;
+        return new double[]{
+                (latIndex(latitude, level) + 0.5) / cells * 180.0 - 90.0,
+                (lonIndex(longitude, level) + 0.5) / cells * 360.0 - 180.0
+        };
+    }
+
+    /**
+     * Distance from the centre of the level cell containing a point to its farthest corner,
+     * the most a search from the centre is offset from any point in the cell
+     * (level 14 is about 1.37 km at the equator, level 16 about 0.34 km)
+     */
+    public static double halfDiagonalKm(double latitude, double longitude, int level) {
+        double[] center = center(latitude, longitude, level);
+        double halfLat = 90.0 / (1L << level);
+        double halfLon = 180.0 / (1L << level);
+        double max = 0;
+        for (double cornerLat : new double[]{center[0] - halfLat, center[0] + halfLat}) {
+            max = Math.max(max, GeoDistance.distanceKm(center[0], center[1], cornerLat, center[1] + halfLon));
+        }
+        return max;
+    }
+
+    /**
+     * Coarsest level whose cells are at least as large as the bounding box in both axes,
+     * so the box touches at most 2 x 2 cells of that level
+     */
+    public static int levelFor(GeoBounds bounds) {
+        double latSpan = bounds.maxLat() - bounds.minLat();
+        double lonSpan = bounds.maxLon() - bounds.minLon();
+        int level = 0;
+        while (level < MAX_LEVEL
+                && 180.0 / (1L << (level + 1)) >= latSpan
+                && 360.0 / (1L << (level + 1)) >= lonSpan) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Id ranges covering every point within radiusKm, using the finest level that needs
+     * at most {@link #MAX_RANGES} ranges after merging neighbours
+     */
+    public static Covering cover(double latitude, double longitude, double radiusKm) {
+        GeoBounds bounds = GeoBounds.around(latitude, longitude, radiusKm);
+        Covering best = coverAt(bounds, levelFor(bounds));
+        for (int level = best.level() + 1; level <= Math.min(MAX_LEVEL, best.level() + 3); level++) {
+            Covering finer = coverAt(bounds, level);
+            if (finer == null) {
+                break;
+            }
+            best = finer;
+        }
+        return best;
+    }
+
+    /**
+     * Cell id ranges (inclusive); unused slots repeat the first range so queries can take
+     * a fixed number of parameters
+     */
+    public record Covering(int level, int rangeCount, long[] minIds, long[] maxIds) {
+    }
+
+    // Helper: covering of the box at one level, or null if it needs more than MAX_RANGES ranges
+    private static Covering coverAt(GeoBounds bounds, int level) {
+        long fromLat = latIndex(bounds.minLat(), level);
+        long toLat = latIndex(bounds.maxLat(), level);
+        long fromLon = lonIndex(bounds.minLon(), level);
+        long toLon = lonIndex(bounds.maxLon(), level);
+        long cellCount = (toLat - fromLat + 1) * (toLon - fromLon + 1);
+        if (cellCount > 4L * MAX_RANGES) {
+            return null;
+        }
+
+        long[] prefixes = new long[(int) cellCount];
+        int n = 0;
+        for (long y = fromLat; y <= toLat; y++) {
+            for (long x = fromLon; x <= toLon; x++) {
+                prefixes[n++] = interleave(y, x);
+            }
+        }
+        Arrays.sort(prefixes);
+
+        // Merge consecutive prefixes into ranges of finest-level ids
+        int shift = 2 * (MAX_LEVEL - level);
+        long[] minIds = new long[MAX_RANGES];
+        long[] maxIds = new long[MAX_RANGES];
+        int ranges = 0;
+        for (int i = 0; i < n; i++) {
+            if (ranges > 0 && (maxIds[ranges - 1] >>> shift) + 1 == prefixes[i]) {
+                maxIds[ranges - 1] = ((prefixes[i] + 1) << shift) - 1;
+                continue;
+            }
+            if (ranges == MAX_RANGES) {
+                return null;
+            }
+            minIds[ranges] = prefixes[i] << shift;
+            maxIds[ranges] = ((prefixes[i] + 1) << shift) - 1;
+            ranges++;
+        }
+        for (int i = ranges; i < MAX_RANGES; i++) {
+            minIds[i] = minIds[0];
+            maxIds[i] = maxIds[0];
+        }
+        return new Covering(level, ranges, minIds, maxIds);
+    }
+
+    private static long latIndex(double latitude, int level) {
+        long cells = 1L << level;
+        long index = (long) Math.floor((latitude + 90.0) / 180.0 * cells);
+        return Math.min(Math.max(index, 0), cells - 1);
+    }
+
+    private static long lonIndex(double longitude, int level) {
+        long cells = 1L << level;
+        long index = (long) Math.floor((longitude + 180.0) / 360.0 * cells);
+        return Math.min(Math.max(index, 0), cells - 1);
+    }
+
+    // Helper: Z-order code with longitude bits in even positions and latitude bits in odd ones
+    private static long interleave(long latIndex, long lonIndex) {
+        return (spread(latIndex) << 1) | spread(lonIndex);
+    }
+
+    private static long spread(long value) {
+        long v = value & (CELLS_PER_AXIS - 1);
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
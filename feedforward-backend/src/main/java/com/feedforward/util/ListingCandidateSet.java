@@ -0,0 +1,60 @@
+package com.feedforward.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Candidate NGOs of one listing, resolved once from a catalog snapshot with distances attached.
+ * Listing creation reads notification targets, suggestions and the response from the same set
+ * instead of querying NGOs per stage; suggestions score it with the top-K short-circuit.
+ */
+public final class ListingCandidateSet {
+
+    private final NgoCatalog catalog;
+    private final NgoCatalog.Candidates candidates;
+    private final LocalDateTime resolvedAt;
+
+    public ListingCandidateSet(NgoCatalog catalog, NgoCatalog.Candidates candidates, LocalDateTime resolvedAt) {
+        this.catalog = catalog;
+        this.candidates = candidates;
+        this.resolvedAt = resolvedAt;
+    }
+
+    public NgoCatalog catalog() {
+        return catalog;
+    }
+
+    public int size() {
+        return candidates.count();
+    }
+
+    /**
+     * Time the candidates were resolved; reuse it for anything time-dependent in the same request
+     */
+    public LocalDateTime resolvedAt() {
+        return resolvedAt;
+    }
+
+    public int row(int index) {
+        return candidates.rows()[index];
+    }
+
+    public double distanceKm(int index) {
+        return candidates.distancesKm()[index];
+    }
+
+    /**
+     * Indexes of the k closest candidates within radiusKm whose dietary mask contains requiredMask,
+     * closest first
+     */
+    public int[] closest(int k, double radiusKm, int requiredMask) {
+        TopKSelector top = new TopKSelector(k);
+        for (int i = 0; i < candidates.count(); i++) {
+            double distance = candidates.distancesKm()[i];
+            if (distance <= radiusKm && (catalog.dietaryMask(candidates.rows()[i]) & requiredMask) == requiredMask) {
+                // Equal scores rank by distance alone
+                top.offer(i, 0, distance);
+            }
+        }
+        return top.drain();
+    }
+}
@@ -0,0 +1,26 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.UrgencyLevel;
+
+/**
+ * One component of the listing-NGO match score.
+ * Returns the fraction (0-1) of its weight a candidate earns; {@link MatchScoringPipeline}
+ * multiplies it by the configured weight. Inputs are primitives taken from precomputed
+ * listing features and catalog rows, so scoring never touches entities or strings.
+ */
+@FunctionalInterface
+public interface MatchScorer {
+
+    double fraction(ListingFeatures listing, int beneficiaries, int ngoDietaryMask, double distanceKm);
+
+    /**
+     * Listing-side inputs, computed once per listing and scoring call;
+     * dietaryInfoKnown is false when the listing declares no dietary info
+     */
+    record ListingFeatures(int quantity, UrgencyLevel urgency, int dietaryMask, boolean dietaryInfoKnown) {
+
+        public ListingFeatures(int quantity, UrgencyLevel urgency, int dietaryMask) {
+            this(quantity, urgency, dietaryMask, true);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.feedforward.util;
+
+import java.util.Arrays;
+
+/**
+ * Standard match score components: distance, quantity, urgency and dietary fit.
+ * With the default weights (40/25/20/15) and bands (2/5/10/15 km) they reproduce the
+ * original fixed-point score exactly.
+ */
+public final class MatchScorers {
+
+    public static final double[] DEFAULT_DISTANCE_BANDS_KM = {2.0, 5.0, 10.0, 15.0};
+
+    private MatchScorers() {
+    }
+
+    /**
+     * Pipeline of the four standard components with the given weights
+     */
+    public static MatchScoringPipeline standardPipeline(double distanceWeight, double quantityWeight,
+                                                        double urgencyWeight, double dietaryWeight,
+                                                        double[] distanceBandsKm) {
+        return MatchScoringPipeline.builder()
+                .add("distance", distance(distanceBandsKm), distanceWeight)
+                .add("quantity", quantity(), quantityWeight)
+                .add("urgency", urgency(), urgencyWeight)
+                .add("dietary", dietary(), dietaryWeight)
+                .build();
+    }
+
+    /**
+     * Closer is better: full weight within the first band, one step less per band, nothing beyond the last
+     */
+    public static MatchScorer distance(double[] bandsKm) {
+        double[] bands = bandsKm.clone();
+        Arrays.sort(bands);
+        return (listing, beneficiaries, ngoDietaryMask, distanceKm) -> {
+            for (int i = 0; i < bands.length; i++) {
+                if (distanceKm <= bands[i]) {
+                    return 1.0 - (double) i / bands.length;
+                }
+            }
+            return 0.0;
+        };
+    }
+
+    /**
+     * Food quantity matches beneficiary needs; ideal is 20-30% of beneficiaries (1 serving per person)
+     */
+    public static MatchScorer quantity() {
+        return (listing, beneficiaries, ngoDietaryMask, distanceKm) -> {
+            int foodQuantity = listing.quantity();
+            int idealMin = (int) (beneficiaries * 0.2);
+            int idealMax = (int) (beneficiaries * 0.3);
+
+            if (foodQuantity >= idealMin && foodQuantity <= idealMax) {
+                return 1.0; // Perfect match
+            } else if (foodQuantity >= beneficiaries * 0.1 && foodQuantity <= beneficiaries * 0.5) {
+                return 0.8; // Good match
+            } else if (foodQuantity >= beneficiaries * 0.05) {
+                return 0.6; // Acceptable
+            } else {
+                return 0.4; // Low match
+            }
+        };
+    }
+
+    /**
+     * More urgent = higher priority (levels from {@link UrgencyBuckets})
+     */
+    public static MatchScorer urgency() {
+        return (listing, beneficiaries, ngoDietaryMask, distanceKm) -> switch (listing.urgency()) {
+            case CRITICAL -> 1.0; // < 1 hour to expiry
+            case HIGH -> 0.75;    // 1-2 hours
+            case MEDIUM -> 0.5;   // 2-4 hours
+            case LOW -> 0.25;     // > 4 hours
+        };
+    }
+
+    /**
+     * Dietary fit from {@link DietaryTaxonomy} masks: one third per requested tag the food has,
+     * two thirds if the NGO has no restrictions or the listing declares no dietary info,
+     * nothing for non-veg food to a vegetarian-only NGO
+     */
+    public static MatchScorer dietary() {
+        return (listing, beneficiaries, ngoDietaryMask, distanceKm) -> {
+            int listingMask = listing.dietaryMask();
+
+            // Check for conflicts: vegetarian-only NGO, non-vegetarian food
+            boolean vegOnly = (ngoDietaryMask & DietaryTaxonomy.ACCEPTS_ALL) == DietaryTaxonomy.ACCEPTS_VEG;
+            if (vegOnly && (listingMask & DietaryTaxonomy.ACCEPTS_NON_VEG) != 0) {
+                return 0.0;
+            }
+
+            // Unknown diet: same default as an NGO without restrictions
+            if (!listing.dietaryInfoKnown()) {
+                return 2.0 / 3;
+            }
+
+            // Requested tags (and vegetarian food for vegetarian-only NGOs)
+            int wanted = (ngoDietaryMask & DietaryTaxonomy.TAGS) | (vegOnly ? DietaryTaxonomy.ACCEPTS_VEG : 0);
+            if (wanted == 0) {
+                return 2.0 / 3; // No dietary restrictions
+            }
+            return Math.min(Integer.bitCount(wanted & listingMask), 3) / 3.0;
+        };
+    }
+}
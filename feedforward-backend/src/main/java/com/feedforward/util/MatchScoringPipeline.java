@@ -0,0 +1,105 @@
+package com.feedforward.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Weighted sum of {@link MatchScorer} components, rounded and capped at 100.
+ *
+ * Components run heaviest first. When a caller passes a threshold (e.g. the lowest score in a
+ * full top-K heap), scoring stops as soon as the points left to earn can no longer lift the
+ * candidate to that threshold, and {@link #SKIPPED} is returned instead of a score.
+ */
+public final class MatchScoringPipeline {
+
+    public static final int SKIPPED = -1;
+    private static final int MAX_SCORE = 100;
+
+    private final String[] names;
+    private final MatchScorer[] scorers;
+    private final double[] weights;
+    // remainingWeight[i] = sum of weights from component i on
+    private final double[] remainingWeight;
+
+    private MatchScoringPipeline(List<Stage> stages) {
+        List<Stage> ordered = new ArrayList<>(stages);
+        ordered.sort(Comparator.comparingDouble(Stage::weight).reversed());
+        int n = ordered.size();
+        this.names = new String[n];
+        this.scorers = new MatchScorer[n];
+        this.weights = new double[n];
+        this.remainingWeight = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            names[i] = ordered.get(i).name();
+            scorers[i] = ordered.get(i).scorer();
+            weights[i] = ordered.get(i).weight();
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            remainingWeight[i] = remainingWeight[i + 1] + weights[i];
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Full score (0-100)
+     */
+    public int score(MatchScorer.ListingFeatures listing, int beneficiaries, int ngoDietaryMask, double distanceKm) {
+        return score(listing, beneficiaries, ngoDietaryMask, distanceKm, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Score (0-100), or {@link #SKIPPED} once the candidate provably cannot reach threshold
+     */
+    public int score(MatchScorer.ListingFeatures listing, int beneficiaries, int ngoDietaryMask, double distanceKm,
+                     int threshold) {
+        double total = 0;
+        for (int i = 0; i < scorers.length; i++) {
+            // Best reachable score rounds below the threshold
+            if (total + remainingWeight[i] < threshold - 0.5) {
+                return SKIPPED;
+            }
+            total += weights[i] * scorers[i].fraction(listing, beneficiaries, ngoDietaryMask, distanceKm);
+        }
+        return (int) Math.min(MAX_SCORE, Math.round(total));
+    }
+
+    /**
+     * Component names and weights, heaviest first (for logs and reports)
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(names[i]).append('=').append(weights[i]);
+        }
+        return description.toString();
+    }
+
+    private record Stage(String name, MatchScorer scorer, double weight) {
+    }
+
+    public static final class Builder {
+        private final List<Stage> stages = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String name, MatchScorer scorer, double weight) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weight of " + name + " must be non-negative");
+            }
+            stages.add(new Stage(name, scorer, weight));
+            return this;
+        }
+
+        public MatchScoringPipeline build() {
+            return new MatchScoringPipeline(stages);
+        }
+    }
+}
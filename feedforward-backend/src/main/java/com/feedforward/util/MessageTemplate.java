@@ -0,0 +1,269 @@
+package com.feedforward.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Notification text template, parsed once into a segment array and rendered into a reused,
+ * pre-sized per-thread buffer.
+ *
+ * Placeholders name one of the declared parameters:
+ * {name} inserts the value, {name:20} inserts at most 20 characters of it,
+ * {#name}...{/name} renders its body only when the value is present (not null, not empty, not false),
+ * {^name}...{/name} renders its body only when it is absent, and {{ is a literal brace.
+ * Values are passed positionally in the declared parameter order. Numbers are appended without
+ * formatting; output longer than maxLength is cut to maxLength with a trailing "...".
+ */
+public final class MessageTemplate {
+
+    public static final int NO_LIMIT = 0;
+
+    private static final byte LITERAL = 0;
+    private static final byte VALUE = 1;
+    private static final byte SECTION = 2;
+    private static final byte INVERTED = 3;
+
+    private static final String ELLIPSIS = "...";
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String name;
+    private final String[] parameters;
+    private final int maxLength;
+
+    // Segments: kind, literal text, parameter slot, and a character limit (VALUE) or the index to
+    // continue from when the section is skipped (SECTION, INVERTED)
+    private final byte[] kinds;
+    private final String[] literals;
+    private final int[] slots;
+    private final int[] operands;
+
+    // Longest output rendered so far, used to size the buffer before appending
+    private volatile int sizeHint;
+
+    private MessageTemplate(String name, String[] parameters, int maxLength, byte[] kinds, String[] literals,
+                            int[] slots, int[] operands, int literalLength) {
+        this.name = name;
+        this.parameters = parameters;
+        this.maxLength = maxLength;
+        this.kinds = kinds;
+        this.literals = literals;
+        this.slots = slots;
+        this.operands = operands;
+        this.sizeHint = maxLength > 0 ? Math.min(maxLength, literalLength * 2) : literalLength * 2;
+    }
+
+    /**
+     * Parse a template source
+     * @param maxLength Longest output in characters, or NO_LIMIT
+     * @param parameters Names the placeholders may use, in the order render takes their values
+     * @throws IllegalArgumentException for unknown parameters, bad limits or unbalanced sections
+     */
+    public static MessageTemplate compile(String name, String source, int maxLength, String... parameters) {
+        if (maxLength != NO_LIMIT && maxLength <= ELLIPSIS.length()) {
+            throw new IllegalArgumentException("Template " + name + ": max length must exceed " + ELLIPSIS.length());
+        }
+        Parser parser = new Parser(name, source, parameters);
+        parser.parse();
+        return new MessageTemplate(name, parameters.clone(), maxLength,
+                toByteArray(parser.kinds), parser.literals.toArray(new String[0]),
+                parser.slots.stream().mapToInt(Integer::intValue).toArray(),
+                parser.operands.stream().mapToInt(Integer::intValue).toArray(),
+                parser.literalLength);
+    }
+
+    /**
+     * Render with one value per declared parameter, in declaration order
+     */
+    public String render(Object... values) {
+        if (values.length != parameters.length) {
+            throw new IllegalArgumentException("Template " + name + " takes " + parameters.length
+                    + " values " + Arrays.toString(parameters) + ", got " + values.length);
+        }
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(sizeHint);
+
+        int i = 0;
+        while (i < kinds.length) {
+            switch (kinds[i]) {
+                case LITERAL -> {
+                    out.append(literals[i]);
+                    i++;
+                }
+                case VALUE -> {
+                    appendValue(out, values[slots[i]], operands[i]);
+                    i++;
+                }
+                case SECTION -> i = isPresent(values[slots[i]]) ? i + 1 : operands[i];
+                default -> i = isPresent(values[slots[i]]) ? operands[i] : i + 1;
+            }
+        }
+
+        if (out.length() > sizeHint) {
+            sizeHint = out.length();
+        }
+        if (maxLength != NO_LIMIT && out.length() > maxLength) {
+            out.setLength(maxLength - ELLIPSIS.length());
+            out.append(ELLIPSIS);
+        }
+
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    // Helper: append a value, at most limit characters of it; numbers go in without a String
+    private static void appendValue(StringBuilder out, Object value, int limit) {
+        if (value == null) {
+            return;
+        }
+        if (limit == NO_LIMIT && (value instanceof Integer || value instanceof Long)) {
+            out.append(((Number) value).longValue());
+            return;
+        }
+        CharSequence text = value instanceof CharSequence chars ? chars : String.valueOf(value);
+        out.append(text, 0, limit == NO_LIMIT ? text.length() : Math.min(limit, text.length()));
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value instanceof CharSequence chars) {
+            return !chars.isEmpty();
+        }
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+
+    private static byte[] toByteArray(List<Byte> values) {
+        byte[] array = new byte[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static final class Parser {
+        private final String name;
+        private final String source;
+        private final String[] parameters;
+
+        private final List<Byte> kinds = new ArrayList<>();
+        private final List<String> literals = new ArrayList<>();
+        private final List<Integer> slots = new ArrayList<>();
+        private final List<Integer> operands = new ArrayList<>();
+        private final List<Integer> openSections = new ArrayList<>();
+        private final StringBuilder literal = new StringBuilder();
+        private int literalLength;
+
+        private Parser(String name, String source, String[] parameters) {
+            this.name = name;
+            this.source = source;
+            this.parameters = parameters;
+        }
+
+        private void parse() {
+            int pos = 0;
+            while (pos < source.length()) {
+                char c = source.charAt(pos);
+                if (c != '{') {
+                    literal.append(c);
+                    pos++;
+                } else if (pos + 1 < source.length() && source.charAt(pos + 1) == '{') {
+                    literal.append('{');
+                    pos += 2;
+                } else {
+                    int close = source.indexOf('}', pos);
+                    if (close < 0) {
+                        throw error("unclosed placeholder at " + pos);
+                    }
+                    tag(source.substring(pos + 1, close).trim());
+                    pos = close + 1;
+                }
+            }
+            flushLiteral();
+            if (!openSections.isEmpty()) {
+                int open = openSections.get(openSections.size() - 1);
+                throw error("section " + parameters[slots.get(open)] + " is not closed");
+            }
+        }
+
+        private void tag(String tag) {
+            flushLiteral();
+            if (tag.isEmpty()) {
+                throw error("empty placeholder");
+            }
+            switch (tag.charAt(0)) {
+                case '#', '^' -> {
+                    openSections.add(kinds.size());
+                    add(tag.charAt(0) == '#' ? SECTION : INVERTED, null, slot(tag.substring(1)), -1);
+                }
+                case '/' -> {
+                    if (openSections.isEmpty()) {
+                        throw error("unexpected " + tag);
+                    }
+                    int open = openSections.remove(openSections.size() - 1);
+                    if (slots.get(open) != slot(tag.substring(1))) {
+                        throw error(tag + " closes section " + parameters[slots.get(open)]);
+                    }
+                    // A skipped section continues after its last segment
+                    operands.set(open, kinds.size());
+                }
+                default -> {
+                    int colon = tag.indexOf(':');
+                    int limit = NO_LIMIT;
+                    if (colon >= 0) {
+                        try {
+                            limit = Integer.parseInt(tag.substring(colon + 1).trim());
+                        } catch (NumberFormatException e) {
+                            limit = -1;
+                        }
+                        if (limit <= 0) {
+                            throw error("bad length limit in {" + tag + "}");
+                        }
+                        tag = tag.substring(0, colon).trim();
+                    }
+                    add(VALUE, null, slot(tag), limit);
+                }
+            }
+        }
+
+        private int slot(String parameter) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].equals(parameter)) {
+                    return i;
+                }
+            }
+            throw error("unknown parameter " + parameter);
+        }
+
+        private void flushLiteral() {
+            if (literal.length() > 0) {
+                add(LITERAL, literal.toString(), -1, 0);
+                literalLength += literal.length();
+                literal.setLength(0);
+            }
+        }
+
+        private void add(byte kind, String text, int slot, int operand) {
+            kinds.add(kind);
+            literals.add(text);
+            slots.add(slot);
+            operands.add(operand);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Template " + name + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.feedforward.util;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost max-flow on a directed graph with integer capacities and non-negative costs.
+ *
+ * Successive shortest paths with Dijkstra on reduced costs (Johnson potentials): each round
+ * pushes the bottleneck along the cheapest augmenting path, so the final flow is maximum and,
+ * among maximum flows, of least total cost. Edges are stored in flat arrays; edge e and its
+ * residual twin are e and e ^ 1.
+ */
+public class MinCostFlow {
+
+    private final int nodeCount;
+    private final int[] head;
+
+    private int[] to = new int[16];
+    private int[] next = new int[16];
+    private int[] capacity = new int[16];
+    private long[] cost = new long[16];
+    private int edgeCount;
+
+    public MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * Add an edge and return its id for {@link #flow}
+     */
+    public int addEdge(int from, int toNode, int edgeCapacity, long edgeCost) {
+        if (edgeCapacity < 0 || edgeCost < 0) {
+            throw new IllegalArgumentException("Capacity and cost must be non-negative");
+        }
+        int id = edgeCount;
+        link(from, toNode, edgeCapacity, edgeCost);
+        link(toNode, from, 0, -edgeCost);
+        return id;
+    }
+
+    /**
+     * Flow currently on an edge returned by {@link #addEdge}
+     */
+    public int flow(int edgeId) {
+        return capacity[edgeId ^ 1];
+    }
+
+    public int edgeCount() {
+        return edgeCount / 2;
+    }
+
+    /**
+     * Push as much flow as possible from source to sink at least cost
+     */
+    public Result solve(int source, int sink) {
+        long[] potential = new long[nodeCount];
+        long[] dist = new long[nodeCount];
+        int[] viaEdge = new int[nodeCount];
+        long totalFlow = 0;
+        long totalCost = 0;
+        int rounds = 0;
+
+        while (true) {
+            shortestPaths(source, potential, dist, viaEdge);
+            if (dist[sink] == Long.MAX_VALUE) {
+                break;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                if (dist[v] != Long.MAX_VALUE) {
+                    potential[v] += dist[v];
+                }
+            }
+
+            // Bottleneck along the path, then augment
+            int push = Integer.MAX_VALUE;
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1]) {
+                push = Math.min(push, capacity[viaEdge[v]]);
+            }
+            for (int v = sink; v != source; v = to[viaEdge[v] ^ 1]) {
+                capacity[viaEdge[v]] -= push;
+                capacity[viaEdge[v] ^ 1] += push;
+                totalCost += push * cost[viaEdge[v]];
+            }
+            totalFlow += push;
+            rounds++;
+        }
+        return new Result(totalFlow, totalCost, rounds);
+    }
+
+    /**
+     * Total flow, its cost, and the number of augmenting paths used
+     */
+    public record Result(long flow, long cost, int rounds) {
+    }
+
+    // Helper: Dijkstra over residual edges with reduced costs
+    private void shortestPaths(int source, long[] potential, long[] dist, int[] viaEdge) {
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(viaEdge, -1);
+        dist[source] = 0;
+
+        // Binary heap of (distance, node) with lazy deletion
+        long[] heapDist = new long[Math.max(16, edgeCount + 1)];
+        int[] heapNode = new int[heapDist.length];
+        int heapSize = 0;
+        heapDist[heapSize] = 0;
+        heapNode[heapSize++] = source;
+
+        while (heapSize > 0) {
+            long d = heapDist[0];
+            int u = heapNode[0];
+            heapSize--;
+            siftDown(heapDist, heapNode, heapSize, heapDist[heapSize], heapNode[heapSize]);
+            if (d > dist[u]) {
+                continue;
+            }
+            for (int e = head[u]; e != -1; e = next[e]) {
+                if (capacity[e] == 0) {
+                    continue;
+                }
+                int v = to[e];
+                long candidate = d + cost[e] + potential[u] - potential[v];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    viaEdge[v] = e;
+                    if (heapSize == heapDist.length) {
+                        heapDist = Arrays.copyOf(heapDist, heapSize * 2);
+                        heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+                    }
+                    siftUp(heapDist, heapNode, heapSize++, candidate, v);
+                }
+            }
+        }
+    }
+
+    private static void siftUp(long[] heapDist, int[] heapNode, int index, long d, int node) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heapDist[parent] <= d) {
+                break;
+            }
+            heapDist[index] = heapDist[parent];
+            heapNode[index] = heapNode[parent];
+            index = parent;
+        }
+        heapDist[index] = d;
+        heapNode[index] = node;
+    }
+
+    private static void siftDown(long[] heapDist, int[] heapNode, int size, long d, int node) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heapDist[child + 1] < heapDist[child]) {
+                child++;
+            }
+            if (heapDist[child] >= d) {
+                break;
+            }
+            heapDist[index] = heapDist[child];
+            heapNode[index] = heapNode[child];
+            index = child;
+        }
+        heapDist[index] = d;
+        heapNode[index] = node;
+    }
+
+    private void link(int from, int toNode, int edgeCapacity, long edgeCost) {
+        if (edgeCount == to.length) {
+            int grown = edgeCount * 2;
+            to = Arrays.copyOf(to, grown);
+            next = Arrays.copyOf(next, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+        to[edgeCount] = toNode;
+        capacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount++;
+    }
+}
@@ -0,0 +1,278 @@
+package com.feedforward.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only snapshot of active NGOs stored as parallel primitive arrays.
+ *
+ * Rows are sorted by latitude so a radius query only scans the latitude band of the
+ * search circle, and the band is filtered in one pass over the haversine term
+ * a = sin^2(dLat/2) + cos(lat1) * cos(lat2) * sin^2(dLon/2), compared against a
+ * precomputed threshold without asin/sqrt.
+ * Nearest-N queries go through a {@link SphericalKdTree} over the same rows.
+ * Contact and descriptive fields live in a separate table referenced by contactIndex,
+ * so scoring never touches strings or entities.
+ */
+public final class NgoCatalog {
+
+    private static final double EARTH_RADIUS_KM = GeoDistance.EARTH_RADIUS_KM;
+
+    private final List<Row> rows;
+    private final int size;
+    private final long[] ids;
+    private final double[] latRad;
+    private final double[] lonRad;
+    private final double[] cosLat;
+    private final int[] beneficiaries;
+    private final int[] dietaryMask;
+    private final int[] contactIndex;
+    private final Contact[] contacts;
+    private final SphericalKdTree tree;
+    private final Map<String, List<Integer>> rowsByName = new HashMap<>();
+
+    private NgoCatalog(List<Row> rows) {
+        this.rows = rows;
+        this.size = rows.size();
+        this.ids = new long[size];
+        this.latRad = new double[size];
+        this.lonRad = new double[size];
+        this.cosLat = new double[size];
+        this.beneficiaries = new int[size];
+        this.dietaryMask = new int[size];
+        this.contactIndex = new int[size];
+        this.contacts = new Contact[size];
+
+        // Contacts keep load order; primitive rows are laid out by latitude
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            contacts[i] = rows.get(i).contact();
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(rows.get(a).latitude(), rows.get(b).latitude()));
+
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            Row row = rows.get(order[i]);
+            latitudes[i] = row.latitude();
+            longitudes[i] = row.longitude();
+            ids[i] = row.contact().ngoId();
+            latRad[i] = Math.toRadians(row.latitude());
+            lonRad[i] = Math.toRadians(row.longitude());
+            cosLat[i] = Math.cos(latRad[i]);
+            beneficiaries[i] = row.beneficiaries();
+            dietaryMask[i] = row.dietaryMask();
+            contactIndex[i] = order[i];
+            String name = row.contact().organizationName();
+            if (name != null) {
+                rowsByName.computeIfAbsent(name.toLowerCase().trim(), key -> new ArrayList<>(1)).add(i);
+            }
+        }
+        this.tree = SphericalKdTree.build(latitudes, longitudes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy of this catalog with one NGO's row added, or replaced if it is already in it
+     */
+    public NgoCatalog withNgo(double latitude, double longitude, int beneficiaries, int dietaryMask,
+                              Contact contact) {
+        List<Row> updated = new ArrayList<>(size + 1);
+        for (Row row : rows) {
+            if (row.contact().ngoId() != contact.ngoId()) {
+                updated.add(row);
+            }
+        }
+        updated.add(new Row(latitude, longitude, beneficiaries, dietaryMask, contact));
+        return new NgoCatalog(updated);
+    }
+
+    /**
+     * Copy of this catalog without one NGO (this catalog if it is not in it)
+     */
+    public NgoCatalog withoutNgo(long ngoId) {
+        List<Row> updated = new ArrayList<>(size);
+        for (Row row : rows) {
+            if (row.contact().ngoId() != ngoId) {
+                updated.add(row);
+            }
+        }
+        return updated.size() == size ? this : new NgoCatalog(updated);
+    }
+
+    /**
+     * Find rows within radius whose dietary mask contains requiredMask (0 for no filter).
+     * Allocates the result buffers once per query, never per candidate.
+     */
+    public Candidates findWithinRadius(double latitude, double longitude, double radiusKm, int requiredMask) {
+        GeoBounds bounds = GeoBounds.around(latitude, longitude, radiusKm);
+        int from = lowerBound(Math.toRadians(bounds.minLat()));
+        int to = upperBound(Math.toRadians(bounds.maxLat()));
+        if (from >= to) {
+            return new Candidates(0, new int[0], new double[0]);
+        }
+
+        double angularRadius = Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI);
+        double sinHalf = Math.sin(angularRadius / 2);
+        double originLatRad = Math.toRadians(latitude);
+
+        int[] rows = new int[to - from];
+        double[] distances = new double[to - from];
+        double originLonRad = Math.toRadians(longitude);
+        double originCosLat = Math.cos(originLatRad);
+        double maxHaversine = sinHalf * sinHalf;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if ((dietaryMask[i] & requiredMask) != requiredMask) {
+                continue;
+            }
+            double sinLat = Math.sin((latRad[i] - originLatRad) * 0.5);
+            double sinLon = Math.sin((lonRad[i] - originLonRad) * 0.5);
+            double a = sinLat * sinLat + originCosLat * cosLat[i] * sinLon * sinLon;
+            if (a <= maxHaversine) {
+                rows[count] = i;
+                distances[count] = a;
+                count++;
+            }
+        }
+
+        // Convert haversine terms to kilometres in place
+        for (int i = 0; i < count; i++) {
+            distances[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(distances[i])));
+        }
+        return new Candidates(count, rows, distances);
+    }
+
+    /**
+     * Up to k closest rows within maxRadiusKm whose dietary mask contains requiredMask, nearest first
+     */
+    public Candidates findNearest(double latitude, double longitude, int k, double maxRadiusKm, int requiredMask) {
+        SphericalKdTree.Neighbors neighbors = tree.nearest(latitude, longitude, k, maxRadiusKm,
+                requiredMask == 0 ? null : row -> (dietaryMask[row] & requiredMask) == requiredMask);
+        return new Candidates(neighbors.count(), neighbors.items(), neighbors.distancesKm());
+    }
+
+    /**
+     * True if an NGO with this name (case-insensitive) is registered within radius
+     */
+    public boolean isRegisteredNear(String organizationName, double latitude, double longitude, double radiusKm) {
+        List<Integer> namedRows = rowsByName.get(organizationName.toLowerCase().trim());
+        if (namedRows == null) {
+            return false;
+        }
+        for (int row : namedRows) {
+            double distance = GeoDistance.distanceKm(latitude, longitude,
+                    Math.toDegrees(latRad[row]), Math.toDegrees(lonRad[row]));
+            if (distance <= radiusKm) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long ngoId(int row) {
+        return ids[row];
+    }
+
+    public int beneficiaries(int row) {
+        return beneficiaries[row];
+    }
+
+    /**
+     * Stored {@link DietaryTaxonomy} mask: accepted food kinds and requested tags
+     */
+    public int dietaryMask(int row) {
+        return dietaryMask[row];
+    }
+
+    public Contact contact(int row) {
+        return contacts[contactIndex[row]];
+    }
+
+    /**
+     * Result of a radius query: catalog rows and their distances, first count entries valid
+     */
+    public record Candidates(int count, int[] rows, double[] distancesKm) {
+    }
+
+    /**
+     * Contact and display details of an NGO, as loaded; e164 and notifyEmail are the normalized
+     * forms to notify, null when the stored phone or email is invalid
+     */
+    public record Contact(
+            long ngoId,
+            String organizationName,
+            String address,
+            String phone,
+            String email,
+            String dietaryRequirements,
+            String e164,
+            String notifyEmail
+    ) {
+    }
+
+    private record Row(double latitude, double longitude, int beneficiaries, int dietaryMask, Contact contact) {
+    }
+
+    public static final class Builder {
+        private final List<Row> rows = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(double latitude, double longitude, int beneficiaries, Contact contact) {
+            return add(latitude, longitude, beneficiaries,
+                    DietaryTaxonomy.ngoMask(contact.dietaryRequirements()), contact);
+        }
+
+        public Builder add(double latitude, double longitude, int beneficiaries, int dietaryMask, Contact contact) {
+            rows.add(new Row(latitude, longitude, beneficiaries, dietaryMask, contact));
+            return this;
+        }
+
+        public NgoCatalog build() {
+            return new NgoCatalog(new ArrayList<>(rows));
+        }
+    }
+
+    // Helper: first row with latitude >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (latRad[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Helper: first row with latitude > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (latRad[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
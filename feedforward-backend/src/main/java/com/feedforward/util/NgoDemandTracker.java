@@ -0,0 +1,76 @@
+package com.feedforward.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servings each NGO has in flight: requested and waiting for approval (pending), approved but
+ * not yet delivered (approved), and delivered today (received).
+ *
+ * Counters are {@link LongAdder}s, which stripe updates across cells, so concurrent request
+ * state changes for the same NGO do not contend; reads sum a handful of cells and never
+ * touch the database.
+ */
+public final class NgoDemandTracker {
+
+    private final ConcurrentHashMap<Long, Demand> demand = new ConcurrentHashMap<>();
+
+    /**
+     * Apply servings deltas for one NGO
+     */
+    public void add(long ngoId, long pendingDelta, long approvedDelta, long receivedDelta) {
+        Demand counters = demand.computeIfAbsent(ngoId, key -> new Demand());
+        if (pendingDelta != 0) {
+            counters.pending.add(pendingDelta);
+        }
+        if (approvedDelta != 0) {
+            counters.approved.add(approvedDelta);
+        }
+        if (receivedDelta != 0) {
+            counters.received.add(receivedDelta);
+        }
+    }
+
+    public long pending(long ngoId) {
+        Demand counters = demand.get(ngoId);
+        return counters != null ? Math.max(0, counters.pending.sum()) : 0;
+    }
+
+    public long approved(long ngoId) {
+        Demand counters = demand.get(ngoId);
+        return counters != null ? Math.max(0, counters.approved.sum()) : 0;
+    }
+
+    public long received(long ngoId) {
+        Demand counters = demand.get(ngoId);
+        return counters != null ? Math.max(0, counters.received.sum()) : 0;
+    }
+
+    /**
+     * Servings requested, approved or received today
+     */
+    public long outstanding(long ngoId) {
+        return pending(ngoId) + approved(ngoId) + received(ngoId);
+    }
+
+    /**
+     * Share of the NGO's daily need (one serving per beneficiary) already covered, 0-1
+     */
+    public double saturation(long ngoId, int beneficiaries) {
+        long outstanding = outstanding(ngoId);
+        if (outstanding == 0) {
+            return 0.0;
+        }
+        return beneficiaries <= 0 ? 1.0 : Math.min(1.0, (double) outstanding / beneficiaries);
+    }
+
+    public int size() {
+        return demand.size();
+    }
+
+    private static final class Demand {
+        private final LongAdder pending = new LongAdder();
+        private final LongAdder approved = new LongAdder();
+        private final LongAdder received = new LongAdder();
+    }
+}
@@ -0,0 +1,197 @@
+package com.feedforward.util;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open-addressing hash map from a (restaurant id, ngo id) pair to a distance in km.
+ * Both ids are packed into one long key, so lookups neither box nor allocate.
+ * Ids must be between 1 and Integer.MAX_VALUE; 0 marks an empty slot.
+ */
+public class PairDistanceMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    public PairDistanceMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public PairDistanceMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Callback for {@link #forEach}
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(long restaurantId, long ngoId, double distanceKm);
+    }
+
+    /**
+     * Stored distance for the pair, or NaN if the pair is not stored
+     */
+    public double get(long restaurantId, long ngoId) {
+        if (!isValidId(restaurantId) || !isValidId(ngoId)) {
+            return Double.NaN;
+        }
+        long key = pack(restaurantId, ngoId);
+        lock.readLock().lock();
+        try {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return Double.NaN;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(long restaurantId, long ngoId, double distanceKm) {
+        if (!isValidId(restaurantId) || !isValidId(ngoId)) {
+            throw new IllegalArgumentException("Ids must be between 1 and " + Integer.MAX_VALUE);
+        }
+        long key = pack(restaurantId, ngoId);
+        lock.writeLock().lock();
+        try {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            insert(key, distanceKm);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the pair in place
+     * @return true if the pair was stored
+     */
+    public boolean remove(long restaurantId, long ngoId) {
+        if (!isValidId(restaurantId) || !isValidId(ngoId)) {
+            return false;
+        }
+        long key = pack(restaurantId, ngoId);
+        lock.writeLock().lock();
+        try {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    deleteSlot(slot);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every stored pair (unordered)
+     */
+    public void forEach(PairConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    consumer.accept(keys[slot] >>> 32, keys[slot] & 0xFFFFFFFFL, values[slot]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper: empty a slot and shift later entries of its probe run back, so lookups need no tombstones
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            // An entry can fill the hole only if its home slot is not between the hole and itself
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+        size--;
+    }
+
+    private void insert(long key, double value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        size = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static boolean isValidId(long id) {
+        return id > 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static long pack(long restaurantId, long ngoId) {
+        return (restaurantId << 32) | ngoId;
+    }
+
+    // Helper: 64-bit finalizer from MurmurHash3 so sequential ids spread across slots
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,229 @@
+package com.feedforward.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * TTL and size-bounded LRU cache for Google Places lookups, keyed by query type, GeoCell and radius bucket.
+ *
+ * Entries can be persisted to an append-only file (one "storedAt TAB key TAB value" line per put),
+ * replayed on startup so a restart does not spend quota on lookups it already paid for. Later lines
+ * win, expired ones are skipped, and the file is rewritten with only the live entries once it holds
+ * twice as many lines as the cache. Values are stored through the given codec and must encode to one line.
+ */
+public final class PlacesCache<V> {
+
+    /** Radius buckets (km); a lookup is cached under the smallest bucket covering its radius */
+    private static final double[] RADIUS_BUCKETS_KM = {1, 2, 5, 10, 20, 50};
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Path file;
+    private final Function<V, String> encoder;
+    private final Function<String, V> decoder;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private BufferedWriter writer;
+    private int fileLines;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PlacesCache(long ttlMillis, int maxEntries, Path file,
+                       Function<V, String> encoder, Function<String, V> decoder) {
+        this(ttlMillis, maxEntries, file, encoder, decoder, System::currentTimeMillis);
+    }
+
+    PlacesCache(long ttlMillis, int maxEntries, Path file,
+                Function<V, String> encoder, Function<String, V> decoder, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.file = file;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.clock = clock;
+    }
+
+    /**
+     * Cache key of a lookup: the level cell containing the point and the radius bucket
+     */
+    public static String key(String queryType, double latitude, double longitude, double radiusKm, int level) {
+        long cell = GeoCell.parent(GeoCell.cellId(latitude, longitude), level);
+        return queryType + ":" + level + ":" + cell + ":" + (long) (radiusBucketKm(radiusKm) * 1000);
+    }
+
+    /**
+     * Smallest radius bucket covering a radius, capped at the largest one
+     */
+    public static double radiusBucketKm(double radiusKm) {
+        for (double bucket : RADIUS_BUCKETS_KM) {
+            if (radiusKm <= bucket) {
+                return bucket;
+            }
+        }
+        return RADIUS_BUCKETS_KM[RADIUS_BUCKETS_KM.length - 1];
+    }
+
+    /**
+     * Replay the file into memory; returns the number of live entries loaded
+     */
+    public synchronized int load() throws IOException {
+        if (file == null || !Files.exists(file)) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String[] parts = line.split("\t", 3);
+                if (parts.length < 3) {
+                    continue;
+                }
+                long storedAt;
+                try {
+                    storedAt = Long.parseLong(parts[0]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (now - storedAt >= ttlMillis) {
+                    entries.remove(parts[1]);
+                    continue;
+                }
+                V value;
+                try {
+                    value = decoder.apply(parts[2]);
+                } catch (RuntimeException e) {
+                    // A torn last line from a crash, or a value written by an older format
+                    continue;
+                }
+                entries.put(parts[1], new Entry<>(value, storedAt));
+                evictOverflow();
+            }
+        }
+        fileLines = lines;
+        if (fileLines > 2 * Math.max(entries.size(), 1)) {
+            compact();
+        }
+        return entries.size();
+    }
+
+    /**
+     * Cached value, or null when absent or expired
+     */
+    public synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && clock.getAsLong() - entry.storedAt() >= ttlMillis) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    /**
+     * Cache a value and append it to the file
+     */
+    public synchronized void put(String key, V value) {
+        long now = clock.getAsLong();
+        entries.put(key, new Entry<>(value, now));
+        evictOverflow();
+        if (file == null) {
+            return;
+        }
+        try {
+            append(now, key, value);
+            if (fileLines > 2 * maxEntries) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hit and miss counts since startup, with the current size
+     */
+    public synchronized Stats stats() {
+        long lookups = hits + misses;
+        return new Stats(hits, misses, evictions, entries.size(), fileLines,
+                lookups == 0 ? 0.0 : (double) hits / lookups);
+    }
+
+    /**
+     * Flush and close the file
+     */
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void append(long storedAt, String key, V value) throws IOException {
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(line(storedAt, key, value));
+        writer.flush();
+        fileLines++;
+    }
+
+    // Helper: rewrite the file with only the live entries, least recently used first
+    private void compact() throws IOException {
+        close();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry<V>> entry : entries.entrySet()) {
+                out.write(line(entry.getValue().storedAt(), entry.getKey(), entry.getValue().value()));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLines = entries.size();
+    }
+
+    private String line(long storedAt, String key, V value) {
+        return storedAt + "\t" + key + "\t" + encoder.apply(value) + "\n";
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+
+    /**
+     * Cache counters; hitRatio is hits over lookups (0 before the first lookup)
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, int fileLines, double hitRatio) {
+    }
+}
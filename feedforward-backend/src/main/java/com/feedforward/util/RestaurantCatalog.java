@@ -0,0 +1,109 @@
+package com.feedforward.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only snapshot of active restaurants for nearest-N lookups.
+ * Coordinates feed a {@link SphericalKdTree}; contact details are kept per row so
+ * results can be turned into responses without loading entities.
+ */
+public final class RestaurantCatalog {
+
+    private final int size;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Contact[] contacts;
+    private final SphericalKdTree tree;
+    private final Map<String, List<Integer>> rowsByName = new HashMap<>();
+
+    private RestaurantCatalog(List<Row> rows) {
+        this.size = rows.size();
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.contacts = new Contact[size];
+        for (int i = 0; i < size; i++) {
+            Row row = rows.get(i);
+            latitudes[i] = row.latitude();
+            longitudes[i] = row.longitude();
+            contacts[i] = row.contact();
+            if (row.contact().organizationName() != null) {
+                rowsByName.computeIfAbsent(row.contact().organizationName().toLowerCase().trim(),
+                        name -> new ArrayList<>(1)).add(i);
+            }
+        }
+        this.tree = SphericalKdTree.build(latitudes, longitudes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Up to k closest restaurants within maxRadiusKm, nearest first (items are catalog rows)
+     */
+    public SphericalKdTree.Neighbors findNearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        return tree.nearest(latitude, longitude, k, maxRadiusKm, null);
+    }
+
+    /**
+     * True if a restaurant with this name (case-insensitive) is registered within radius
+     */
+    public boolean isRegisteredNear(String organizationName, double latitude, double longitude, double radiusKm) {
+        List<Integer> namedRows = rowsByName.get(organizationName.toLowerCase().trim());
+        if (namedRows == null) {
+            return false;
+        }
+        for (int row : namedRows) {
+            if (GeoDistance.distanceKm(latitude, longitude, latitudes[row], longitudes[row]) <= radiusKm) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Contact contact(int row) {
+        return contacts[row];
+    }
+
+    /**
+     * Contact and display details of a restaurant, as loaded; e164 and notifyEmail are the normalized
+     * forms to notify, null when the stored phone or email is invalid
+     */
+    public record Contact(
+            long restaurantId,
+            String organizationName,
+            String address,
+            String phone,
+            String email,
+            String cuisineType,
+            String e164,
+            String notifyEmail
+    ) {
+    }
+
+    private record Row(double latitude, double longitude, Contact contact) {
+    }
+
+    public static final class Builder {
+        private final List<Row> rows = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(double latitude, double longitude, Contact contact) {
+            rows.add(new Row(latitude, longitude, contact));
+            return this;
+        }
+
+        public RestaurantCatalog build() {
+            return new RestaurantCatalog(rows);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.feedforward.util;
+
+/**
+ * Exponential retry delays: base, 2 x base, 4 x base, ... capped at a maximum.
+ */
+public final class RetryBackoff {
+
+    private RetryBackoff() {
+    }
+
+    /**
+     * Delay before the next try after the given (1-based) failed attempt
+     */
+    public static long delayMillis(int attempt, long baseMillis, long maxMillis) {
+        if (attempt <= 1) {
+            return Math.min(baseMillis, maxMillis);
+        }
+        int shift = Math.min(attempt - 1, 62);
+        // Stop doubling once the cap is reached so the shift cannot overflow
+        if (baseMillis > (maxMillis >> shift)) {
+            return maxMillis;
+        }
+        return Math.min(baseMillis << shift, maxMillis);
+    }
+
+    /**
+     * Delay with up to the given share (0-1) taken off at random, so entries that failed together
+     * do not all retry in the same instant
+     */
+    public static long jitteredDelayMillis(int attempt, long baseMillis, long maxMillis, double jitter,
+                                           double random) {
+        long delay = delayMillis(attempt, baseMillis, maxMillis);
+        return delay - (long) (delay * Math.max(0.0, Math.min(1.0, jitter)) * random);
+    }
+}
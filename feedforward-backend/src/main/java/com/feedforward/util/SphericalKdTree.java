@@ -0,0 +1,274 @@
+package com.feedforward.util;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Static KD-tree over points on the unit sphere for k-nearest-neighbour queries.
+ *
+ * Points are stored as 3D unit vectors, where straight-line (chord) distance grows with
+ * great-circle distance, so ordinary KD-tree pruning is exact on the sphere and has no
+ * trouble at the antimeridian. The tree is implicit: the node of range [lo, hi) is the
+ * median element at (lo + hi) / 2, split on the axis of widest spread.
+ */
+public final class SphericalKdTree {
+
+    private static final double EARTH_RADIUS_KM = GeoDistance.EARTH_RADIUS_KM;
+
+    private final int size;
+    private final double[] coords; // x, y, z per point
+    private final int[] items;
+    private final byte[] splitAxis;
+
+    private SphericalKdTree(double[] latitudes, double[] longitudes) {
+        this.size = latitudes.length;
+        this.coords = new double[size * 3];
+        this.items = new int[size];
+        this.splitAxis = new byte[size];
+        for (int i = 0; i < size; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            double cosLat = Math.cos(lat);
+            coords[i * 3] = cosLat * Math.cos(lon);
+            coords[i * 3 + 1] = cosLat * Math.sin(lon);
+            coords[i * 3 + 2] = Math.sin(lat);
+            items[i] = i;
+        }
+        build(0, size);
+    }
+
+    /**
+     * Build a tree whose items are the array indexes of the given coordinates (degrees)
+     */
+    public static SphericalKdTree build(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays differ in length");
+        }
+        return new SphericalKdTree(latitudes, longitudes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Up to k accepted items within maxRadiusKm, nearest first.
+     * Subtrees that cannot beat the current k-th distance are never visited.
+     */
+    public Neighbors nearest(double latitude, double longitude, int k, double maxRadiusKm, IntPredicate accept) {
+        if (k <= 0 || size == 0) {
+            return new Neighbors(0, new int[0], new double[0]);
+        }
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        double halfChord = Math.sin(Math.min(maxRadiusKm / EARTH_RADIUS_KM, Math.PI) / 2);
+
+        Search search = new Search(k, 4 * halfChord * halfChord,
+                cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat), accept);
+        search.visit(0, size);
+        return search.result();
+    }
+
+    /**
+     * Query result: first count entries are valid, nearest first
+     */
+    public record Neighbors(int count, int[] items, double[] distancesKm) {
+    }
+
+    // Helper: recursively place the median of [lo, hi) on the widest axis
+    private void build(int lo, int hi) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int axis = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        splitAxis[mid] = (byte) axis;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                double value = coords[i * 3 + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    // Helper: quickselect so that position n holds the element it would have if [left, right] were sorted
+    private void select(int left, int right, int n, int axis) {
+        while (left < right) {
+            double pivot = coords[((left + right) >>> 1) * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coords[i * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (coords[j * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        for (int axis = 0; axis < 3; axis++) {
+            double value = coords[a * 3 + axis];
+            coords[a * 3 + axis] = coords[b * 3 + axis];
+            coords[b * 3 + axis] = value;
+        }
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+
+    // Branch-and-bound search state with a bounded max-heap on squared chord length
+    private final class Search {
+        private final int k;
+        private final double maxChordSquared;
+        private final double[] query;
+        private final IntPredicate accept;
+        private final int[] heapItems;
+        private final double[] heapChords;
+        private int heapSize;
+
+        Search(int k, double maxChordSquared, double x, double y, double z, IntPredicate accept) {
+            this.k = k;
+            this.maxChordSquared = maxChordSquared;
+            this.query = new double[]{x, y, z};
+            this.accept = accept;
+            this.heapItems = new int[k];
+            this.heapChords = new double[k];
+        }
+
+        void visit(int lo, int hi) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int base = mid * 3;
+
+            double dx = coords[base] - query[0];
+            double dy = coords[base + 1] - query[1];
+            double dz = coords[base + 2] - query[2];
+            double chordSquared = dx * dx + dy * dy + dz * dz;
+            if (chordSquared <= bound() && (accept == null || accept.test(items[mid]))) {
+                offer(items[mid], chordSquared);
+            }
+            if (hi - lo == 1) {
+                return;
+            }
+
+            int axis = splitAxis[mid];
+            double delta = query[axis] - coords[base + axis];
+            if (delta < 0) {
+                visit(lo, mid);
+                if (delta * delta <= bound()) {
+                    visit(mid + 1, hi);
+                }
+            } else {
+                visit(mid + 1, hi);
+                if (delta * delta <= bound()) {
+                    visit(lo, mid);
+                }
+            }
+        }
+
+        private double bound() {
+            return heapSize == k ? Math.min(heapChords[0], maxChordSquared) : maxChordSquared;
+        }
+
+        private void offer(int item, double chordSquared) {
+            if (heapSize < k) {
+                int i = heapSize++;
+                heapItems[i] = item;
+                heapChords[i] = chordSquared;
+                siftUp(i);
+            } else if (chordSquared < heapChords[0]) {
+                heapItems[0] = item;
+                heapChords[0] = chordSquared;
+                siftDown(0, heapSize);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapChords[parent] >= heapChords[i]) {
+                    return;
+                }
+                swapHeap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < end && heapChords[left] > heapChords[largest]) {
+                    largest = left;
+                }
+                if (right < end && heapChords[right] > heapChords[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swapHeap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swapHeap(int a, int b) {
+            int item = heapItems[a];
+            heapItems[a] = heapItems[b];
+            heapItems[b] = item;
+            double chord = heapChords[a];
+            heapChords[a] = heapChords[b];
+            heapChords[b] = chord;
+        }
+
+        // Heap-sort in place (ascending) and convert chords to kilometres
+        Neighbors result() {
+            int count = heapSize;
+            for (int end = count - 1; end > 0; end--) {
+                swapHeap(0, end);
+                siftDown(0, end);
+            }
+            double[] distances = new double[count];
+            for (int i = 0; i < count; i++) {
+                distances[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(heapChords[i]) / 2));
+            }
+            int[] resultItems = heapItems.length == count ? heapItems : Arrays.copyOf(heapItems, count);
+            return new Neighbors(count, resultItems, distances);
+        }
+    }
+}
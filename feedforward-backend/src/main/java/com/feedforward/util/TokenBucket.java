@@ -0,0 +1,83 @@
+package com.feedforward.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter: refills at a steady rate up to a burst capacity.
+ *
+ * Callers reserve permits up front and sleep off any deficit outside the lock, so waiting
+ * threads queue in reservation order and the long-run rate never exceeds the configured one.
+ * A rate of zero or less disables limiting.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, double burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, double burst, LongSupplier nanoClock) {
+        this.capacity = Math.max(1.0, burst);
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take permits, blocking until the bucket has paid for them
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take permits only if they are available now
+     */
+    public synchronized boolean tryAcquire(int permits) {
+        if (tokensPerNano <= 0) {
+            return true;
+        }
+        refill();
+        if (tokens < permits) {
+            return false;
+        }
+        tokens -= permits;
+        return true;
+    }
+
+    /**
+     * Reserve permits and return how long (ns) the caller must wait before using them
+     */
+    synchronized long reserve(int permits) {
+        if (tokensPerNano <= 0) {
+            return 0;
+        }
+        refill();
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    public synchronized double availableTokens() {
+        if (tokensPerNano > 0) {
+            refill();
+        }
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,103 @@
+package com.feedforward.util;
+
+/**
+ * Keeps the best k of a stream of scored items in a bounded min-heap (worst kept item at the root).
+ * Higher score is better; equal scores prefer the smaller distance.
+ * Offering n items costs O(n log k) and allocates nothing after construction.
+ */
+public final class TopKSelector {
+
+    private final int capacity;
+    private final int[] items;
+    private final int[] scores;
+    private final double[] distances;
+    private int size;
+
+    public TopKSelector(int k) {
+        this.capacity = Math.max(0, k);
+        this.items = new int[capacity];
+        this.scores = new int[capacity];
+        this.distances = new double[capacity];
+    }
+
+    /**
+     * Offer an item; it is kept if it beats the worst of the current top k
+     */
+    public void offer(int item, int score, double distanceKm) {
+        if (size < capacity) {
+            siftUp(size++, item, score, distanceKm);
+        } else if (capacity > 0 && isWorse(scores[0], distances[0], score, distanceKm)) {
+            siftDown(item, score, distanceKm);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lowest kept score once k items are kept (a candidate must reach it to get in),
+     * Integer.MIN_VALUE before that
+     */
+    public int threshold() {
+        return size == capacity && capacity > 0 ? scores[0] : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Kept items best first; leaves the selector empty
+     */
+    public int[] drain() {
+        int[] best = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            best[i] = items[0];
+            size--;
+            if (size > 0) {
+                siftDown(items[size], scores[size], distances[size]);
+            }
+        }
+        return best;
+    }
+
+    // Helper: true if (score a, distance a) ranks below (score b, distance b)
+    private static boolean isWorse(int scoreA, double distanceA, int scoreB, double distanceB) {
+        return scoreA < scoreB || (scoreA == scoreB && distanceA > distanceB);
+    }
+
+    private void siftUp(int index, int item, int score, double distanceKm) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(score, distanceKm, scores[parent], distances[parent])) {
+                break;
+            }
+            set(index, items[parent], scores[parent], distances[parent]);
+            index = parent;
+        }
+        set(index, item, score, distanceKm);
+    }
+
+    // Helper: replace the root and restore the heap
+    private void siftDown(int item, int score, double distanceKm) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWorse(scores[child + 1], distances[child + 1], scores[child], distances[child])) {
+                child++;
+            }
+            if (!isWorse(scores[child], distances[child], score, distanceKm)) {
+                break;
+            }
+            set(index, items[child], scores[child], distances[child]);
+            index = child;
+        }
+        set(index, item, score, distanceKm);
+    }
+
+    private void set(int index, int item, int score, double distanceKm) {
+        items[index] = item;
+        scores[index] = score;
+        distances[index] = distanceKm;
+    }
+}
@@ -0,0 +1,204 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.UrgencyLevel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Urgency levels of active listings, kept in one-minute buckets keyed by expiry time.
+ *
+ * A listing changes level only when "now" crosses expiry - 4h, expiry - 2h, expiry - 1h and
+ * leaves when it crosses expiry, so advancing the clock from t1 to t2 only visits the buckets
+ * whose expiry falls in (t1 + boundary, t2 + boundary] for each boundary. Current levels are
+ * read from a map in O(1) without locking.
+ */
+public final class UrgencyBuckets {
+
+    public static final long BUCKET_MILLIS = 60_000L;
+
+    private static final Duration CRITICAL_BELOW = Duration.ofHours(1);
+    private static final Duration HIGH_BELOW = Duration.ofHours(2);
+    private static final Duration MEDIUM_BELOW = Duration.ofHours(4);
+    // Time to expiry at which a listing changes level or, at zero, leaves
+    private static final long[] BOUNDARIES_MILLIS = {
+            MEDIUM_BELOW.toMillis(), HIGH_BELOW.toMillis(), CRITICAL_BELOW.toMillis(), 0L
+    };
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Expiry minute -> listing ids; guarded by this
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private long advancedTo;
+
+    public UrgencyBuckets(long nowMillis) {
+        this.advancedTo = nowMillis;
+    }
+
+    /**
+     * Urgency level of a listing expiring at expiryTime, as of now
+     */
+    public static UrgencyLevel levelAt(LocalDateTime expiryTime, LocalDateTime now) {
+        Duration remaining = Duration.between(now, expiryTime);
+        if (remaining.compareTo(CRITICAL_BELOW) < 0) {
+            return UrgencyLevel.CRITICAL;
+        } else if (remaining.compareTo(HIGH_BELOW) < 0) {
+            return UrgencyLevel.HIGH;
+        } else if (remaining.compareTo(MEDIUM_BELOW) < 0) {
+            return UrgencyLevel.MEDIUM;
+        }
+        return UrgencyLevel.LOW;
+    }
+
+    /**
+     * Same as {@link #levelAt(LocalDateTime, LocalDateTime)} on epoch milliseconds
+     */
+    public static UrgencyLevel levelAt(long expiryMillis, long nowMillis) {
+        long remaining = expiryMillis - nowMillis;
+        if (remaining < BOUNDARIES_MILLIS[2]) {
+            return UrgencyLevel.CRITICAL;
+        } else if (remaining < BOUNDARIES_MILLIS[1]) {
+            return UrgencyLevel.HIGH;
+        } else if (remaining < BOUNDARIES_MILLIS[0]) {
+            return UrgencyLevel.MEDIUM;
+        }
+        return UrgencyLevel.LOW;
+    }
+
+    public static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Start (or restart) tracking a listing; returns its level as of nowMillis.
+     * Listings that already expired are not tracked.
+     */
+    public synchronized UrgencyLevel track(long listingId, long expiryMillis, long nowMillis) {
+        untrack(listingId);
+        UrgencyLevel level = levelAt(expiryMillis, nowMillis);
+        if (expiryMillis > nowMillis) {
+            entries.put(listingId, new Entry(expiryMillis, level));
+            buckets.computeIfAbsent(bucketOf(expiryMillis), key -> new HashSet<>()).add(listingId);
+        }
+        return level;
+    }
+
+    public synchronized void untrack(long listingId) {
+        Entry entry = entries.remove(listingId);
+        if (entry != null) {
+            removeFromBucket(listingId, entry.expiryMillis());
+        }
+    }
+
+    /**
+     * Current level of a tracked listing, null if it is not tracked
+     */
+    public UrgencyLevel level(long listingId) {
+        Entry entry = entries.get(listingId);
+        return entry != null ? entry.level() : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Move the clock to nowMillis and return the listings that changed level or expired
+     */
+    public synchronized Changes advance(long nowMillis) {
+        Changes changes = new Changes();
+        if (nowMillis <= advancedTo) {
+            return changes;
+        }
+
+        long span = (nowMillis - advancedTo) / BUCKET_MILLIS + 1;
+        if (span * BOUNDARIES_MILLIS.length > buckets.size()) {
+            // Long pause since the last tick: visiting every bucket is cheaper
+            for (Long bucket : new ArrayList<>(buckets.keySet())) {
+                refreshBucket(bucket, nowMillis, changes);
+            }
+        } else {
+            for (long boundary : BOUNDARIES_MILLIS) {
+                long first = bucketOf(advancedTo + boundary);
+                long last = bucketOf(nowMillis + boundary);
+                for (long bucket = first; bucket <= last; bucket++) {
+                    refreshBucket(bucket, nowMillis, changes);
+                }
+            }
+        }
+        advancedTo = nowMillis;
+        return changes;
+    }
+
+    // Helper: recompute the level of every listing in one bucket
+    private void refreshBucket(long bucket, long nowMillis, Changes changes) {
+        Set<Long> ids = buckets.get(bucket);
+        if (ids == null) {
+            return;
+        }
+        for (Long id : new ArrayList<>(ids)) {
+            Entry entry = entries.get(id);
+            if (entry.expiryMillis() <= nowMillis) {
+                entries.remove(id);
+                removeFromBucket(id, entry.expiryMillis());
+                changes.expired.add(id);
+                continue;
+            }
+            UrgencyLevel level = levelAt(entry.expiryMillis(), nowMillis);
+            if (level != entry.level()) {
+                entries.put(id, new Entry(entry.expiryMillis(), level));
+                changes.changed.computeIfAbsent(level, key -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    private void removeFromBucket(long listingId, long expiryMillis) {
+        long bucket = bucketOf(expiryMillis);
+        Set<Long> ids = buckets.get(bucket);
+        if (ids != null) {
+            ids.remove(listingId);
+            if (ids.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    private static long bucketOf(long millis) {
+        return Math.floorDiv(millis, BUCKET_MILLIS);
+    }
+
+    private record Entry(long expiryMillis, UrgencyLevel level) {
+    }
+
+    /**
+     * Result of one {@link #advance(long)}: listing ids by their new level, and ids that expired
+     */
+    public static final class Changes {
+        private final Map<UrgencyLevel, List<Long>> changed = new EnumMap<>(UrgencyLevel.class);
+        private final List<Long> expired = new ArrayList<>();
+
+        public Map<UrgencyLevel, List<Long>> changed() {
+            return changed;
+        }
+
+        public List<Long> expired() {
+            return expired;
+        }
+
+        public int changedCount() {
+            int count = 0;
+            for (List<Long> ids : changed.values()) {
+                count += ids.size();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Normalized contact columns (see ContactNormalizer): E.164 phone, lower-case email and validity flags
+-- Run once against feedforward_db before deploying, or let ddl-auto add the columns.
+-- Values are computed in Java: ContactBackfillService fills every user with NULL flags at startup,
+-- and users keep theirs in sync on save. Invalid contacts get a NULL value and a false flag.
+USE feedforward_db;
+
+ALTER TABLE users
+    ADD COLUMN phone_e164 VARCHAR(16) NULL AFTER phone,
+    ADD COLUMN phone_valid BOOLEAN NULL AFTER phone_e164,
+    ADD COLUMN email_normalized VARCHAR(255) NULL AFTER phone_valid,
+    ADD COLUMN email_valid BOOLEAN NULL AFTER email_normalized;
+CREATE INDEX idx_phone_e164 ON users (phone_e164);
+
+-- Users nobody can be notified on:
+-- SELECT user_id, phone, email FROM users WHERE phone_valid = FALSE AND email_valid = FALSE;
+
+-- Rollback:
+-- DROP INDEX idx_phone_e164 ON users;
+-- ALTER TABLE users DROP COLUMN phone_e164, DROP COLUMN phone_valid,
+--     DROP COLUMN email_normalized, DROP COLUMN email_valid;
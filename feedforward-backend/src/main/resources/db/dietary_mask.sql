@@ -0,0 +1,15 @@
+-- Dietary taxonomy bitmask columns (see DietaryTaxonomy for the bit layout)
+-- Run once against feedforward_db before deploying, or let ddl-auto add the columns.
+-- Masks are parsed in Java: DietaryMaskBackfillService fills every NULL mask at startup,
+-- and NGOs and listings keep theirs in sync on save.
+USE feedforward_db;
+
+ALTER TABLE ngos ADD COLUMN dietary_mask INT NULL AFTER dietary_requirements;
+ALTER TABLE food_listings ADD COLUMN dietary_mask INT NULL AFTER dietary_info;
+
+-- Example prefilter: NGOs that accept non-vegetarian food (ACCEPTS_NON_VEG = 2) within a bounding box
+-- SELECT ngo_id FROM ngos WHERE (dietary_mask & 2) = 2 AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?;
+
+-- Rollback:
+-- ALTER TABLE ngos DROP COLUMN dietary_mask;
+-- ALTER TABLE food_listings DROP COLUMN dietary_mask;
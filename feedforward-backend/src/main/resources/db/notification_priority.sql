@@ -0,0 +1,18 @@
+-- Priority lanes for notification_outbox: each entry carries the urgency of what it announces
+-- and, for listings, when the food expires (see NotificationDispatcher).
+-- Run once against feedforward_db before deploying, or let ddl-auto add the columns.
+-- Entries queued before the upgrade drain on the MEDIUM lane.
+USE feedforward_db;
+
+ALTER TABLE notification_outbox
+    ADD COLUMN priority ENUM('LOW', 'MEDIUM', 'HIGH', 'CRITICAL') NOT NULL DEFAULT 'MEDIUM' AFTER digest_line,
+    ADD COLUMN expires_at TIMESTAMP NULL AFTER priority;
+CREATE INDEX idx_outbox_priority_due ON notification_outbox (priority, status, next_attempt_at);
+
+-- Queue depth per lane:
+-- SELECT priority, COUNT(*), MIN(next_attempt_at) FROM notification_outbox
+--     WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= NOW() GROUP BY priority;
+
+-- Rollback:
+-- DROP INDEX idx_outbox_priority_due ON notification_outbox;
+-- ALTER TABLE notification_outbox DROP COLUMN priority, DROP COLUMN expires_at;
@@ -0,0 +1,16 @@
+-- Optional spatial index on restaurant locations for listing search (MySQL 8.0.18+)
+-- Run once against feedforward_db, then set app.geo.spatial-index.enabled=true.
+-- location is a stored generated column, so it always follows latitude/longitude
+-- and needs no changes in the JPA entities.
+USE feedforward_db;
+
+-- Restaurants
+ALTER TABLE restaurants
+    ADD COLUMN location POINT SRID 4326
+        GENERATED ALWAYS AS (ST_PointFromText(CONCAT('POINT(', longitude, ' ', latitude, ')'), 4326, 'axis-order=long-lat')) STORED NOT NULL,
+    ADD SPATIAL INDEX idx_spatial_location (location);
+
+-- NGO radius lookups use the in-memory NgoCatalog, so ngos needs no location column.
+
+-- Rollback:
+-- ALTER TABLE restaurants DROP INDEX idx_spatial_location, DROP COLUMN location;
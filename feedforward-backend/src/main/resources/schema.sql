@@ -9,12 +9,17 @@ CREATE TABLE users (
     password VARCHAR(255) NOT NULL,
     name VARCHAR(255) NOT NULL,
     phone VARCHAR(15) NOT NULL,
+    phone_e164 VARCHAR(16) NULL,
+    phone_valid BOOLEAN NULL,
+    email_normalized VARCHAR(255) NULL,
+    email_valid BOOLEAN NULL,
     role ENUM('RESTAURANT', 'NGO') NOT NULL,
     is_active BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email),
-    INDEX idx_role (role)
+    INDEX idx_role (role),
+    INDEX idx_phone_e164 (phone_e164)
 );
 
 -- Restaurants Table
@@ -25,6 +30,7 @@ CREATE TABLE restaurants (
     address TEXT NOT NULL,
     latitude DECIMAL(10, 8) NOT NULL,
     longitude DECIMAL(11, 8) NOT NULL,
+    cell_id BIGINT,
     cuisine_type VARCHAR(100),
     rating DECIMAL(2, 1) DEFAULT 0.0,
     total_donations INT DEFAULT 0,
@@ -46,6 +52,7 @@ CREATE TABLE ngos (
     beneficiaries_count INT NOT NULL,
     food_preferences TEXT,
     dietary_requirements TEXT,
+    dietary_mask INT,
     total_received INT DEFAULT 0,
     total_servings_received INT DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -65,15 +72,18 @@ CREATE TABLE food_listings (
     prepared_time TIMESTAMP NOT NULL,
     expiry_time TIMESTAMP NOT NULL,
     dietary_info TEXT,
+    dietary_mask INT,
     description TEXT,
     status ENUM('AVAILABLE', 'RESERVED', 'COMPLETED', 'EXPIRED') DEFAULT 'AVAILABLE',
     urgency_level ENUM('LOW', 'MEDIUM', 'HIGH', 'CRITICAL') NOT NULL,
+    cell_id BIGINT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (restaurant_id) REFERENCES restaurants(restaurant_id) ON DELETE CASCADE,
     INDEX idx_status (status),
     INDEX idx_expiry (expiry_time),
-    INDEX idx_restaurant (restaurant_id)
+    INDEX idx_restaurant (restaurant_id),
+    INDEX idx_status_cell (status, cell_id)
 );
 
 -- Food Requests Table
@@ -121,3 +131,40 @@ CREATE TABLE donation_history (
 );
 
 
+-- Restaurant-NGO Distance Matrix (pairs within the maximum search radius)
+CREATE TABLE organization_distances (
+    restaurant_id BIGINT NOT NULL,
+    ngo_id BIGINT NOT NULL,
+    distance_km DOUBLE NOT NULL,
+    PRIMARY KEY (restaurant_id, ngo_id),
+    INDEX idx_ngo_id (ngo_id)
+);
+
+
+-- Notification Outbox (SMS/email queued with the change that triggers them, sent after commit)
+CREATE TABLE notification_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    channel ENUM('SMS', 'EMAIL') NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    subject VARCHAR(255),
+    body TEXT NOT NULL,
+    listing_id BIGINT,
+    coalesce_key VARCHAR(300),
+    digest_line VARCHAR(255),
+    priority ENUM('LOW', 'MEDIUM', 'HIGH', 'CRITICAL') NOT NULL DEFAULT 'MEDIUM',
+    expires_at TIMESTAMP NULL,
+    status ENUM('PENDING', 'SENDING', 'SENT', 'DEAD') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    sent_at TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_outbox_status_next_attempt (status, next_attempt_at),
+    INDEX idx_outbox_listing (listing_id),
+    INDEX idx_outbox_coalesce (coalesce_key, status),
+    INDEX idx_outbox_priority_due (priority, status, next_attempt_at)
+);
+
+-- Optional: spatial index on restaurant locations, see db/spatial_index.sql
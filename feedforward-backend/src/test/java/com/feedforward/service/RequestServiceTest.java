@@ -41,6 +41,8 @@ class RequestServiceTest {
     private DonationHistoryRepository donationHistoryRepository;
     @Mock
     private MatchingAlgorithmService matchingAlgorithmService;
+    @Mock
+    private NgoDemandService ngoDemandService;
 
     @InjectMocks
     private RequestService requestService;
@@ -176,5 +178,6 @@ class RequestServiceTest {
         assertEquals(5, listing.getQuantity()); // 3 + 2 = 5
         assertEquals(RequestStatus.CANCELLED, request.getStatus());
         assertEquals(ListingStatus.AVAILABLE, listing.getStatus());
+        verify(ngoDemandService).onCancelled(request, RequestStatus.APPROVED);
     }
 }
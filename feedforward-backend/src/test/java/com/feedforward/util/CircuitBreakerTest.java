@@ -0,0 +1,106 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testOpensAtFailureRate_AfterMinimumCalls() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 10, 4, 1000, 2, clock::get);
+
+        // Three failures are below the minimum number of calls
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure("boom");
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.snapshot().rejected());
+        assertEquals(1, breaker.snapshot().timesOpened());
+        assertEquals("boom", breaker.snapshot().lastError());
+    }
+
+    @Test
+    void testHalfOpen_ClosesAfterSuccessfulProbes() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = openBreaker(clock);
+
+        clock.addAndGet(1000 * MS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // Two probes allowed at once, a third is rejected
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0.0, breaker.snapshot().failureRate());
+    }
+
+    @Test
+    void testHalfOpen_ReopensOnProbeFailure() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = openBreaker(clock);
+
+        clock.addAndGet(1000 * MS);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure("still down");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.snapshot().timesOpened());
+
+        // Ignored probes hand their slot back
+        clock.addAndGet(1000 * MS);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testWindowSlides() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.6, 4, 4, 1000, 1, () -> 0L);
+        boolean[] outcomes = {true, false, false, true, false, false, true, false};
+        for (boolean failure : outcomes) {
+            assertTrue(breaker.tryAcquire());
+            if (failure) {
+                breaker.onFailure("x");
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        // Never more than two failures among the last four calls
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0.25, breaker.snapshot().failureRate());
+    }
+
+    @Test
+    void testRejectsInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker("test", 0, 10, 5, 1000, 1));
+    }
+
+    private static CircuitBreaker openBreaker(AtomicLong clock) {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 10, 2, 1000, 2, clock::get);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure("boom");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        return breaker;
+    }
+}
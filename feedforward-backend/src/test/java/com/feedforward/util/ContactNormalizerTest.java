@@ -0,0 +1,35 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactNormalizerTest {
+
+    @Test
+    void testToE164_AcceptedForms() {
+        assertEquals("+919876543210", ContactNormalizer.toE164("9876543210"));
+        assertEquals("+919876543210", ContactNormalizer.toE164("+91 98765 43210"));
+        assertEquals("+919876543210", ContactNormalizer.toE164("919876543210"));
+        assertEquals("+919876543210", ContactNormalizer.toE164("09876543210"));
+        assertEquals("+916000000000", ContactNormalizer.toE164("(600) 000-0000"));
+    }
+
+    @Test
+    void testToE164_RejectsInvalidNumbers() {
+        assertNull(ContactNormalizer.toE164(null));
+        assertNull(ContactNormalizer.toE164(""));
+        assertNull(ContactNormalizer.toE164("5876543210"));
+        assertNull(ContactNormalizer.toE164("987654321"));
+        assertNull(ContactNormalizer.toE164("98765432101"));
+        assertNull(ContactNormalizer.toE164("+1 415 555 0100"));
+    }
+
+    @Test
+    void testNormalizeEmail() {
+        assertEquals("ngo@example.org", ContactNormalizer.normalizeEmail("  NGO@Example.org "));
+        assertNull(ContactNormalizer.normalizeEmail(null));
+        assertNull(ContactNormalizer.normalizeEmail("ngo@localhost"));
+        assertNull(ContactNormalizer.normalizeEmail("not an email"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailValidatorTest {
+
+    @Test
+    void testValidAddresses() {
+        assertTrue(EmailValidator.isValid("ngo@example.org"));
+        assertTrue(EmailValidator.isValid("food.bank+alerts@mail.example.co.in"));
+    }
+
+    @Test
+    void testInvalidAddresses() {
+        assertFalse(EmailValidator.isValid(null));
+        assertFalse(EmailValidator.isValid(""));
+        assertFalse(EmailValidator.isValid("no-at-sign.example.org"));
+        assertFalse(EmailValidator.isValid("ngo@localhost"));
+        assertFalse(EmailValidator.isValid("ngo @example.org"));
+        assertFalse(EmailValidator.isValid("a".repeat(250) + "@example.org"));
+    }
+}
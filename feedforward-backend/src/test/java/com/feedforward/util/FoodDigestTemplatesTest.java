@@ -0,0 +1,39 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodDigestTemplatesTest {
+
+    @Test
+    void testDigestLine_TruncatesNames() {
+        assertEquals("Veg Biryani x40 @Hotel Saravana (3h)",
+                FoodDigestTemplates.digestLine("Hotel Saravana", "Veg Biryani", 40, 3));
+        assertEquals("Paneer Butter M x5 @The Grand Restaurant (0h)",
+                FoodDigestTemplates.digestLine("The Grand Restaurant & Bar", "Paneer Butter Masala", 5, -1));
+    }
+
+    @Test
+    void testSms_FitsAllShortLines() {
+        String sms = FoodDigestTemplates.sms(List.of("Rice x40 @Hotel A (3h)", "Dal x20 @Hotel A (3h)"), "FeedForward");
+        assertEquals("🍽️ 2 food listings near you: Rice x40 @Hotel A (3h); Dal x20 @Hotel A (3h). "
+                + "Login to FeedForward to request.", sms);
+    }
+
+    @Test
+    void testSms_CountsListingsThatDoNotFit() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            lines.add(FoodDigestTemplates.digestLine("Hotel Saravana Bhavan", "Dish number " + i, 40, 3));
+        }
+        String sms = FoodDigestTemplates.sms(lines, "FeedForward");
+
+        assertTrue(sms.length() <= FoodDigestTemplates.SMS_MAX_LENGTH, sms);
+        assertTrue(sms.startsWith("🍽️ 8 food listings near you: Dish number 0"), sms);
+        assertTrue(sms.contains("more. Login to FeedForward to request."), sms);
+    }
+}
@@ -0,0 +1,78 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoCellTest {
+
+    @Test
+    void testCover_ContainsEveryPointWithinRadius() {
+        Random random = new Random(21);
+        for (int q = 0; q < 300; q++) {
+            double lat = (random.nextDouble() * 2 - 1) * 89;
+            double lon = random.nextDouble() * 360 - 180;
+            double radiusKm = 0.2 + random.nextDouble() * 60;
+            GeoCell.Covering covering = GeoCell.cover(lat, lon, radiusKm);
+            assertTrue(covering.rangeCount() >= 1 && covering.rangeCount() <= GeoCell.MAX_RANGES);
+
+            for (int i = 0; i < 500; i++) {
+                double pointLat = lat + (random.nextDouble() * 2 - 1) * Math.toDegrees(radiusKm / 6371.0);
+                double pointLon = lon + (random.nextDouble() * 2 - 1) * 1.0;
+                pointLon = ((pointLon + 180) % 360 + 360) % 360 - 180;
+                if (pointLat < -90 || pointLat > 90 || GeoDistance.distanceKm(lat, lon, pointLat, pointLon) > radiusKm) {
+                    continue;
+                }
+                assertTrue(contains(covering, GeoCell.cellId(pointLat, pointLon)),
+                        "Point " + pointLat + "," + pointLon + " missing from covering of " + lat + "," + lon);
+            }
+        }
+    }
+
+    @Test
+    void testParent_MatchesCoarserGrid() {
+        long id = GeoCell.cellId(13.0827, 80.2707);
+        // Level 1 splits at the equator and the prime meridian: north-east quadrant is 3
+        assertEquals(3, GeoCell.parent(id, 1));
+        assertEquals(0, GeoCell.parent(id, 0));
+        assertEquals(id, GeoCell.parent(id, GeoCell.MAX_LEVEL));
+        assertEquals(GeoCell.parent(id, 10), GeoCell.parent(GeoCell.cellId(13.0828, 80.2708), 10));
+    }
+
+    @Test
+    void testLevelFor_ShrinksWithRadius() {
+        int city = GeoCell.levelFor(GeoBounds.around(13.0827, 80.2707, 10.0));
+        int block = GeoCell.levelFor(GeoBounds.around(13.0827, 80.2707, 0.5));
+        assertTrue(block > city);
+        assertEquals(0, GeoCell.levelFor(GeoBounds.around(89.9, 0.0, 50.0)));
+    }
+
+    @Test
+    void testHalfDiagonal_BoundsEveryPointInTheCell() {
+        Random random = new Random(14);
+        for (int level : new int[]{14, 16}) {
+            double halfDiagonal = GeoCell.halfDiagonalKm(13.0827, 80.2707, level);
+            double[] center = GeoCell.center(13.0827, 80.2707, level);
+            long cell = GeoCell.parent(GeoCell.cellId(13.0827, 80.2707), level);
+            for (int i = 0; i < 2000; i++) {
+                double lat = center[0] + (random.nextDouble() - 0.5) * 180.0 / (1L << level);
+                double lon = center[1] + (random.nextDouble() - 0.5) * 360.0 / (1L << level);
+                assertEquals(cell, GeoCell.parent(GeoCell.cellId(lat, lon), level));
+                assertTrue(GeoDistance.distanceKm(center[0], center[1], lat, lon) <= halfDiagonal);
+            }
+        }
+        assertEquals(1.35, GeoCell.halfDiagonalKm(13.0827, 80.2707, 14), 0.05);
+        assertEquals(0.34, GeoCell.halfDiagonalKm(13.0827, 80.2707, 16), 0.02);
+    }
+
+    private static boolean contains(GeoCell.Covering covering, long cellId) {
+        for (int i = 0; i < covering.rangeCount(); i++) {
+            if (cellId >= covering.minIds()[i] && cellId <= covering.maxIds()[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
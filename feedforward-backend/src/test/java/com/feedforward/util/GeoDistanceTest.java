@@ -0,0 +1,66 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoDistanceTest {
+
+    @Test
+    void testDistanceKm_KnownCities() {
+        // Chennai to Bengaluru is roughly 290 km in a straight line
+        assertEquals(290.2, GeoDistance.distanceKm(13.0827, 80.2707, 12.9716, 77.5946), 0.5);
+        assertEquals(0.0, GeoDistance.distanceKm(13.0827, 80.2707, 13.0827, 80.2707), 1e-12);
+        assertEquals(GeoDistance.distanceKm(0.0, 179.99, 0.0, -179.99),
+                GeoDistance.origin(0.0, 179.99).distanceKm(0.0, -179.99), 1e-12);
+    }
+
+    @Test
+    void testApproxDistanceKm_WithinDocumentedBound() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200_000; i++) {
+            double lat = (random.nextDouble() * 2 - 1) * GeoDistance.FAST_PATH_MAX_LATITUDE;
+            double lon = random.nextDouble() * 360 - 180;
+            double[] point = pointAt(lat, lon, random.nextDouble() * 60, random.nextDouble() * 2 * Math.PI);
+
+            double exact = GeoDistance.distanceKm(lat, lon, point[0], point[1]);
+            double approx = GeoDistance.origin(lat, lon).approxDistanceKm(point[0], point[1]);
+            assertTrue(Math.abs(approx - exact) <= exact * GeoDistance.FAST_PATH_MAX_RELATIVE_ERROR + 1e-9,
+                    "approx=" + approx + " exact=" + exact);
+        }
+    }
+
+    @Test
+    void testIsWithin_MatchesExactComparison() {
+        Random random = new Random(9);
+        for (int i = 0; i < 200_000; i++) {
+            double lat = (random.nextDouble() * 2 - 1) * 85;
+            double lon = random.nextDouble() * 360 - 180;
+            double radiusKm = 0.5 + random.nextDouble() * 60;
+            // Most samples land close to the radius to exercise the error band
+            double distanceKm = radiusKm * (0.999 + random.nextDouble() * 0.002);
+            if (i % 4 == 0) {
+                distanceKm = random.nextDouble() * 120;
+            }
+            double[] point = pointAt(lat, lon, distanceKm, random.nextDouble() * 2 * Math.PI);
+
+            GeoDistance.Origin origin = GeoDistance.origin(lat, lon);
+            assertEquals(GeoDistance.distanceKm(lat, lon, point[0], point[1]) <= radiusKm,
+                    origin.isWithin(point[0], point[1], radiusKm));
+        }
+    }
+
+    // Helper: destination point for a distance and bearing, longitude wrapped to [-180, 180)
+    private static double[] pointAt(double lat, double lon, double distanceKm, double bearing) {
+        double angle = distanceKm / GeoDistance.EARTH_RADIUS_KM;
+        double latRad = Math.toRadians(lat);
+        double destLat = Math.asin(Math.sin(latRad) * Math.cos(angle)
+                + Math.cos(latRad) * Math.sin(angle) * Math.cos(bearing));
+        double destLon = Math.toRadians(lon) + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(latRad),
+                Math.cos(angle) - Math.sin(latRad) * Math.sin(destLat));
+        double lonDeg = Math.toDegrees(destLon);
+        return new double[]{Math.toDegrees(destLat), ((lonDeg + 180) % 360 + 360) % 360 - 180};
+    }
+}
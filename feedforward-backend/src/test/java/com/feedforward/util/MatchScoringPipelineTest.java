@@ -0,0 +1,143 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.UrgencyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchScoringPipelineTest {
+
+    private static final MatchScoringPipeline DEFAULT_PIPELINE =
+            MatchScorers.standardPipeline(40, 25, 20, 15, MatchScorers.DEFAULT_DISTANCE_BANDS_KM);
+
+    @Test
+    void testDefaultWeights_ReproduceFixedPointScore() {
+        int[] dietaryMasks = {
+                DietaryTaxonomy.ACCEPTS_ALL,
+                DietaryTaxonomy.ACCEPTS_VEG,
+                DietaryTaxonomy.ACCEPTS_ALL | DietaryTaxonomy.VEGAN,
+                DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.JAIN | DietaryTaxonomy.ORGANIC,
+                DietaryTaxonomy.ACCEPTS_ALL | DietaryTaxonomy.HALAL | DietaryTaxonomy.NUT_FREE
+                        | DietaryTaxonomy.EGG_FREE | DietaryTaxonomy.GLUTEN_FREE
+        };
+        Random random = new Random(12);
+        for (int trial = 0; trial < 5000; trial++) {
+            int quantity = 1 + random.nextInt(200);
+            int beneficiaries = 1 + random.nextInt(1000);
+            UrgencyLevel urgency = UrgencyLevel.values()[random.nextInt(UrgencyLevel.values().length)];
+            double distance = random.nextDouble() * 25.0;
+            int ngoMask = dietaryMasks[random.nextInt(dietaryMasks.length)];
+            int listingMask = dietaryMasks[random.nextInt(dietaryMasks.length)]
+                    | (random.nextBoolean() ? DietaryTaxonomy.ACCEPTS_NON_VEG : 0);
+
+            MatchScorer.ListingFeatures features = new MatchScorer.ListingFeatures(quantity, urgency, listingMask);
+            assertEquals(fixedPointScore(quantity, beneficiaries, urgency, distance, ngoMask, listingMask),
+                    DEFAULT_PIPELINE.score(features, beneficiaries, ngoMask, distance), "trial " + trial);
+        }
+    }
+
+    @Test
+    void testThreshold_SkipsOnlyUnreachableCandidates() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 5000; trial++) {
+            MatchScorer.ListingFeatures features = new MatchScorer.ListingFeatures(
+                    1 + random.nextInt(200), UrgencyLevel.values()[random.nextInt(4)], DietaryTaxonomy.ACCEPTS_VEG);
+            int beneficiaries = 1 + random.nextInt(1000);
+            double distance = random.nextDouble() * 25.0;
+            int threshold = random.nextInt(101);
+
+            int full = DEFAULT_PIPELINE.score(features, beneficiaries, DietaryTaxonomy.ACCEPTS_ALL, distance);
+            int limited = DEFAULT_PIPELINE.score(features, beneficiaries, DietaryTaxonomy.ACCEPTS_ALL, distance,
+                    threshold);
+            if (limited == MatchScoringPipeline.SKIPPED) {
+                assertTrue(full < threshold, "skipped a reachable candidate in trial " + trial);
+            } else {
+                assertEquals(full, limited, "trial " + trial);
+            }
+        }
+    }
+
+    @Test
+    void testThreshold_ShortCircuitsFarCandidate() {
+        MatchScorer.ListingFeatures features =
+                new MatchScorer.ListingFeatures(10, UrgencyLevel.LOW, DietaryTaxonomy.ACCEPTS_VEG);
+        // Beyond the last band the best reachable score is 25 + 20 + 15 = 60
+        assertEquals(MatchScoringPipeline.SKIPPED,
+                DEFAULT_PIPELINE.score(features, 50, DietaryTaxonomy.ACCEPTS_ALL, 20.0, 61));
+    }
+
+    @Test
+    void testDietary_UnknownListingDietKeepsDefault() {
+        MatchScoringPipeline pipeline = MatchScorers.standardPipeline(0, 0, 0, 15, new double[]{1.0});
+        int veganNgo = DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.VEGAN;
+
+        assertEquals(5, pipeline.score(
+                new MatchScorer.ListingFeatures(10, UrgencyLevel.LOW, DietaryTaxonomy.ACCEPTS_VEG), 50, veganNgo, 0.5));
+        assertEquals(10, pipeline.score(
+                new MatchScorer.ListingFeatures(10, UrgencyLevel.LOW, DietaryTaxonomy.ACCEPTS_VEG, false),
+                50, veganNgo, 0.5));
+    }
+
+    @Test
+    void testCustomWeightsAndBands() {
+        MatchScoringPipeline pipeline = MatchScorers.standardPipeline(100, 0, 0, 0, new double[]{1.0, 3.0});
+        MatchScorer.ListingFeatures features =
+                new MatchScorer.ListingFeatures(10, UrgencyLevel.LOW, DietaryTaxonomy.ACCEPTS_VEG);
+
+        assertEquals(100, pipeline.score(features, 50, DietaryTaxonomy.ACCEPTS_ALL, 0.5));
+        assertEquals(50, pipeline.score(features, 50, DietaryTaxonomy.ACCEPTS_ALL, 2.0));
+        assertEquals(0, pipeline.score(features, 50, DietaryTaxonomy.ACCEPTS_ALL, 4.0));
+        assertEquals("distance=100.0, quantity=0.0, urgency=0.0, dietary=0.0", pipeline.describe());
+    }
+
+    @Test
+    void testBuilder_RejectsNegativeWeight() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MatchScoringPipeline.builder().add("distance", MatchScorers.distance(new double[]{1.0}), -1));
+    }
+
+    // Helper: the original hard-coded 40/25/20/15 score
+    private static int fixedPointScore(int quantity, int beneficiaries, UrgencyLevel urgency, double distance,
+                                       int ngoMask, int listingMask) {
+        int score = 0;
+        if (distance <= 2.0) {
+            score += 40;
+        } else if (distance <= 5.0) {
+            score += 30;
+        } else if (distance <= 10.0) {
+            score += 20;
+        } else if (distance <= 15.0) {
+            score += 10;
+        }
+
+        if (quantity >= (int) (beneficiaries * 0.2) && quantity <= (int) (beneficiaries * 0.3)) {
+            score += 25;
+        } else if (quantity >= beneficiaries * 0.1 && quantity <= beneficiaries * 0.5) {
+            score += 20;
+        } else if (quantity >= beneficiaries * 0.05) {
+            score += 15;
+        } else {
+            score += 10;
+        }
+
+        score += switch (urgency) {
+            case CRITICAL -> 20;
+            case HIGH -> 15;
+            case MEDIUM -> 10;
+            case LOW -> 5;
+        };
+
+        boolean vegOnly = (ngoMask & DietaryTaxonomy.ACCEPTS_ALL) == DietaryTaxonomy.ACCEPTS_VEG;
+        int wanted = (ngoMask & DietaryTaxonomy.TAGS) | (vegOnly ? DietaryTaxonomy.ACCEPTS_VEG : 0);
+        if (vegOnly && (listingMask & DietaryTaxonomy.ACCEPTS_NON_VEG) != 0) {
+            score += 0;
+        } else if (wanted == 0) {
+            score += 10;
+        } else {
+            score += Math.min(Integer.bitCount(wanted & listingMask) * 5, 15);
+        }
+        return Math.min(score, 100);
+    }
+}
@@ -0,0 +1,140 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("templates.notifications", Locale.ROOT);
+
+    @Test
+    void testPlaceholdersLimitsAndSections() {
+        MessageTemplate template = MessageTemplate.compile("test",
+                "{{{name:5}} x{count}{#note} ({note}){/note}{^note} (none){/note}", MessageTemplate.NO_LIMIT,
+                "name", "count", "note");
+
+        assertEquals("{Bhava} x40 (hot)", template.render("Bhavan Sweets", 40, "hot"));
+        assertEquals("{Dal} x7 (none)", template.render("Dal", 7L, ""));
+        assertEquals("{} x (none)", template.render(null, null, null));
+    }
+
+    @Test
+    void testMaxLength_CutsWithEllipsis() {
+        MessageTemplate template = MessageTemplate.compile("test", "{text}", 10, "text");
+
+        assertEquals("0123456789", template.render("0123456789"));
+        assertEquals("0123456...", template.render("0123456789A"));
+    }
+
+    @Test
+    void testCompile_RejectsBadTemplates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.compile("test", "{missing}", MessageTemplate.NO_LIMIT, "name"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.compile("test", "{#name}open", MessageTemplate.NO_LIMIT, "name"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.compile("test", "{name:0}", MessageTemplate.NO_LIMIT, "name"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.compile("test", "{name", MessageTemplate.NO_LIMIT, "name"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.compile("test", "{name}", MessageTemplate.NO_LIMIT, "name").render());
+    }
+
+    @Test
+    void testBundledTemplates_MatchFormatBuilders() {
+        MessageTemplate sms = foodAvailableSms();
+        MessageTemplate email = MessageTemplate.compile("email", BUNDLE.getString("food-available.email.body"),
+                MessageTemplate.NO_LIMIT, "restaurant", "food", "quantity", "unit", "category", "hours", "urgency",
+                "address", "phone", "app", "baseUrl");
+        MessageTemplate neededSms = MessageTemplate.compile("needed", BUNDLE.getString("food-needed.sms"),
+                MessageTemplate.NO_LIMIT, "ngo", "quantity", "preference", "beneficiaries", "app");
+
+        String[] urgencies = {"", "URGENT", "HIGH PRIORITY"};
+        String[] restaurants = {"Saravana", "Hotel Saravana Bhavan Annex Branch"};
+        String[] foods = {"Biryani", "Vegetable Biryani with Raita"};
+        for (String urgency : urgencies) {
+            for (String restaurant : restaurants) {
+                for (String food : foods) {
+                    assertEquals(legacyFoodAvailableSms(restaurant, food, 40, "Vegetarian", 3, urgency),
+                            sms.render(urgency, restaurant, food, 40, "Vegetarian", 3L, "FeedForward"));
+                    assertEquals(legacyFoodAvailableEmail(restaurant, food, 40, "Vegetarian", null, 3, urgency,
+                                    "12 Anna Salai", "9876543210"),
+                            email.render(restaurant, food, 40, null, "Vegetarian", 3L, urgency, "12 Anna Salai",
+                                    "9876543210", "FeedForward", "http://localhost:3000"));
+                    assertEquals(legacyFoodAvailableEmail(restaurant, food, 40, "Vegetarian", "kg", 3, urgency,
+                                    "", null),
+                            email.render(restaurant, food, 40, "kg", "Vegetarian", 3L, urgency, "", null,
+                                    "FeedForward", "http://localhost:3000"));
+                }
+            }
+        }
+        assertEquals("🤝 Hope Trust needs 50 servings of veg food. Help feed 120 beneficiaries. Login to FeedForward to donate.",
+                neededSms.render("Hope Trust", 50, "veg", 120, "FeedForward"));
+    }
+
+    // Helper: compile the bundled food-available SMS template
+    private static MessageTemplate foodAvailableSms() {
+        return MessageTemplate.compile("sms", BUNDLE.getString("food-available.sms"), 160,
+                "urgency", "restaurant", "food", "quantity", "category", "hours", "app");
+    }
+
+    // Helper: the original String.format SMS builder
+    private static String legacyFoodAvailableSms(String restaurantName, String foodName, Integer quantity,
+                                                 String category, long hoursLeft, String urgency) {
+        String urgencyPrefix = urgency.isEmpty() ? "🍽️" : "⚠️ " + urgency;
+        String message = String.format(
+                "%s %s: %s (%d servings, %s) available for %dh. Login to %s to request.",
+                urgencyPrefix,
+                restaurantName.length() > 20 ? restaurantName.substring(0, 20) : restaurantName,
+                foodName.length() > 15 ? foodName.substring(0, 15) : foodName,
+                quantity,
+                category.length() > 10 ? category.substring(0, 10) : category,
+                hoursLeft,
+                "FeedForward"
+        );
+        if (message.length() > 160) {
+            message = message.substring(0, 157) + "...";
+        }
+        return message;
+    }
+
+    // Helper: the original StringBuilder email builder
+    private static String legacyFoodAvailableEmail(String restaurantName, String foodName, Integer quantity,
+                                                   String category, String unit, long hoursLeft, String urgency,
+                                                   String restaurantAddress, String restaurantPhone) {
+        StringBuilder email = new StringBuilder();
+        email.append("Hello,\n\n");
+        email.append("We have exciting news! ").append(restaurantName).append(" has listed surplus food that matches your needs.\n\n");
+        email.append("📦 Food Details:\n");
+        email.append("   • Food Name: ").append(foodName).append("\n");
+        email.append("   • Quantity: ").append(quantity).append(" ").append(unit != null ? unit : "servings").append("\n");
+        email.append("   • Category: ").append(category).append("\n");
+        email.append("   • Time Remaining: ").append(hoursLeft).append(" hours\n");
+        if (!urgency.isEmpty()) {
+            email.append("   • Urgency: ").append(urgency).append("\n");
+        }
+        email.append("\n");
+        email.append("📍 Restaurant Information:\n");
+        email.append("   • Name: ").append(restaurantName).append("\n");
+        if (restaurantAddress != null && !restaurantAddress.isEmpty()) {
+            email.append("   • Address: ").append(restaurantAddress).append("\n");
+        }
+        if (restaurantPhone != null && !restaurantPhone.isEmpty()) {
+            email.append("   • Phone: ").append(restaurantPhone).append("\n");
+        }
+        email.append("\n");
+        email.append("🚀 Next Steps:\n");
+        email.append("1. Login to ").append("FeedForward").append(" at ").append("http://localhost:3000").append("\n");
+        email.append("2. Browse available food listings\n");
+        email.append("3. Request the food you need\n");
+        email.append("4. Coordinate pickup with the restaurant\n\n");
+        email.append("Thank you for being part of the FeedForward community!\n\n");
+        email.append("Best regards,\n");
+        email.append("The FeedForward Team");
+        return email.toString();
+    }
+}
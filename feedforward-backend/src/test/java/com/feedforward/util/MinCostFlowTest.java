@@ -0,0 +1,90 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinCostFlowTest {
+
+    @Test
+    void testSolve_PrefersGlobalOptimumOverGreedy() {
+        // Listing A (10 servings) scores 90 at NGO X and 80 at NGO Y; listing B (10) only reaches X.
+        // Greedy sends A to X and strands B; the optimum sends A to Y and B to X.
+        MinCostFlow flow = new MinCostFlow(6);
+        int source = 0, sink = 1, a = 2, b = 3, x = 4, y = 5;
+        flow.addEdge(source, a, 10, 0);
+        flow.addEdge(source, b, 10, 0);
+        int ax = flow.addEdge(a, x, 10, 100 - 90);
+        int ay = flow.addEdge(a, y, 10, 100 - 80);
+        int bx = flow.addEdge(b, x, 10, 100 - 70);
+        flow.addEdge(x, sink, 10, 0);
+        flow.addEdge(y, sink, 10, 0);
+
+        MinCostFlow.Result result = flow.solve(source, sink);
+
+        assertEquals(20, result.flow());
+        assertEquals(0, flow.flow(ax));
+        assertEquals(10, flow.flow(ay));
+        assertEquals(10, flow.flow(bx));
+        assertEquals(10 * 20 + 10 * 30, result.cost());
+    }
+
+    @Test
+    void testSolve_MatchesBruteForceOnSmallAssignments() {
+        Random random = new Random(8);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + random.nextInt(4);
+            long[][] cost = new long[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    cost[i][j] = random.nextInt(100);
+                }
+            }
+
+            MinCostFlow flow = new MinCostFlow(2 + 2 * n);
+            for (int i = 0; i < n; i++) {
+                flow.addEdge(0, 2 + i, 1, 0);
+                flow.addEdge(2 + n + i, 1, 1, 0);
+                for (int j = 0; j < n; j++) {
+                    flow.addEdge(2 + i, 2 + n + j, 1, cost[i][j]);
+                }
+            }
+            MinCostFlow.Result result = flow.solve(0, 1);
+
+            assertEquals(n, result.flow());
+            assertEquals(bestAssignment(cost, 0, new boolean[n]), result.cost());
+        }
+    }
+
+    @Test
+    void testSolve_RespectsCapacities() {
+        MinCostFlow flow = new MinCostFlow(4);
+        int in = flow.addEdge(0, 2, 7, 0);
+        int mid = flow.addEdge(2, 3, 100, 5);
+        flow.addEdge(3, 1, 4, 0);
+
+        MinCostFlow.Result result = flow.solve(0, 1);
+
+        assertEquals(4, result.flow());
+        assertEquals(4, flow.flow(in));
+        assertEquals(4, flow.flow(mid));
+        assertEquals(20, result.cost());
+    }
+
+    private static long bestAssignment(long[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        for (int j = 0; j < cost.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bestAssignment(cost, row + 1, used));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,132 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.FoodCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NgoCatalogTest {
+
+    @Test
+    void testFindWithinRadius_MatchesBruteForce() {
+        Random random = new Random(7);
+        int count = 3000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        String[] requirements = {null, "Vegetarian Only", "Non-Veg OK", "Gluten-Free", "All types"};
+
+        NgoCatalog.Builder builder = NgoCatalog.builder();
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = 13.0827 + (random.nextDouble() - 0.5) * 1.0;
+            longitudes[i] = 80.2707 + (random.nextDouble() - 0.5) * 1.0;
+            NgoCatalog.Contact contact = new NgoCatalog.Contact(
+                    i + 1, "NGO " + i, "Chennai", null, null, requirements[i % requirements.length], null, null);
+            builder.add(latitudes[i], longitudes[i], 100, contact);
+        }
+        NgoCatalog catalog = builder.build();
+
+        int vegOnly = DietaryTaxonomy.requiredMask(FoodCategory.COOKED_RICE);
+        for (int q = 0; q < 40; q++) {
+            double lat = 13.0827 + (random.nextDouble() - 0.5) * 0.8;
+            double lon = 80.2707 + (random.nextDouble() - 0.5) * 0.8;
+            for (double radius : new double[]{1.0, 10.0, 25.0}) {
+                Set<Long> expected = new TreeSet<>();
+                for (int i = 0; i < count; i++) {
+                    if (GeoDistance.distanceKm(lat, lon, latitudes[i], longitudes[i]) <= radius &&
+                            DietaryTaxonomy.acceptsListing(
+                                    DietaryTaxonomy.ngoMask(requirements[i % requirements.length]),
+                                    DietaryTaxonomy.listingMask(FoodCategory.COOKED_RICE, null))) {
+                        expected.add(i + 1L);
+                    }
+                }
+                assertEquals(expected, ids(catalog, lat, lon, radius, vegOnly));
+            }
+        }
+    }
+
+    @Test
+    void testCandidates_ReportDistanceAndContact() {
+        NgoCatalog catalog = NgoCatalog.builder()
+                .add(13.10, 80.30, 40, new NgoCatalog.Contact(1, "Far", "A", "9876543210", "far@ngo.org", null,
+                        "+919876543210", "far@ngo.org"))
+                .add(13.0827, 80.2707, 60, new NgoCatalog.Contact(2, "Here", "B", null, null, "Veg, Jain", null, null))
+                .build();
+
+        assertEquals(2, catalog.findWithinRadius(13.0827, 80.2707, 10.0, 0).count());
+
+        NgoCatalog.Candidates nearest = catalog.findNearest(13.0827, 80.2707, 1, 10.0, 0);
+        assertEquals(1, nearest.count());
+        int row = nearest.rows()[0];
+        assertEquals(2L, catalog.ngoId(row));
+        assertEquals("Here", catalog.contact(row).organizationName());
+        assertEquals(60, catalog.beneficiaries(row));
+        assertEquals(DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.JAIN, catalog.dietaryMask(row));
+        assertEquals(0.0, nearest.distancesKm()[0], 1e-9);
+
+        assertTrue(catalog.isRegisteredNear(" far ", 13.0827, 80.2707, 10.0));
+        assertFalse(catalog.isRegisteredNear("Far", 12.9716, 77.5946, 10.0));
+    }
+
+    @Test
+    void testWithNgo_ReplacesAddsAndRemovesRows() {
+        NgoCatalog catalog = NgoCatalog.builder()
+                .add(13.10, 80.30, 40, new NgoCatalog.Contact(1, "Far", "A", null, null, null, null, null))
+                .add(13.0827, 80.2707, 60, new NgoCatalog.Contact(2, "Here", "B", null, null, null, null, null))
+                .build();
+
+        // NGO 1 moves next to the origin and NGO 3 registers; the original snapshot is untouched
+        NgoCatalog updated = catalog
+                .withNgo(13.0830, 80.2710, 90, DietaryTaxonomy.ACCEPTS_ALL,
+                        new NgoCatalog.Contact(1, "Moved", "A", null, null, null, null, null))
+                .withNgo(13.0900, 80.2800, 10, DietaryTaxonomy.ACCEPTS_ALL,
+                        new NgoCatalog.Contact(3, "New", "C", null, null, null, null, null));
+        assertEquals(3, updated.size());
+        assertEquals(Set.of(1L, 2L), ids(updated, 13.0827, 80.2707, 0.1, 0));
+        assertEquals(Set.of(2L), ids(catalog, 13.0827, 80.2707, 0.1, 0));
+        assertTrue(updated.isRegisteredNear("moved", 13.0827, 80.2707, 1.0));
+        assertFalse(updated.isRegisteredNear("far", 13.0827, 80.2707, 10.0));
+
+        NgoCatalog removed = updated.withoutNgo(2);
+        assertEquals(Set.of(1L, 3L), ids(removed, 13.0827, 80.2707, 10.0, 0));
+        assertSame(removed, removed.withoutNgo(2));
+    }
+
+    @Test
+    void testDietaryTaxonomy_AcceptanceMask() {
+        assertEquals(DietaryTaxonomy.ACCEPTS_ALL, DietaryTaxonomy.acceptanceMask(null));
+        assertEquals(DietaryTaxonomy.ACCEPTS_ALL, DietaryTaxonomy.acceptanceMask("Non-Veg OK"));
+        assertEquals(DietaryTaxonomy.ACCEPTS_VEG, DietaryTaxonomy.acceptanceMask("Vegetarian Only"));
+        assertEquals(0, DietaryTaxonomy.acceptanceMask("Gluten-Free"));
+        assertTrue(DietaryTaxonomy.acceptsListing(DietaryTaxonomy.ACCEPTS_VEG,
+                DietaryTaxonomy.listingMask(FoodCategory.PROTEINS, null)));
+    }
+
+    @Test
+    void testDietaryTaxonomy_StoredMasks() {
+        int veganNgo = DietaryTaxonomy.ngoMask("Vegetarian only, vegan, no nuts");
+        assertEquals(DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.VEGAN | DietaryTaxonomy.NUT_FREE, veganNgo);
+        assertEquals(DietaryTaxonomy.ACCEPTS_ALL, DietaryTaxonomy.ngoMask(null));
+
+        int veganRice = DietaryTaxonomy.listingMask(FoodCategory.COOKED_RICE, "Vegan, Gluten-free");
+        assertEquals(DietaryTaxonomy.ACCEPTS_VEG | DietaryTaxonomy.VEGAN | DietaryTaxonomy.GLUTEN_FREE, veganRice);
+        assertTrue(DietaryTaxonomy.acceptsListing(veganNgo, veganRice));
+
+        int chickenRice = DietaryTaxonomy.listingMask(FoodCategory.COOKED_RICE, "Non-veg (chicken)");
+        assertEquals(DietaryTaxonomy.ACCEPTS_NON_VEG, DietaryTaxonomy.foodKind(chickenRice));
+        assertFalse(DietaryTaxonomy.acceptsListing(veganNgo, chickenRice));
+        assertTrue(DietaryTaxonomy.acceptsListing(DietaryTaxonomy.ngoMask("Non-Veg OK"), chickenRice));
+    }
+
+    private static Set<Long> ids(NgoCatalog catalog, double lat, double lon, double radiusKm, int requiredMask) {
+        NgoCatalog.Candidates candidates = catalog.findWithinRadius(lat, lon, radiusKm, requiredMask);
+        Set<Long> result = new TreeSet<>();
+        for (int i = 0; i < candidates.count(); i++) {
+            result.add(catalog.ngoId(candidates.rows()[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NgoDemandTrackerTest {
+
+    @Test
+    void testRequestLifecycle() {
+        NgoDemandTracker tracker = new NgoDemandTracker();
+        tracker.add(1L, 20, 0, 0);   // requested
+        tracker.add(1L, 30, 0, 0);   // requested
+        tracker.add(1L, -20, 20, 0); // approved
+        assertEquals(30, tracker.pending(1L));
+        assertEquals(20, tracker.approved(1L));
+
+        tracker.add(1L, 0, -20, 18); // completed with 18 received
+        tracker.add(1L, -30, 0, 0);  // rejected
+        assertEquals(0, tracker.pending(1L));
+        assertEquals(0, tracker.approved(1L));
+        assertEquals(18, tracker.outstanding(1L));
+        assertEquals(0, tracker.outstanding(2L));
+    }
+
+    @Test
+    void testSaturation() {
+        NgoDemandTracker tracker = new NgoDemandTracker();
+        assertEquals(0.0, tracker.saturation(1L, 100), 1e-9);
+
+        tracker.add(1L, 25, 0, 0);
+        assertEquals(0.25, tracker.saturation(1L, 100), 1e-9);
+
+        tracker.add(1L, 0, 200, 0);
+        assertEquals(1.0, tracker.saturation(1L, 100), 1e-9);
+        assertEquals(1.0, tracker.saturation(1L, 0), 1e-9);
+    }
+
+    @Test
+    void testConcurrentUpdates() throws InterruptedException {
+        NgoDemandTracker tracker = new NgoDemandTracker();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int task = 0; task < 8; task++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    long ngoId = i % 4;
+                    tracker.add(ngoId, 1, 0, 0);
+                    tracker.add(ngoId, -1, 1, 0);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (long ngoId = 0; ngoId < 4; ngoId++) {
+            assertEquals(0, tracker.pending(ngoId));
+            assertEquals(20000, tracker.approved(ngoId));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PairDistanceMapTest {
+
+    @Test
+    void testPutGetAndRemove_MatchReferenceMap() {
+        Random random = new Random(3);
+        PairDistanceMap map = new PairDistanceMap();
+        Map<String, Double> reference = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            long restaurantId = 1 + random.nextInt(200);
+            long ngoId = 1 + random.nextInt(300);
+            double distance = random.nextDouble() * 50;
+            map.put(restaurantId, ngoId, distance);
+            reference.put(restaurantId + ":" + ngoId, distance);
+        }
+        assertEquals(reference.size(), map.size());
+
+        // Remove every pair of restaurant 17 and NGO 42, and a random sample of the rest
+        for (long restaurantId = 1; restaurantId <= 200; restaurantId++) {
+            for (long ngoId = 1; ngoId <= 300; ngoId++) {
+                boolean drop = restaurantId == 17 || ngoId == 42 || random.nextInt(4) == 0;
+                if (drop) {
+                    boolean stored = reference.remove(restaurantId + ":" + ngoId) != null;
+                    assertEquals(stored, map.remove(restaurantId, ngoId));
+                }
+            }
+        }
+        assertFalse(map.remove(17, 1));
+        assertEquals(reference.size(), map.size());
+
+        for (long restaurantId = 1; restaurantId <= 200; restaurantId++) {
+            for (long ngoId = 1; ngoId <= 300; ngoId++) {
+                Double expected = reference.get(restaurantId + ":" + ngoId);
+                double actual = map.get(restaurantId, ngoId);
+                if (expected == null) {
+                    assertTrue(Double.isNaN(actual));
+                } else {
+                    assertEquals(expected, actual, 0.0);
+                }
+            }
+        }
+
+        int[] visited = {0};
+        map.forEach((restaurantId, ngoId, distanceKm) -> {
+            assertEquals(reference.get(restaurantId + ":" + ngoId), distanceKm, 0.0);
+            visited[0]++;
+        });
+        assertEquals(reference.size(), visited[0]);
+    }
+
+    @Test
+    void testGet_UnknownOrOutOfRangeIds() {
+        PairDistanceMap map = new PairDistanceMap();
+        map.put(Integer.MAX_VALUE, 1, 2.5);
+
+        assertEquals(2.5, map.get(Integer.MAX_VALUE, 1), 0.0);
+        assertTrue(Double.isNaN(map.get(1, Integer.MAX_VALUE)));
+        assertTrue(Double.isNaN(map.get(0, 1)));
+        assertTrue(Double.isNaN(map.get(1L << 40, 1)));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1, 1.0));
+    }
+}
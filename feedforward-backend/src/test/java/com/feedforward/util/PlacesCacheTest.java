@@ -0,0 +1,84 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacesCacheTest {
+
+    private static final long TTL = 60_000L;
+
+    @Test
+    void testKey_QuantizesCellAndRadius() {
+        // A few metres apart share a level 14 cell; radii in the same bucket share a key
+        assertEquals(PlacesCache.key("ngo", 13.0827, 80.2707, 5.0, 14),
+                PlacesCache.key("ngo", 13.0828, 80.2708, 4.0, 14));
+        assertFalse(PlacesCache.key("ngo", 13.0827, 80.2707, 5.0, 14)
+                .equals(PlacesCache.key("ngo", 13.0827, 80.2707, 6.0, 14)));
+        assertFalse(PlacesCache.key("ngo", 13.0827, 80.2707, 5.0, 14)
+                .equals(PlacesCache.key("restaurant", 13.0827, 80.2707, 5.0, 14)));
+        assertEquals(50.0, PlacesCache.radiusBucketKm(120.0));
+    }
+
+    @Test
+    void testGet_ExpiresAndEvictsLeastRecentlyUsed() {
+        AtomicLong clock = new AtomicLong();
+        PlacesCache<String> cache = new PlacesCache<>(TTL, 2, null,
+                Function.identity(), Function.identity(), clock::get);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+        assertNull(cache.get("b"), "least recently used entry evicted");
+        assertEquals("A", cache.get("a"));
+
+        clock.addAndGet(TTL);
+        assertNull(cache.get("a"));
+
+        PlacesCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(0.5, stats.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void testLoad_ReplaysFileAcrossRestarts() throws Exception {
+        Path file = Files.createTempFile("places-cache", ".log");
+        try {
+            AtomicLong clock = new AtomicLong(1_000L);
+            PlacesCache<String> first = new PlacesCache<>(TTL, 10, file,
+                    Function.identity(), Function.identity(), clock::get);
+            first.put("a", "old");
+            first.put("a", "new");
+            first.put("b", "B");
+            clock.addAndGet(TTL / 2);
+            first.put("c", "C");
+            first.close();
+            Files.writeString(file, "torn line", StandardOpenOption.APPEND);
+
+            // "a" and "b" have expired by now; the last line for a key wins
+            clock.addAndGet(TTL / 2);
+            PlacesCache<String> second = new PlacesCache<>(TTL, 10, file,
+                    Function.identity(), Function.identity(), clock::get);
+            assertEquals(1, second.load());
+            assertNull(second.get("a"));
+            assertEquals("C", second.get("c"));
+
+            // Loading compacted the file down to the live entry
+            assertEquals(List.of("c"), Files.readAllLines(file).stream()
+                    .map(line -> line.split("\t")[1]).toList());
+            second.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
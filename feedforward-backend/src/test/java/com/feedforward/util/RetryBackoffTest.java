@@ -0,0 +1,29 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBackoffTest {
+
+    @Test
+    void testDelay_DoublesUntilCap() {
+        assertEquals(30_000, RetryBackoff.delayMillis(1, 30_000, 3_600_000));
+        assertEquals(60_000, RetryBackoff.delayMillis(2, 30_000, 3_600_000));
+        assertEquals(240_000, RetryBackoff.delayMillis(4, 30_000, 3_600_000));
+        assertEquals(3_600_000, RetryBackoff.delayMillis(10, 30_000, 3_600_000));
+    }
+
+    @Test
+    void testDelay_LargeAttemptDoesNotOverflow() {
+        assertEquals(3_600_000, RetryBackoff.delayMillis(100, 30_000, 3_600_000));
+        assertEquals(1L << 62, RetryBackoff.delayMillis(Integer.MAX_VALUE, 1, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testJitter_StaysWithinShare() {
+        assertEquals(60_000, RetryBackoff.jitteredDelayMillis(2, 30_000, 3_600_000, 0.2, 0.0));
+        assertEquals(48_000, RetryBackoff.jitteredDelayMillis(2, 30_000, 3_600_000, 0.2, 1.0));
+        assertEquals(54_000, RetryBackoff.jitteredDelayMillis(2, 30_000, 3_600_000, 0.2, 0.5));
+    }
+}
@@ -0,0 +1,73 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SphericalKdTreeTest {
+
+    @Test
+    void testNearest_MatchesBruteForce() {
+        Random random = new Random(11);
+        int count = 4000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = 13.0827 + (random.nextDouble() - 0.5) * 0.6;
+            longitudes[i] = 80.2707 + (random.nextDouble() - 0.5) * 0.6;
+        }
+        SphericalKdTree tree = SphericalKdTree.build(latitudes, longitudes);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 13.0827 + (random.nextDouble() - 0.5) * 0.8;
+            double lon = 80.2707 + (random.nextDouble() - 0.5) * 0.8;
+            for (int k : new int[]{1, 10, 50}) {
+                for (double radius : new double[]{2.0, 10.0, 100.0}) {
+                    // Only even items are accepted
+                    SphericalKdTree.Neighbors neighbors = tree.nearest(lat, lon, k, radius, item -> item % 2 == 0);
+                    int[] expected = IntStream.range(0, count)
+                            .filter(i -> i % 2 == 0)
+                            .filter(i -> distance(lat, lon, latitudes, longitudes, i) <= radius)
+                            .boxed()
+                            .sorted(Comparator.comparingDouble(i -> distance(lat, lon, latitudes, longitudes, i)))
+                            .limit(k)
+                            .mapToInt(Integer::intValue)
+                            .toArray();
+
+                    assertEquals(expected.length, neighbors.count());
+                    for (int i = 0; i < expected.length; i++) {
+                        assertEquals(distance(lat, lon, latitudes, longitudes, expected[i]),
+                                neighbors.distancesKm()[i], 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNearest_AcrossAntimeridian() {
+        double[] latitudes = {0.0, 0.0, 0.0};
+        double[] longitudes = {179.99, -179.99, 170.0};
+        SphericalKdTree tree = SphericalKdTree.build(latitudes, longitudes);
+
+        SphericalKdTree.Neighbors neighbors = tree.nearest(0.0, -179.995, 3, 50.0, null);
+
+        assertEquals(2, neighbors.count());
+        assertEquals(Arrays.asList(1, 0), Arrays.asList(neighbors.items()[0], neighbors.items()[1]));
+    }
+
+    @Test
+    void testNearest_EmptyTree() {
+        SphericalKdTree tree = SphericalKdTree.build(new double[0], new double[0]);
+        assertEquals(0, tree.nearest(13.0, 80.0, 5, 10.0, null).count());
+    }
+
+    private static double distance(double lat, double lon, double[] latitudes, double[] longitudes, int i) {
+        return GeoDistance.distanceKm(lat, lon, latitudes[i], longitudes[i]);
+    }
+}
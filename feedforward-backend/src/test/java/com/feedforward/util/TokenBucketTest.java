@@ -0,0 +1,52 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void testBurstThenRefill() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(1), "burst permit " + i);
+        }
+        assertFalse(bucket.tryAcquire(1));
+
+        // 10 permits/s: one permit every 100 ms
+        clock.addAndGet(100_000_000L);
+        assertTrue(bucket.tryAcquire(1));
+        assertFalse(bucket.tryAcquire(1));
+
+        // Refill stops at the burst capacity
+        clock.addAndGet(60_000_000_000L);
+        assertEquals(5.0, bucket.availableTokens(), 1e-9);
+    }
+
+    @Test
+    void testReserve_QueuesCallersInOrder() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+
+        assertEquals(0, bucket.reserve(1));
+        assertEquals(100_000_000L, bucket.reserve(1));
+        assertEquals(200_000_000L, bucket.reserve(1));
+
+        clock.addAndGet(200_000_000L);
+        assertEquals(100_000_000L, bucket.reserve(1));
+    }
+
+    @Test
+    void testNonPositiveRate_DisablesLimit() {
+        TokenBucket bucket = new TokenBucket(0, 1, () -> 0L);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(bucket.tryAcquire(1));
+            assertEquals(0, bucket.reserve(1));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.feedforward.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void testDrain_MatchesFullSort() {
+        Random random = new Random(10);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = random.nextInt(200);
+            int k = random.nextInt(8);
+            int[] scores = new int[n];
+            double[] distances = new double[n];
+            TopKSelector top = new TopKSelector(k);
+            for (int i = 0; i < n; i++) {
+                scores[i] = random.nextInt(20);
+                distances[i] = random.nextInt(50) / 2.0 + i * 1e-9;
+                top.offer(i, scores[i], distances[i]);
+            }
+
+            int[] expected = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(i -> -scores[i]).thenComparingDouble(i -> distances[i]))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, top.drain(), "trial " + trial);
+            assertEquals(0, top.size());
+        }
+    }
+
+    @Test
+    void testOffer_ZeroCapacityKeepsNothing() {
+        TopKSelector top = new TopKSelector(0);
+        top.offer(1, 100, 0.5);
+        assertEquals(0, top.size());
+        assertEquals(0, top.drain().length);
+    }
+
+    @Test
+    void testDrain_FewerItemsThanCapacity() {
+        TopKSelector top = new TopKSelector(5);
+        top.offer(7, 40, 3.0);
+        top.offer(8, 90, 9.0);
+        top.offer(9, 40, 1.0);
+        assertTrue(Arrays.equals(new int[]{8, 9, 7}, top.drain()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.feedforward.util;
+
+import com.feedforward.enums.UrgencyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrgencyBucketsTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Test
+    void testLevelAt_Boundaries() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        assertEquals(UrgencyLevel.CRITICAL, UrgencyBuckets.levelAt(now.minusMinutes(5), now));
+        assertEquals(UrgencyLevel.CRITICAL, UrgencyBuckets.levelAt(now.plusMinutes(59), now));
+        assertEquals(UrgencyLevel.HIGH, UrgencyBuckets.levelAt(now.plusHours(1), now));
+        assertEquals(UrgencyLevel.MEDIUM, UrgencyBuckets.levelAt(now.plusHours(2), now));
+        assertEquals(UrgencyLevel.MEDIUM, UrgencyBuckets.levelAt(now.plusHours(4).minusSeconds(1), now));
+        assertEquals(UrgencyLevel.LOW, UrgencyBuckets.levelAt(now.plusHours(4), now));
+    }
+
+    @Test
+    void testAdvance_MatchesRecomputingEveryListing() {
+        Random random = new Random(13);
+        long start = 1_700_000_000_000L;
+        UrgencyBuckets buckets = new UrgencyBuckets(start);
+        Map<Long, Long> expiries = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            long expiry = start + random.nextInt((int) (6 * HOUR));
+            expiries.put(id, expiry);
+            assertEquals(UrgencyBuckets.levelAt(expiry, start), buckets.track(id, expiry, start));
+        }
+
+        Map<Long, UrgencyLevel> stored = new HashMap<>();
+        expiries.forEach((id, expiry) -> stored.put(id, UrgencyBuckets.levelAt(expiry, start)));
+
+        // Irregular ticks, including one long pause
+        long now = start;
+        for (int tick = 0; tick < 200; tick++) {
+            now += tick == 100 ? 2 * HOUR : 1 + random.nextInt((int) (3 * MINUTE));
+            UrgencyBuckets.Changes changes = buckets.advance(now);
+            changes.changed().forEach((level, ids) -> ids.forEach(id -> stored.put(id, level)));
+            changes.expired().forEach(stored::remove);
+
+            for (Map.Entry<Long, Long> entry : expiries.entrySet()) {
+                long id = entry.getKey();
+                if (entry.getValue() <= now) {
+                    assertNull(buckets.level(id));
+                    assertFalse(stored.containsKey(id), "expired listing " + id + " not reported");
+                } else {
+                    UrgencyLevel expected = UrgencyBuckets.levelAt(entry.getValue(), now);
+                    assertEquals(expected, buckets.level(id), "listing " + id + " at tick " + tick);
+                    assertEquals(expected, stored.get(id), "change of listing " + id + " not reported");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAdvance_ReportsOnlyChanges() {
+        long start = 1_700_000_000_000L;
+        UrgencyBuckets buckets = new UrgencyBuckets(start);
+        buckets.track(1L, start + 5 * HOUR, start);
+        buckets.track(2L, start + 90 * MINUTE, start);
+
+        UrgencyBuckets.Changes changes = buckets.advance(start + 30 * MINUTE);
+        assertEquals(0, changes.changedCount());
+
+        changes = buckets.advance(start + HOUR + MINUTE);
+        assertEquals(List.of(1L), changes.changed().get(UrgencyLevel.MEDIUM));
+        assertEquals(List.of(2L), changes.changed().get(UrgencyLevel.CRITICAL));
+        assertEquals(2, changes.changedCount());
+    }
+
+    @Test
+    void testTrack_SkipsExpiredAndUntrack() {
+        long start = 1_700_000_000_000L;
+        UrgencyBuckets buckets = new UrgencyBuckets(start);
+        assertEquals(UrgencyLevel.CRITICAL, buckets.track(1L, start - MINUTE, start));
+        assertNull(buckets.level(1L));
+
+        buckets.track(2L, start + 3 * HOUR, start);
+        assertEquals(UrgencyLevel.MEDIUM, buckets.level(2L));
+        buckets.untrack(2L);
+        assertNull(buckets.level(2L));
+        assertEquals(0, buckets.size());
+        assertTrue(buckets.advance(start + 4 * HOUR).expired().isEmpty());
+    }
+}
@@ -5,6 +5,7 @@
 SET FOREIGN_KEY_CHECKS = 0;
 
 -- Truncate tables in correct order (child tables first, then parent tables)
+TRUNCATE TABLE notification_outbox;
 TRUNCATE TABLE donation_history;
 TRUNCATE TABLE food_requests;
 TRUNCATE TABLE food_listings;
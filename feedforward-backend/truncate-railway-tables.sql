@@ -3,6 +3,7 @@
 
 SET FOREIGN_KEY_CHECKS = 0;
 
+TRUNCATE TABLE notification_outbox;
 TRUNCATE TABLE donation_history;
 TRUNCATE TABLE food_requests;
 TRUNCATE TABLE food_listings;